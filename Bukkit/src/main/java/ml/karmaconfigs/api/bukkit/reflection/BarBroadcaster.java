@@ -0,0 +1,190 @@
+package ml.karmaconfigs.api.bukkit.reflection;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.karma.KarmaAPI;
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
+import ml.karmaconfigs.api.common.utils.string.StringUtils;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the action bars of every player from a single task.
+ * Each player has at most one bar; it is sent again when its
+ * message changes, or when the client is about to fade it out
+ */
+final class BarBroadcaster {
+
+    /**
+     * The time between broadcaster runs, one server tick
+     */
+    private final static long PERIOD = 50;
+
+    /**
+     * The time after which a bar is sent again, before
+     * the client fades it out
+     */
+    private final static long REFRESH = TimeUnit.SECONDS.toMillis(2);
+
+    /**
+     * The max amount of bars to refresh in a single run,
+     * changed bars are always sent
+     */
+    private final static int BATCH = 64;
+
+    /**
+     * A map that contains player id => player bar
+     */
+    private final static Map<UUID, Entry> bars = new ConcurrentHashMap<>();
+
+    /**
+     * The broadcaster task, only running while
+     * there are bars to send
+     */
+    private static ScheduledFuture<?> task = null;
+
+    /**
+     * Initialize the broadcaster
+     */
+    private BarBroadcaster() {}
+
+    /**
+     * Show a bar to its player, replacing the bar
+     * the player had
+     *
+     * @param bar the bar
+     * @param player the player
+     * @param repeats the times the bar is refreshed before
+     *                hiding it, or -1 to keep it until it's hidden
+     */
+    static void show(final BarMessage bar, final Player player, final int repeats) {
+        bars.put(player.getUniqueId(), new Entry(bar, player, repeats));
+        start();
+    }
+
+    /**
+     * Hide a bar, if it's still the bar of its player
+     *
+     * @param bar the bar
+     * @param player the player
+     */
+    static void hide(final BarMessage bar, final Player player) {
+        Entry entry = bars.get(player.getUniqueId());
+        if (entry != null && entry.bar == bar)
+            bars.remove(player.getUniqueId(), entry);
+    }
+
+    /**
+     * Start the broadcaster task if it's not running
+     */
+    private static synchronized void start() {
+        if (task == null || task.isDone())
+            task = WorkerPool.scheduleAtFixedRate(KarmaAPI.source(false), BarBroadcaster::run, 0, PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the broadcaster task if there are no bars
+     * left. This is checked under the same lock as
+     * {@link #start()}, so a bar shown meanwhile
+     * either keeps the task or starts a new one
+     */
+    private static synchronized void stop() {
+        if (task != null && bars.isEmpty()) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Send the bars that changed or are
+     * about to fade out, and stop the broadcaster
+     * when no bars are left
+     */
+    private static void run() {
+        long now = System.currentTimeMillis();
+        int refreshed = 0;
+
+        for (Entry entry : bars.values()) {
+            if (!entry.player.isOnline()) {
+                bars.remove(entry.player.getUniqueId(), entry);
+                continue;
+            }
+
+            String message = entry.bar.getMessage();
+            int hash = (message != null ? message.hashCode() : 0);
+
+            if (entry.sent_at != 0 && hash == entry.hash) {
+                if (now - entry.sent_at < REFRESH || refreshed >= BATCH)
+                    continue;
+
+                if (entry.remaining != -1 && --entry.remaining <= 0) {
+                    bars.remove(entry.player.getUniqueId(), entry);
+                    continue;
+                }
+                refreshed++;
+            }
+
+            PacketBridge.actionBar(entry.player, StringUtils.toColor(message != null ? message : ""));
+            entry.hash = hash;
+            entry.sent_at = now;
+            entry.bar.markSent();
+        }
+
+        if (bars.isEmpty())
+            stop();
+    }
+
+    /**
+     * A player bar
+     */
+    private final static class Entry {
+
+        private final BarMessage bar;
+        private final Player player;
+
+        private int remaining;
+        private int hash = 0;
+        private long sent_at = 0;
+
+        /**
+         * Initialize the player bar
+         *
+         * @param b the bar
+         * @param p the player
+         * @param repeats the times the bar is refreshed
+         */
+        Entry(final BarMessage b, final Player p, final int repeats) {
+            bar = b;
+            player = p;
+            remaining = repeats;
+        }
+    }
+}
@@ -25,33 +25,19 @@ package ml.karmaconfigs.api.bukkit.reflection;
  *  SOFTWARE.
  */
 
-import ml.karmaconfigs.api.bukkit.server.BukkitServer;
-import ml.karmaconfigs.api.common.utils.string.StringUtils;
-import net.md_5.bungee.api.ChatMessageType;
-import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Constructor;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
-
 /**
  * Action bar message
  */
 public final class BarMessage {
 
-    private final static Map<UUID, BarMessage> data = new ConcurrentHashMap<>();
-
     private final Player player;
 
-    private String message;
+    private volatile String message;
 
-    private boolean sent = false;
-    private boolean send = false;
-
-    private int remaining = 0;
+    private volatile boolean sent = false;
 
     /**
      * Initialize the ActionBar class
@@ -64,32 +50,6 @@ public final class BarMessage {
         message = m;
     }
 
-    /**
-     * Send the action bar
-     */
-    private void send() {
-        String msg = StringUtils.toColor(message);
-        try {
-            Constructor<?> constructor = Objects.requireNonNull(BukkitServer.getMinecraftClass("PacketPlayOutChat")).getConstructor(BukkitServer.getMinecraftClass("IChatBaseComponent"), byte.class);
-
-            Object icbc = Objects.requireNonNull(BukkitServer.getMinecraftClass("IChatBaseComponent")).getDeclaredClasses()[0].getMethod("a", String.class).invoke(null, "{\"text\":\"" + msg + "\"}");
-            Object packet = constructor.newInstance(icbc, (byte) 2);
-            Object entityPlayer = player.getClass().getMethod("getHandle").invoke(player);
-            Object playerConnection = entityPlayer.getClass().getField("playerConnection").get(entityPlayer);
-
-            playerConnection.getClass().getMethod("sendPacket", BukkitServer.getMinecraftClass("Packet")).invoke(playerConnection, packet);
-            sent = true;
-        } catch (Throwable ex) {
-            try {
-                player.spigot().sendMessage(ChatMessageType.ACTION_BAR, UUID.randomUUID(), TextComponent.fromLegacyText(msg));
-                sent = true;
-            } catch (Throwable exc) {
-                player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(msg));
-                sent = true;
-            }
-        }
-    }
-
     /**
      * Send the message until you tell it to stop
      *
@@ -97,26 +57,8 @@ public final class BarMessage {
      *                   until you order stopping
      */
     public void send(final boolean persistent) {
-        if (player != null && player.isOnline()) {
-            BarMessage stored = data.getOrDefault(player.getUniqueId(), null);
-            if (stored != null) {
-                stored.stop();
-            }
-
-            send = persistent;
-            Timer timer = new Timer();
-            timer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    if (!send)
-                        cancel();
-
-                    send();
-                }
-            }, 0, TimeUnit.SECONDS.toMillis(1));
-
-            data.put(player.getUniqueId(), this);
-        }
+        if (player != null && player.isOnline())
+            BarBroadcaster.show(this, player, (persistent ? -1 : 1));
     }
 
     /**
@@ -125,36 +67,8 @@ public final class BarMessage {
      * @param repeats the amount of times to send it
      */
     public void send(final int repeats) {
-        if (player != null && player.isOnline()) {
-            BarMessage stored = data.getOrDefault(player.getUniqueId(), null);
-            if (stored != null) {
-                stored.stop();
-                stored.remaining = 0;
-            }
-
-            remaining = repeats;
-            send = true;
-            Timer timer = new Timer();
-            timer.schedule(new TimerTask() {
-                int repeated = 0;
-
-                @Override
-                public void run() {
-                    if (!send)
-                        stop();
-
-                    repeated++;
-                    send();
-                    if (repeated >= remaining) {
-                        cancel();
-                    }
-                }
-            }, 0, TimeUnit.SECONDS.toMillis(2));
-
-            if (stored != null) {
-                data.put(player.getUniqueId(), this);
-            }
-        }
+        if (player != null && player.isOnline())
+            BarBroadcaster.show(this, player, Math.max(1, repeats));
     }
 
     /**
@@ -166,11 +80,21 @@ public final class BarMessage {
         message = _message;
     }
 
+    /**
+     * Get the actionbar message
+     *
+     * @return the actionbar message
+     */
+    String getMessage() {
+        return message;
+    }
+
     /**
      * Stop sending the action bar
      */
     public void stop() {
-        send = false;
+        if (player != null)
+            BarBroadcaster.hide(this, player);
     }
 
     /**
@@ -181,4 +105,11 @@ public final class BarMessage {
     public boolean isSent() {
         return sent;
     }
+
+    /**
+     * Mark the bar as sent
+     */
+    void markSent() {
+        sent = true;
+    }
 }
@@ -88,22 +88,6 @@ public final class BossMessage extends BossProvider<Player> {
      * Craft world
      */
     private static Class<?> craft_world;
-    /**
-     * Craft player
-     */
-    private static Class<?> craft_player;
-    /**
-     * Packet
-     */
-    private static Class<?> packet_class;
-    /**
-     * Connection packet
-     */
-    private static Class<?> packet_connection;
-    /**
-     * Destroy packet
-     */
-    private static Class<?> packet_play_out_destroy;
 
     /**
      * Create wither
@@ -117,19 +101,27 @@ public final class BossMessage extends BossProvider<Player> {
      * Teleport entity
      */
     private static Constructor<?> packet_play_teleport_constructor;
+    /**
+     * Destroy entity
+     */
+    private static Constructor<?> packet_play_destroy_constructor;
 
     /**
      * Craft world handler
      */
     private static Method craft_world_handle;
     /**
-     * Craft player handler
+     * Set wither name
+     */
+    private static Method wither_set_name_method;
+    /**
+     * Set wither invisible
      */
-    private static Method craft_player_handle;
+    private static Method wither_set_invisible_method;
     /**
-     * Send packet
+     * Get wither entity id
      */
-    private static Method packet_connect_send;
+    private static Method wither_get_id_method;
     /**
      * Set wither location
      */
@@ -206,18 +198,6 @@ public final class BossMessage extends BossProvider<Player> {
      * Boss bar teleport packet
      */
     private Object teleport_packet;
-    /**
-     * Craft player
-     */
-    private Object new_c_player;
-    /**
-     * Entity player
-     */
-    private Object new_e_player;
-    /**
-     * Player connection
-     */
-    private Object new_p_connection;
     /**
      * Destroy wither and boss bar
      */
@@ -335,14 +315,11 @@ public final class BossMessage extends BossProvider<Player> {
                         Object w_server = craft_world_handle.invoke(c_world);
                         Object wither = wither_constructor.newInstance(w_server);
 
-                        wither.getClass().getMethod("setCustomName", String.class).invoke(wither, message);
-                        wither.getClass().getMethod("setInvisible", Boolean.TYPE).invoke(wither, true);
-                        wither.getClass().getMethod("setLocation", Double.TYPE, Double.TYPE, Double.TYPE, Float.TYPE, Float.TYPE).invoke(wither, location.getX(), location.getY(), location.getZ(), 0, 0);
+                        wither_set_name_method.invoke(wither, message);
+                        wither_set_invisible_method.invoke(wither, true);
+                        wither_set_location_method.invoke(wither, location.getX(), location.getY(), location.getZ(), 0f, 0f);
                         
                         Object packet = entity_living_constructor.newInstance(wither);
-                        Object c_player = craft_player.cast(player);
-                        Object e_player = craft_player_handle.invoke(c_player);
-                        Object p_connection = e_player.getClass().getField("playerConnection").get(e_player);
 
                         wither_objects.put(id, wither);
                         bar_timer = new SourceScheduler(plugin, live_time, SchedulerUnit.SECOND, false).cancelUnloaded(false);
@@ -351,14 +328,9 @@ public final class BossMessage extends BossProvider<Player> {
                             if (showing.get()) {
                                 try {
                                     newLoc = player.getEyeLocation().add(player.getEyeLocation().getDirection().normalize().multiply(20).add(new Vector(0, 5, 0)));
-                                    wither_set_location_method.invoke(player, newLoc.getX(), newLoc.getY(), newLoc.getZ(), newLoc.getYaw(), newLoc.getPitch());
-                                    teleport_packet = packet_play_teleport_constructor.newInstance(player);
-                                    new_c_player = craft_player.cast(player);
-                                    new_e_player = craft_player_handle.invoke(new_c_player);
-                                    new_p_connection = new_e_player.getClass().getField("playerConnection").get(new_e_player);
-                                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                                    packet_connect_send.invoke(packet_connection.cast(new_p_connection), teleport_packet);
+                                    wither_set_location_method.invoke(wither, newLoc.getX(), newLoc.getY(), newLoc.getZ(), newLoc.getYaw(), newLoc.getPitch());
+                                    teleport_packet = packet_play_teleport_constructor.newInstance(wither);
+                                    PacketBridge.send(player, teleport_packet);
                                 } catch (Throwable ex) {
                                     ex.printStackTrace();
                                     bar_timer.cancel();
@@ -367,21 +339,13 @@ public final class BossMessage extends BossProvider<Player> {
                         }).endAction(() -> {
                             if (showing.get()) {
                                 try {
-                                    remove_wither = packet_play_out_destroy.getConstructor(BukkitServer.getMinecraftClass("EntityLiving"))
-                                            .newInstance(player.getUniqueId());
-                                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                                    craft_player = BukkitServer.getMinecraftClass("entity.CraftPlayer");
-                                    if (craft_player != null) {
-                                        new_c_player = craft_player.cast(player);
-                                        new_e_player = craft_player_handle.invoke(new_c_player);
-                                        new_p_connection = new_e_player.getClass().getField("playerConnection").get(new_e_player);
-                                        packet_connect_send.invoke(packet_connection.cast(new_p_connection), remove_wither);
-                                        boss_bars.remove(id);
-                                        wither_objects.remove(id);
-                                        shown.remove(player.getUniqueId());
-                                        --bars;
-                                    }
+                                    remove_wither = packet_play_destroy_constructor.newInstance((Object) new int[]{(int) wither_get_id_method.invoke(wither)});
+                                    PacketBridge.send(player, remove_wither);
+
+                                    boss_bars.remove(id);
+                                    wither_objects.remove(id);
+                                    shown.remove(player.getUniqueId());
+                                    --bars;
                                 } catch (Throwable ex2) {
                                     ex2.printStackTrace();
                                     bar_timer.cancel();
@@ -390,21 +354,13 @@ public final class BossMessage extends BossProvider<Player> {
                         }).cancelAction(time -> {
                             if (showing.get()) {
                                 try {
-                                    remove_wither = packet_play_out_destroy.getConstructor(BukkitServer.getMinecraftClass("EntityLiving"))
-                                            .newInstance(player.getUniqueId());
-                                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                                    craft_player = BukkitServer.getMinecraftClass("entity.CraftPlayer");
-                                    if (craft_player != null) {
-                                        new_c_player = craft_player.cast(player);
-                                        new_e_player = craft_player_handle.invoke(new_c_player);
-                                        new_p_connection = new_e_player.getClass().getField("playerConnection").get(new_e_player);
-                                        packet_connect_send.invoke(packet_connection.cast(new_p_connection), remove_wither);
-                                        boss_bars.remove(id);
-                                        wither_objects.remove(id);
-                                        shown.remove(player.getUniqueId());
-                                        --bars;
-                                    }
+                                    remove_wither = packet_play_destroy_constructor.newInstance((Object) new int[]{(int) wither_get_id_method.invoke(wither)});
+                                    PacketBridge.send(player, remove_wither);
+
+                                    boss_bars.remove(id);
+                                    wither_objects.remove(id);
+                                    shown.remove(player.getUniqueId());
+                                    --bars;
                                 } catch (Throwable ex3) {
                                     ex3.printStackTrace();
                                     bar_timer.cancel();
@@ -436,7 +392,7 @@ public final class BossMessage extends BossProvider<Player> {
                                     }
 
                                     if (!showing.get()) {
-                                        packet_connect_send.invoke(packet_connection.cast(p_connection), packet);
+                                        PacketBridge.send(player, packet);
                                         showing.set(true);
                                     }
                                 } catch (Throwable ex5) {
@@ -596,7 +552,7 @@ public final class BossMessage extends BossProvider<Player> {
             message = _message;
             if (isLegacy) {
                 final Object wither = wither_objects.get(id);
-                wither.getClass().getMethod("setCustomName", String.class).invoke(wither, StringUtils.toColor(message));
+                wither_set_name_method.invoke(wither, StringUtils.toColor(message));
             } else {
                 BossBar bar = (BossBar) wither_objects.get(id);
                 bar.setTitle(StringUtils.toColor(message));
@@ -684,20 +640,18 @@ public final class BossMessage extends BossProvider<Player> {
             if (entity_wither != null) {
                 Class<?> packet_entity_living_out = BukkitServer.getMinecraftClass("PacketPlayOutSpawnEntityLiving");
                 if (packet_entity_living_out != null) {
-                    craft_player = BukkitServer.getBukkitClass("entity.CraftPlayer");
-                    packet_class = BukkitServer.getMinecraftClass("Packet");
-                    packet_connection = BukkitServer.getMinecraftClass("PlayerConnection");
-                    packet_play_out_destroy = BukkitServer.getMinecraftClass("PacketPlayOutEntityDestroy");
+                    Class<?> packet_play_out_destroy = BukkitServer.getMinecraftClass("PacketPlayOutEntityDestroy");
                     Class<?> packet_play_teleport = BukkitServer.getMinecraftClass("PacketPlayOutEntityTeleport");
-                    if (packet_play_teleport != null) {
+                    if (packet_play_teleport != null && packet_play_out_destroy != null) {
                         wither_constructor = entity_wither.getConstructor(BukkitServer.getMinecraftClass("World"));
                         entity_living_constructor = packet_entity_living_out.getConstructor(BukkitServer.getMinecraftClass("EntityLiving"));
                         packet_play_teleport_constructor = packet_play_teleport.getConstructor(BukkitServer.getMinecraftClass("Entity"));
                         craft_world_handle = craft_world.getMethod("getHandle");
-                        craft_player_handle = craft_player.getMethod("getHandle");
-                        packet_connect_send = packet_connection.getMethod("sendPacket", packet_class);
-                        wither_set_location_method = entity_wither.getMethod("setLocation", Double.TYPE, Double.TYPE, Double.TYPE, Float.TYPE, Float.TYPE);
+                        packet_play_destroy_constructor = packet_play_out_destroy.getConstructor(int[].class);
                         wither_set_location_method = entity_wither.getMethod("setLocation", Double.TYPE, Double.TYPE, Double.TYPE, Float.TYPE, Float.TYPE);
+                        wither_set_name_method = entity_wither.getMethod("setCustomName", String.class);
+                        wither_set_invisible_method = entity_wither.getMethod("setInvisible", Boolean.TYPE);
+                        wither_get_id_method = entity_wither.getMethod("getId");
                         try {
                             wither_set_progress_method = entity_wither.getMethod("setProgress", Double.TYPE);
                         } catch (Throwable ex) {
@@ -0,0 +1,244 @@
+package ml.karmaconfigs.api.bukkit.reflection;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.bukkit.server.BukkitServer;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Sends action bars, titles and raw packets to players. The
+ * way to send them is resolved once for the running server
+ * version: the Spigot API when it supports the message, or
+ * cached method handles to the server packets otherwise
+ */
+final class PacketBridge {
+
+    /**
+     * If the Spigot API can send action bars
+     */
+    private final static boolean API_BAR = spigotBar();
+    /**
+     * If the Spigot API can send titles
+     */
+    private final static boolean API_TITLE = spigotTitle();
+
+    /**
+     * CraftPlayer#getHandle, as (Player) -> EntityPlayer
+     */
+    private final static MethodHandle PLAYER_HANDLE;
+    /**
+     * EntityPlayer#playerConnection, as (EntityPlayer) -> PlayerConnection
+     */
+    private final static MethodHandle PLAYER_CONNECTION;
+    /**
+     * PlayerConnection#sendPacket, as (PlayerConnection, Packet) -> void
+     */
+    private final static MethodHandle SEND_PACKET;
+    /**
+     * ChatSerializer#a, as (String) -> IChatBaseComponent
+     */
+    private final static MethodHandle CHAT_COMPONENT;
+    /**
+     * PacketPlayOutChat constructor, as (IChatBaseComponent, byte) -> Packet
+     */
+    private final static MethodHandle CHAT_PACKET;
+    /**
+     * PacketPlayOutTitle constructor, as (EnumTitleAction, IChatBaseComponent, int, int, int) -> Packet
+     */
+    private final static MethodHandle TITLE_PACKET;
+    /**
+     * The title and subtitle title actions
+     */
+    private final static Object TITLE_ACTION, SUBTITLE_ACTION;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        MethodHandle handle = null, connection = null, send = null;
+        try {
+            Method getHandle = BukkitServer.getBukkitClass("entity.CraftPlayer").getMethod("getHandle");
+            Field playerConnection = getHandle.getReturnType().getField("playerConnection");
+            Method sendPacket = playerConnection.getType().getMethod("sendPacket", BukkitServer.getMinecraftClass("Packet"));
+
+            handle = lookup.unreflect(getHandle).asType(MethodType.methodType(Object.class, Player.class));
+            connection = lookup.unreflectGetter(playerConnection).asType(MethodType.methodType(Object.class, Object.class));
+            send = lookup.unreflect(sendPacket).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (Throwable ignored) {}
+        PLAYER_HANDLE = handle;
+        PLAYER_CONNECTION = connection;
+        SEND_PACKET = send;
+
+        MethodHandle component = null;
+        Class<?> chat = BukkitServer.getMinecraftClass("IChatBaseComponent");
+        try {
+            component = lookup.unreflect(chat.getDeclaredClasses()[0].getMethod("a", String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+        } catch (Throwable ignored) {}
+        CHAT_COMPONENT = component;
+
+        MethodHandle bar = null;
+        if (!API_BAR) {
+            try {
+                bar = lookup.unreflectConstructor(BukkitServer.getMinecraftClass("PacketPlayOutChat").getConstructor(chat, byte.class))
+                        .asType(MethodType.methodType(Object.class, Object.class, byte.class));
+            } catch (Throwable ignored) {}
+        }
+        CHAT_PACKET = bar;
+
+        MethodHandle title = null;
+        Object titleAction = null, subtitleAction = null;
+        if (!API_TITLE) {
+            try {
+                Class<?> packet = BukkitServer.getMinecraftClass("PacketPlayOutTitle");
+                Class<?> action = packet.getDeclaredClasses()[0];
+
+                title = lookup.unreflectConstructor(packet.getConstructor(action, chat, int.class, int.class, int.class))
+                        .asType(MethodType.methodType(Object.class, Object.class, Object.class, int.class, int.class, int.class));
+                titleAction = action.getField("TITLE").get(null);
+                subtitleAction = action.getField("SUBTITLE").get(null);
+            } catch (Throwable ex) {
+                title = null;
+            }
+        }
+        TITLE_PACKET = title;
+        TITLE_ACTION = titleAction;
+        SUBTITLE_ACTION = subtitleAction;
+    }
+
+    /**
+     * Initialize the packet bridge
+     */
+    private PacketBridge() {}
+
+    /**
+     * Send an action bar
+     *
+     * @param player the player
+     * @param message the colored message
+     */
+    static void actionBar(final Player player, final String message) {
+        if (CHAT_PACKET != null && CHAT_COMPONENT != null) {
+            try {
+                if (send(player, (Object) CHAT_PACKET.invokeExact(component(message), (byte) 2)))
+                    return;
+            } catch (Throwable ignored) {}
+        }
+
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(message));
+    }
+
+    /**
+     * Send a title
+     *
+     * @param player the player
+     * @param title the colored title
+     * @param subtitle the colored subtitle
+     * @param fadeIn the ticks the title takes to show
+     * @param stay the ticks the title is shown
+     * @param fadeOut the ticks the title takes to hide
+     */
+    static void title(final Player player, final String title, final String subtitle, final int fadeIn, final int stay, final int fadeOut) {
+        if (TITLE_PACKET != null && CHAT_COMPONENT != null) {
+            try {
+                Object titlePacket = (Object) TITLE_PACKET.invokeExact(TITLE_ACTION, component(title), fadeIn, stay, fadeOut);
+                Object subtitlePacket = (Object) TITLE_PACKET.invokeExact(SUBTITLE_ACTION, component(subtitle), fadeIn, stay, fadeOut);
+
+                if (send(player, titlePacket) && send(player, subtitlePacket))
+                    return;
+            } catch (Throwable ignored) {}
+        }
+
+        player.sendTitle(title, subtitle, fadeIn, stay, fadeOut);
+    }
+
+    /**
+     * Send a server packet
+     *
+     * @param player the player
+     * @param packet the packet
+     * @return if the packet could be sent
+     */
+    static boolean send(final Player player, final Object packet) {
+        if (SEND_PACKET == null)
+            return false;
+
+        try {
+            Object connection = (Object) PLAYER_CONNECTION.invokeExact((Object) PLAYER_HANDLE.invokeExact(player));
+            SEND_PACKET.invokeExact(connection, packet);
+            return true;
+        } catch (Throwable ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Create a chat component
+     *
+     * @param text the component text
+     * @return the chat component
+     * @throws Throwable if the component could not be created
+     */
+    private static Object component(final String text) throws Throwable {
+        return (Object) CHAT_COMPONENT.invokeExact("{\"text\":\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+
+    /**
+     * Get if the Spigot API can send action bars
+     *
+     * @return if the Spigot API can send action bars
+     */
+    private static boolean spigotBar() {
+        try {
+            Player.Spigot.class.getMethod("sendMessage", ChatMessageType.class, BaseComponent[].class);
+            return true;
+        } catch (Throwable ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Get if the Spigot API can send titles
+     *
+     * @return if the Spigot API can send titles
+     */
+    private static boolean spigotTitle() {
+        try {
+            Player.class.getMethod("sendTitle", String.class, String.class, int.class, int.class, int.class);
+            return true;
+        } catch (Throwable ex) {
+            return false;
+        }
+    }
+}
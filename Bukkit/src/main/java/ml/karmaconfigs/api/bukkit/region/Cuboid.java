@@ -29,14 +29,19 @@ import ml.karmaconfigs.api.bukkit.KarmaPlugin;
 import ml.karmaconfigs.api.bukkit.region.corner.util.Corner;
 import ml.karmaconfigs.api.bukkit.region.dummy.BlockListener;
 import ml.karmaconfigs.api.bukkit.region.dummy.DummyListener;
+import ml.karmaconfigs.api.bukkit.region.dummy.RegionMembership;
+import ml.karmaconfigs.api.bukkit.region.operation.BulkOperation;
+import ml.karmaconfigs.api.bukkit.region.operation.RegionSnapshot;
 import ml.karmaconfigs.api.bukkit.region.wall.util.Wall;
 import ml.karmaconfigs.api.bukkit.region.wall.util.WallType;
+import ml.karmaconfigs.api.bukkit.util.BlockArea;
 import ml.karmaconfigs.api.common.ResourceDownloader;
 import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import ml.karmaconfigs.api.common.utils.url.URLUtils;
 import ml.karmaconfigs.api.common.utils.enums.Level;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
@@ -50,10 +55,12 @@ import org.bukkit.plugin.RegisteredListener;
 import java.io.File;
 import java.io.Serializable;
 import java.net.URL;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Karma cuboid region
@@ -67,7 +74,7 @@ public abstract class Cuboid implements Serializable {
     private static Listener dummy = null;
     private static Listener blocks = null;
 
-    private final static Set<Cuboid> regions = new HashSet<>();
+    private final static Set<Cuboid> regions = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     /**
      * Initialize the cuboid region
@@ -132,7 +139,7 @@ public abstract class Cuboid implements Serializable {
                                         manager.registerEvents(dummy, abc);
                                     }
                                     if (blocks == null) {
-                                        blocks = new DummyListener(abc);
+                                        blocks = new BlockListener();
                                         manager.registerEvents(blocks, abc);
                                     }
                                 } else {
@@ -152,13 +159,14 @@ public abstract class Cuboid implements Serializable {
                     manager.registerEvents(dummy, abc);
                 }
                 if (blocks == null) {
-                    blocks = new DummyListener(abc);
+                    blocks = new BlockListener();
                     manager.registerEvents(blocks, abc);
                 }
             }
         }
 
         regions.add(this);
+        RegionIndex.add(this);
     }
 
     /**
@@ -197,6 +205,75 @@ public abstract class Cuboid implements Serializable {
      */
     public abstract Iterator<Block> getBlocks();
 
+    /**
+     * Get the region block area. The area can be
+     * walked by block coordinates, or split by chunks
+     * to scan it in parallel
+     *
+     * @return the region block area
+     * @throws IllegalArgumentException if the region world is not loaded
+     */
+    public BlockArea getBlockArea() throws IllegalArgumentException {
+        return BlockArea.between(getBottom(), getTop());
+    }
+
+    /**
+     * Create an operation that fills the region with
+     * the material, without applying physics
+     *
+     * @param plugin the plugin that runs the operation
+     * @param material the material
+     * @return the fill operation
+     * @throws IllegalArgumentException if the region world is not loaded
+     */
+    public BulkOperation<Cuboid> fill(final Plugin plugin, final Material material) throws IllegalArgumentException {
+        return new BulkOperation<>(plugin, getBlockArea(), (block) -> {
+            if (block.getType() != material)
+                block.setType(material, false);
+        }, () -> this);
+    }
+
+    /**
+     * Create an operation that replaces a material of
+     * the region, without applying physics
+     *
+     * @param plugin the plugin that runs the operation
+     * @param from the material to replace
+     * @param to the new material
+     * @return the replace operation
+     * @throws IllegalArgumentException if the region world is not loaded
+     */
+    public BulkOperation<Cuboid> replace(final Plugin plugin, final Material from, final Material to) throws IllegalArgumentException {
+        return new BulkOperation<>(plugin, getBlockArea(), (block) -> {
+            if (block.getType() == from)
+                block.setType(to, false);
+        }, () -> this);
+    }
+
+    /**
+     * Create an operation that clears the region
+     *
+     * @param plugin the plugin that runs the operation
+     * @return the clear operation
+     * @throws IllegalArgumentException if the region world is not loaded
+     */
+    public BulkOperation<Cuboid> clear(final Plugin plugin) throws IllegalArgumentException {
+        return fill(plugin, Material.AIR);
+    }
+
+    /**
+     * Create an operation that captures the region
+     * blocks, so they can be restored later
+     *
+     * @param plugin the plugin that runs the operation
+     * @return the snapshot operation
+     * @throws IllegalArgumentException if the region world is not loaded
+     * or the region is too big
+     */
+    public BulkOperation<RegionSnapshot> snapshot(final Plugin plugin) throws IllegalArgumentException {
+        return new RegionSnapshot(getBlockArea()).capture(plugin);
+    }
+
     /**
      * Get the region center location
      *
@@ -356,6 +433,17 @@ public abstract class Cuboid implements Serializable {
      */
     public abstract void saveToMemory(final KarmaPlugin owner);
 
+    /**
+     * Remove the region from the registered
+     * regions, so region events are no longer
+     * fired for it
+     */
+    public void unregister() {
+        regions.remove(this);
+        RegionIndex.remove(this);
+        RegionMembership.release(this);
+    }
+
     /**
      * Get all the regions
      *
@@ -364,4 +452,48 @@ public abstract class Cuboid implements Serializable {
     public static Set<Cuboid> getRegions() {
         return regions;
     }
+
+    /**
+     * Get the regions that may contain the location. Only
+     * the regions whose bounds contain the location are returned,
+     * {@link Cuboid#isInside(Location)} should still be checked
+     *
+     * @param location the location
+     * @return the location regions
+     */
+    public static Set<Cuboid> getRegions(final Location location) {
+        Set<Cuboid> result = new LinkedHashSet<>();
+        RegionIndex.query(location, result);
+        result.retainAll(regions);
+
+        return result;
+    }
+
+    /**
+     * Get the regions that may contain the block. Only
+     * the regions whose bounds contain the block are returned,
+     * {@link Cuboid#isInside(Block)} should still be checked
+     *
+     * @param block the block
+     * @return the block regions
+     */
+    public static Set<Cuboid> getRegions(final Block block) {
+        Set<Cuboid> result = new LinkedHashSet<>();
+        RegionIndex.query(block.getWorld(), block.getX(), block.getY(), block.getZ(), result);
+        result.retainAll(regions);
+
+        return result;
+    }
+
+    /**
+     * Get the regions that may contain the entity. Only
+     * the regions whose bounds contain the entity are returned,
+     * {@link Cuboid#isInside(Entity)} should still be checked
+     *
+     * @param entity the entity
+     * @return the entity regions
+     */
+    public static Set<Cuboid> getRegions(final Entity entity) {
+        return getRegions(entity.getLocation());
+    }
 }
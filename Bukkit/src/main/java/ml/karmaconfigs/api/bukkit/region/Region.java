@@ -33,6 +33,7 @@ import ml.karmaconfigs.api.bukkit.region.error.RegionNotFound;
 import ml.karmaconfigs.api.bukkit.region.wall.RegionWall;
 import ml.karmaconfigs.api.bukkit.region.wall.util.Wall;
 import ml.karmaconfigs.api.bukkit.region.wall.util.WallType;
+import ml.karmaconfigs.api.bukkit.util.BlockArea;
 import ml.karmaconfigs.api.common.karma.file.KarmaMain;
 import ml.karmaconfigs.api.common.karma.file.element.KarmaElement;
 import ml.karmaconfigs.api.common.karma.file.element.KarmaObject;
@@ -45,9 +46,8 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 
 import java.io.Serializable;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.UUID;
 
@@ -251,8 +251,8 @@ public class Region extends Cuboid implements Serializable {
     @Override
     public boolean exists(KarmaPlugin owner) {
         Path regionFile = owner.getDataPath().resolve("cache").resolve("regions").resolve(token + ".region");
-        if (Files.exists(regionFile)) {
-            KarmaMain file = new KarmaMain(owner, regionFile);
+        KarmaMain file = new KarmaMain(owner, regionFile);
+        if (file.exists()) {
             if (file.isSet("region")) {
                 KarmaElement result = file.get("region");
                 if (result.isString()) {
@@ -273,21 +273,11 @@ public class Region extends Cuboid implements Serializable {
      */
     @Override
     public Iterator<Block> getBlocks() {
-        ArrayList<Block> blocks = new ArrayList<>(getBlocksAmount());
         World world = Bukkit.getWorld(worldId);
+        if (world != null)
+            return new BlockArea(world, xMin, yMin, zMin, xMax, yMax, zMax).iterator();
 
-        if (world != null) {
-            for (int x = this.xMin; x <= this.xMax; ++x) {
-                for (int y = this.yMin; y <= this.yMax; ++y) {
-                    for (int z = this.zMin; z <= this.zMax; ++z) {
-                        Block block = world.getBlockAt(x, y, z);
-                        blocks.add(block);
-                    }
-                }
-            }
-        }
-
-        return blocks.iterator();
+        return Collections.emptyIterator();
     }
 
     /**
@@ -543,7 +533,7 @@ public class Region extends Cuboid implements Serializable {
     public void saveToMemory(final KarmaPlugin owner) {
         Path regionFile = owner.getDataPath().resolve("cache").resolve("regions").resolve(token + ".region");
 
-        KarmaMain file = new KarmaMain(owner, regionFile);
+        KarmaMain file = new KarmaMain(owner, regionFile).autoSave(owner);
         file.set("region", new KarmaObject(StringUtils.serialize(this)));
         file.save();
     }
@@ -562,8 +552,8 @@ public class Region extends Cuboid implements Serializable {
         Region region = null;
         String reason = "";
 
-        if (Files.exists(regionFile)) {
-            KarmaMain file = new KarmaMain(owner, regionFile);
+        KarmaMain file = new KarmaMain(owner, regionFile);
+        if (file.exists()) {
             if (file.isSet("region")) {
                 KarmaElement result = file.get("region", null);
                 if (result.isString()) {
@@ -0,0 +1,363 @@
+package ml.karmaconfigs.api.bukkit.region;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Spatial index of the cuboid regions. Regions are stored per
+ * world in buckets of the chunks they cover, so a position lookup
+ * only checks the regions of its chunk instead of every region
+ */
+final class RegionIndex {
+
+    /**
+     * The max amount of chunks a region can cover to be
+     * stored in chunk buckets. Bigger regions are checked
+     * in every lookup of their world
+     */
+    private final static int MAX_CHUNKS = 1024;
+
+    /**
+     * An empty bucket
+     */
+    private final static Bounds[] EMPTY = new Bounds[0];
+
+    /**
+     * A map that contains world id => world index
+     */
+    private final static Map<UUID, WorldIndex> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * A map that contains region => indexed bounds
+     */
+    private final static Map<Cuboid, Bounds> indexed = new ConcurrentHashMap<>();
+
+    /**
+     * The regions waiting to be indexed
+     */
+    private final static Queue<Cuboid> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The regions whose world couldn't be resolved, those are
+     * checked in every lookup
+     */
+    private final static Set<Cuboid> loose = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Initialize the region index
+     */
+    private RegionIndex() {}
+
+    /**
+     * Add a region to the index. The region is indexed on
+     * the next lookup, as its bounds are not known until
+     * the region has been completely initialized
+     *
+     * @param region the region
+     */
+    static void add(final Cuboid region) {
+        pending.add(region);
+    }
+
+    /**
+     * Remove a region from the index
+     *
+     * @param region the region
+     */
+    static synchronized void remove(final Cuboid region) {
+        pending.remove(region);
+        loose.remove(region);
+
+        Bounds bounds = indexed.remove(region);
+        if (bounds != null) {
+            WorldIndex index = worlds.get(bounds.world);
+            if (index != null)
+                index.remove(bounds);
+        }
+    }
+
+    /**
+     * Get the regions that may contain the position
+     *
+     * @param world the position world
+     * @param x the position block x
+     * @param y the position block y
+     * @param z the position block z
+     * @param result the set to add the regions to
+     */
+    static void query(final World world, final int x, final int y, final int z, final Set<Cuboid> result) {
+        drain();
+
+        if (world != null) {
+            WorldIndex index = worlds.get(world.getUID());
+            if (index != null)
+                index.query(x, y, z, result);
+        }
+
+        result.addAll(loose);
+    }
+
+    /**
+     * Get the regions that may contain the location
+     *
+     * @param location the location
+     * @param result the set to add the regions to
+     */
+    static void query(final Location location, final Set<Cuboid> result) {
+        query(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ(), result);
+    }
+
+    /**
+     * Index the pending regions
+     */
+    private static void drain() {
+        if (pending.isEmpty())
+            return;
+
+        synchronized (RegionIndex.class) {
+            index();
+        }
+    }
+
+    /**
+     * Index the pending regions, while holding
+     * the index lock
+     */
+    private static void index() {
+        Cuboid region;
+        while ((region = pending.poll()) != null) {
+            Bounds bounds = null;
+            try {
+                World world = region.getWorld();
+                Location bottom = region.getBottom();
+                Location top = region.getTop();
+
+                if (world != null && bottom != null && top != null)
+                    bounds = new Bounds(region, world.getUID(), bottom, top);
+            } catch (Throwable ignored) {}
+
+            if (bounds == null) {
+                loose.add(region);
+                continue;
+            }
+
+            Bounds previous = indexed.put(region, bounds);
+            if (previous != null) {
+                WorldIndex index = worlds.get(previous.world);
+                if (index != null)
+                    index.remove(previous);
+            }
+
+            worlds.computeIfAbsent(bounds.world, (id) -> new WorldIndex()).add(bounds);
+        }
+    }
+
+    /**
+     * Get the key of a chunk
+     *
+     * @param x the chunk x
+     * @param z the chunk z
+     * @return the chunk key
+     */
+    private static long chunk(final int x, final int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The regions of a world
+     */
+    private final static class WorldIndex {
+
+        private final Map<Long, Bounds[]> buckets = new ConcurrentHashMap<>();
+        private volatile Bounds[] large = EMPTY;
+
+        /**
+         * Add a region to the world
+         *
+         * @param bounds the region bounds
+         */
+        synchronized void add(final Bounds bounds) {
+            if (bounds.chunks() > MAX_CHUNKS) {
+                large = append(large, bounds);
+                return;
+            }
+
+            for (int x = bounds.min_x >> 4; x <= bounds.max_x >> 4; x++) {
+                for (int z = bounds.min_z >> 4; z <= bounds.max_z >> 4; z++)
+                    buckets.merge(chunk(x, z), new Bounds[]{bounds}, (current, added) -> append(current, bounds));
+            }
+        }
+
+        /**
+         * Remove a region from the world
+         *
+         * @param bounds the region bounds
+         */
+        synchronized void remove(final Bounds bounds) {
+            if (bounds.chunks() > MAX_CHUNKS) {
+                large = without(large, bounds);
+                return;
+            }
+
+            for (int x = bounds.min_x >> 4; x <= bounds.max_x >> 4; x++) {
+                for (int z = bounds.min_z >> 4; z <= bounds.max_z >> 4; z++)
+                    buckets.computeIfPresent(chunk(x, z), (key, current) -> {
+                        Bounds[] result = without(current, bounds);
+                        return (result.length == 0 ? null : result);
+                    });
+            }
+        }
+
+        /**
+         * Get the regions that contain the position
+         *
+         * @param x the position block x
+         * @param y the position block y
+         * @param z the position block z
+         * @param result the set to add the regions to
+         */
+        void query(final int x, final int y, final int z, final Set<Cuboid> result) {
+            Bounds[] bucket = buckets.get(chunk(x >> 4, z >> 4));
+            if (bucket != null) {
+                for (Bounds bounds : bucket) {
+                    if (bounds.contains(x, y, z))
+                        result.add(bounds.region);
+                }
+            }
+
+            for (Bounds bounds : large) {
+                if (bounds.contains(x, y, z))
+                    result.add(bounds.region);
+            }
+        }
+
+        /**
+         * Add a region to a bucket
+         *
+         * @param bucket the bucket
+         * @param bounds the region bounds
+         * @return the new bucket
+         */
+        private static Bounds[] append(final Bounds[] bucket, final Bounds bounds) {
+            Bounds[] result = new Bounds[bucket.length + 1];
+            System.arraycopy(bucket, 0, result, 0, bucket.length);
+            result[bucket.length] = bounds;
+
+            return result;
+        }
+
+        /**
+         * Remove a region from a bucket
+         *
+         * @param bucket the bucket
+         * @param bounds the region bounds
+         * @return the new bucket
+         */
+        private static Bounds[] without(final Bounds[] bucket, final Bounds bounds) {
+            int index = -1;
+            for (int i = 0; i < bucket.length; i++) {
+                if (bucket[i] == bounds) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1)
+                return bucket;
+
+            Bounds[] result = new Bounds[bucket.length - 1];
+            System.arraycopy(bucket, 0, result, 0, index);
+            System.arraycopy(bucket, index + 1, result, index, bucket.length - index - 1);
+
+            return result;
+        }
+    }
+
+    /**
+     * The block bounds of a region
+     */
+    private final static class Bounds {
+
+        private final Cuboid region;
+        private final UUID world;
+
+        private final int min_x;
+        private final int min_y;
+        private final int min_z;
+        private final int max_x;
+        private final int max_y;
+        private final int max_z;
+
+        /**
+         * Initialize the region bounds
+         *
+         * @param owner the region
+         * @param id the region world id
+         * @param bottom the region bottom location
+         * @param top the region top location
+         */
+        Bounds(final Cuboid owner, final UUID id, final Location bottom, final Location top) {
+            region = owner;
+            world = id;
+
+            min_x = Math.min(bottom.getBlockX(), top.getBlockX());
+            min_y = Math.min(bottom.getBlockY(), top.getBlockY());
+            min_z = Math.min(bottom.getBlockZ(), top.getBlockZ());
+            max_x = Math.max(bottom.getBlockX(), top.getBlockX());
+            max_y = Math.max(bottom.getBlockY(), top.getBlockY());
+            max_z = Math.max(bottom.getBlockZ(), top.getBlockZ());
+        }
+
+        /**
+         * Get the amount of chunks the bounds cover
+         *
+         * @return the bounds chunks
+         */
+        long chunks() {
+            return ((long) (max_x >> 4) - (min_x >> 4) + 1) * ((long) (max_z >> 4) - (min_z >> 4) + 1);
+        }
+
+        /**
+         * Get if the bounds contain the position
+         *
+         * @param x the position block x
+         * @param y the position block y
+         * @param z the position block z
+         * @return if the position is inside the bounds
+         */
+        boolean contains(final int x, final int y, final int z) {
+            return x >= min_x && x <= max_x && y >= min_y && y <= max_y && z >= min_z && z <= max_z;
+        }
+    }
+}
@@ -61,7 +61,7 @@ public class BlockListener implements Listener {
         Block block = e.getBlock();
         Player player = e.getPlayer();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, player, BlockAction.BUILD, region);
                 Bukkit.getServer().getPluginManager().callEvent(event);
@@ -81,7 +81,7 @@ public class BlockListener implements Listener {
         Block block = e.getBlock();
         Player player = e.getPlayer();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockModifiedAtRegionEvent event = new BlockModifiedAtRegionEvent(block, player, BlockAction.DESTROY, region);
                 Bukkit.getServer().getPluginManager().callEvent(event);
@@ -102,7 +102,7 @@ public class BlockListener implements Listener {
         String name = e.getTo().name();
         Entity entity = e.getEntity();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockAction action = BlockAction.BUILD;
 
@@ -129,7 +129,7 @@ public class BlockListener implements Listener {
         Entity entity = e.getIgnitingEntity();
         Block source = e.getIgnitingBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockAction action = BlockAction.PROPAGATE;
 
@@ -163,7 +163,7 @@ public class BlockListener implements Listener {
     public void onBurn(BlockBurnEvent e) {
         Block block = e.getBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockAction action = BlockAction.BURN;
 
@@ -192,7 +192,7 @@ public class BlockListener implements Listener {
         Block block = e.getBlock();
         Block source = e.getSource();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockAction action = BlockAction.PROPAGATE;
 
@@ -221,7 +221,7 @@ public class BlockListener implements Listener {
         Block source = e.getBlock();
         Block block = e.getNewState().getBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockAction action = BlockAction.PROPAGATE;
 
@@ -250,7 +250,7 @@ public class BlockListener implements Listener {
         Block source = e.getBlock();
         Block block = e.getToBlock();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(block).forEach((region) -> {
             if (region.isInside(block)) {
                 BlockAction action = BlockAction.FLOW;
 
@@ -286,7 +286,11 @@ public class BlockListener implements Listener {
         Block block = e.getBlock();
         float yield = e.getYield();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Set<Cuboid> regions = Cuboid.getRegions(block);
+        for (Block affected : e.blockList())
+            regions.addAll(Cuboid.getRegions(affected));
+
+        regions.forEach((region) -> {
             boolean fired = false;
 
             if (region.isInside(block)) {
@@ -32,7 +32,7 @@ import ml.karmaconfigs.api.bukkit.region.event.death.Forensics;
 import ml.karmaconfigs.api.bukkit.region.event.entity.*;
 import ml.karmaconfigs.api.bukkit.region.event.player.PlayerActionWithRegionEvent;
 import ml.karmaconfigs.api.bukkit.region.event.player.PlayerInteractAtRegionEvent;
-import ml.karmaconfigs.api.common.utils.ConcurrentList;
+import ml.karmaconfigs.api.common.utils.UUIDSet;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -43,6 +43,7 @@ import org.bukkit.entity.*;
 import org.bukkit.event.*;
 import org.bukkit.event.entity.*;
 import org.bukkit.event.player.*;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.EntityEquipment;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.material.Crops;
@@ -58,12 +59,11 @@ import java.util.concurrent.ConcurrentHashMap;
 @SuppressWarnings({"unused"})
 public class DummyListener implements Listener {
 
-    private final static Map<Cuboid, Set<Entity>> entity_cache = new ConcurrentHashMap<>();
     private final static Map<UUID, Object> damage_data = new ConcurrentHashMap<>();
     private final static Map<ItemStack, UUID> drop_data = new ConcurrentHashMap<>();
 
-    private final static List<UUID> items_cache = new ConcurrentList<>();
-    private final static List<UUID> drop_handled = new ConcurrentList<>();
+    private final static Set<UUID> items_cache = new UUIDSet();
+    private final static Set<UUID> drop_handled = new UUIDSet();
 
     private final Plugin plugin;
 
@@ -86,6 +86,9 @@ public class DummyListener implements Listener {
                 });
             }
         }, 0, 20 * 300);
+
+        //Remove the region membership of invalid entities every 5 minutes
+        plugin.getServer().getScheduler().runTaskTimer(plugin, () -> RegionMembership.sweep(plugin.getServer()), 20 * 300, 20 * 300);
     }
 
     /**
@@ -95,72 +98,19 @@ public class DummyListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onMove(EntityMoveEvent e) {
-        Location from = new Location(e.getWorld(), e.getFromX(), e.getFromY(), e.getFromZ());
-        from.setYaw(e.getFromYaw());
-        from.setPitch(e.getFromPitch());
-
-        Location to = new Location(e.getWorld(), e.getToX(), e.getToY(), e.getFromZ());
-        to.setYaw(e.getToYaw());
-        to.setPitch(e.getFromPitch());
-
-        if (!from.equals(to)) {
-            Entity entity = e.getEntity();
-
-            Cuboid.getRegions().forEach((region) -> {
-                Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                Set<Entity> insert = new HashSet<>();
-                Set<Entity> remove = new HashSet<>();
-
-                boolean changes = false;
-                if (region.isInside(entity)) {
-                    if (!cached.contains(entity)) {
-                        EntityJoinRegionEvent event = new EntityJoinRegionEvent(entity, region);
-                        Bukkit.getServer().getPluginManager().callEvent(event);
-
-                        insert.add(entity);
-
-                        changes = true;
-                    } else {
-                        if (region.isInside(to)) {
-                            EntityMoveAtRegionEvent event = new EntityMoveAtRegionEvent(entity, region, from, to);
-                            Bukkit.getServer().getPluginManager().callEvent(event);
-
-                            if (event.isCancelled()) {
-                                entity.teleport(from);
-                            }
-                        } else {
-                            EntityPreLeaveRegionEvent event = new EntityPreLeaveRegionEvent(entity, region);
-                            if (event.isCancelled()) {
-                                entity.setVelocity(to.getDirection().multiply(-0.5));
-                            }
-                        }
-                    }
-                } else {
-                    if (region.isInside(to)) {
-                        EntityPreJoinRegionEvent event = new EntityPreJoinRegionEvent(entity, region);
-
-                        if (event.isCancelled()) {
-                            entity.setVelocity(to.getDirection().multiply(-0.5));
-                        }
-                    } else {
-                        if (cached.contains(entity)) {
-                            EntityLeaveRegionEvent event = new EntityLeaveRegionEvent(entity, region);
-                            Bukkit.getServer().getPluginManager().callEvent(event);
-
-                            remove.add(entity);
+        Entity entity = e.getEntity();
+        RegionMembership.Member member = RegionMembership.of(entity);
 
-                            changes = true;
-                        }
-                    }
-                }
+        if (member.moved(e.getWorld(), Location.locToBlock(e.getToX()), Location.locToBlock(e.getToY()), Location.locToBlock(e.getToZ()))) {
+            Location from = new Location(e.getWorld(), e.getFromX(), e.getFromY(), e.getFromZ());
+            from.setYaw(e.getFromYaw());
+            from.setPitch(e.getFromPitch());
 
-                if (changes) {
-                    cached.removeAll(remove);
-                    cached.addAll(insert);
+            Location to = new Location(e.getWorld(), e.getToX(), e.getToY(), e.getToZ());
+            to.setYaw(e.getToYaw());
+            to.setPitch(e.getToPitch());
 
-                    entity_cache.put(region, cached);
-                }
-            });
+            track(entity, member, from, to, () -> entity.teleport(from));
         }
     }
 
@@ -176,61 +126,46 @@ public class DummyListener implements Listener {
             if (e.getTo() == null)
                 e.setTo(entity.getLocation());
 
-            Cuboid.getRegions().forEach((region) -> {
-                    Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                    Set<Entity> insert = new HashSet<>();
-                    Set<Entity> remove = new HashSet<>();
-
-                boolean changes = false;
-                if (region.isInside(entity)) {
-                    if (!cached.contains(entity)) {
-                        EntityJoinRegionEvent event = new EntityJoinRegionEvent(entity, region);
-                        Bukkit.getServer().getPluginManager().callEvent(event);
-
-                        insert.add(entity);
-
-                        changes = true;
-                    } else {
-                        if (region.isInside(e.getTo())) {
-                            EntityMoveAtRegionEvent event = new EntityMoveAtRegionEvent(entity, region, e.getFrom(), e.getTo());
-                            Bukkit.getServer().getPluginManager().callEvent(event);
-
-                            if (event.isCancelled()) {
-                                e.setCancelled(true);
-                            }
-                        } else {
-                            EntityPreLeaveRegionEvent event = new EntityPreLeaveRegionEvent(entity, region);
-                            if (event.isCancelled()) {
-                                entity.setVelocity(e.getTo().getDirection().multiply(-0.5));
-                            }
-                        }
-                    }
-                } else {
-                    if (region.isInside(e.getTo())) {
-                        EntityPreJoinRegionEvent event = new EntityPreJoinRegionEvent(entity, region);
-
-                        if (event.isCancelled()) {
-                            entity.setVelocity(e.getTo().getDirection().multiply(-0.5));
-                        }
-                    } else {
-                        if (cached.contains(entity)) {
-                            EntityLeaveRegionEvent event = new EntityLeaveRegionEvent(entity, region);
-                            Bukkit.getServer().getPluginManager().callEvent(event);
+            Location to = e.getTo();
+            RegionMembership.Member member = RegionMembership.of(entity);
 
-                            remove.add(entity);
+            if (member.moved(to.getWorld(), to.getBlockX(), to.getBlockY(), to.getBlockZ()))
+                track(entity, member, e.getFrom(), to, () -> e.setCancelled(true));
+        }
+    }
 
-                            changes = true;
-                        }
-                    }
-                }
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void playerQuit(PlayerQuitEvent e) {
+        RegionMembership.forget(e.getPlayer());
+    }
 
-                if (changes) {
-                    cached.removeAll(remove);
-                    cached.addAll(insert);
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void itemDespawn(ItemDespawnEvent e) {
+        if (!e.isCancelled()) {
+            RegionMembership.forget(e.getEntity());
+        }
+    }
 
-                    entity_cache.put(region, cached);
-                }
-            });
+    /**
+     * Event listener
+     *
+     * @param e the event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void chunkUnload(ChunkUnloadEvent e) {
+        for (Entity entity : e.getChunk().getEntities()) {
+            if (!(entity instanceof Player))
+                RegionMembership.forget(entity);
         }
     }
 
@@ -245,7 +180,7 @@ public class DummyListener implements Listener {
             Player player = e.getPlayer();
             Entity target = e.getRightClicked();
 
-            Cuboid.getRegions().forEach((region) -> {
+            Cuboid.getRegions(target).forEach((region) -> {
                 if (region.isInside(target)) {
                     PlayerInteractAtRegionEvent event = new PlayerInteractAtRegionEvent(target, player, region);
                     Bukkit.getServer().getPluginManager().callEvent(event);
@@ -268,7 +203,7 @@ public class DummyListener implements Listener {
         Block block = e.getClickedBlock();
 
         if (!drop_handled.contains(player.getUniqueId())) {
-            Cuboid.getRegions().forEach((region) -> {
+            (block != null ? Cuboid.getRegions(block) : Cuboid.getRegions(player)).forEach((region) -> {
                 if ((block != null ? region.isInside(block) : region.isInside(player))) {
                     InteractAction action = InteractAction.UNKNOWN;
 
@@ -351,7 +286,7 @@ public class DummyListener implements Listener {
             Entity entity = e.getEntity();
             Block block = e.getBlock();
 
-            Cuboid.getRegions().forEach((region) -> {
+            Cuboid.getRegions(block).forEach((region) -> {
                 if (region.isInside(block)) {
                     EntityInteractWithRegionEvent event = new EntityInteractWithRegionEvent(entity, block, region);
                     Bukkit.getServer().getPluginManager().callEvent(event);
@@ -372,7 +307,7 @@ public class DummyListener implements Listener {
         if (!e.isCancelled()) {
             Entity entity = e.getEntity();
 
-            Cuboid.getRegions().forEach((region) -> {
+            Cuboid.getRegions(entity).forEach((region) -> {
                 if (region.isInside(entity)) {
                     Event event = null;
                     if (entity instanceof Item) {
@@ -400,11 +335,7 @@ public class DummyListener implements Listener {
                         Bukkit.getServer().getPluginManager().callEvent(event);
 
                         e.setCancelled(cancellable.isCancelled());
-
-                        Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                        cached.add(entity);
-
-                        entity_cache.put(region, cached);
+                        RegionMembership.enter(entity, region);
                     }
                 }
             });
@@ -420,15 +351,12 @@ public class DummyListener implements Listener {
     public void playerJoin(PlayerJoinEvent e) {
         Player player = e.getPlayer();
 
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(player).forEach((region) -> {
             if (region.isInside(player)) {
                 EntitySpawnAtRegionEvent event = new EntitySpawnAtRegionEvent(player, region);
                 Bukkit.getServer().getPluginManager().callEvent(event);
 
-                Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                cached.add(player);
-
-                entity_cache.put(region, cached);
+                RegionMembership.enter(player, region);
             }
         });
     }
@@ -444,7 +372,7 @@ public class DummyListener implements Listener {
             Entity issuer = e.getDamager();
             Entity entity = e.getEntity();
 
-            Cuboid.getRegions().forEach((region) -> {
+            union(Cuboid.getRegions(issuer), Cuboid.getRegions(entity)).forEach((region) -> {
                 if (region.isInside(issuer) || region.isInside(entity)) {
                     damage_data.put(entity.getUniqueId(), issuer);
                 }
@@ -463,7 +391,7 @@ public class DummyListener implements Listener {
             Block issuer = e.getDamager();
             Entity entity = e.getEntity();
 
-            Cuboid.getRegions().forEach((region) -> {
+            union((issuer != null ? Cuboid.getRegions(issuer) : new LinkedHashSet<>()), Cuboid.getRegions(entity)).forEach((region) -> {
                 if ((issuer != null && region.isInside(issuer)) || region.isInside(entity)) {
                     damage_data.put(entity.getUniqueId(), issuer);
                 }
@@ -491,7 +419,7 @@ public class DummyListener implements Listener {
 
         EntityDamageEvent.DamageCause cause = tmpCause;
         double damage = tmpDamage;
-        Cuboid.getRegions().forEach((region) -> {
+        Cuboid.getRegions(entity).forEach((region) -> {
             if (region.isInside(entity)) {
                 Object killer = damage_data.getOrDefault(entity.getUniqueId(), null);
 
@@ -535,6 +463,8 @@ public class DummyListener implements Listener {
                 Bukkit.getServer().getPluginManager().callEvent(event);
             }
         });
+
+        RegionMembership.forget(entity);
     }
 
     /**
@@ -548,7 +478,7 @@ public class DummyListener implements Listener {
             Player player = e.getPlayer();
             Item drop = e.getItemDrop();
 
-            Cuboid.getRegions().forEach((region) -> {
+            union(Cuboid.getRegions(player), Cuboid.getRegions(drop)).forEach((region) -> {
                 if (region.isInside(player) || region.isInside(drop)) {
                     drop_handled.add(player.getUniqueId());
                     items_cache.add(drop.getUniqueId());
@@ -559,10 +489,7 @@ public class DummyListener implements Listener {
                     if (event.isCancelled()) {
                         e.setCancelled(true);
                     } else {
-                        Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                        cached.add(drop);
-
-                        entity_cache.put(region, cached);
+                        RegionMembership.enter(drop, region);
                     }
                 }
             });
@@ -580,7 +507,7 @@ public class DummyListener implements Listener {
             LivingEntity entity = e.getEntity();
             Item pickup = e.getItem();
 
-            Cuboid.getRegions().forEach((region) -> {
+            union(Cuboid.getRegions(entity), Cuboid.getRegions(pickup)).forEach((region) -> {
                 if (region.isInside(entity) || region.isInside(pickup)) {
                     EntityPickupItemAtRegionEvent event = new EntityPickupItemAtRegionEvent(pickup, entity, region);
                     Bukkit.getServer().getPluginManager().callEvent(event);
@@ -588,13 +515,90 @@ public class DummyListener implements Listener {
                     if (event.isCancelled()) {
                         e.setCancelled(true);
                     } else {
-                        Set<Entity> cached = entity_cache.getOrDefault(region, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                        cached.remove(pickup);
-
-                        entity_cache.put(region, cached);
+                        RegionMembership.forget(pickup);
                     }
                 }
             });
         }
     }
+
+    /**
+     * Track an entity that moved to another block, firing
+     * the join, leave and move events of the regions it
+     * joined, left or stayed in
+     *
+     * @param entity the entity
+     * @param member the entity region membership
+     * @param from the movement start
+     * @param to the movement end
+     * @param cancel the action to cancel the movement
+     */
+    private static void track(final Entity entity, final RegionMembership.Member member, final Location from, final Location to, final Runnable cancel) {
+        long[] current = member.regions();
+        long[] next = RegionMembership.at(to);
+
+        long[] stay = RegionMembership.and(current, next);
+        for (int id = RegionMembership.next(stay, 0); id != -1; id = RegionMembership.next(stay, id + 1)) {
+            Cuboid region = RegionMembership.region(id);
+            if (region != null) {
+                EntityMoveAtRegionEvent event = new EntityMoveAtRegionEvent(entity, region, from, to);
+                Bukkit.getServer().getPluginManager().callEvent(event);
+
+                if (event.isCancelled()) {
+                    cancel.run();
+                    return;
+                }
+            }
+        }
+
+        long[] left = RegionMembership.minus(current, next);
+        for (int id = RegionMembership.next(left, 0); id != -1; id = RegionMembership.next(left, id + 1)) {
+            Cuboid region = RegionMembership.region(id);
+            if (region != null) {
+                EntityPreLeaveRegionEvent pre = new EntityPreLeaveRegionEvent(entity, region);
+                Bukkit.getServer().getPluginManager().callEvent(pre);
+
+                if (pre.isCancelled()) {
+                    entity.setVelocity(to.getDirection().multiply(-0.5));
+                    next = RegionMembership.set(next, id);
+                } else {
+                    EntityLeaveRegionEvent event = new EntityLeaveRegionEvent(entity, region);
+                    Bukkit.getServer().getPluginManager().callEvent(event);
+                }
+            }
+        }
+
+        long[] joined = RegionMembership.minus(next, current);
+        for (int id = RegionMembership.next(joined, 0); id != -1; id = RegionMembership.next(joined, id + 1)) {
+            Cuboid region = RegionMembership.region(id);
+            if (region != null) {
+                EntityPreJoinRegionEvent pre = new EntityPreJoinRegionEvent(entity, region);
+                Bukkit.getServer().getPluginManager().callEvent(pre);
+
+                if (pre.isCancelled()) {
+                    entity.setVelocity(to.getDirection().multiply(-0.5));
+                    RegionMembership.clear(next, id);
+                } else {
+                    EntityJoinRegionEvent event = new EntityJoinRegionEvent(entity, region);
+                    Bukkit.getServer().getPluginManager().callEvent(event);
+                }
+            } else {
+                RegionMembership.clear(next, id);
+            }
+        }
+
+        member.update(to, next);
+    }
+
+    /**
+     * Join two region sets
+     *
+     * @param regions the first regions
+     * @param others the second regions
+     * @return the joined regions
+     */
+    private static Set<Cuboid> union(final Set<Cuboid> regions, final Set<Cuboid> others) {
+        regions.addAll(others);
+        return regions;
+    }
 }
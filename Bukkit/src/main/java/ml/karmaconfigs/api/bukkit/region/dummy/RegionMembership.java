@@ -0,0 +1,355 @@
+package ml.karmaconfigs.api.bukkit.region.dummy;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.bukkit.region.Cuboid;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The regions each entity is in. Regions are identified by a
+ * compact int id, so the regions of an entity are stored as a
+ * bit set and compared without allocating region sets
+ */
+public final class RegionMembership {
+
+    /**
+     * An empty bit set
+     */
+    private final static long[] EMPTY = new long[0];
+
+    /**
+     * A map that contains region => region id
+     */
+    private final static Map<Cuboid, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * The regions, by region id
+     */
+    private static volatile Cuboid[] regions = new Cuboid[0];
+
+    /**
+     * The region ids that have been released and
+     * can be given to another region
+     */
+    private final static Deque<Integer> free = new ArrayDeque<>();
+
+    /**
+     * A map that contains entity id => entity regions
+     */
+    private final static Map<UUID, Member> members = new ConcurrentHashMap<>();
+
+    /**
+     * Initialize the region membership
+     */
+    private RegionMembership() {}
+
+    /**
+     * Get the region membership of an entity
+     *
+     * @param entity the entity
+     * @return the entity region membership
+     */
+    static Member of(final Entity entity) {
+        return members.computeIfAbsent(entity.getUniqueId(), (id) -> new Member());
+    }
+
+    /**
+     * Mark an entity as inside a region, without
+     * firing any event
+     *
+     * @param entity the entity
+     * @param region the region
+     */
+    static void enter(final Entity entity, final Cuboid region) {
+        Member member = of(entity);
+        member.bits = set(member.bits, id(region));
+    }
+
+    /**
+     * Forget the regions of an entity
+     *
+     * @param entity the entity
+     */
+    static void forget(final Entity entity) {
+        members.remove(entity.getUniqueId());
+    }
+
+    /**
+     * Forget the entities that are not valid
+     * anymore
+     *
+     * @param server the server to look for the
+     *               entities at
+     */
+    static void sweep(final Server server) {
+        members.keySet().removeIf((id) -> {
+            Entity entity = server.getEntity(id);
+            return entity == null || !entity.isValid();
+        });
+    }
+
+    /**
+     * Release the id of a region that has been
+     * unregistered, so it can be given to another
+     * region
+     *
+     * @param region the region
+     */
+    public static void release(final Cuboid region) {
+        synchronized (RegionMembership.class) {
+            Integer id = ids.remove(region);
+            if (id != null) {
+                Cuboid[] updated = regions.clone();
+                updated[id] = null;
+                regions = updated;
+
+                for (Member member : members.values())
+                    clear(member.bits, id);
+
+                free.push(id);
+            }
+        }
+    }
+
+    /**
+     * Get the regions at a location
+     *
+     * @param location the location
+     * @return the location regions
+     */
+    static long[] at(final Location location) {
+        long[] bits = EMPTY;
+        for (Cuboid region : Cuboid.getRegions(location)) {
+            if (region.isInside(location))
+                bits = set(bits, id(region));
+        }
+
+        return bits;
+    }
+
+    /**
+     * Get a region by its id
+     *
+     * @param id the region id
+     * @return the region, or null if the region is
+     * not registered anymore
+     */
+    static Cuboid region(final int id) {
+        Cuboid[] current = regions;
+        if (id < 0 || id >= current.length)
+            return null;
+
+        Cuboid region = current[id];
+        return (region != null && Cuboid.getRegions().contains(region) ? region : null);
+    }
+
+    /**
+     * Get the id of a region
+     *
+     * @param region the region
+     * @return the region id
+     */
+    private static int id(final Cuboid region) {
+        Integer id = ids.get(region);
+        if (id != null)
+            return id;
+
+        synchronized (RegionMembership.class) {
+            id = ids.get(region);
+            if (id == null) {
+                Cuboid[] current = regions;
+                id = (free.isEmpty() ? current.length : free.pop());
+
+                Cuboid[] updated = Arrays.copyOf(current, Math.max(current.length, id + 1));
+                updated[id] = region;
+
+                regions = updated;
+                ids.put(region, id);
+            }
+
+            return id;
+        }
+    }
+
+    /**
+     * Get if a bit set contains a region id
+     *
+     * @param bits the bit set
+     * @param id the region id
+     * @return if the region id is in the bit set
+     */
+    static boolean has(final long[] bits, final int id) {
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * Add a region id to a bit set
+     *
+     * @param bits the bit set
+     * @param id the region id
+     * @return the bit set with the region id
+     */
+    static long[] set(final long[] bits, final int id) {
+        int word = id >>> 6;
+        long[] result = (word < bits.length ? bits : Arrays.copyOf(bits, word + 1));
+        result[word] |= (1L << id);
+
+        return result;
+    }
+
+    /**
+     * Remove a region id from a bit set
+     *
+     * @param bits the bit set
+     * @param id the region id
+     */
+    static void clear(final long[] bits, final int id) {
+        int word = id >>> 6;
+        if (word < bits.length)
+            bits[word] &= ~(1L << id);
+    }
+
+    /**
+     * Get the region ids that are in a bit set
+     * but not in other
+     *
+     * @param bits the bit set
+     * @param other the other bit set
+     * @return the region ids that are only in the
+     * first bit set
+     */
+    static long[] minus(final long[] bits, final long[] other) {
+        long[] result = bits.clone();
+        for (int i = 0; i < result.length && i < other.length; i++)
+            result[i] &= ~other[i];
+
+        return result;
+    }
+
+    /**
+     * Get the region ids that are in both
+     * bit sets
+     *
+     * @param bits the bit set
+     * @param other the other bit set
+     * @return the region ids in both bit sets
+     */
+    static long[] and(final long[] bits, final long[] other) {
+        long[] result = new long[Math.min(bits.length, other.length)];
+        for (int i = 0; i < result.length; i++)
+            result[i] = bits[i] & other[i];
+
+        return result;
+    }
+
+    /**
+     * Get the next region id of a bit set
+     *
+     * @param bits the bit set
+     * @param from the id to start searching from
+     * @return the next region id, or -1 if there
+     * are no more ids
+     */
+    static int next(final long[] bits, final int from) {
+        int word = from >>> 6;
+        if (word >= bits.length)
+            return -1;
+
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0)
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            if (++word == bits.length)
+                return -1;
+
+            current = bits[word];
+        }
+    }
+
+    /**
+     * The regions an entity is in, and the block
+     * where they were last computed
+     */
+    static final class Member {
+
+        private long[] bits = EMPTY;
+
+        private UUID world = null;
+        private int x;
+        private int y;
+        private int z;
+
+        /**
+         * Get if the entity block is not the same
+         * as the last computed block
+         *
+         * @param target the entity world
+         * @param bx the entity block x
+         * @param by the entity block y
+         * @param bz the entity block z
+         * @return if the entity changed its block
+         */
+        boolean moved(final World target, final int bx, final int by, final int bz) {
+            return target == null || !target.getUID().equals(world) || x != bx || y != by || z != bz;
+        }
+
+        /**
+         * Get the regions of the entity
+         *
+         * @return the entity regions
+         */
+        long[] regions() {
+            return bits;
+        }
+
+        /**
+         * Update the regions of the entity
+         *
+         * @param location the entity location
+         * @param regions the entity regions
+         */
+        void update(final Location location, final long[] regions) {
+            World target = location.getWorld();
+
+            bits = regions;
+            world = (target != null ? target.getUID() : null);
+            x = location.getBlockX();
+            y = location.getBlockY();
+            z = location.getBlockZ();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package ml.karmaconfigs.api.bukkit.region.operation;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.bukkit.util.BlockArea;
+import ml.karmaconfigs.api.common.timer.scheduler.LateScheduler;
+import ml.karmaconfigs.api.common.timer.scheduler.worker.FixedLateScheduler;
+import org.bukkit.block.Block;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * An operation over every block of an area. The operation runs
+ * in the server thread, chunk by chunk, and each tick it only
+ * works for the configured time budget, so big areas are
+ * spread over multiple ticks instead of freezing the server
+ *
+ * @param <T> the operation result
+ */
+public final class BulkOperation<T> {
+
+    /**
+     * The default time budget per tick
+     */
+    private final static long DEFAULT_BUDGET = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The amount of blocks to process between
+     * time budget checks
+     */
+    private final static int CHECK_INTERVAL = 32;
+
+    private final Plugin plugin;
+    private final BlockArea area;
+    private final Consumer<Block> action;
+    private final Supplier<T> result;
+
+    private final LateScheduler<T> scheduler = new FixedLateScheduler<>();
+
+    private Spliterator<Block> blocks = null;
+    private BukkitTask task = null;
+    private Consumer<BulkOperation<T>> progress = null;
+
+    private volatile long budget = DEFAULT_BUDGET;
+    private volatile long processed = 0;
+    private volatile long work_time = 0;
+    private volatile int ticks = 0;
+
+    /**
+     * Initialize the bulk operation
+     *
+     * @param owner the plugin that runs the operation
+     * @param blocks the operation blocks
+     * @param task the action to perform over each block
+     * @param output the operation result provider, called
+     *               when every block has been processed
+     */
+    public BulkOperation(final Plugin owner, final BlockArea blocks, final Consumer<Block> task, final Supplier<T> output) {
+        plugin = owner;
+        area = blocks;
+        action = task;
+        result = output;
+    }
+
+    /**
+     * Set the time the operation can work each tick
+     *
+     * @param amount the time amount
+     * @param unit the time unit
+     * @return this instance
+     */
+    public BulkOperation<T> budget(final long amount, final TimeUnit unit) {
+        budget = Math.max(1, unit.toNanos(amount));
+        return this;
+    }
+
+    /**
+     * Set the action to perform after each tick
+     * of the operation
+     *
+     * @param listener the progress listener
+     * @return this instance
+     */
+    public BulkOperation<T> onProgress(final Consumer<BulkOperation<T>> listener) {
+        progress = listener;
+        return this;
+    }
+
+    /**
+     * Start the operation. The operation starts in the
+     * next tick, and the returned scheduler completes in
+     * the server thread when the operation ends. Cancelling
+     * the scheduler stops the operation
+     *
+     * @return the operation scheduler
+     */
+    public synchronized LateScheduler<T> start() {
+        if (blocks == null) {
+            blocks = area.spliterator();
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+        }
+
+        return scheduler;
+    }
+
+    /**
+     * Stop the operation
+     */
+    public void cancel() {
+        scheduler.setCancelled();
+    }
+
+    /**
+     * Get the operation blocks
+     *
+     * @return the operation blocks
+     */
+    public BlockArea getArea() {
+        return area;
+    }
+
+    /**
+     * Get the amount of processed blocks
+     *
+     * @return the processed blocks
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * Get the amount of blocks of the operation
+     *
+     * @return the operation blocks amount
+     */
+    public long getTotal() {
+        return area.volume();
+    }
+
+    /**
+     * Get the operation progress
+     *
+     * @return the operation progress, from 0 to 1
+     */
+    public double getProgress() {
+        long total = getTotal();
+        return (total == 0 ? 1d : (double) processed / total);
+    }
+
+    /**
+     * Get the amount of ticks the operation
+     * has worked
+     *
+     * @return the operation ticks
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Get the time the operation has been working
+     *
+     * @param unit the time unit
+     * @return the operation work time
+     */
+    public long getWorkTime(final TimeUnit unit) {
+        return unit.convert(work_time, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the operation throughput
+     *
+     * @return the blocks processed per millisecond
+     * of work
+     */
+    public double getThroughput() {
+        long time = work_time;
+        return (time == 0 ? 0d : processed / (time / 1_000_000d));
+    }
+
+    /**
+     * Get if the operation has ended
+     *
+     * @return if the operation ended
+     */
+    public boolean isDone() {
+        return scheduler.isCompleted() || scheduler.isCancelled();
+    }
+
+    /**
+     * Process blocks until the tick time
+     * budget runs out
+     */
+    private void tick() {
+        if (scheduler.isCancelled()) {
+            task.cancel();
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + budget;
+
+        int count = 0;
+        boolean remaining;
+        try {
+            while (remaining = blocks.tryAdvance(action)) {
+                if (++count % CHECK_INTERVAL == 0 && System.nanoTime() >= deadline)
+                    break;
+            }
+        } catch (Throwable ex) {
+            task.cancel();
+            scheduler.complete(null, ex);
+            return;
+        } finally {
+            work_time += System.nanoTime() - start;
+            processed += count;
+            ticks++;
+        }
+
+        if (progress != null)
+            progress.accept(this);
+
+        if (!remaining) {
+            task.cancel();
+            scheduler.complete(result.get());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ml.karmaconfigs.api.bukkit.region.operation;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.bukkit.util.BlockArea;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The blocks of an area at the moment they were captured. Each
+ * different block data is stored once, and blocks only store
+ * the index of their data, in pages that are allocated as the
+ * capture proceeds.
+ * <p>
+ * The snapshot uses the {@link BlockData} API, so it requires
+ * a 1.13 or newer server. Only the block data is captured, the
+ * state of tile entities, such as container contents or sign
+ * texts, is not restored
+ */
+public final class RegionSnapshot {
+
+    /**
+     * The max amount of blocks of a snapshot, about
+     * 1 GB of block indexes
+     */
+    private final static long MAX_VOLUME = 1L << 28;
+
+    /**
+     * The amount of blocks of a page, as a power of two
+     */
+    private final static int PAGE_SHIFT = 12;
+    /**
+     * The amount of blocks of a page
+     */
+    private final static int PAGE_SIZE = 1 << PAGE_SHIFT;
+    /**
+     * The page index mask
+     */
+    private final static int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final BlockArea area;
+
+    private final List<BlockData> palette = new ArrayList<>();
+    private final Map<BlockData, Integer> ids = new HashMap<>();
+    private final List<int[]> pages = new ArrayList<>();
+    private int size = 0;
+
+    /**
+     * Initialize the region snapshot
+     *
+     * @param blocks the snapshot blocks
+     * @throws IllegalArgumentException if the area is too big
+     */
+    public RegionSnapshot(final BlockArea blocks) throws IllegalArgumentException {
+        if (blocks.volume() > MAX_VOLUME)
+            throw new IllegalArgumentException("Cannot snapshot an area of " + blocks.volume() + " blocks, the max is " + MAX_VOLUME);
+
+        area = blocks;
+    }
+
+    /**
+     * Create an operation that captures the snapshot
+     *
+     * @param plugin the plugin that runs the operation
+     * @return the capture operation
+     */
+    public BulkOperation<RegionSnapshot> capture(final Plugin plugin) {
+        return new BulkOperation<>(plugin, area, this::capture, () -> this);
+    }
+
+    /**
+     * Create an operation that restores the captured
+     * blocks, without applying physics
+     *
+     * @param plugin the plugin that runs the operation
+     * @return the restore operation
+     */
+    public BulkOperation<RegionSnapshot> restore(final Plugin plugin) {
+        int[] index = {0};
+        return new BulkOperation<>(plugin, area, (block) -> {
+            int current = index[0]++;
+            if (current < size)
+                block.setBlockData(palette.get(pages.get(current >>> PAGE_SHIFT)[current & PAGE_MASK]), false);
+        }, () -> this);
+    }
+
+    /**
+     * Get the snapshot blocks
+     *
+     * @return the snapshot blocks
+     */
+    public BlockArea getArea() {
+        return area;
+    }
+
+    /**
+     * Get the amount of captured blocks
+     *
+     * @return the captured blocks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the amount of different block data
+     * captured
+     *
+     * @return the captured block data amount
+     */
+    public int getPaletteSize() {
+        return palette.size();
+    }
+
+    /**
+     * Capture the next block
+     *
+     * @param block the block
+     */
+    private void capture(final Block block) {
+        BlockData data = block.getBlockData();
+        Integer id = ids.get(data);
+        if (id == null) {
+            id = palette.size();
+            palette.add(data);
+            ids.put(data, id);
+        }
+
+        if ((size & PAGE_MASK) == 0)
+            pages.add(new int[PAGE_SIZE]);
+
+        pages.get(size >>> PAGE_SHIFT)[size & PAGE_MASK] = id;
+        size++;
+    }
+}
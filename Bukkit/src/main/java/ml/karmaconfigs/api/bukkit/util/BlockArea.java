@@ -0,0 +1,376 @@
+package ml.karmaconfigs.api.bukkit.util;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * The blocks between two corners. Blocks are not stored, they
+ * are created while iterating, chunk by chunk and in section
+ * order (y, z, x), so big areas can be walked without holding
+ * every block in memory.
+ * <p>
+ * The area can be split by chunks to scan it in parallel, which
+ * should only be used to read blocks
+ */
+public final class BlockArea extends AbstractSet<Block> {
+
+    private final World world;
+
+    private final int xMin;
+    private final int yMin;
+    private final int zMin;
+    private final int xMax;
+    private final int yMax;
+    private final int zMax;
+
+    private final int chunkXMin;
+    private final int chunkZMin;
+    private final int chunksZ;
+    private final int chunks;
+
+    /**
+     * Initialize the block area
+     *
+     * @param w the area world
+     * @param x1 the first corner x
+     * @param y1 the first corner y
+     * @param z1 the first corner z
+     * @param x2 the second corner x
+     * @param y2 the second corner y
+     * @param z2 the second corner z
+     */
+    public BlockArea(final World w, final int x1, final int y1, final int z1, final int x2, final int y2, final int z2) {
+        world = w;
+
+        xMin = Math.min(x1, x2);
+        yMin = Math.min(y1, y2);
+        zMin = Math.min(z1, z2);
+        xMax = Math.max(x1, x2);
+        yMax = Math.max(y1, y2);
+        zMax = Math.max(z1, z2);
+
+        chunkXMin = xMin >> 4;
+        chunkZMin = zMin >> 4;
+        chunksZ = (zMax >> 4) - chunkZMin + 1;
+        chunks = ((xMax >> 4) - chunkXMin + 1) * chunksZ;
+    }
+
+    /**
+     * Get the blocks between two locations
+     *
+     * @param loc1 the first location
+     * @param loc2 the second location
+     * @return the blocks between the two locations
+     * @throws IllegalArgumentException if some worlds are null or does not match
+     */
+    public static BlockArea between(final Location loc1, final Location loc2) throws IllegalArgumentException {
+        World world1 = loc1.getWorld();
+        World world2 = loc2.getWorld();
+
+        if (world1 != null && world2 != null && world1.getUID().equals(world2.getUID()))
+            return new BlockArea(world1, loc1.getBlockX(), loc1.getBlockY(), loc1.getBlockZ(), loc2.getBlockX(), loc2.getBlockY(), loc2.getBlockZ());
+
+        throw new IllegalArgumentException("Cannot get blocks between two locations because one or both of them world is null or does not match ( not in the same world )");
+    }
+
+    /**
+     * Get the area world
+     *
+     * @return the area world
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Get the amount of blocks in the area
+     *
+     * @return the area blocks amount
+     */
+    public long volume() {
+        return (long) (xMax - xMin + 1) * (yMax - yMin + 1) * (zMax - zMin + 1);
+    }
+
+    /**
+     * Get the amount of blocks in the area
+     *
+     * @return the area blocks amount, or {@link Integer#MAX_VALUE}
+     * if it does not fit an int
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, volume());
+    }
+
+    /**
+     * Get if the area contains the block
+     *
+     * @param object the block
+     * @return if the block is in the area
+     */
+    @Override
+    public boolean contains(final Object object) {
+        if (!(object instanceof Block))
+            return false;
+
+        Block block = (Block) object;
+        int x = block.getX();
+        int y = block.getY();
+        int z = block.getZ();
+
+        return x >= xMin && x <= xMax && y >= yMin && y <= yMax && z >= zMin && z <= zMax
+                && block.getWorld().getUID().equals(world.getUID());
+    }
+
+    /**
+     * Get the area blocks iterator
+     *
+     * @return the area blocks iterator
+     */
+    @Override
+    public Iterator<Block> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Get the area blocks spliterator. The spliterator
+     * is split by chunks
+     *
+     * @return the area blocks spliterator
+     */
+    @Override
+    public Spliterator<Block> spliterator() {
+        return new Chunks(0, chunks, count(0, chunks));
+    }
+
+    /**
+     * Visit the coordinates of every block in the
+     * area, without creating the blocks
+     *
+     * @param visitor the coordinate visitor
+     */
+    public void forEachCoordinate(final CoordinateVisitor visitor) {
+        new Chunks(0, chunks, count(0, chunks)).forEachRemaining(visitor);
+    }
+
+    /**
+     * Get the amount of blocks in a range of chunks
+     *
+     * @param from the first chunk index
+     * @param to the last chunk index, exclusive
+     * @return the chunks blocks amount
+     */
+    private long count(final int from, final int to) {
+        long height = yMax - yMin + 1;
+        long total = 0;
+        for (int index = from; index < to; index++) {
+            int chunkX = chunkXMin + index / chunksZ;
+            int chunkZ = chunkZMin + index % chunksZ;
+
+            long width = Math.min(xMax, (chunkX << 4) + 15) - Math.max(xMin, chunkX << 4) + 1;
+            long length = Math.min(zMax, (chunkZ << 4) + 15) - Math.max(zMin, chunkZ << 4) + 1;
+            total += width * length * height;
+        }
+
+        return total;
+    }
+
+    /**
+     * A block coordinate visitor
+     */
+    @FunctionalInterface
+    public interface CoordinateVisitor {
+
+        /**
+         * Visit a block coordinate
+         *
+         * @param x the block x
+         * @param y the block y
+         * @param z the block z
+         */
+        void visit(final int x, final int y, final int z);
+    }
+
+    /**
+     * The area blocks of a range of chunks
+     */
+    private final class Chunks implements Spliterator<Block> {
+
+        private int index;
+        private final int fence;
+        private long remaining;
+
+        private boolean open = false;
+        private int x0, x1, z0, z1;
+        private int x, y, z;
+
+        /**
+         * Initialize the chunks spliterator
+         *
+         * @param from the first chunk index
+         * @param to the last chunk index, exclusive
+         * @param blocks the amount of blocks in the chunks
+         */
+        Chunks(final int from, final int to, final long blocks) {
+            index = from;
+            fence = to;
+            remaining = blocks;
+        }
+
+        /**
+         * Move to the next block
+         *
+         * @return if there was a next block
+         */
+        private boolean advance() {
+            if (open) {
+                if (++x <= x1) return true;
+                x = x0;
+                if (++z <= z1) return true;
+                z = z0;
+                if (++y <= yMax) return true;
+
+                open = false;
+                index++;
+            }
+            if (index >= fence)
+                return false;
+
+            int chunkX = chunkXMin + index / chunksZ;
+            int chunkZ = chunkZMin + index % chunksZ;
+
+            x0 = Math.max(xMin, chunkX << 4);
+            x1 = Math.min(xMax, (chunkX << 4) + 15);
+            z0 = Math.max(zMin, chunkZ << 4);
+            z1 = Math.min(zMax, (chunkZ << 4) + 15);
+
+            x = x0;
+            y = yMin;
+            z = z0;
+            open = true;
+
+            return true;
+        }
+
+        /**
+         * Visit the coordinates of the remaining blocks
+         *
+         * @param visitor the coordinate visitor
+         */
+        void forEachRemaining(final CoordinateVisitor visitor) {
+            while (advance()) {
+                remaining--;
+                visitor.visit(x, y, z);
+            }
+        }
+
+        /**
+         * Perform an action over the next block
+         *
+         * @param action the action
+         * @return if there was a next block
+         */
+        @Override
+        public boolean tryAdvance(final Consumer<? super Block> action) {
+            if (!advance())
+                return false;
+
+            remaining--;
+            action.accept(world.getBlockAt(x, y, z));
+            return true;
+        }
+
+        /**
+         * Perform an action over the remaining blocks
+         *
+         * @param action the action
+         */
+        @Override
+        public void forEachRemaining(final Consumer<? super Block> action) {
+            forEachRemaining((CoordinateVisitor) (bx, by, bz) -> action.accept(world.getBlockAt(bx, by, bz)));
+        }
+
+        /**
+         * Split the remaining chunks in two
+         *
+         * @return the first half of the chunks, or null
+         * if there are not enough chunks to split
+         */
+        @Override
+        public Spliterator<Block> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index)
+                return null;
+
+            long suffix = count(middle, fence);
+
+            Chunks prefix = new Chunks(index, middle, remaining - suffix);
+            prefix.open = open;
+            prefix.x0 = x0;
+            prefix.x1 = x1;
+            prefix.z0 = z0;
+            prefix.z1 = z1;
+            prefix.x = x;
+            prefix.y = y;
+            prefix.z = z;
+
+            index = middle;
+            remaining = suffix;
+            open = false;
+
+            return prefix;
+        }
+
+        /**
+         * Get the amount of remaining blocks
+         *
+         * @return the remaining blocks
+         */
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        /**
+         * Get the spliterator characteristics
+         *
+         * @return the spliterator characteristics
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+}
@@ -31,10 +31,8 @@ import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 
-import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Karma block utilities
@@ -46,71 +44,12 @@ public final class BlockUtil {
      *
      * @param loc1 the first location
      * @param loc2 the second location
-     * @return the blocks between the two locations
+     * @return the blocks between the two locations, as a read-only
+     * view that creates the blocks while iterating
      * @throws IllegalArgumentException if some worlds are null or does not match
      */
     public static Set<Block> getBlocksBetween(final Location loc1, final Location loc2) throws IllegalArgumentException {
-        World world1 = loc1.getWorld();
-        World world2 = loc2.getWorld();
-
-        if (world1 != null && world2 != null && world1.getUID().equals(world2.getUID())) {
-            Set<Block> blocks = Collections.newSetFromMap(new ConcurrentHashMap<>());
-
-            //Next we will name each coordinate
-            int x1 = loc1.getBlockX();
-            int y1 = loc1.getBlockY();
-            int z1 = loc1.getBlockZ();
-
-            int x2 = loc2.getBlockX();
-            int y2 = loc2.getBlockY();
-            int z2 = loc2.getBlockZ();
-
-            //Then we create the following integers
-            int xMin, yMin, zMin;
-            int xMax, yMax, zMax;
-            int x, y, z;
-
-            //Now we need to make sure xMin is always lower then xMax
-            if (x1 > x2) { //If x1 is a higher number then x2
-                xMin = x2;
-                xMax = x1;
-            } else {
-                xMin = x1;
-                xMax = x2;
-            }
-
-            //Same with Y
-            if (y1 > y2) {
-                yMin = y2;
-                yMax = y1;
-            } else {
-                yMin = y1;
-                yMax = y2;
-            }
-
-            //And Z
-            if (z1 > z2) {
-                zMin = z2;
-                zMax = z1;
-            } else {
-                zMin = z1;
-                zMax = z2;
-            }
-
-            //Now it's time for the loop
-            for (x = xMin; x <= xMax; x++) {
-                for (y = yMin; y <= yMax; y++) {
-                    for (z = zMin; z <= zMax; z++) {
-                        Block b = new Location(loc1.getWorld(), x, y, z).getBlock();
-                        blocks.add(b);
-                    }
-                }
-            }
-
-            return blocks;
-        } else {
-            throw new IllegalArgumentException("Cannot get blocks between two locations because one or both of them world is null or does not match ( not in the same world )");
-        }
+        return BlockArea.between(loc1, loc2);
     }
 
     /**
@@ -29,7 +29,7 @@ import ml.karmaconfigs.api.bukkit.KarmaPlugin;
 import ml.karmaconfigs.api.bukkit.reflection.BarMessage;
 import ml.karmaconfigs.api.bukkit.reflection.TitleMessage;
 import ml.karmaconfigs.api.common.karma.KarmaAPI;
-import ml.karmaconfigs.api.common.utils.placeholder.GlobalPlaceholderEngine;
+import ml.karmaconfigs.api.common.utils.placeholder.PlaceholderChain;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.entity.Player;
@@ -37,6 +37,7 @@ import org.bukkit.entity.Player;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -46,6 +47,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class BukkitClient extends Client {
 
     private final static Set<KarmaPlugin> placeholders = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final static Map<KarmaPlugin, PlaceholderChain> chains = new ConcurrentHashMap<>();
     
     private final KarmaPlugin plugin;
     private final Player player;
@@ -69,12 +71,8 @@ public class BukkitClient extends Client {
     @Override
     public void sendMessage(String message) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            message = engine.parse(message, player);
+            PlaceholderChain chain = chain();
+            message = chain.parse(message, player);
         }
         
         player.sendMessage(StringUtils.toColor(message));
@@ -98,12 +96,8 @@ public class BukkitClient extends Client {
     @Override
     public void sendMessage(String message, Object... replaces) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            message = engine.parse(message, player);
+            PlaceholderChain chain = chain();
+            message = chain.parse(message, player);
         }
         
         player.sendMessage(StringUtils.toColor(StringUtils.formatString(message, replaces)));
@@ -118,15 +112,9 @@ public class BukkitClient extends Client {
     @Override
     public void sendTitle(String title, String subtitle) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            title = engine.parse(title, player);
-            subtitle = engine.parse(subtitle, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            title = engine.parse(title, player);
-            subtitle = engine.parse(subtitle, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            title = engine.parse(title, player);
-            subtitle = engine.parse(subtitle, player);
+            PlaceholderChain chain = chain();
+            title = chain.parse(title, player);
+            subtitle = chain.parse(subtitle, player);
         }
         
         TitleMessage message = new TitleMessage(player, title, subtitle);
@@ -145,15 +133,9 @@ public class BukkitClient extends Client {
     @Override
     public void sendTitle(String title, String subtitle, int showIn, int keepIn, int hideIn) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            title = engine.parse(title, player);
-            subtitle = engine.parse(subtitle, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            title = engine.parse(title, player);
-            subtitle = engine.parse(subtitle, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            title = engine.parse(title, player);
-            subtitle = engine.parse(subtitle, player);
+            PlaceholderChain chain = chain();
+            title = chain.parse(title, player);
+            subtitle = chain.parse(subtitle, player);
         }
         
         TitleMessage message = new TitleMessage(player, title, subtitle);
@@ -169,12 +151,8 @@ public class BukkitClient extends Client {
     @Override
     public void sendActionBar(String message, int repeats) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            message = engine.parse(message, player);
+            PlaceholderChain chain = chain();
+            message = chain.parse(message, player);
         }
 
         BarMessage bar = new BarMessage(player, message);
@@ -190,12 +168,8 @@ public class BukkitClient extends Client {
     @Override
     public void sendActionBar(String message, boolean persistent) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            message = engine.parse(message, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            message = engine.parse(message, player);
+            PlaceholderChain chain = chain();
+            message = chain.parse(message, player);
         }
 
         BarMessage bar = new BarMessage(player, message);
@@ -210,12 +184,8 @@ public class BukkitClient extends Client {
     @Override
     public void disconnect(List<String> reason) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            reason = engine.parse(reason, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            reason = engine.parse(reason, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            reason = engine.parse(reason, player);
+            PlaceholderChain chain = chain();
+            reason = chain.parse(reason, player);
         }
         
         player.kickPlayer(StringUtils.toColor(StringUtils.listToString(reason, false)));
@@ -229,12 +199,8 @@ public class BukkitClient extends Client {
     @Override
     public void disconnect(String... reason) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            reason = engine.parse(reason, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            reason = engine.parse(reason, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            reason = engine.parse(reason, player);
+            PlaceholderChain chain = chain();
+            reason = chain.parse(reason, player);
         }
 
         player.kickPlayer(StringUtils.toColor(StringUtils.listToString(Arrays.asList(reason), false)));
@@ -248,17 +214,24 @@ public class BukkitClient extends Client {
     @Override
     public void disconnect(String reason) {
         if (placeholders.contains(plugin)) {
-            GlobalPlaceholderEngine engine = new GlobalPlaceholderEngine(plugin);
-            reason = engine.parse(reason, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(false));
-            reason = engine.parse(reason, player);
-            engine = new GlobalPlaceholderEngine(KarmaAPI.source(true));
-            reason = engine.parse(reason, player);
+            PlaceholderChain chain = chain();
+            reason = chain.parse(reason, player);
         }
 
         player.kickPlayer(StringUtils.toColor(reason));
     }
 
+    /**
+     * Get the placeholder chain of the client owner, which
+     * resolves the owner, KarmaAPI and KarmaAPI source
+     * placeholders in a single pass
+     *
+     * @return the owner placeholder chain
+     */
+    private PlaceholderChain chain() {
+        return chains.computeIfAbsent(plugin, (owner) -> PlaceholderChain.of(owner, KarmaAPI.source(false), KarmaAPI.source(true)));
+    }
+
     /**
      * Set the current plugin placeholder status
      * for bukkit client
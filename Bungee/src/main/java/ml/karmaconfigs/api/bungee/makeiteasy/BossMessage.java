@@ -27,21 +27,30 @@ package ml.karmaconfigs.api.bungee.makeiteasy;
 
 import ml.karmaconfigs.api.common.boss.*;
 import ml.karmaconfigs.api.common.karma.KarmaSource;
-import ml.karmaconfigs.api.common.timer.SchedulerUnit;
-import ml.karmaconfigs.api.common.timer.SourceScheduler;
-import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
-import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Karma boss bar message
  */
 public final class BossMessage extends BossProvider<ProxiedPlayer> {
 
+    /**
+     * The max amount of bars that can be shown
+     * at the same time
+     */
+    private final static int MAX_BARS = 4;
+
+    /**
+     * The boss bars multiplexer, every bar update is
+     * sent from its task
+     */
+    private final static BossMultiplexer<ProxiedPlayer> multiplexer = new BossMultiplexer<>(new BarUtil());
+
     /**
      * Boss bar source
      */
@@ -58,23 +67,19 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
     private final double live_time;
 
     /**
-     * Boss bars amount
+     * The boss bars waiting to be shown
      */
-    private static int bars = 0;
+    private final static Queue<Pending> b_bars = new ConcurrentLinkedQueue<>();
 
     /**
-     * List of boss bars
+     * The boss bars being shown
      */
-    private static final List<BossMessage> b_bars = new ArrayList<>();
+    private final static Set<BossMessage> active = ConcurrentHashMap.newKeySet();
 
     /**
      * A map containing id => boss bar
      */
-    private static final Map<Integer, BossMessage> boss_bars = new LinkedHashMap<>();
-    /**
-     * A map containing id => bar util
-     */
-    private static final Map<Integer, BarUtil> bar_objects = new LinkedHashMap<>();
+    private final static Map<Integer, BossMessage> boss_bars = new ConcurrentHashMap<>();
 
     /**
      * Boss bar shown players
@@ -99,10 +104,20 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
      */
     private double lived_time = 0.0;
 
+    /**
+     * The seconds the boss bar has been shown
+     */
+    private volatile int elapsed = 0;
+
+    /**
+     * The time of the next boss bar step
+     */
+    private long next_step = 0;
+
     /**
      * If the boss bar is cancelled
      */
-    private boolean cancelled = false;
+    private volatile boolean cancelled = false;
 
     /**
      * Last boss bar ID, used for new boss bar
@@ -116,9 +131,18 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
     private final int id;
 
     /**
-     * Boss bar timer
+     * The shown boss bar
+     */
+    private volatile BossMultiplexer.Channel<ProxiedPlayer> channel = null;
+
+    /**
+     * The players the boss bar is shown to
      */
-    private SimpleScheduler bar_timer = null;
+    private Collection<ProxiedPlayer> viewers = Collections.emptyList();
+
+    static {
+        multiplexer.onTick(BossMessage::tick);
+    }
 
     /**
      * Initialize the boss message
@@ -193,8 +217,6 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
             }
         }
 
-        bars++;
-
         if (cancelled) {
             cancelled = false;
         }
@@ -210,77 +232,97 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
             }
         }
 
-        BarUtil bar = BarUtil
-                .builder()
-                .color(color)
-                .style(type)
-                .player(players.toArray(new ProxiedPlayer[0]))
-                .health(1.0f)
-                .title(TextComponent.fromLegacyText(StringUtils.toColor(message)))
-                .build();
-        bar.setVisible(true);
-
-        bar_objects.put(id, bar);
-        bar_timer = new SourceScheduler(plugin, live_time, SchedulerUnit.SECOND, false).cancelUnloaded(false);
-
-        bar_timer.endAction(() -> {
-            bar.setVisible(false);
-            bar.removeAllPlayers();
-            boss_bars.remove(id);
-            bar_objects.remove(id);
-
-            for (ProxiedPlayer client : fixed) {
-                shown.remove(client.getUniqueId());
-            }
-            bars--;
-        }).cancelAction(time -> {
-            bar.setVisible(false);
-            bar.removeAllPlayers();
-            boss_bars.remove(id);
-            bar_objects.remove(id);
-
-            for (ProxiedPlayer client : fixed) {
-                shown.remove(client.getUniqueId());
-            }
-            bars--;
-        }).start();
-
-        SimpleScheduler hp_timer = new SourceScheduler(plugin, live_time - 1.0, SchedulerUnit.SECOND, false).cancelUnloaded(false);
-        hp_timer.changeAction(second -> {
-            if (!cancelled) {
-                try {
-                    bar.setColor(color);
-                    bar.setStyle(type);
-                    double life_value;
-
-                    switch (progress) {
-                        case UP:
-                            life_value = lived_time / live_time;
-                            if (life_value <= 1.0 && life_value >= 0.0) {
-                                bar.setHealth((float) life_value);
-                                lived_time++;
-                            } else {
-                                cancel();
-                            }
-                            break;
-                        case DOWN:
-                            life_value = second / live_time;
-                            if (life_value <= 1.0 && life_value >= 0.0) {
-                                bar.setHealth((float) life_value);
-                                lived_time--;
-                            } else {
-                                cancel();
-                            }
-                            break;
-                    }
-                } catch (Throwable ex) {
+        BossMultiplexer.Channel<ProxiedPlayer> bar = multiplexer.create(StringUtils.toColor(message), color, type, 1.0f);
+        bar.addViewers(fixed);
+
+        viewers = fixed;
+        elapsed = 0;
+        next_step = System.currentTimeMillis() + 1000;
+        channel = bar;
+
+        active.add(this);
+    }
+
+    /**
+     * Advance the boss bar, once per second
+     *
+     * @param now the current time
+     */
+    private void step(final long now) {
+        if (cancelled) {
+            end();
+            return;
+        }
+        if (now < next_step)
+            return;
+        next_step += 1000;
+
+        BossMultiplexer.Channel<ProxiedPlayer> bar = channel;
+        bar.setColor(color);
+        bar.setType(type);
+        double life_value;
+
+        switch (progress) {
+            case UP:
+                life_value = lived_time / live_time;
+                if (life_value <= 1.0 && life_value >= 0.0) {
+                    bar.setProgress((float) life_value);
+                    lived_time++;
+                } else {
                     cancel();
                 }
-            } else {
-                bar_timer.cancel();
-                hp_timer.cancel();
-            }
-        }).start();
+                break;
+            case DOWN:
+                life_value = lived_time / live_time;
+                if (life_value <= 1.0 && life_value >= 0.0) {
+                    bar.setProgress((float) life_value);
+                    lived_time--;
+                } else {
+                    cancel();
+                }
+                break;
+        }
+
+        if (++elapsed >= live_time)
+            end();
+    }
+
+    /**
+     * Hide the boss bar from its players
+     */
+    private void end() {
+        if (!active.remove(this))
+            return;
+
+        channel.destroy();
+        boss_bars.remove(id);
+
+        for (ProxiedPlayer client : viewers) {
+            shown.remove(client.getUniqueId());
+        }
+    }
+
+    /**
+     * Advance the shown boss bars and show
+     * the scheduled ones when there's room
+     *
+     * @return if there are bars shown or
+     * waiting to be shown
+     */
+    private static boolean tick() {
+        long now = System.currentTimeMillis();
+        for (BossMessage boss : active)
+            boss.step(now);
+
+        while (active.size() < MAX_BARS) {
+            Pending pending = b_bars.poll();
+            if (pending == null)
+                break;
+
+            pending.boss.displayBar(pending.players);
+        }
+
+        return !active.isEmpty() || !b_bars.isEmpty();
     }
 
     /**
@@ -290,17 +332,9 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
      */
     @Override
     public void scheduleBar(final Collection<ProxiedPlayer> players) {
-        b_bars.add(this);
         boss_bars.put(id, this);
-
-        SimpleScheduler timer = new SourceScheduler(plugin, 1, SchedulerUnit.SECOND, false).cancelUnloaded(false).multiThreading(true);
-        timer.changeAction(milli -> {
-            if (!b_bars.isEmpty() && getBarsAmount() < 4) {
-                BossMessage boss = b_bars.get(0);
-                boss.displayBar(players);
-                b_bars.remove(boss);
-            }
-        }).start();
+        b_bars.add(new Pending(this, new ArrayList<>(players)));
+        multiplexer.start();
     }
 
     /**
@@ -310,17 +344,9 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
      */
     @Override
     public void scheduleBar(final ProxiedPlayer player) {
-        b_bars.add(this);
         boss_bars.put(id, this);
-
-        SimpleScheduler timer = new SourceScheduler(plugin, 1, SchedulerUnit.SECOND, false).cancelUnloaded(false).multiThreading(true);
-        timer.changeAction(milli -> {
-            if (!b_bars.isEmpty() && getBarsAmount() < 4) {
-                BossMessage boss = b_bars.get(0);
-                boss.displayBar(Collections.singleton(player));
-                b_bars.remove(boss);
-            }
-        }).start();
+        b_bars.add(new Pending(this, Collections.singleton(player)));
+        multiplexer.start();
     }
 
     /**
@@ -330,7 +356,7 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
      */
     @Override
     public int getBarsAmount() {
-        return bars;
+        return active.size();
     }
 
     /**
@@ -352,18 +378,18 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
      */
     @Override
     public boolean update(final String _message, final boolean restart) {
-        try {
-            message = _message;
-            BarUtil bar = bar_objects.get(id);
-            bar.setTitle(TextComponent.fromLegacyText(StringUtils.toColor(message)));
-            if (bar_timer != null && restart) {
-                bar_timer.restart();
-            }
+        message = _message;
 
-            return true;
-        } catch (Throwable ex) {
+        BossMultiplexer.Channel<ProxiedPlayer> bar = channel;
+        if (bar == null || bar.isDestroyed())
             return false;
+
+        bar.setTitle(StringUtils.toColor(message));
+        if (restart) {
+            elapsed = 0;
         }
+
+        return true;
     }
 
     /**
@@ -385,7 +411,7 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
      */
     @Override
     public boolean isValid() {
-        return bar_objects.containsKey(id);
+        return active.contains(this);
     }
 
     /**
@@ -428,6 +454,26 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
         return type;
     }
 
+    /**
+     * A boss bar waiting to be shown
+     */
+    private final static class Pending {
+
+        private final BossMessage boss;
+        private final Collection<ProxiedPlayer> players;
+
+        /**
+         * Initialize the scheduled boss bar
+         *
+         * @param b the boss bar
+         * @param p the players to display to
+         */
+        Pending(final BossMessage b, final Collection<ProxiedPlayer> p) {
+            boss = b;
+            players = p;
+        }
+    }
+
     /**
      * Boss bar getters
      */
@@ -455,5 +501,14 @@ public final class BossMessage extends BossProvider<ProxiedPlayer> {
                 throw new BossNotFoundException(id, boss_bars.keySet());
             }
         }
+
+        /**
+         * Get the boss bar packets sent per second
+         *
+         * @return the boss bar packets per second
+         */
+        static double getPacketsPerSecond() {
+            return multiplexer.getPacketsPerSecond();
+        }
     }
 }
@@ -27,23 +27,22 @@ package ml.karmaconfigs.api.common;
 
 import ml.karmaconfigs.api.common.karma.KarmaAPI;
 import ml.karmaconfigs.api.common.karma.KarmaSource;
-import ml.karmaconfigs.api.common.utils.ConcurrentList;
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import ml.karmaconfigs.api.common.utils.KarmaLogger;
 import ml.karmaconfigs.api.common.utils.enums.Level;
 import ml.karmaconfigs.api.common.utils.enums.LogCalendar;
 import ml.karmaconfigs.api.common.utils.enums.LogExtension;
+import ml.karmaconfigs.api.common.utils.enums.LogOverflow;
 import ml.karmaconfigs.api.common.utils.file.PathUtilities;
+import ml.karmaconfigs.api.common.utils.logging.LogRing;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedWriter;
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.Calendar;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -66,13 +65,9 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      */
     private static final Map<KarmaSource, String> header = new ConcurrentHashMap<>();
     /**
-     * A map that contains source => log contains header
+     * A map that contains source => log ring buffer
      */
-    private static final Map<KarmaSource, Boolean> header_added = new ConcurrentHashMap<>();
-    /**
-     * A map that contains source => log scheduled to print
-     */
-    private static final Map<KarmaSource, List<String>> buffer = new ConcurrentHashMap<>();
+    private static final Map<KarmaSource, LogRing> buffer = new ConcurrentHashMap<>();
 
     /**
      * The logger source
@@ -111,15 +106,21 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
                 StringUtils.formatString("Author(s): {0}<br>\n", this.source.authors(true, "<br>- ")) +
                 StringUtils.formatString("Update URL: {0}<br>\n", this.source.updateURL()) +
                 "\n# Beginning of log<br><br>\n\n");
+    }
 
-        List<String> stored_log = buffer.getOrDefault(source, new ConcurrentList<>());
-        if (!header_added.getOrDefault(source, false)) {
-            stored_log.add(header.get(this.source));
-            header_added.put(source, true);
-
-            //Basically the logger will always start with at least the header
-            buffer.put(source, stored_log);
-        }
+    /**
+     * Get the source log ring buffer
+     *
+     * @return the source log ring buffer
+     */
+    private LogRing ring() {
+        return buffer.computeIfAbsent(source, (key) -> {
+            KarmaConfig config = new KarmaConfig();
+            return new LogRing(config.logBufferSize(), config.logOverflow(), config.logOverflowLevel(),
+                    () -> getLoggerFile(ext_type.getOrDefault(key, LogExtension.MARKDOWN)),
+                    () -> header.get(key),
+                    () -> calendar_type.getOrDefault(key, LogCalendar.GREGORIAN));
+        });
     }
 
     /**
@@ -142,13 +143,55 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      */
     @SuppressWarnings("unused")
     public BufferedLogger extension(LogExtension extension) {
-        ext_type.put(this.source, extension);
+        LogExtension previous = ext_type.put(this.source, extension);
+        if (previous != extension) {
+            LogRing ring = buffer.getOrDefault(this.source, null);
+            if (ring != null)
+                ring.reset();
+        }
+
+        return this;
+    }
+
+    /**
+     * Set what the logger does when its
+     * buffer is full
+     *
+     * @param policy the overflow policy
+     * @return this instance
+     */
+    @SuppressWarnings("unused")
+    public BufferedLogger overflow(final LogOverflow policy) {
+        ring().setOverflow(policy);
+        return this;
+    }
+
+    /**
+     * Set the minimum level an entry must have to not
+     * be discarded by {@link LogOverflow#DROP_LEVEL_BELOW}
+     *
+     * @param level the overflow level
+     * @return this instance
+     */
+    @SuppressWarnings("unused")
+    public BufferedLogger overflowLevel(final Level level) {
+        ring().setOverflowLevel(level);
         return this;
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Get the amount of entries discarded because
+     * the buffer was full
+     *
+     * @return the dropped entries
+     */
+    public long dropped() {
+        return ring().dropped();
+    }
+
+    /**
+     * Buffer the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param info the info to log
@@ -156,24 +199,24 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      */
     @Override
     public void scheduleLog(final @NotNull Level level, final @NotNull CharSequence info, final @NotNull Object... replaces) {
-        source.async().queue("asynchronous_log", () -> logInfo(level, printInfo(), info, replaces));
+        logInfo(level, printInfo(), info, replaces);
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Buffer the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param error the error to log
      */
     @Override
     public void scheduleLog(final @NotNull Level level, final @NotNull Throwable error) {
-        source.async().queue("asynchronous_log", () -> logError(level, printError(), error));
+        logError(level, printError(), error);
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Buffer the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param print print info to console
@@ -182,12 +225,12 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      */
     @Override
     public void scheduleLogOption(final Level level, final boolean print, final CharSequence info, final Object... replaces) {
-        source.async().queue("asynchronous_log", () -> logInfo(level, print, info, replaces));
+        logInfo(level, print, info, replaces);
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Buffer the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param print print info to console
@@ -195,7 +238,7 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      */
     @Override
     public void scheduleLogOption(final Level level, final boolean print, final Throwable error) {
-        source.async().queue("asynchronous_log", () -> logError(level, print, error));
+        logError(level, print, error);
     }
 
     /**
@@ -208,7 +251,7 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      */
     @Override
     public void syncedLog(final Level level, final CharSequence info, final Object... replaces) {
-        source.sync().queue("asynchronous_log", () -> logInfo(level, printInfo(), info, replaces));
+        source.sync().queue("synchronous_log", () -> logInfo(level, printInfo(), info, replaces));
     }
 
     /**
@@ -259,25 +302,15 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      * @param replaces the info replaces
      */
     private void logInfo(final Level level, final boolean print, final CharSequence info, final Object... replaces) {
-            List<String> stored_log = buffer.getOrDefault(source, new ConcurrentList<>());
-            String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
-
-            try {
-                if (!header_added.getOrDefault(source, false)) {
-                    stored_log.add(header.get(this.source));
-                    header_added.put(source, true);
-                }
-
-                stored_log.add(StringUtils.formatString("[ {0} - {1} ] {2}<br>", level.name(), time, StringUtils.formatString(info, replaces)));
-
-                buffer.put(source, stored_log);
-            } catch (Throwable ex) {
-                ex.printStackTrace();
-            } finally {
-                if (print) {
-                    source.console().send(info, level);
-                }
+        try {
+            ring().publish(level, info, replaces);
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+        } finally {
+            if (print) {
+                source.console().send(info, level);
             }
+        }
     }
 
     /**
@@ -288,23 +321,8 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
      * @param error the error
      */
     private void logError(final Level level, final boolean print, final Throwable error) {
-        List<String> stored_log = buffer.getOrDefault(source, new ConcurrentList<>());
-        String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
-
         try {
-            if (!header_added.getOrDefault(source, false)) {
-                stored_log.add(header.get(this.source));
-                header_added.put(source, true);
-            }
-
-            Throwable prefix = new Throwable(error);
-            stored_log.add(StringUtils.formatString("[ {0} - {1} ] {2}\n", level.name(), time, prefix.fillInStackTrace()));
-            stored_log.add("```java\n");
-            for (StackTraceElement element : error.getStackTrace())
-                stored_log.add(element + "\n");
-            stored_log.add("```");
-
-            buffer.put(source, stored_log);
+            ring().publish(level, error);
         } catch (Throwable ex) {
             ex.printStackTrace();
         } finally {
@@ -319,39 +337,26 @@ public final class BufferedLogger extends KarmaLogger implements Serializable {
     }
 
     /**
-     * Clear the log info
+     * Clear the log info that has not been
+     * written yet
      */
     @Override
     public synchronized void clearLog() {
-        buffer.remove(source);
+        ring().clear();
     }
 
     /**
-     * Flush the log data if the
-     * log auto flush is turned off
-     *
-     * WARNING: This will replace all the log file
-     * content, this should be used only for applications
-     * that runs once -> generate a log file and then
-     * switch log file. You can change the log file
-     * by overriding {@link KarmaLogger#getLoggerFile(LogExtension)}
-     *
-     * DOES NOTHING ON {@link Logger}
+     * Write all the buffered log entries to
+     * the log file. Entries are also written in
+     * the background, so this is only needed when
+     * the log file must be up-to-date right now
      *
      * @return if the log could be flushed
      */
     @Override
     public boolean flush() {
         try {
-            BufferedWriter writer = Files.newBufferedWriter(getLoggerFile(ext_type.getOrDefault(source, LogExtension.MARKDOWN)), StandardCharsets.UTF_8);
-            List<String> lines = buffer.remove(source);
-            for (String str : lines)
-                writer.write(str + "\n");
-
-            writer.flush();
-            writer.close();
-
-            header_added.put(source, false);
+            ring().flush();
             return true;
         } catch (Throwable ex) {
             ex.printStackTrace();
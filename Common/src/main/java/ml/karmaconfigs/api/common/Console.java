@@ -31,6 +31,7 @@ import ml.karmaconfigs.api.common.utils.PrefixConsoleData;
 import ml.karmaconfigs.api.common.utils.enums.Level;
 import ml.karmaconfigs.api.common.utils.placeholder.GlobalPlaceholderEngine;
 import ml.karmaconfigs.api.common.utils.placeholder.util.PlaceholderEngine;
+import ml.karmaconfigs.api.common.utils.string.FormatTemplate;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import ml.karmaconfigs.api.common.utils.string.color.ConsoleColor;
 import org.jetbrains.annotations.NotNull;
@@ -38,6 +39,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Karma console
@@ -50,6 +52,11 @@ public final class Console {
     private final static Map<KarmaSource, Consumer<String>> messageActions = new ConcurrentHashMap<>();
     private final static Map<KarmaSource, Set<PlaceholderEngine>> engines = new ConcurrentHashMap<>();
 
+    /**
+     * The API configuration
+     */
+    private final static KarmaConfig config = new KarmaConfig();
+
     /**
      * The console source
      */
@@ -84,8 +91,6 @@ public final class Console {
 
             messageActions.put(src, onMessage);
             if (isNew) {
-                KarmaConfig config = new KarmaConfig();
-
                 if (config.debug(Level.INFO)) {
                     send(StringUtils.formatString(src, "Using custom console message sender", Level.INFO));
                 }
@@ -174,11 +179,7 @@ public final class Console {
         Consumer<String> messageAction = messageActions.getOrDefault(source, null);
 
         String tmpMessage = String.valueOf(message);
-        for (int i = 0; i < replaces.length; i++) {
-            String placeholder = "{" + i + "}";
-            String value = String.valueOf(replaces[i]);
-            tmpMessage = tmpMessage.replace(placeholder, value);
-        }
+        tmpMessage = FormatTemplate.format(tmpMessage, replaces);
 
         Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
         for (PlaceholderEngine engine : added)
@@ -198,43 +199,7 @@ public final class Console {
      * @param level the message level
      */
     public void send(final @NotNull CharSequence message, final @NotNull Level level) {
-        Consumer<String> messageAction = messageActions.getOrDefault(source, null);
-
-        String tmpMessage = String.valueOf(message);
-        String prefix = "&b[ &fALERT &b] &7NONE: &b";
-        PrefixConsoleData data = getData();
-        switch (level) {
-            case OK:
-                prefix = data.getOkPrefix();
-                break;
-            case INFO:
-                prefix = data.getInfoPrefix();
-                break;
-            case WARNING:
-                prefix = data.getWarningPrefix();
-                break;
-            case GRAVE:
-                prefix = data.getGravePrefix();
-                break;
-        }
-        tmpMessage = StringUtils.stripColor(tmpMessage);
-        Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        for (PlaceholderEngine engine : added)
-            tmpMessage = engine.parse(tmpMessage);
-
-        if (messageAction == null) {
-            if (tmpMessage.contains("\n")) {
-                for (String msg : tmpMessage.split("\n"))
-                    send( msg);
-            } else {
-                send(prefix + tmpMessage);
-            }
-        } else {
-            if (tmpMessage.contains("\n"))
-                tmpMessage = StringUtils.listToString(Arrays.asList(tmpMessage.split("\n")), false);
-
-            messageAction.accept(prefix + tmpMessage);
-        }
+        print(level, String.valueOf(message));
     }
 
     /**
@@ -244,47 +209,20 @@ public final class Console {
      * @param level the message level
      */
     public void debug(final @NotNull CharSequence message, final @NotNull Level level) {
-        KarmaConfig config = new KarmaConfig();
-
-        if (config.debug(level)) {
-            Consumer<String> messageAction = messageActions.getOrDefault(source, null);
-
-            String tmpMessage = String.valueOf(message);
-            String prefix = "&b[ &fALERT &b] &7NONE: &b";
-            PrefixConsoleData data = getData();
-            switch (level) {
-                case OK:
-                    prefix = data.getOkPrefix();
-                    break;
-                case INFO:
-                    prefix = data.getInfoPrefix();
-                    break;
-                case WARNING:
-                    prefix = data.getWarningPrefix();
-                    break;
-                case GRAVE:
-                    prefix = data.getGravePrefix();
-                    break;
-            }
-            tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                tmpMessage = engine.parse(tmpMessage);
-
-            if (messageAction == null) {
-                if (tmpMessage.contains("\n")) {
-                    for (String msg : tmpMessage.split("\n"))
-                        send(msg);
-                } else {
-                    send(prefix + tmpMessage);
-                }
-            } else {
-                if (tmpMessage.contains("\n"))
-                    tmpMessage = StringUtils.listToString(Arrays.asList(tmpMessage.split("\n")), false);
+        if (config.debug(level))
+            print(level, String.valueOf(message));
+    }
 
-                messageAction.accept(prefix + tmpMessage);
-            }
-        }
+    /**
+     * Send a message to the console. The message is only
+     * built if the level is allowed to debug
+     *
+     * @param message the message to send
+     * @param level the message level
+     */
+    public void debug(final @NotNull Supplier<? extends CharSequence> message, final @NotNull Level level) {
+        if (config.debug(level))
+            print(level, String.valueOf(message.get()));
     }
 
     /**
@@ -294,47 +232,20 @@ public final class Console {
      * @param level the message level
      */
     public void debugFile(final @NotNull CharSequence message, final @NotNull Level level) {
-        KarmaConfig config = new KarmaConfig();
-
-        if (config.fileDebug(level)) {
-            Consumer<String> messageAction = messageActions.getOrDefault(source, null);
-
-            String tmpMessage = String.valueOf(message);
-            String prefix = "&b[ &fALERT &b] &7NONE: &b";
-            PrefixConsoleData data = getData();
-            switch (level) {
-                case OK:
-                    prefix = data.getOkPrefix();
-                    break;
-                case INFO:
-                    prefix = data.getInfoPrefix();
-                    break;
-                case WARNING:
-                    prefix = data.getWarningPrefix();
-                    break;
-                case GRAVE:
-                    prefix = data.getGravePrefix();
-                    break;
-            }
-            tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                tmpMessage = engine.parse(tmpMessage);
-
-            if (messageAction == null) {
-                if (tmpMessage.contains("\n")) {
-                    for (String msg : tmpMessage.split("\n"))
-                        send(msg);
-                } else {
-                    send(prefix + tmpMessage);
-                }
-            } else {
-                if (tmpMessage.contains("\n"))
-                    tmpMessage = StringUtils.listToString(Arrays.asList(tmpMessage.split("\n")), false);
+        if (config.fileDebug(level))
+            print(level, String.valueOf(message));
+    }
 
-                messageAction.accept(prefix + tmpMessage);
-            }
-        }
+    /**
+     * Send a message to the console. The message is only
+     * built if the level is allowed to debug
+     *
+     * @param message the message to send
+     * @param level the message level
+     */
+    public void debugFile(final @NotNull Supplier<? extends CharSequence> message, final @NotNull Level level) {
+        if (config.fileDebug(level))
+            print(level, String.valueOf(message.get()));
     }
 
     /**
@@ -344,47 +255,20 @@ public final class Console {
      * @param level the message level
      */
     public void debugUtil(final @NotNull CharSequence message, final @NotNull Level level) {
-        KarmaConfig config = new KarmaConfig();
-
-        if (config.utilDebug(level)) {
-            Consumer<String> messageAction = messageActions.getOrDefault(source, null);
-
-            String tmpMessage = String.valueOf(message);
-            String prefix = "&b[ &fALERT &b] &7NONE: &b";
-            PrefixConsoleData data = getData();
-            switch (level) {
-                case OK:
-                    prefix = data.getOkPrefix();
-                    break;
-                case INFO:
-                    prefix = data.getInfoPrefix();
-                    break;
-                case WARNING:
-                    prefix = data.getWarningPrefix();
-                    break;
-                case GRAVE:
-                    prefix = data.getGravePrefix();
-                    break;
-            }
-            tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                tmpMessage = engine.parse(tmpMessage);
-
-            if (messageAction == null) {
-                if (tmpMessage.contains("\n")) {
-                    for (String msg : tmpMessage.split("\n"))
-                        send(msg);
-                } else {
-                    send(prefix + tmpMessage);
-                }
-            } else {
-                if (tmpMessage.contains("\n"))
-                    tmpMessage = StringUtils.listToString(Arrays.asList(tmpMessage.split("\n")), false);
+        if (config.utilDebug(level))
+            print(level, String.valueOf(message));
+    }
 
-                messageAction.accept(prefix + tmpMessage);
-            }
-        }
+    /**
+     * Send a message to the console. The message is only
+     * built if the level is allowed to debug
+     *
+     * @param message the message to send
+     * @param level the message level
+     */
+    public void debugUtil(final @NotNull Supplier<? extends CharSequence> message, final @NotNull Level level) {
+        if (config.utilDebug(level))
+            print(level, String.valueOf(message.get()));
     }
 
     /**
@@ -395,9 +279,55 @@ public final class Console {
      * @param replaces the message replaces
      */
     public void send(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
+        print(level, FormatTemplate.format(String.valueOf(message), replaces));
+    }
+
+    /**
+     * Send a message to the console
+     *
+     * @param message the message to send
+     * @param level the message level
+     * @param replaces the message replaces
+     */
+    public void debug(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
+        if (config.debug(level))
+            print(level, FormatTemplate.format(String.valueOf(message), replaces));
+    }
+
+    /**
+     * Send a message to the console
+     *
+     * @param message the message to send
+     * @param level the message level
+     * @param replaces the message replaces
+     */
+    public void debugFile(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
+        if (config.fileDebug(level))
+            print(level, FormatTemplate.format(String.valueOf(message), replaces));
+    }
+
+    /**
+     * Send a message to the console
+     *
+     * @param message the message to send
+     * @param level the message level
+     * @param replaces the message replaces
+     */
+    public void debugUtil(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
+        if (config.utilDebug(level))
+            print(level, FormatTemplate.format(String.valueOf(message), replaces));
+    }
+
+    /**
+     * Print a level message, once the level has
+     * been allowed
+     *
+     * @param level the message level
+     * @param message the message to print
+     */
+    private void print(final Level level, final String message) {
         Consumer<String> messageAction = messageActions.getOrDefault(source, null);
 
-        String tmpMessage = String.valueOf(message);
         String prefix = "&b[ &fALERT &b] &7NONE: &b";
         PrefixConsoleData data = getData();
         switch (level) {
@@ -414,12 +344,8 @@ public final class Console {
                 prefix = data.getGravePrefix();
                 break;
         }
-        for (int i = 0; i < replaces.length; i++) {
-            String placeholder = "{" + i + "}";
-            String value = String.valueOf(replaces[i]);
-            tmpMessage = tmpMessage.replace(placeholder, value);
-        }
-        tmpMessage = StringUtils.stripColor(tmpMessage);
+
+        String tmpMessage = StringUtils.stripColor(message);
         Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
         for (PlaceholderEngine engine : added)
             tmpMessage = engine.parse(tmpMessage);
@@ -438,172 +364,4 @@ public final class Console {
             messageAction.accept(prefix + tmpMessage);
         }
     }
-
-    /**
-     * Send a message to the console
-     *
-     * @param message the message to send
-     * @param level the message level
-     * @param replaces the message replaces
-     */
-    public void debug(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
-        KarmaConfig config = new KarmaConfig();
-
-        if (config.debug(level)) {
-            Consumer<String> messageAction = messageActions.getOrDefault(source, null);
-
-            String tmpMessage = String.valueOf(message);
-            String prefix = "&b[ &fALERT &b] &7NONE: &b";
-            PrefixConsoleData data = getData();
-            switch (level) {
-                case OK:
-                    prefix = data.getOkPrefix();
-                    break;
-                case INFO:
-                    prefix = data.getInfoPrefix();
-                    break;
-                case WARNING:
-                    prefix = data.getWarningPrefix();
-                    break;
-                case GRAVE:
-                    prefix = data.getGravePrefix();
-                    break;
-            }
-            for (int i = 0; i < replaces.length; i++) {
-                String placeholder = "{" + i + "}";
-                String value = String.valueOf(replaces[i]);
-                tmpMessage = tmpMessage.replace(placeholder, value);
-            }
-            tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                tmpMessage = engine.parse(tmpMessage);
-
-            if (messageAction == null) {
-                if (tmpMessage.contains("\n")) {
-                    for (String msg : tmpMessage.split("\n"))
-                        send(msg);
-                } else {
-                    send(prefix + tmpMessage);
-                }
-            } else {
-                if (tmpMessage.contains("\n"))
-                    tmpMessage = StringUtils.listToString(Arrays.asList(tmpMessage.split("\n")), false);
-
-                messageAction.accept(prefix + tmpMessage);
-            }
-        }
-    }
-
-    /**
-     * Send a message to the console
-     *
-     * @param message the message to send
-     * @param level the message level
-     * @param replaces the message replaces
-     */
-    public void debugFile(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
-        KarmaConfig config = new KarmaConfig();
-
-        if (config.fileDebug(level)) {
-            Consumer<String> messageAction = messageActions.getOrDefault(source, null);
-
-            String tmpMessage = String.valueOf(message);
-            String prefix = "&b[ &fALERT &b] &7NONE: &b";
-            PrefixConsoleData data = getData();
-            switch (level) {
-                case OK:
-                    prefix = data.getOkPrefix();
-                    break;
-                case INFO:
-                    prefix = data.getInfoPrefix();
-                    break;
-                case WARNING:
-                    prefix = data.getWarningPrefix();
-                    break;
-                case GRAVE:
-                    prefix = data.getGravePrefix();
-                    break;
-            }
-            for (int i = 0; i < replaces.length; i++) {
-                String placeholder = "{" + i + "}";
-                String value = String.valueOf(replaces[i]);
-                tmpMessage = tmpMessage.replace(placeholder, value);
-            }
-            tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                tmpMessage = engine.parse(tmpMessage);
-
-            if (messageAction == null) {
-                if (tmpMessage.contains("\n")) {
-                    for (String msg : tmpMessage.split("\n"))
-                        send(msg);
-                } else {
-                    send(prefix + tmpMessage);
-                }
-            } else {
-                if (tmpMessage.contains("\n"))
-                    tmpMessage = StringUtils.listToString(Arrays.asList(tmpMessage.split("\n")), false);
-
-                messageAction.accept(prefix + tmpMessage);
-            }
-        }
-    }
-
-    /**
-     * Send a message to the console
-     *
-     * @param message the message to send
-     * @param level the message level
-     * @param replaces the message replaces
-     */
-    public void debugUtil(final @NotNull CharSequence message, final @NotNull Level level, final @NotNull Object... replaces) {
-        KarmaConfig config = new KarmaConfig();
-
-        if (config.utilDebug(level)) {
-            Consumer<String> messageAction = messageActions.getOrDefault(source, null);
-
-            String tmpMessage = String.valueOf(message);
-            String prefix = "&b[ &fALERT &b] &7NONE: &b";
-            PrefixConsoleData data = getData();
-            switch (level) {
-                case OK:
-                    prefix = data.getOkPrefix();
-                    break;
-                case INFO:
-                    prefix = data.getInfoPrefix();
-                    break;
-                case WARNING:
-                    prefix = data.getWarningPrefix();
-                    break;
-                case GRAVE:
-                    prefix = data.getGravePrefix();
-                    break;
-            }
-            for (int i = 0; i < replaces.length; i++) {
-                String placeholder = "{" + i + "}";
-                String value = String.valueOf(replaces[i]);
-                tmpMessage = tmpMessage.replace(placeholder, value);
-            }
-            tmpMessage = StringUtils.stripColor(tmpMessage);
-            Set<PlaceholderEngine> added = engines.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-            for (PlaceholderEngine engine : added)
-                tmpMessage = engine.parse(tmpMessage);
-
-            if (messageAction == null) {
-                if (tmpMessage.contains("\n")) {
-                    for (String msg : tmpMessage.split("\n"))
-                        send(msg);
-                } else {
-                    send(prefix + tmpMessage);
-                }
-            } else {
-                if (tmpMessage.contains("\n"))
-                    tmpMessage = StringUtils.listToString(Arrays.asList(tmpMessage.split("\n")), false);
-
-                messageAction.accept(prefix + tmpMessage);
-            }
-        }
-    }
 }
@@ -31,16 +31,11 @@ import ml.karmaconfigs.api.common.utils.KarmaLogger;
 import ml.karmaconfigs.api.common.utils.enums.Level;
 import ml.karmaconfigs.api.common.utils.enums.LogCalendar;
 import ml.karmaconfigs.api.common.utils.enums.LogExtension;
+import ml.karmaconfigs.api.common.utils.logging.LogWriter;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedWriter;
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -65,6 +60,10 @@ public final class Logger extends KarmaLogger implements Serializable {
      * A map that contains source => log scheduled for cleanup
      */
     private static final Map<KarmaSource, Boolean> locked = new ConcurrentHashMap<>();
+    /**
+     * A map that contains source => log writer
+     */
+    private static final Map<KarmaSource, LogWriter> writers = new ConcurrentHashMap<>();
 
     /**
      * The logger source
@@ -105,6 +104,18 @@ public final class Logger extends KarmaLogger implements Serializable {
                 "\n# Beginning of log<br><br>\n\n");
     }
 
+    /**
+     * Get the source log writer
+     *
+     * @return the source log writer
+     */
+    private LogWriter writer() {
+        return writers.computeIfAbsent(source, (key) -> new LogWriter(
+                () -> getLoggerFile(ext_type.getOrDefault(key, LogExtension.MARKDOWN)),
+                () -> header.get(key),
+                () -> calendar_type.getOrDefault(key, LogCalendar.GREGORIAN)));
+    }
+
     /**
      * Set the logger calendar type
      *
@@ -125,13 +136,19 @@ public final class Logger extends KarmaLogger implements Serializable {
      */
     @SuppressWarnings("unused")
     public Logger extension(LogExtension extension) {
-        ext_type.put(this.source, extension);
+        LogExtension previous = ext_type.put(this.source, extension);
+        if (previous != extension) {
+            LogWriter writer = writers.getOrDefault(this.source, null);
+            if (writer != null)
+                writer.reset();
+        }
+
         return this;
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Queue the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param info the info to log
@@ -139,24 +156,24 @@ public final class Logger extends KarmaLogger implements Serializable {
      */
     @Override
     public void scheduleLog(final @NotNull Level level, final @NotNull CharSequence info, final @NotNull Object... replaces) {
-        source.async().queue("asynchronous_log", () -> logInfo(level, printInfo(), info, replaces));
+        logInfo(level, printInfo(), info, replaces);
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Queue the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param error the error to log
      */
     @Override
     public void scheduleLog(final @NotNull Level level, final @NotNull Throwable error) {
-        source.async().queue("asynchronous_log", () -> logError(level, printError(), error));
+        logError(level, printError(), error);
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Queue the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param print print info to console
@@ -165,12 +182,12 @@ public final class Logger extends KarmaLogger implements Serializable {
      */
     @Override
     public void scheduleLogOption(final Level level, final boolean print, final CharSequence info, final Object... replaces) {
-        source.async().queue("asynchronous_log", () -> logInfo(level, print, info, replaces));
+        logInfo(level, print, info, replaces);
     }
 
     /**
-     * Run the log function on a new
-     * thread
+     * Queue the log entry, the log file
+     * is written asynchronously
      *
      * @param level the log level
      * @param print print info to console
@@ -178,7 +195,7 @@ public final class Logger extends KarmaLogger implements Serializable {
      */
     @Override
     public void scheduleLogOption(final Level level, final boolean print, final Throwable error) {
-        source.async().queue("asynchronous_log", () -> logError(level, print, error));
+        logError(level, print, error);
     }
 
     /**
@@ -243,18 +260,10 @@ public final class Logger extends KarmaLogger implements Serializable {
      */
     private void logInfo(final Level level, final boolean print, final CharSequence info, final Object... replaces) {
         if (!locked.getOrDefault(source, false)) {
-            Path log = getLoggerFile(ext_type.getOrDefault(source, LogExtension.MARKDOWN));
             String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
 
             try {
-                List<String> lines = removeHeader(Files.readAllLines(log));
-                BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8);
-                writer.write(header.get(this.source));
-                for (String line : lines)
-                    writer.write(line + "\n");
-                writer.write(StringUtils.formatString("[ {0} - {1} ] {2}<br>", level.name(), time, StringUtils.formatString(info, replaces)));
-                writer.flush();
-                writer.close();
+                writer().append(StringUtils.formatString("[ {0} - {1} ] {2}<br>\n", level.name(), time, StringUtils.formatString(info, replaces)));
             } catch (Throwable ex) {
                 ex.printStackTrace();
             } finally {
@@ -274,23 +283,17 @@ public final class Logger extends KarmaLogger implements Serializable {
      */
     private void logError(final Level level, final boolean print, final Throwable error) {
         if (!locked.getOrDefault(source, false)) {
-            Path log = getLoggerFile(ext_type.getOrDefault(source, LogExtension.MARKDOWN));
             String time = fetchTime(calendar_type.getOrDefault(source, LogCalendar.GREGORIAN));
 
             try {
-                List<String> lines = removeHeader(Files.readAllLines(log));
-                BufferedWriter writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8);
-                writer.write(header.get(this.source));
-                for (String line : lines)
-                    writer.write(line + "\n");
                 Throwable prefix = new Throwable(error);
-                writer.write(StringUtils.formatString("[ {0} - {1} ] {2}\n", level.name(), time, prefix.fillInStackTrace()));
-                writer.write("```java\n");
+                StringBuilder entry = new StringBuilder(StringUtils.formatString("[ {0} - {1} ] {2}\n", level.name(), time, prefix.fillInStackTrace()));
+                entry.append("```java\n");
                 for (StackTraceElement element : error.getStackTrace())
-                    writer.write(element + "\n");
-                writer.write("```");
-                writer.flush();
-                writer.close();
+                    entry.append(element).append("\n");
+                entry.append("```\n");
+
+                writer().append(entry.toString());
             } catch (Throwable ex) {
                 ex.printStackTrace();
             } finally {
@@ -315,14 +318,8 @@ public final class Logger extends KarmaLogger implements Serializable {
     public synchronized void clearLog() throws IllegalStateException {
         locked.put(source, true);
         source.async().queue("clear_log", () -> {
-            Path logFile = getLoggerFile(ext_type.getOrDefault(source, LogExtension.MARKDOWN));
-
             try {
-                BufferedWriter writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8);
-                writer.write("");
-
-                writer.flush();
-                writer.close();
+                writer().clear();
             } catch (Throwable ex) {
                 ex.printStackTrace();
                 throw new IllegalStateException("Failed to clear log file ");
@@ -333,44 +330,17 @@ public final class Logger extends KarmaLogger implements Serializable {
     }
 
     /**
-     * Flush the log data if the
-     * log auto flush is turned off
-     *
-     * WARNING: This will replace all the log file
-     * content, this should be used only for applications
-     * that runs once -> generate a log file and then
-     * switch log file. You can change the log file
-     * by overriding {@link KarmaLogger#getLoggerFile(LogExtension)}
-     *
-     * DOES NOTHING ON {@link Logger}
+     * Write all the queued log entries to
+     * the log file
      *
      * @return if the log could be flushed
      */
     @Override
     public boolean flush() {
-        return true;
-    }
+        LogWriter writer = writers.getOrDefault(source, null);
+        if (writer != null)
+            writer.flush();
 
-    /**
-     * Remove the log file header
-     *
-     * @param lines the file lines
-     * @return the log file lines without header
-     */
-    private List<String> removeHeader(final List<String> lines) {
-        List<String> copy = new ArrayList<>();
-        boolean begone = false;
-        for (String line : lines) {
-            if (begone) {
-                copy.add(line);
-                continue;
-            }
-            if (line.startsWith("# Beginning of log<br><br>"))
-                begone = true;
-        }
-        if (copy.size() > 1 &&
-                StringUtils.isNullOrEmpty(copy.get(0)) && StringUtils.isNullOrEmpty(copy.get(1)))
-            copy.remove(0);
-        return copy;
+        return true;
     }
 }
@@ -0,0 +1,602 @@
+package ml.karmaconfigs.api.common.boss;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.karma.KarmaAPI;
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
+import ml.karmaconfigs.api.common.karma.KarmaSource;
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
+import ml.karmaconfigs.api.common.utils.enums.Level;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Shares boss bars between their viewers. Each logical bar is
+ * a single {@link Channel}; title, progress and style changes
+ * are only recorded, and a single task sends the ones that
+ * really changed to every viewer of the bar once per tick. The
+ * task only runs while there are bars or tick actions with work
+ *
+ * @param <T> the viewer type
+ */
+public final class BossMultiplexer<T> {
+
+    /**
+     * The bar title changed
+     */
+    public final static int TITLE = 0x1;
+    /**
+     * The bar progress changed
+     */
+    public final static int PROGRESS = 0x2;
+    /**
+     * The bar color or style changed
+     */
+    public final static int STYLE = 0x4;
+
+    /**
+     * The time between multiplexer runs, one server tick
+     */
+    private final static long PERIOD = 50;
+
+    /**
+     * The bars renderer
+     */
+    private final Renderer<T> renderer;
+
+    /**
+     * A map that contains bar id => bar
+     */
+    private final Map<UUID, Channel<T>> channels = new ConcurrentHashMap<>();
+
+    /**
+     * The actions to run before each flush
+     */
+    private final List<BooleanSupplier> tickers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The multiplexer task
+     */
+    private ScheduledFuture<?> task = null;
+
+    /**
+     * If the multiplexer has been started since
+     * the current run began
+     */
+    private volatile boolean woken = false;
+
+    /**
+     * The total amount of packets sent
+     */
+    private volatile long packets = 0;
+    /**
+     * The packets sent since the current
+     * rate window started
+     */
+    private long window_packets = 0;
+    /**
+     * The current rate window start time
+     */
+    private long window_start = System.currentTimeMillis();
+    /**
+     * The packets per second of the last
+     * rate window
+     */
+    private volatile double rate = 0.0;
+
+    /**
+     * Initialize the multiplexer
+     *
+     * @param render the bars renderer
+     */
+    public BossMultiplexer(final Renderer<T> render) {
+        renderer = render;
+    }
+
+    /**
+     * Create a bar
+     *
+     * @param title the bar title
+     * @param color the bar color
+     * @param type the bar style
+     * @param progress the bar progress, between 0 and 1
+     * @return the bar
+     */
+    public Channel<T> create(final String title, final BossColor color, final BossType type, final float progress) {
+        Channel<T> channel = new Channel<>(title, color, type, progress);
+        channels.put(channel.id, channel);
+        start();
+
+        return channel;
+    }
+
+    /**
+     * Add an action to run on each multiplexer run,
+     * before the bar changes are sent. The action returns
+     * if it still has work, the multiplexer stops when no
+     * action has work and there are no bars. Call
+     * {@link #start()} when the action has work again
+     *
+     * @param action the action to run
+     */
+    public void onTick(final BooleanSupplier action) {
+        tickers.add(action);
+    }
+
+    /**
+     * Get the amount of bars that exist
+     *
+     * @return the amount of bars
+     */
+    public int getChannels() {
+        return channels.size();
+    }
+
+    /**
+     * Get the total amount of packets sent
+     *
+     * @return the packets sent
+     */
+    public long getPacketsSent() {
+        return packets;
+    }
+
+    /**
+     * Get the packets sent per second, measured
+     * over the last second
+     *
+     * @return the packets per second
+     */
+    public double getPacketsPerSecond() {
+        return rate;
+    }
+
+    /**
+     * Start the multiplexer task if it's not running
+     */
+    public synchronized void start() {
+        woken = true;
+        if (task == null || task.isDone())
+            task = WorkerPool.scheduleAtFixedRate(KarmaAPI.source(false), this::run, 0, PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the multiplexer task, unless it has been
+     * started again since the current run began
+     */
+    private synchronized void stop() {
+        if (task != null && !woken && channels.isEmpty()) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Run the tick actions and send the
+     * bar changes
+     */
+    private void run() {
+        woken = false;
+
+        boolean busy = false;
+        for (BooleanSupplier ticker : tickers) {
+            try {
+                busy |= ticker.getAsBoolean();
+            } catch (Throwable ex) {
+                KarmaSource source = KarmaAPI.source(false);
+                KarmaConfig config = new KarmaConfig();
+                if (config.log(Level.GRAVE)) {
+                    source.logger().scheduleLog(Level.GRAVE, ex);
+                }
+                if (config.debug(Level.GRAVE)) {
+                    source.console().send("Failed to run boss bar tick action ({0})", Level.GRAVE, ex.fillInStackTrace());
+                }
+            }
+        }
+
+        int sent = 0;
+        for (Channel<T> channel : channels.values()) {
+            sent += channel.flush(renderer);
+            if (channel.destroyed)
+                channels.remove(channel.id, channel);
+        }
+
+        account(sent);
+
+        if (!busy && channels.isEmpty())
+            stop();
+    }
+
+    /**
+     * Account sent packets
+     *
+     * @param sent the packets sent in this run
+     */
+    private void account(final int sent) {
+        packets += sent;
+        window_packets += sent;
+
+        long now = System.currentTimeMillis();
+        long elapsed = now - window_start;
+        if (elapsed >= 1000) {
+            rate = window_packets * 1000.0 / elapsed;
+            window_packets = 0;
+            window_start = now;
+        }
+    }
+
+    /**
+     * Sends the bars to their viewers
+     *
+     * @param <T> the viewer type
+     */
+    public interface Renderer<T> {
+
+        /**
+         * Get the viewer id
+         *
+         * @param viewer the viewer
+         * @return the viewer id
+         */
+        UUID id(final T viewer);
+
+        /**
+         * Get if the viewer is still online
+         *
+         * @param viewer the viewer
+         * @return if the viewer is online
+         */
+        boolean online(final T viewer);
+
+        /**
+         * Show the bar to a viewer
+         *
+         * @param channel the bar
+         * @param viewer the viewer
+         * @return the amount of packets sent
+         */
+        int show(final Channel<T> channel, final T viewer);
+
+        /**
+         * Hide the bar from a viewer
+         *
+         * @param channel the bar
+         * @param viewer the viewer
+         * @return the amount of packets sent
+         */
+        int hide(final Channel<T> channel, final T viewer);
+
+        /**
+         * Send the bar changes to its viewers
+         *
+         * @param channel the bar
+         * @param viewers the bar viewers
+         * @param changes the changes, a mask of {@link #TITLE},
+         *                {@link #PROGRESS} and {@link #STYLE}
+         * @return the amount of packets sent
+         */
+        int update(final Channel<T> channel, final Collection<T> viewers, final int changes);
+
+        /**
+         * Release the resources of a destroyed bar
+         *
+         * @param channel the bar
+         */
+        default void release(final Channel<T> channel) {}
+    }
+
+    /**
+     * A bar shared by its viewers. The getters return
+     * the values the viewers are seeing
+     *
+     * @param <T> the viewer type
+     */
+    public final static class Channel<T> {
+
+        private final UUID id = UUID.randomUUID();
+
+        private final Map<UUID, T> viewers = new ConcurrentHashMap<>();
+        private final Queue<Change<T>> changes = new ConcurrentLinkedQueue<>();
+
+        private volatile String title;
+        private volatile BossColor color;
+        private volatile BossType type;
+        private volatile float progress;
+        private volatile boolean destroyed = false;
+
+        private String shown_title = null;
+        private BossColor shown_color = null;
+        private BossType shown_type = null;
+        private float shown_progress = Float.NaN;
+
+        /**
+         * Initialize the bar
+         *
+         * @param t the bar title
+         * @param c the bar color
+         * @param s the bar style
+         * @param p the bar progress
+         */
+        Channel(final String t, final BossColor c, final BossType s, final float p) {
+            title = t;
+            color = c;
+            type = s;
+            progress = clamp(p);
+        }
+
+        /**
+         * Add a viewer to the bar
+         *
+         * @param viewer the viewer
+         */
+        public void addViewer(final T viewer) {
+            changes.add(new Change<>(viewer, true));
+        }
+
+        /**
+         * Add viewers to the bar
+         *
+         * @param added the viewers
+         */
+        public void addViewers(final Collection<T> added) {
+            for (T viewer : added)
+                addViewer(viewer);
+        }
+
+        /**
+         * Remove a viewer from the bar
+         *
+         * @param viewer the viewer
+         */
+        public void removeViewer(final T viewer) {
+            changes.add(new Change<>(viewer, false));
+        }
+
+        /**
+         * Set the bar title
+         *
+         * @param newTitle the bar title
+         */
+        public void setTitle(final String newTitle) {
+            title = newTitle;
+        }
+
+        /**
+         * Set the bar progress
+         *
+         * @param newProgress the bar progress, between 0 and 1
+         */
+        public void setProgress(final float newProgress) {
+            progress = clamp(newProgress);
+        }
+
+        /**
+         * Set the bar color
+         *
+         * @param newColor the bar color
+         */
+        public void setColor(final BossColor newColor) {
+            color = newColor;
+        }
+
+        /**
+         * Set the bar style
+         *
+         * @param newType the bar style
+         */
+        public void setType(final BossType newType) {
+            type = newType;
+        }
+
+        /**
+         * Destroy the bar, hiding it from
+         * all its viewers
+         */
+        public void destroy() {
+            destroyed = true;
+        }
+
+        /**
+         * Get if the bar has been destroyed
+         *
+         * @return if the bar is destroyed
+         */
+        public boolean isDestroyed() {
+            return destroyed;
+        }
+
+        /**
+         * Get the bar id
+         *
+         * @return the bar id
+         */
+        public UUID getId() {
+            return id;
+        }
+
+        /**
+         * Get the bar title
+         *
+         * @return the bar title
+         */
+        public String getTitle() {
+            return shown_title;
+        }
+
+        /**
+         * Get the bar progress
+         *
+         * @return the bar progress
+         */
+        public float getProgress() {
+            return shown_progress;
+        }
+
+        /**
+         * Get the bar color
+         *
+         * @return the bar color
+         */
+        public BossColor getColor() {
+            return shown_color;
+        }
+
+        /**
+         * Get the bar style
+         *
+         * @return the bar style
+         */
+        public BossType getType() {
+            return shown_type;
+        }
+
+        /**
+         * Get the bar viewers
+         *
+         * @return the bar viewers
+         */
+        public Collection<T> getViewers() {
+            return Collections.unmodifiableCollection(viewers.values());
+        }
+
+        /**
+         * Apply the viewer changes and send the
+         * bar changes to the viewers
+         *
+         * @param renderer the bars renderer
+         * @return the amount of packets sent
+         */
+        int flush(final Renderer<T> renderer) {
+            int sent = 0;
+
+            List<T> joined = new ArrayList<>();
+            Change<T> change;
+            while ((change = changes.poll()) != null) {
+                UUID viewer = renderer.id(change.viewer);
+                if (change.join) {
+                    if (!viewers.containsKey(viewer) && !joined.contains(change.viewer))
+                        joined.add(change.viewer);
+                } else {
+                    joined.remove(change.viewer);
+
+                    T removed = viewers.remove(viewer);
+                    if (removed != null && renderer.online(removed))
+                        sent += renderer.hide(this, removed);
+                }
+            }
+
+            viewers.values().removeIf((viewer) -> !renderer.online(viewer));
+
+            if (destroyed) {
+                for (T viewer : viewers.values())
+                    sent += renderer.hide(this, viewer);
+
+                viewers.clear();
+                renderer.release(this);
+
+                return sent;
+            }
+
+            int mask = 0;
+
+            String t = title;
+            if (!Objects.equals(t, shown_title))
+                mask |= TITLE;
+            float p = progress;
+            if (Float.compare(p, shown_progress) != 0)
+                mask |= PROGRESS;
+            BossColor c = color;
+            BossType s = type;
+            if (c != shown_color || s != shown_type)
+                mask |= STYLE;
+
+            shown_title = t;
+            shown_progress = p;
+            shown_color = c;
+            shown_type = s;
+
+            if (mask != 0 && !viewers.isEmpty())
+                sent += renderer.update(this, viewers.values(), mask);
+
+            for (T viewer : joined) {
+                if (renderer.online(viewer)) {
+                    viewers.put(renderer.id(viewer), viewer);
+                    sent += renderer.show(this, viewer);
+                }
+            }
+
+            return sent;
+        }
+
+        /**
+         * Clamp a progress value
+         *
+         * @param value the progress value
+         * @return the clamped value
+         */
+        private static float clamp(final float value) {
+            if (Float.isNaN(value))
+                return 0f;
+
+            return Math.max(0f, Math.min(1f, value));
+        }
+    }
+
+    /**
+     * A viewer joining or leaving a bar
+     *
+     * @param <T> the viewer type
+     */
+    private final static class Change<T> {
+
+        private final T viewer;
+        private final boolean join;
+
+        /**
+         * Initialize the change
+         *
+         * @param v the viewer
+         * @param j if the viewer joins the bar
+         */
+        Change(final T v, final boolean j) {
+            viewer = v;
+            join = j;
+        }
+    }
+}
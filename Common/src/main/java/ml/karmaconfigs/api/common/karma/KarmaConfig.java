@@ -30,15 +30,46 @@ import ml.karmaconfigs.api.common.karma.file.element.KarmaArray;
 import ml.karmaconfigs.api.common.karma.file.element.KarmaElement;
 import ml.karmaconfigs.api.common.karma.file.element.KarmaObject;
 import ml.karmaconfigs.api.common.utils.enums.Level;
+import ml.karmaconfigs.api.common.utils.enums.LogOverflow;
 import ml.karmaconfigs.api.common.utils.logging.WebTarget;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
 
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Karma configuration
+ * Karma configuration. The configuration is read once into
+ * an immutable snapshot, which is replaced when the configuration
+ * file changes
  */
 public final class KarmaConfig {
 
-    private final static KarmaMain mn = KarmaMain.getConfiguration();
+    /**
+     * The time to wait after a configuration file change
+     * before reading it, so a file being written is read
+     * only once it has been completely written
+     */
+    private final static long RELOAD_DELAY = 250L;
+
+    /**
+     * The current configuration snapshot
+     */
+    private static volatile Snapshot snapshot;
+
+    /**
+     * If the configuration is being read
+     */
+    private static boolean loading = false;
 
     /**
      * Get the console default prefix
@@ -48,61 +79,7 @@ public final class KarmaConfig {
      * @return the console level prefix
      */
     public String consolePrefix(final KarmaSource source, final Level lvl) {
-        String placeholder;
-
-        switch (lvl) {
-            case OK:
-                placeholder = "&b[ &3%project% &b| &2OK &b] >> &9";
-                if (mn != null) {
-                    KarmaElement element = mn.get("ok_prefix", null);
-                    if (element != null && element.isString()) {
-                        String rs = element.getObjet().getString();
-                        if (!StringUtils.isNullOrEmpty(rs))
-                            placeholder = rs;
-                    }
-                }
-                break;
-            case INFO:
-                placeholder = "&b[ &3%project% &b| &7INFO &b] >> &9";
-                if (mn != null) {
-                    KarmaElement element = mn.get("info_prefix", null);
-                    if (element != null && element.isString()) {
-                        String rs = element.getObjet().getString();
-                        if (!StringUtils.isNullOrEmpty(rs))
-                            placeholder = rs;
-                    }
-                }
-                break;
-            case WARNING:
-                placeholder = "&b[ &3%project% &b| &6WARNING &b] >> &9";
-                if (mn != null) {
-                    KarmaElement element = mn.get("warning_prefix", null);
-                    if (element != null && element.isString()) {
-                        String rs = element.getObjet().getString();
-                        if (!StringUtils.isNullOrEmpty(rs))
-                            placeholder = rs;
-                    }
-                }
-                break;
-            case GRAVE:
-            default:
-                placeholder = "&b[ &3%project% &b| &cGRAVE &b] >> &9";
-                if (mn != null) {
-                    KarmaElement element = mn.get("grave_prefix", null);
-                    if (element != null && element.isString()) {
-                        String rs = element.getObjet().getString();
-                        if (!StringUtils.isNullOrEmpty(rs))
-                            placeholder = rs;
-                    }
-                }
-                break;
-        }
-
-        return placeholder
-                .replace("%project%", source.name())
-                .replace("%version%", source.version())
-                .replace("%author%", source.authors(false, " ; "))
-                .replace("%level%", lvl.name().toUpperCase());
+        return snapshot().prefix(source, lvl);
     }
 
     /**
@@ -113,27 +90,7 @@ public final class KarmaConfig {
      * @return if the level is allowed to debug
      */
     public boolean fileDebug(final Level lvl) {
-        if (mn != null) {
-            KarmaElement element = mn.get("file_copy_debug", new KarmaObject(false));
-
-            if (element.isBoolean()) {
-                boolean result = element.getObjet().getBoolean();
-
-                if (result) {
-                    KarmaElement levels = mn.get("file_copy_levels", new KarmaArray(
-                            new KarmaObject("WARNING"),
-                            new KarmaObject("INFO")
-                    ));
-
-                    if (levels.isArray()) {
-                        KarmaArray array = levels.toLowerCase().getArray();
-                        return array.contains(new KarmaObject(lvl.name().toLowerCase()));
-                    }
-                }
-            }
-        }
-
-        return false;
+        return snapshot().file.contains(lvl);
     }
 
     /**
@@ -144,29 +101,7 @@ public final class KarmaConfig {
      * @return if the level is allowed to debug
      */
     public boolean utilDebug(final Level lvl) {
-        if (mn != null) {
-            KarmaElement element = mn.get("file_util_debug", new KarmaObject(false));
-
-            if (element.isBoolean()) {
-                boolean result = element.getObjet().getBoolean();
-
-                if (result) {
-                    KarmaElement levels = mn.get("file_util_levels", new KarmaArray(
-                            new KarmaObject("OK"),
-                            new KarmaObject("INFO"),
-                            new KarmaObject("WARNING"),
-                            new KarmaObject("GRAVE")
-                    ));
-
-                    if (levels.isArray()) {
-                        KarmaArray array = levels.toLowerCase().getArray();
-                        return array.contains(new KarmaObject(lvl.name().toLowerCase()));
-                    }
-                }
-            }
-        }
-
-        return false;
+        return snapshot().util.contains(lvl);
     }
 
     /**
@@ -179,27 +114,7 @@ public final class KarmaConfig {
      * @return if the level is allowed to debug
      */
     public boolean debug(final Level lvl) {
-        if (mn != null) {
-            KarmaElement element = mn.get("debug", new KarmaObject(false));
-
-            if (element.isBoolean()) {
-                boolean result = element.getObjet().getBoolean();
-                if (result) {
-                    KarmaElement levels = mn.get("debug_levels", new KarmaArray(
-                            new KarmaObject("OK"),
-                            new KarmaObject("INFO"),
-                            new KarmaObject("WARNING"),
-                            new KarmaObject("GRAVE")));
-
-                    if (levels.isArray()) {
-                        KarmaArray array = levels.toLowerCase().getArray();
-                        return array.contains(new KarmaObject(lvl.name()).toLowerCase());
-                    }
-                }
-            }
-        }
-
-        return false;
+        return snapshot().debug.contains(lvl);
     }
 
     /**
@@ -210,26 +125,58 @@ public final class KarmaConfig {
      * @return if the level is allowed to log
      */
     public boolean log(final Level lvl) {
-        if (mn != null) {
-            KarmaElement element = mn.get("logging", new KarmaObject(true));
-            if (element.isBoolean()) {
-                boolean result = element.getObjet().getBoolean();
-                if (result) {
-                    KarmaElement levels = mn.get("logging_levels", new KarmaArray(
-                            new KarmaObject("OK"),
-                            new KarmaObject("INFO"),
-                            new KarmaObject("WARNING"),
-                            new KarmaObject("GRAVE")));
+        return snapshot().log.contains(lvl);
+    }
 
-                    if (levels.isArray()) {
-                        KarmaArray array = levels.toLowerCase().getArray();
-                        return array.contains(new KarmaObject(lvl.name()).toLowerCase());
-                    }
-                }
-            }
-        }
+    /**
+     * Get the amount of threads the shared
+     * {@link ml.karmaconfigs.api.common.timer.worker.WorkerPool} will use
+     *
+     * @return the worker pool thread count
+     */
+    public int workerThreads() {
+        return snapshot().worker_threads;
+    }
+
+    /**
+     * Get the amount of entries each
+     * {@link ml.karmaconfigs.api.common.BufferedLogger} can hold
+     *
+     * @return the log buffer size
+     */
+    public int logBufferSize() {
+        return snapshot().log_buffer_size;
+    }
+
+    /**
+     * Get what the buffered loggers do when
+     * their buffer is full
+     *
+     * @return the log overflow policy
+     */
+    public LogOverflow logOverflow() {
+        return snapshot().log_overflow;
+    }
+
+    /**
+     * Get the minimum level an entry must have to not be
+     * discarded by {@link LogOverflow#DROP_LEVEL_BELOW}
+     *
+     * @return the log overflow level
+     */
+    public Level logOverflowLevel() {
+        return snapshot().log_overflow_level;
+    }
 
-        return true;
+    /**
+     * Get the amount of milliseconds an auto saved
+     * {@link ml.karmaconfigs.api.common.karma.file.KarmaMain} waits
+     * before writing its changes
+     *
+     * @return the save window
+     */
+    public long saveWindow() {
+        return snapshot().save_window;
     }
 
     /**
@@ -239,12 +186,302 @@ public final class KarmaConfig {
      * @return the log API access key
      */
     public String getAccessKey(final WebTarget target) {
-        if (mn != null) {
-            KarmaElement key = mn.get("paste_credentials." + target.name());
-            if (key != null && key.isString())
-                return key.getObjet().getString();
+        return snapshot().access_keys.getOrDefault(target, "");
+    }
+
+    /**
+     * Read the configuration file again. This is done
+     * automatically when the file changes. If the file
+     * can't be read, the current configuration is kept
+     */
+    public static void reload() {
+        KarmaSource source = null;
+        try {
+            source = APISource.getOriginal(false);
+            snapshot = new Snapshot(new KarmaMain(source, "config.kf"));
+        } catch (Throwable ex) {
+            if (source != null) {
+                source.logger().scheduleLog(Level.GRAVE, ex);
+                source.console().send("Failed to reload the API configuration, the current configuration will be kept", Level.GRAVE);
+            }
         }
+    }
+
+    /**
+     * Get the current configuration snapshot, reading
+     * the configuration if it has not been read yet
+     *
+     * @return the configuration snapshot
+     */
+    private static Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (KarmaConfig.class) {
+                current = snapshot;
+                if (current == null) {
+                    if (loading)
+                        return new Snapshot(null);
+
+                    loading = true;
+                    KarmaMain main = null;
+                    try {
+                        main = KarmaMain.getConfiguration();
+                    } catch (Throwable ignored) {
+                    } finally {
+                        loading = false;
+                    }
+
+                    current = new Snapshot(main);
+                    snapshot = current;
+
+                    if (main != null)
+                        watch(main.getDocument());
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Watch the configuration file, and read it
+     * again when it changes
+     *
+     * @param file the configuration file
+     */
+    private static void watch(final Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        Path name = file.getFileName();
+        if (directory == null || name == null)
+            return;
+
+        WatchService service;
+        try {
+            service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (Throwable ex) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            while (true) {
+                WatchKey key;
+                try {
+                    key = service.take();
+                } catch (InterruptedException | ClosedWatchServiceException ex) {
+                    return;
+                }
+
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context()))
+                        changed = true;
+                }
+                if (!key.reset())
+                    return;
+
+                if (changed) {
+                    try {
+                        Thread.sleep(RELOAD_DELAY);
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+
+                    WatchKey pending;
+                    while ((pending = service.poll()) != null) {
+                        pending.pollEvents();
+                        pending.reset();
+                    }
+
+                    reload();
+                }
+            }
+        }, "KarmaAPI-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * An immutable view of the configuration
+     */
+    private final static class Snapshot {
+
+        private final String[] prefixes = new String[Level.values().length];
+        private final Map<KarmaSource, String[]> source_prefixes = new ConcurrentHashMap<>();
+
+        private final Set<Level> file;
+        private final Set<Level> util;
+        private final Set<Level> debug;
+        private final Set<Level> log;
 
-        return "";
+        private final int worker_threads;
+        private final int log_buffer_size;
+        private final LogOverflow log_overflow;
+        private final Level log_overflow_level;
+        private final long save_window;
+        private final Map<WebTarget, String> access_keys = new EnumMap<>(WebTarget.class);
+
+        /**
+         * Read the configuration snapshot
+         *
+         * @param mn the configuration file, or null to
+         *           use the default values
+         */
+        Snapshot(final KarmaMain mn) {
+            prefixes[Level.OK.ordinal()] = string(mn, "ok_prefix", "&b[ &3%project% &b| &2OK &b] >> &9");
+            prefixes[Level.INFO.ordinal()] = string(mn, "info_prefix", "&b[ &3%project% &b| &7INFO &b] >> &9");
+            prefixes[Level.WARNING.ordinal()] = string(mn, "warning_prefix", "&b[ &3%project% &b| &6WARNING &b] >> &9");
+            prefixes[Level.GRAVE.ordinal()] = string(mn, "grave_prefix", "&b[ &3%project% &b| &cGRAVE &b] >> &9");
+
+            file = levels(mn, "file_copy_debug", false, "file_copy_levels", false,
+                    "WARNING", "INFO");
+            util = levels(mn, "file_util_debug", false, "file_util_levels", false,
+                    "OK", "INFO", "WARNING", "GRAVE");
+            debug = levels(mn, "debug", false, "debug_levels", false,
+                    "OK", "INFO", "WARNING", "GRAVE");
+            log = levels(mn, "logging", true, "logging_levels", true,
+                    "OK", "INFO", "WARNING", "GRAVE");
+
+            int threads = (int) number(mn, "worker_threads", 0);
+            if (threads <= 0)
+                threads = Runtime.getRuntime().availableProcessors() / 2;
+            worker_threads = Math.max(1, threads);
+
+            log_buffer_size = Math.max(16, (int) number(mn, "log_buffer_size", 8192));
+            save_window = Math.max(0L, number(mn, "save_window", 1000L));
+
+            LogOverflow overflow = LogOverflow.BLOCK;
+            String value = string(mn, "log_overflow", null);
+            if (value != null) {
+                try {
+                    overflow = LogOverflow.valueOf(value.toUpperCase());
+                } catch (IllegalArgumentException ignored) {}
+            }
+            log_overflow = overflow;
+
+            Level level = Level.WARNING;
+            value = string(mn, "log_overflow_level", null);
+            if (value != null) {
+                try {
+                    level = Level.valueOf(value.toUpperCase());
+                } catch (IllegalArgumentException ignored) {}
+            }
+            log_overflow_level = level;
+
+            for (WebTarget target : WebTarget.values()) {
+                String key = "";
+                if (mn != null) {
+                    KarmaElement element = mn.get("paste_credentials." + target.name());
+                    if (element != null && element.isString())
+                        key = element.getObjet().getString();
+                }
+
+                access_keys.put(target, key);
+            }
+        }
+
+        /**
+         * Get the console prefix of a source
+         *
+         * @param source the source
+         * @param lvl the prefix level
+         * @return the source console prefix
+         */
+        String prefix(final KarmaSource source, final Level lvl) {
+            String[] resolved = source_prefixes.computeIfAbsent(source, (key) -> {
+                String[] values = new String[prefixes.length];
+                for (Level level : Level.values()) {
+                    values[level.ordinal()] = prefixes[level.ordinal()]
+                            .replace("%project%", key.name())
+                            .replace("%version%", key.version())
+                            .replace("%author%", key.authors(false, " ; "))
+                            .replace("%level%", level.name().toUpperCase());
+                }
+
+                return values;
+            });
+
+            return resolved[(lvl != null ? lvl : Level.GRAVE).ordinal()];
+        }
+
+        /**
+         * Read a text value
+         *
+         * @param mn the configuration file
+         * @param path the value path
+         * @param def the default value
+         * @return the text value
+         */
+        private static String string(final KarmaMain mn, final String path, final String def) {
+            if (mn != null) {
+                KarmaElement element = mn.get(path, null);
+                if (element != null && element.isString()) {
+                    String rs = element.getObjet().getString();
+                    if (!StringUtils.isNullOrEmpty(rs))
+                        return rs;
+                }
+            }
+
+            return def;
+        }
+
+        /**
+         * Read a number value
+         *
+         * @param mn the configuration file
+         * @param path the value path
+         * @param def the default value
+         * @return the number value
+         */
+        private static long number(final KarmaMain mn, final String path, final long def) {
+            if (mn != null) {
+                KarmaElement element = mn.get(path, new KarmaObject(def));
+                if (element.isNumber())
+                    return element.getObjet().getNumber().longValue();
+            }
+
+            return def;
+        }
+
+        /**
+         * Read the levels allowed by a configuration
+         * toggle and its levels list
+         *
+         * @param mn the configuration file
+         * @param toggle the toggle key
+         * @param enabled the toggle default value
+         * @param list the levels list key
+         * @param fallback if all the levels are allowed when the
+         *                 toggle is disabled or the list is invalid
+         * @param defaults the levels list default value
+         * @return the allowed levels
+         */
+        private static Set<Level> levels(final KarmaMain mn, final String toggle, final boolean enabled, final String list,
+                                         final boolean fallback, final String... defaults) {
+            if (mn != null) {
+                KarmaElement element = mn.get(toggle, new KarmaObject(enabled));
+
+                if (element.isBoolean() && element.getObjet().getBoolean()) {
+                    KarmaArray def = new KarmaArray();
+                    for (String level : defaults)
+                        def.add(new KarmaObject(level));
+
+                    KarmaElement levels = mn.get(list, def);
+                    if (levels.isArray()) {
+                        KarmaArray array = levels.toLowerCase().getArray();
+
+                        Set<Level> allowed = EnumSet.noneOf(Level.class);
+                        for (Level level : Level.values()) {
+                            if (array.contains(new KarmaObject(level.name().toLowerCase())))
+                                allowed.add(level);
+                        }
+
+                        return Collections.unmodifiableSet(allowed);
+                    }
+                }
+            }
+
+            return Collections.unmodifiableSet(fallback ? EnumSet.allOf(Level.class) : EnumSet.noneOf(Level.class));
+        }
     }
 }
@@ -27,10 +27,12 @@ package ml.karmaconfigs.api.common.karma;
 
 import ml.karmaconfigs.api.common.Console;
 import ml.karmaconfigs.api.common.Logger;
+import ml.karmaconfigs.api.common.karma.file.KarmaMain;
 import ml.karmaconfigs.api.common.timer.scheduler.Scheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
 import ml.karmaconfigs.api.common.timer.worker.AsyncScheduler;
 import ml.karmaconfigs.api.common.timer.worker.SyncScheduler;
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
 import ml.karmaconfigs.api.common.utils.KarmaLogger;
 import ml.karmaconfigs.api.common.utils.file.FileUtilities;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
@@ -81,10 +83,14 @@ public interface KarmaSource extends Serializable {
     String updateURL();
 
     /**
-     * Stop all the source tasks
+     * Stop all the source tasks, writing the auto
+     * saved files of the source before
      */
     default void stopTasks() {
+        KarmaMain.flushAll(this);
+
         SimpleScheduler.cancelFor(this);
+        WorkerPool.cancelFor(this);
     }
 
     /**
@@ -150,6 +156,19 @@ public interface KarmaSource extends Serializable {
         return true;
     }
 
+    /**
+     * Get the max amount of asynchronous tasks of this
+     * source that can run at the same time. With the default
+     * of 1 the tasks run one after another in the order they
+     * were queued; with a higher value they still start in that
+     * order, but may run at the same time and finish in any order
+     *
+     * @return the source max in-flight tasks
+     */
+    default int maxInFlight() {
+        return 1;
+    }
+
     /**
      * Get the source out
      *
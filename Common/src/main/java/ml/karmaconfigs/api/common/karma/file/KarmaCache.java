@@ -0,0 +1,193 @@
+package ml.karmaconfigs.api.common.karma.file;
+
+import ml.karmaconfigs.api.common.karma.file.element.KarmaElement;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of parsed karma files. Files are
+ * stored by their path and discarded when the file
+ * modification time or size changes, so the same file
+ * is only parsed again when it has been modified
+ */
+final class KarmaCache {
+
+    /**
+     * The max amount of files to keep in the cache
+     */
+    private final static int MAX_DOCUMENTS = 128;
+
+    /**
+     * A map that contains path => parsed file, in
+     * least recently used order
+     */
+    private final static Map<Path, Document> documents = new LinkedHashMap<Path, Document>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Path, Document> eldest) {
+            return size() > MAX_DOCUMENTS;
+        }
+    };
+
+    /**
+     * Initialize the cache
+     */
+    private KarmaCache() {}
+
+    /**
+     * Get the current stamp of a file
+     *
+     * @param file the file
+     * @return the file stamp, or null if the file
+     * does not exist
+     */
+    static Stamp stamp(final Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Stamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Get a parsed file
+     *
+     * @param file the file
+     * @return the parsed file, or null if the file is not
+     * cached or has been modified since it was cached
+     */
+    static Document get(final Path file) {
+        Path key = key(file);
+
+        Document document;
+        synchronized (documents) {
+            document = documents.get(key);
+        }
+        if (document == null)
+            return null;
+
+        if (!document.stamp.equals(stamp(file))) {
+            synchronized (documents) {
+                documents.remove(key, document);
+            }
+
+            return null;
+        }
+
+        return document;
+    }
+
+    /**
+     * Store a parsed file
+     *
+     * @param file the file
+     * @param document the parsed file
+     */
+    static void put(final Path file, final Document document) {
+        synchronized (documents) {
+            documents.put(key(file), document);
+        }
+    }
+
+    /**
+     * Remove a file from the cache
+     *
+     * @param file the file
+     */
+    static void invalidate(final Path file) {
+        synchronized (documents) {
+            documents.remove(key(file));
+        }
+    }
+
+    /**
+     * Get the cache key of a file
+     *
+     * @param file the file
+     * @return the file key
+     */
+    private static Path key(final Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * The modification time and size of a file
+     */
+    static final class Stamp {
+
+        private final long modified;
+        private final long size;
+
+        /**
+         * Initialize the stamp
+         *
+         * @param time the file modification time
+         * @param length the file size
+         */
+        Stamp(final long time, final long length) {
+            modified = time;
+            size = length;
+        }
+
+        /**
+         * Get if the stamp is the same as other
+         *
+         * @param other the other stamp
+         * @return if the stamps are the same
+         */
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Stamp))
+                return false;
+
+            Stamp stamp = (Stamp) other;
+            return modified == stamp.modified && size == stamp.size;
+        }
+
+        /**
+         * Get the stamp hash code
+         *
+         * @return the stamp hash code
+         */
+        @Override
+        public int hashCode() {
+            return Long.hashCode(modified) * 31 + Long.hashCode(size);
+        }
+    }
+
+    /**
+     * A parsed file. The values are shared by every file
+     * reading it, so they must never be modified
+     */
+    static final class Document {
+
+        final Stamp stamp;
+        final String text;
+        final String raw;
+        final Map<String, KarmaElement> content;
+        final Map<KarmaElement, String> reverse;
+
+        /**
+         * Initialize the parsed file
+         *
+         * @param stamp the file stamp when it was read
+         * @param text the file data
+         * @param raw the file data without comments
+         * @param content the file key => element values
+         * @param reverse the file recursive element => key values
+         */
+        Document(final Stamp stamp, final String text, final String raw,
+                 final Map<String, KarmaElement> content, final Map<KarmaElement, String> reverse) {
+            this.stamp = stamp;
+            this.text = text;
+            this.raw = raw;
+            this.content = Collections.unmodifiableMap(content);
+            this.reverse = Collections.unmodifiableMap(reverse);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package ml.karmaconfigs.api.common.karma.file;
+
+import ml.karmaconfigs.api.common.karma.file.element.KarmaArray;
+import ml.karmaconfigs.api.common.karma.file.element.KarmaElement;
+import ml.karmaconfigs.api.common.karma.file.element.KarmaKeyArray;
+import ml.karmaconfigs.api.common.karma.file.element.KarmaObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The layout of a karma file. It remembers the order of the
+ * sections and keys, and the comments and blank lines around
+ * them, so the file can be written again from memory without
+ * losing them
+ */
+final class KarmaLayout {
+
+    private final Section root;
+    private final Map<String, Section> sections = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Initialize the layout
+     *
+     * @param header the main section header
+     */
+    KarmaLayout(final String header) {
+        root = new Section("main", "", header);
+        sections.put("main", root);
+    }
+
+    /**
+     * Initialize an empty layout
+     */
+    KarmaLayout() {
+        this("(\"main\"");
+    }
+
+    /**
+     * Get the main section
+     *
+     * @return the main section
+     */
+    Section root() {
+        return root;
+    }
+
+    /**
+     * Add a section
+     *
+     * @param parent the parent section
+     * @param section the section
+     */
+    void add(final Section parent, final Section section) {
+        parent.children.add(section);
+        sections.put(section.path, section);
+    }
+
+    /**
+     * Add a key
+     *
+     * @param parent the key section
+     * @param entry the key
+     */
+    void add(final Section parent, final Entry entry) {
+        parent.children.add(entry);
+        entries.put(entry.key, entry);
+    }
+
+    /**
+     * Write the layout
+     *
+     * @param content the current key => element values
+     * @param reverse the current recursive element => key values
+     * @param fallback the function to retrieve the value of a
+     *                 key that is not in the content anymore, the
+     *                 key will be removed if it returns null
+     * @return the file data
+     */
+    String write(final Map<String, KarmaElement> content, final Map<KarmaElement, String> reverse,
+                 final Function<String, KarmaElement> fallback) {
+        for (String key : content.keySet()) {
+            int split = key.lastIndexOf('.');
+            if (split == -1 || entries.containsKey(key))
+                continue;
+
+            Section section = section(key.substring(0, split));
+            Entry entry = new Entry(key, "'" + key.substring(split + 1) + "'", section.childIndent(unit()), false);
+            if (section == root)
+                entry.trivia.add("");
+
+            add(section, entry);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        write(builder, root, content, reverse, fallback);
+
+        return builder.toString();
+    }
+
+    /**
+     * Get a section, creating it and its
+     * parents if they do not exist
+     *
+     * @param path the section path
+     * @return the section
+     */
+    private Section section(final String path) {
+        Section section = sections.get(path);
+        if (section == null) {
+            int split = path.lastIndexOf('.');
+            Section parent = (split == -1 ? root : section(path.substring(0, split)));
+            String name = path.substring(split + 1);
+
+            section = new Section(path, parent.childIndent(unit()), "(\"" + name + "\"");
+            add(parent, section);
+        }
+
+        return section;
+    }
+
+    /**
+     * Get the indentation used by the file
+     *
+     * @return the file indentation
+     */
+    private String unit() {
+        String indent = root.childIndent("\t");
+        return (indent.isEmpty() ? "\t" : indent);
+    }
+
+    /**
+     * Write a section
+     *
+     * @param builder the file data
+     * @param section the section
+     * @param content the current key => element values
+     * @param reverse the current recursive element => key values
+     * @param fallback the missing keys value provider
+     */
+    private void write(final StringBuilder builder, final Section section, final Map<String, KarmaElement> content,
+                       final Map<KarmaElement, String> reverse, final Function<String, KarmaElement> fallback) {
+        String unit = unit();
+
+        lines(builder, section.trivia);
+        builder.append(section.indent).append(section.header).append(section.trailing).append('\n');
+
+        Iterator<Object> children = section.children.iterator();
+        while (children.hasNext()) {
+            Object child = children.next();
+            if (child instanceof Section) {
+                write(builder, (Section) child, content, reverse, fallback);
+                continue;
+            }
+
+            Entry entry = (Entry) child;
+            KarmaElement element = content.get(entry.key);
+            if (element == null)
+                element = fallback.apply(entry.key);
+
+            lines(builder, entry.trivia);
+            if (element == null) {
+                children.remove();
+                entries.remove(entry.key);
+                continue;
+            }
+
+            boolean recursive = entry.recursive || entry.key.equals(reverse.get(element));
+            builder.append(entry.indent).append(entry.name).append(recursive ? " <-> " : " -> ");
+
+            if (element instanceof KarmaKeyArray) {
+                KarmaKeyArray array = (KarmaKeyArray) element;
+                builder.append('{').append(entry.trailing).append('\n');
+                lines(builder, entry.inner);
+
+                for (String key : array.getKeys()) {
+                    KarmaElement value = array.get(key);
+                    if (value instanceof KarmaObject)
+                        builder.append(entry.elementIndent(unit)).append('\'').append(key).append('\'')
+                                .append(array.isRecursive(key) ? " <-> " : " -> ").append(value).append('\n');
+                }
+
+                builder.append(entry.closeIndent()).append('}').append('\n');
+            } else if (element instanceof KarmaArray) {
+                builder.append('{').append(entry.trailing).append('\n');
+                lines(builder, entry.inner);
+
+                for (KarmaElement value : (KarmaArray) element) {
+                    if (value instanceof KarmaObject) {
+                        KarmaObject object = (KarmaObject) value;
+                        builder.append(entry.elementIndent(unit));
+                        if (object.isString()) {
+                            builder.append('\'').append(object.getString()).append('\'');
+                        } else {
+                            builder.append(object);
+                        }
+                        builder.append('\n');
+                    }
+                }
+
+                builder.append(entry.closeIndent()).append('}').append('\n');
+            } else {
+                builder.append(element).append(entry.trailing).append('\n');
+            }
+        }
+
+        lines(builder, section.closing);
+        builder.append(section.closeIndent()).append(')').append(section.close_trailing).append('\n');
+        if (section == root)
+            lines(builder, section.tail);
+    }
+
+    /**
+     * Write lines
+     *
+     * @param builder the file data
+     * @param lines the lines to write
+     */
+    private static void lines(final StringBuilder builder, final List<String> lines) {
+        for (String line : lines)
+            builder.append(line).append('\n');
+    }
+
+    /**
+     * A file section
+     */
+    static final class Section {
+
+        final String path;
+        final String indent;
+        final String header;
+
+        final List<String> trivia = new ArrayList<>();
+        final List<Object> children = new ArrayList<>();
+        final List<String> closing = new ArrayList<>();
+        final List<String> tail = new ArrayList<>();
+
+        String trailing = "";
+        String close_indent = null;
+        String close_trailing = "";
+
+        /**
+         * Initialize the section
+         *
+         * @param path the section path
+         * @param indent the section indentation
+         * @param header the section header
+         */
+        Section(final String path, final String indent, final String header) {
+            this.path = path;
+            this.indent = indent;
+            this.header = header;
+        }
+
+        /**
+         * Get the indentation of the section
+         * children
+         *
+         * @param unit the file indentation
+         * @return the children indentation
+         */
+        String childIndent(final String unit) {
+            for (Object child : children) {
+                if (child instanceof Entry)
+                    return ((Entry) child).indent;
+                if (child instanceof Section)
+                    return ((Section) child).indent;
+            }
+
+            return indent + unit;
+        }
+
+        /**
+         * Get the indentation of the section
+         * closing line
+         *
+         * @return the closing indentation
+         */
+        String closeIndent() {
+            return (close_indent != null ? close_indent : indent);
+        }
+    }
+
+    /**
+     * A file key
+     */
+    static final class Entry {
+
+        final String key;
+        final String name;
+        final String indent;
+        final boolean recursive;
+
+        final List<String> trivia = new ArrayList<>();
+        final List<String> inner = new ArrayList<>();
+
+        String trailing = "";
+        String element_indent = null;
+        String close_indent = null;
+
+        /**
+         * Initialize the key
+         *
+         * @param key the key path
+         * @param name the key name, as written in the file
+         * @param indent the key indentation
+         * @param recursive if the key was written as recursive
+         */
+        Entry(final String key, final String name, final String indent, final boolean recursive) {
+            this.key = key;
+            this.name = name;
+            this.indent = indent;
+            this.recursive = recursive;
+        }
+
+        /**
+         * Get the indentation of the list
+         * elements
+         *
+         * @param unit the file indentation
+         * @return the elements indentation
+         */
+        String elementIndent(final String unit) {
+            return (element_indent != null ? element_indent : indent + unit);
+        }
+
+        /**
+         * Get the indentation of the list
+         * closing line
+         *
+         * @return the closing indentation
+         */
+        String closeIndent() {
+            return (close_indent != null ? close_indent : indent);
+        }
+    }
+}
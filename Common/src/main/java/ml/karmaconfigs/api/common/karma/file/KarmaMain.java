@@ -1,6 +1,7 @@
 package ml.karmaconfigs.api.common.karma.file;
 
 import ml.karmaconfigs.api.common.karma.APISource;
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
 import ml.karmaconfigs.api.common.karma.KarmaSource;
 import ml.karmaconfigs.api.common.karma.file.element.KarmaArray;
 import ml.karmaconfigs.api.common.karma.file.element.KarmaElement;
@@ -12,6 +13,7 @@ import ml.karmaconfigs.api.common.karmafile.KarmaFile;
 import ml.karmaconfigs.api.common.karmafile.Key;
 import ml.karmaconfigs.api.common.timer.scheduler.LateScheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.worker.AsyncLateScheduler;
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
 import ml.karmaconfigs.api.common.utils.enums.Level;
 import ml.karmaconfigs.api.common.utils.file.PathUtilities;
 import ml.karmaconfigs.api.common.utils.string.OptionsBuilder;
@@ -20,11 +22,18 @@ import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import ml.karmaconfigs.api.common.utils.string.util.TextContent;
 import ml.karmaconfigs.api.common.utils.string.util.TextType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,11 +45,33 @@ import java.util.regex.Pattern;
  */
 public class KarmaMain {
 
+    /**
+     * A map that contains document => auto saved file with
+     * changes that have not been written yet
+     */
+    private final static Map<Path, KarmaMain> unsaved = new ConcurrentHashMap<>();
+
+    /**
+     * If the auto save shutdown hook has been added
+     */
+    private final static AtomicBoolean hook = new AtomicBoolean(false);
+
     private final Path document;
 
-    private final Map<String, KarmaElement> content = new LinkedHashMap<>();
-    private final Map<KarmaElement, String> reverse = new LinkedHashMap<>();
-    private final Map<String, Integer> indexes = new HashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Object save_lock = new Object();
+
+    private volatile KarmaSource save_owner = null;
+    private volatile long save_window = 0L;
+
+    private Map<String, KarmaElement> content = new LinkedHashMap<>();
+    private Map<KarmaElement, String> reverse = new LinkedHashMap<>();
+    private boolean shared = false;
+
+    private KarmaLayout layout = null;
+    private String text = null;
+    private Map<String, KarmaElement> defaults = null;
 
     private String raw = "";
     private InputStream internal = null;
@@ -230,6 +261,7 @@ public class KarmaMain {
      */
     public KarmaMain internal(final InputStream in) {
         internal = in;
+        defaults = null;
         return this;
     }
 
@@ -241,575 +273,156 @@ public class KarmaMain {
      */
     public void preCache() throws KarmaFormatException {
         if (StringUtils.isNullOrEmpty(raw)) {
-            List<String> lines = PathUtilities.readAllLines(document);
-            if (lines.isEmpty() && internal != null) {
+            //Another auto saved file may have changes of this document that have not been written yet
+            KarmaMain pending = unsaved.get(document.toAbsolutePath());
+            if (pending != null && pending != this)
+                pending.flush();
+
+            if (content.isEmpty()) {
+                KarmaCache.Document cached = KarmaCache.get(document);
+                if (cached != null) {
+                    share(cached);
+                    return;
+                }
+            }
+
+            KarmaCache.Stamp stamp = KarmaCache.stamp(document);
+            CharBuffer data = read();
+            if (!data.hasRemaining() && internal != null) {
                 try {
                     Files.copy(internal, document, StandardCopyOption.REPLACE_EXISTING);
-                    lines = PathUtilities.readAllLines(document);
+                    stamp = KarmaCache.stamp(document);
+                    data = read();
                 } catch (Throwable ignored) {
                 }
             }
 
-            if (!lines.isEmpty()) {
-                String fileLines = StringUtils.listToString(lines, false);
-                Pattern blockComment = Pattern.compile("\\*\\((?:.|[\\n\\r])*?\\)\\*|\\*/.*");
-                Set<String> comments = new LinkedHashSet<>();
-                Matcher commentMatcher = blockComment.matcher(fileLines);
-                String remove_string = StringUtils.generateString(RandomString.createBuilder().withSize(32)).create();
-                while (commentMatcher.find()) {
-                    int start = commentMatcher.start();
-                    int end = commentMatcher.end();
-
-                    comments.add(fileLines.substring(start, end));
-                }
-
-                for (String comment : comments) {
-                    fileLines = fileLines.replace(comment, remove_string);
-                }
-
-                String[] data = fileLines.split("\n");
-                StringBuilder builder = new StringBuilder();
-                for (String fl : data) {
-                    if (!fl.replaceAll("\\s", "").equals(remove_string)) {
-                        builder.append(fl).append("\n");
-                    }
-                }
-                String result = builder.toString();
-                lines = new ArrayList<>(Arrays.asList(StringUtils.replaceLast(result, "\n", "").split("\n")));
-
-                StringBuilder rawBuilder = new StringBuilder();
-
-                boolean underComment = false;
-                boolean jump = true;
-                boolean parsedFirst = false;
-
-                String breaking = null;
-                int index = 0;
-
-                Set<String> added = new HashSet<>();
-                for (String line : lines) {
-                    if (!line.replaceAll("\\s", "").startsWith("*/")) {
-                        int size = line.length();
-                        indexes.put(line, ++index);
-
-                        if (breaking != null) {
-                            throw new KarmaFormatException(document, breaking, index);
-                        }
-
-                        boolean string = false;
-                        for (int i = 0; i < size; i++) {
-                            char current = line.charAt(i);
-                            int nextIndex = (i + 1 != size ? i + 1 : i);
-                            char next = line.charAt(nextIndex);
+            if (data.hasRemaining()) {
+                String source = data.toString();
 
-                            if (!underComment) {
-                                jump = true;
+                Map<String, KarmaElement> parsed = new LinkedHashMap<>();
+                Map<KarmaElement, String> parsed_reverse = new LinkedHashMap<>();
 
-                                if (current == '*') {
-                                    if (next == '(') {
-                                        underComment = true;
-                                        jump = false;
-                                    } else {
-                                        i = size;
-                                        continue;
-                                    }
-                                }
-
-                                if (!underComment) {
-                                    if (current == '(') {
-                                        if (next != '"') {
-                                            if (!parsedFirst) {
-                                                parsedFirst = true;
-                                                added.add("main");
-                                                indexes.put("main", index);
-                                            } else {
-                                                breaking = "Error, found invalid section definition at " + line + ", it must be (\"x\" where 'x' is any value!";
-                                            }
-                                        } else {
-                                            StringBuilder secName = new StringBuilder();
-                                            boolean broke = false;
-                                            for (int x = (nextIndex + 1); x < size; x++) {
-                                                char tmp = line.charAt(x);
-                                                if (tmp == '"') {
-                                                    broke = true;
-                                                    break;
-                                                }
-
-                                                secName.append(tmp);
-                                            }
-
-                                            if (broke) {
-                                                String section = secName.toString();
-                                                if (!added.contains(section)) {
-                                                    added.add(section);
-                                                    indexes.put(section, index);
-                                                } else {
-                                                    breaking = "Error, found repeated section definition " + section;
-                                                }
-                                            } else {
-                                                breaking = "Error, found invalid section definition at " + line + ", it must be (\"x\" where 'x' is any value!";
-                                            }
-                                        }
-                                    }
-
-                                    if (current == '"')
-                                        string = !string;
-
-                                    if (!string) {
-                                        char prev = line.charAt((i != 0 ? (i - 1) : 0));
-                                        char prev1 = line.charAt((i > 2 ? i - 2 : 0));
-                                        if (current == '-' && next == '>') {
-                                            char cont = line.charAt((nextIndex + 1 != (size - 1) ? (nextIndex + 1) : nextIndex));
-                                            char cont1 = line.charAt((nextIndex + 2 != (size - 1) ? (nextIndex + 2) : nextIndex));
-
-                                            boolean error = false;
-                                            if (Character.isSpaceChar(prev)) {
-                                                if (!Character.isSpaceChar(prev1)) {
-                                                    if (Character.isSpaceChar(cont)) {
-                                                        if (!Character.isSpaceChar(cont1)) {
-                                                            rawBuilder.append(current);
-                                                        } else {
-                                                            error = true;
-                                                        }
-                                                    } else {
-                                                        error = true;
-                                                    }
-                                                } else {
-                                                    error = true;
-                                                }
-                                            } else {
-                                                if (prev == '<') {
-                                                    error = !Character.isSpaceChar(prev1);
-                                                } else {
-                                                    error = true;
-                                                }
-                                            }
-
-                                            if (error) {
-                                                breaking = "Error, found invalid key -> value definition at " + line + ". It must be 'Key' -> \"Value\"";
-                                            }
-                                        } else {
-                                            if (prev == '-' && prev1 == '<')
-                                                rawBuilder.append(prev);
-
-                                            rawBuilder.append(current);
-                                        }
-                                    } else {
-                                        rawBuilder.append(current);
-                                    }
-                                }
-                            } else {
-                                underComment = current != ')' && next != '*';
-                                if (!underComment) {
-                                    i++;
-                                    jump = true;
-                                }
-                            }
-                        }
+                KarmaParser parser = new KarmaParser(document, CharBuffer.wrap(source));
+                String result = parser.parse(parsed, parsed_reverse);
 
-                        if (jump) {
-                            rawBuilder.append("\n");
-                        }
-                    }
+                KarmaCache.Document cached = null;
+                if (stamp != null) {
+                    cached = new KarmaCache.Document(stamp, source, result, parsed, parsed_reverse);
+                    KarmaCache.put(document, cached);
                 }
 
-                //We need raw text to parse easily the data...
-                raw = rawBuilder.toString();
-                String[] tmp = raw.split("\n");
-                for (int i = 0; i < tmp.length; i++) {
-                    if (!StringUtils.isNullOrEmpty(tmp[i])) {
-                        raw = rawBuilder.substring(i);
-                        break;
+                synchronized (this) {
+                    if (cached != null && content.isEmpty()) {
+                        share(cached);
+                    } else {
+                        own();
+                        content.putAll(parsed);
+                        reverse.putAll(parsed_reverse);
+                        raw = result;
+                        text = source;
                     }
+                    layout = parser.layout();
                 }
+            }
+        }
+    }
 
-                data = raw.split("\n");
-                String main = data[0];
-                if (main.equals("(") || main.equals("(\"main\"")) {
-                    String parent = "main";
-                    for (int i = 1; i < data.length; i++) {
-                        String line = data[i];
-                        if (line.replaceAll("\\s", "").startsWith("(")) {
-                            String name = line.replaceAll("\\s", "");
-                            name = name.replaceFirst("\\(", "");
-                            name = name.replaceFirst("\"", "");
-                            name = name.substring(0, name.length() - 1);
-
-                            parent = parent + "." + name;
-                        } else {
-                            if (line.contains("->")) {
-                                boolean rec = false;
-                                Pattern pattern = Pattern.compile("' .?-> ");
-                                Pattern badPattern = Pattern.compile("\" .?-> ");
-
-                                Matcher matcher = pattern.matcher(line);
-                                Matcher badMatcher = badPattern.matcher(line);
-
-                                if (!matcher.find() && !badMatcher.find()) {
-                                    throw new KarmaFormatException(document, "Error, couldn't find valid key format -> or <-> at ( " + line + " )", indexes.getOrDefault(line, -1));
-                                }
-
-                                int start;
-                                int end;
-                                boolean bad = false;
-                                try {
-                                    start = matcher.start();
-                                    end = matcher.end();
-                                } catch (Throwable ex) {
-                                    start = badMatcher.start();
-                                    end = badMatcher.end();
-                                    bad = true;
-                                }
-
-                                String target = String.valueOf((bad ? '"' : '\''));
+    /**
+     * Use the values of a cached file. The values are
+     * copied the first time this file modifies them
+     *
+     * @param cached the cached file
+     */
+    private synchronized void share(final KarmaCache.Document cached) {
+        content = cached.content;
+        reverse = cached.reverse;
+        raw = cached.raw;
+        text = cached.text;
+        layout = null;
+        shared = true;
+    }
 
-                                String match = line.substring(start + 2, end - 2).replaceAll("\\s", "");
-                                if (match.equalsIgnoreCase("<-")) {
-                                    rec = true;
-                                }
+    /**
+     * Copy the values shared with the cache, so this
+     * file can modify them
+     */
+    private synchronized void own() {
+        if (!shared)
+            return;
+
+        Map<KarmaElement, KarmaElement> copies = new IdentityHashMap<>();
+        Map<String, KarmaElement> own_content = new LinkedHashMap<>();
+        for (Map.Entry<String, KarmaElement> entry : content.entrySet()) {
+            KarmaElement element = entry.getValue();
+            if (!(element instanceof KarmaObject))
+                element = copies.computeIfAbsent(element, KarmaElement::copy);
+
+            own_content.put(entry.getKey(), element);
+        }
 
-                                String[] dt = line.split((rec ? "<->" : "->"));
+        Map<KarmaElement, String> own_reverse = new LinkedHashMap<>();
+        for (Map.Entry<KarmaElement, String> entry : reverse.entrySet())
+            own_reverse.put(copies.getOrDefault(entry.getKey(), entry.getKey()), entry.getValue());
 
-                                String tmpName = dt[0].replaceAll("\\s", "");
-                                if (!tmpName.startsWith(target) && !tmpName.endsWith(target))
-                                    throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' where x is any value", indexes.getOrDefault(line, -1));
+        content = own_content;
+        reverse = own_reverse;
+        shared = false;
+    }
 
-                                String name = StringUtils.replaceLast(dt[0].replaceFirst(target, ""), target, "");
-                                String key = parent + "." + name.replaceAll("\\s", "");
-                                StringBuilder value = new StringBuilder();
-                                for (int x = 1; x < dt.length; x++) {
-                                    value.append(dt[x]).append((x != dt.length - 1 ? (rec ? "<->" : "->") : ""));
-                                }
+    /**
+     * Get a value, copying the shared values first
+     * if the value can be modified
+     *
+     * @param key the value key
+     * @param def the default value
+     * @return the value
+     */
+    private KarmaElement value(final String key, final KarmaElement def) {
+        KarmaElement element = content.getOrDefault(key, def);
+        if (shared && element != def && !(element instanceof KarmaObject)) {
+            own();
+            element = content.getOrDefault(key, def);
+        }
 
-                                if (!StringUtils.isNullOrEmpty(value)) {
-                                    if (value.toString().replaceAll("\\s", "").startsWith("{")) {
-                                        boolean keyed = false;
-                                        boolean simple = false;
-                                        KarmaElement array = new KarmaArray();
-                                        int subIndex = 0;
-
-                                        String parentKey = key;
-                                        for (int x = (i + 1); x < data.length; x++, subIndex++) {
-                                            line = data[x];
-
-                                            if (!line.replaceAll("\\s", "").endsWith("}")) {
-                                                if (line.contains("<->")) {
-                                                    if (!(array instanceof KarmaKeyArray))
-                                                        array = new KarmaKeyArray();
-
-                                                    if (!simple) {
-                                                        keyed = true;
-
-                                                        dt = line.split("->");
-
-                                                        tmpName = dt[0].replaceAll("\\s", "");
-                                                        if (!tmpName.startsWith("'") && !tmpName.endsWith("'"))
-                                                            throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' where x is any value", indexes.getOrDefault(line, -1));
-
-                                                        int i1 = dt[0].indexOf("'");
-                                                        int i2 = dt[0].lastIndexOf("'");
-
-                                                        name = StringUtils.replaceLast(dt[0], "<", "");
-                                                        key = name.substring(i1 + 1, i2);
-                                                        value = new StringBuilder();
-                                                        for (int y = 1; y < dt.length; y++) {
-                                                            value.append(dt[y]).append((y != dt.length - 1 ? "->" : ""));
-                                                        }
-
-                                                        KarmaKeyArray ka = (KarmaKeyArray) array;
-
-                                                        String v = value.toString().replaceFirst("\t", "").replaceFirst(" ", "");
-                                                        if (!StringUtils.isNullOrEmpty(v)) {
-                                                            if (v.startsWith("\"") || v.startsWith("'")) {
-                                                                if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                                    throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                                } else {
-                                                                    v = v.substring(1, v.length() - 1);
-                                                                    KarmaObject obj = new KarmaObject(v);
-
-                                                                    ka.add(key, obj, true);
-                                                                }
-                                                            } else {
-                                                                if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                                    boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                                    KarmaObject obj = new KarmaObject(bool);
-
-                                                                    ka.add(key, obj, true);
-                                                                } else {
-                                                                    if (v.contains(",")) {
-                                                                        Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                                        KarmaObject obj = new KarmaObject(number);
-
-                                                                        ka.add(key, obj, true);
-                                                                    } else {
-                                                                        if (v.contains(".")) {
-                                                                            Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                                            KarmaObject obj = new KarmaObject(number);
-
-                                                                            ka.add(key, obj, true);
-                                                                        } else {
-                                                                            try {
-                                                                                Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                                KarmaObject obj = new KarmaObject(number);
-
-                                                                                ka.add(key, obj, true);
-                                                                            } catch (NumberFormatException e) {
-                                                                                KarmaObject obj = new KarmaObject(v);
-
-                                                                                ka.add(key, obj, true);
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    } else {
-                                                        throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", indexes.getOrDefault(line, -1));
-                                                    }
-                                                } else {
-                                                    if (line.contains("->")) {
-                                                        if (!(array instanceof KarmaKeyArray))
-                                                            array = new KarmaKeyArray();
-
-                                                        if (!simple) {
-                                                            keyed = true;
-                                                            dt = line.split("->");
-
-                                                            tmpName = dt[0].replaceAll("\t", "").replaceAll("\\s", "");
-                                                            if (!tmpName.startsWith("'") && !tmpName.endsWith("'"))
-                                                                throw new KarmaFormatException(document, "Error, invalid key format, it must be 'x' where x is any value", indexes.getOrDefault(line, -1));
-
-                                                            int i1 = dt[0].indexOf("'");
-                                                            int i2 = dt[0].lastIndexOf("'");
-
-                                                            name = StringUtils.replaceLast(dt[0], "<", "");
-                                                            key = name.substring(i1 + 1, i2);
-                                                            value = new StringBuilder();
-                                                            for (int y = 1; y < dt.length; y++) {
-                                                                value.append(dt[y]).append((y != dt.length - 1 ? "->" : ""));
-                                                            }
-
-                                                            KarmaKeyArray ka = (KarmaKeyArray) array;
-
-                                                            String v = value.toString().replaceFirst("\t", "").replaceFirst(" ", "");
-                                                            if (!StringUtils.isNullOrEmpty(v)) {
-                                                                if (v.startsWith("\"") || v.startsWith("'")) {
-                                                                    if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                                        throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                                    } else {
-                                                                        v = v.substring(1, v.length() - 1);
-                                                                        KarmaObject obj = new KarmaObject(v);
-
-                                                                        ka.add(key, obj, false);
-                                                                    }
-                                                                } else {
-                                                                    if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                                        boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                                        KarmaObject obj = new KarmaObject(bool);
-
-                                                                        ka.add(key, obj, false);
-                                                                    } else {
-                                                                        if (v.contains(",")) {
-                                                                            Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                                            KarmaObject obj = new KarmaObject(number);
-
-                                                                            ka.add(key, obj, false);
-                                                                        } else {
-                                                                            if (v.contains(".")) {
-                                                                                Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                                                KarmaObject obj = new KarmaObject(number);
-
-                                                                                ka.add(key, obj, false);
-                                                                            } else {
-                                                                                try {
-                                                                                    Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                                    KarmaObject obj = new KarmaObject(number);
-
-                                                                                    ka.add(key, obj, false);
-                                                                                } catch (NumberFormatException e) {
-                                                                                    KarmaObject obj = new KarmaObject(v);
-
-                                                                                    ka.add(key, obj, false);
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            }
-                                                        } else {
-                                                            throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", indexes.getOrDefault(line, -1));
-                                                        }
-                                                    } else {
-                                                        if (!keyed) {
-                                                            if (!(array instanceof KarmaArray))
-                                                                array = new KarmaArray();
-
-                                                            simple = true;
-
-                                                            value = new StringBuilder();
-                                                            boolean parsing = false;
-                                                            for (int y = 1; y < line.length(); y++) {
-                                                                char character = line.charAt(y);
-                                                                if (!parsing) {
-                                                                    if (!Character.isSpaceChar(character)) {
-                                                                        parsing = true;
-                                                                    }
-                                                                }
-
-                                                                if (parsing) {
-                                                                    value.append(character);
-                                                                }
-                                                            }
-
-                                                            KarmaArray ka = (KarmaArray) array;
-
-                                                            String v = value.toString().replaceFirst("\t", "");
-                                                            if (!StringUtils.isNullOrEmpty(v)) {
-                                                                if (!v.equals("{")) {
-                                                                    if (v.startsWith("\"") || v.startsWith("'")) {
-                                                                        if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                                            throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                                                        } else {
-                                                                            v = v.substring(1, v.length() - 1);
-                                                                            KarmaObject obj = new KarmaObject(v);
-
-                                                                            ka.add(obj);
-                                                                        }
-                                                                    } else {
-                                                                        if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                                            boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                                            KarmaObject obj = new KarmaObject(bool);
-
-                                                                            ka.add(obj);
-                                                                        } else {
-                                                                            if (v.contains(",")) {
-                                                                                Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                                                KarmaObject obj = new KarmaObject(number);
-
-                                                                                ka.add(obj);
-                                                                            } else {
-                                                                                if (v.contains(".")) {
-                                                                                    Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                                                    KarmaObject obj = new KarmaObject(number);
-
-                                                                                    ka.add(obj);
-                                                                                } else {
-                                                                                    try {
-                                                                                        Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                                                        KarmaObject obj = new KarmaObject(number);
-
-                                                                                        ka.add(obj);
-                                                                                    } catch (NumberFormatException e) {
-                                                                                        KarmaObject obj = new KarmaObject(v);
-
-                                                                                        ka.add(obj);
-                                                                                    }
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            }
-                                                        } else {
-                                                            throw new KarmaFormatException(document, "Error, invalid list format. It seems that you mixed a simple list and a keyed list", indexes.getOrDefault(line, -1));
-                                                        }
-                                                    }
-                                                }
-                                            } else {
-                                                i = x;
-                                                break;
-                                            }
-                                        }
+        return element;
+    }
 
-                                        content.put(parentKey, array);
-                                        if (rec)
-                                            reverse.put(array, parentKey);
-                                    } else {
-                                        String v = value.toString().replaceFirst("\t", "").replaceFirst(" ", "");
-                                        if (v.startsWith("\"") || v.startsWith("'")) {
-                                            if (!v.endsWith((v.startsWith("\"") ? "\"" : "'"))) {
-                                                throw new KarmaFormatException(document, "Error, invalid text format. It seems that you mixed quotes or forgot to close string", indexes.getOrDefault(line, -1));
-                                            } else {
-                                                v = v.substring(1, v.length() - 1);
-                                                KarmaObject obj = new KarmaObject(v);
-
-                                                content.put(key, obj);
-                                                if (rec)
-                                                    reverse.put(obj, key);
-                                            }
-                                        } else {
-                                            if (v.replaceAll("\\s", "").equalsIgnoreCase("true") || v.replaceAll("\\s", "").equalsIgnoreCase("false")) {
-                                                boolean bool = Boolean.parseBoolean(v.replaceAll("\\s", ""));
-                                                KarmaObject obj = new KarmaObject(bool);
-
-                                                content.put(key, obj);
-                                                if (rec)
-                                                    reverse.put(obj, key);
-                                            } else {
-                                                if (v.contains(",")) {
-                                                    Number number = Double.parseDouble(v.replaceAll("\\s", "").replace(",", "."));
-                                                    KarmaObject obj = new KarmaObject(number);
-
-                                                    content.put(key, obj);
-                                                    if (rec)
-                                                        reverse.put(obj, key);
-                                                } else {
-                                                    if (v.contains(".")) {
-                                                        Number number = Float.parseFloat(v.replaceAll("\\s", ""));
-                                                        KarmaObject obj = new KarmaObject(number);
-
-                                                        content.put(key, obj);
-                                                        if (rec)
-                                                            reverse.put(obj, key);
-                                                    } else {
-                                                        try {
-                                                            Number number = Integer.parseInt(v.replaceAll("\\s", ""));
-                                                            KarmaObject obj = new KarmaObject(number);
-
-                                                            content.put(key, obj);
-                                                            if (rec)
-                                                                reverse.put(obj, key);
-                                                        } catch (NumberFormatException e) {
-                                                            KarmaObject obj = new KarmaObject(v);
-
-                                                            content.put(key, obj);
-                                                            if (rec)
-                                                                reverse.put(obj, key);
-                                                        }
-                                                    }
-                                                }
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    KarmaObject obj = new KarmaObject("");
+    /**
+     * Get the file layout, reading it from the
+     * file data if it has not been read yet
+     *
+     * @return the file layout
+     */
+    private KarmaLayout layout() {
+        if (layout == null) {
+            if (text != null) {
+                KarmaParser parser = new KarmaParser(document, CharBuffer.wrap(text));
+                parser.parse(new LinkedHashMap<>(), new LinkedHashMap<>());
+                layout = parser.layout();
+            } else {
+                layout = new KarmaLayout();
+            }
+        }
 
-                                    content.put(key, obj);
-                                    if (rec)
-                                        reverse.put(obj, key);
-                                }
-                            } else {
-                                if (line.replaceAll("\\s", "").endsWith(")")) {
-                                    if (parent.contains(".")) {
-                                        String[] pData = parent.split("\\.");
-                                        parent = StringUtils.replaceLast(parent, "." + pData[pData.length - 1], "");
-                                        if (pData.length == 1)
-                                            parent = pData[0];
-                                    }
-                                }
-                            }
-                        }
-                    }
+        return layout;
+    }
 
-                    if (!parent.equals("main")) {
-                        String[] pData = parent.split("\\.");
-                        throw new KarmaFormatException(document, "Error, non closed section path ( " + parent + " )", indexes.getOrDefault(pData[pData.length - 1], -1));
-                    }
-                } else {
-                    throw new KarmaFormatException(document, "Error, found invalid main section name at " + main + "; it must be \"main\" or empty!", indexes.getOrDefault(main, -1));
-                }
+    /**
+     * Read the document data
+     *
+     * @return the document data
+     */
+    private CharBuffer read() {
+        Path file = PathUtilities.getFixedPath(document);
+        if (Files.exists(file)) {
+            try {
+                return StandardCharsets.UTF_8.decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+            } catch (Throwable ignored) {
             }
         }
+
+        return CharBuffer.allocate(0);
     }
 
     /**
@@ -826,6 +439,7 @@ public class KarmaMain {
             try {
                 PathUtilities.create(document);
                 Files.copy(internal, document, StandardCopyOption.REPLACE_EXISTING);
+                KarmaCache.invalidate(document);
                 return true;
             } catch (Throwable ignored) {
             }
@@ -868,7 +482,7 @@ public class KarmaMain {
         if (!tmpKey.startsWith("main."))
             tmpKey = "main." + key;
 
-        return content.getOrDefault(tmpKey, null);
+        return value(tmpKey, null);
     }
 
     /**
@@ -884,7 +498,7 @@ public class KarmaMain {
         if (!tmpKey.startsWith("main."))
             tmpKey = "main." + key;
 
-        return content.getOrDefault(tmpKey, def);
+        return value(tmpKey, def);
     }
 
     /**
@@ -984,10 +598,149 @@ public class KarmaMain {
         if (!tmpKey.startsWith("main."))
             tmpKey = "main." + tmpKey;
 
-        if (element != null) {
-            content.put(tmpKey, element);
-        } else {
-            content.remove(tmpKey);
+        synchronized (this) {
+            own();
+            if (element != null) {
+                content.put(tmpKey, element);
+            } else {
+                content.remove(tmpKey);
+            }
+        }
+
+        if (save_owner != null) {
+            dirty.add(tmpKey);
+            request();
+        }
+    }
+
+    /**
+     * Enable the auto save of the file. When enabled, every
+     * change is written to the disk from a worker thread after
+     * the configured save window, so changes made in the same
+     * window are written at once
+     *
+     * @param owner the file owner
+     * @return this file
+     */
+    public KarmaMain autoSave(final KarmaSource owner) {
+        return autoSave(owner, new KarmaConfig().saveWindow(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enable the auto save of the file. When enabled, every
+     * change is written to the disk from a worker thread after
+     * the save window, so changes made in the same window are
+     * written at once
+     *
+     * @param owner the file owner
+     * @param window the save window
+     * @param unit the save window time unit
+     * @return this file
+     */
+    public KarmaMain autoSave(final KarmaSource owner, final long window, final TimeUnit unit) {
+        save_window = Math.max(0L, unit.toMillis(window));
+        save_owner = owner;
+
+        if (hook.compareAndSet(false, true))
+            Runtime.getRuntime().addShutdownHook(new Thread(KarmaMain::flushAll, "KarmaAPI-AutoSave"));
+
+        return this;
+    }
+
+    /**
+     * Disable the auto save of the file, writing
+     * the changes that have not been written yet
+     */
+    public void disableAutoSave() {
+        flush();
+        save_owner = null;
+    }
+
+    /**
+     * Get if the file auto saves
+     *
+     * @return if the file auto saves
+     */
+    public boolean isAutoSave() {
+        return save_owner != null;
+    }
+
+    /**
+     * Get if the file has changes that have
+     * not been written yet
+     *
+     * @return if the file has unsaved changes
+     */
+    public boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Write the changes that have not been written yet
+     * to the disk, on the current thread. If the file could
+     * not be saved, the changes are kept as not written and
+     * the write is scheduled again
+     *
+     * @return if the file could be saved
+     */
+    public boolean flush() {
+        synchronized (save_lock) {
+            scheduled.set(false);
+            if (dirty.isEmpty())
+                return true;
+
+            Set<String> keys = new HashSet<>(dirty);
+            unsaved.remove(document.toAbsolutePath(), this);
+            dirty.removeAll(keys);
+
+            boolean saved = false;
+            try {
+                saved = save(document);
+            } finally {
+                if (!saved) {
+                    dirty.addAll(keys);
+                    request();
+                }
+            }
+
+            return saved;
+        }
+    }
+
+    /**
+     * Schedule the write of the file changes, if
+     * it is not scheduled already
+     */
+    private void request() {
+        KarmaSource owner = save_owner;
+        if (owner == null)
+            return;
+
+        unsaved.put(document.toAbsolutePath(), this);
+        if (scheduled.compareAndSet(false, true))
+            WorkerPool.schedule(owner, this::flush, save_window, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write the changes of every auto saved file
+     * that have not been written yet
+     */
+    public static void flushAll() {
+        for (KarmaMain file : unsaved.values())
+            file.flush();
+    }
+
+    /**
+     * Write the changes of every auto saved file of
+     * the source that have not been written yet
+     *
+     * @param source the source
+     */
+    public static void flushAll(final KarmaSource source) {
+        for (KarmaMain file : unsaved.values()) {
+            KarmaSource owner = file.save_owner;
+            if (owner != null && owner.isSource(source))
+                file.flush();
         }
     }
 
@@ -1000,11 +753,18 @@ public class KarmaMain {
     }
 
     /**
-     * Save the file
+     * Save the file. If the file auto saves, the
+     * write is scheduled and this returns immediately
      *
      * @throws KarmaFormatException if the file could not be parsed correctly
      */
     public boolean save() {
+        if (save_owner != null) {
+            dirty.add("main");
+            request();
+            return true;
+        }
+
         return save(document);
     }
 
@@ -1033,580 +793,83 @@ public class KarmaMain {
         try {
             source.console().debug("Saving file {0}", Level.INFO, PathUtilities.getPrettyPath(target));
 
-            List<String> write = new ArrayList<>();
-            List<String> lines = PathUtilities.readAllLines(document);
-            Set<String> wrote_keys = new HashSet<>();
-
-            if (!lines.isEmpty()) {
-                source.console().debug("File is not empty", Level.INFO);
-
-                write.add("(\"main\"");
-                Pattern keyMatcher = Pattern.compile("'.*' .?->");
-                Pattern badKeyMatcher = Pattern.compile("\".*\" .?->");
-
-                StringBuilder section = new StringBuilder();
-
-                int index = 1;
-                boolean bigComment = false;
-                boolean readingList = false;
-                for (String line : lines) {
-                    String noSpace = line.replaceAll("\\s", "");
-                    if (noSpace.equals("\n") || StringUtils.isNullOrEmpty(noSpace)) {
-                        write.add(line);
-                        continue;
-                    }
-
-                    Matcher matcher = keyMatcher.matcher(line);
-                    Matcher badMatcher = badKeyMatcher.matcher(line);
-
-                    if (matcher.find() || badMatcher.find() && !readingList) {
-                        source.console().debug("Found key!", Level.INFO);
-
-                        if (section.toString().isEmpty())
-                            section.append("main");
-
-                        int start;
-                        int end;
-                        try {
-                            start = matcher.start();
-                            end = matcher.end();
-                        } catch (Throwable ex) {
-                            start = badMatcher.start();
-                            end = badMatcher.end();
-                        }
-
-
-                        String space = line.substring(0, start);
-                        String result = line.substring(start, end);
-
-                        source.console().debug("The path is: {0} ( From line: {1} )", Level.INFO, result, line);
-
-                        boolean recursive = line.endsWith("<->");
-                        String name = result.substring(1, result.length() - (recursive ? 5 : 4));
-
-                        source.console().debug("Key name is: {0}", Level.INFO, name);
-
-                        String key = section + "." + name;
-                        String value = line.replaceFirst(line.substring(0, start) + result + " ", "");
-
-                        KarmaElement element = content.getOrDefault(key, null);
-                        if (element == null && internal != null) {
-                            KarmaMain tmp = new KarmaMain(internal);
-                            element = tmp.content.getOrDefault(key, null);
-                        }
-
-                        if (element != null) {
-                            wrote_keys.add(key);
-
-                            source.console().debug("Key {0} has a known value: {1}", Level.INFO, key, element);
-
-                            if (element.isString() || element.isBoolean() || element.isNumber()) {
-                                source.console().debug("Wrote!", Level.INFO);
-                                write.add(space + "'" + name + "' " + (recursive ? "<-> " : "-> ") + element);
-                            } else {
-                                if (!readingList) {
-                                    if (value.startsWith("{")) {
-                                        readingList = true;
-                                        write.add(space + "'" + name + "' " + (recursive ? "<-> " : "-> ") + "{");
-
-                                        if (element.isKeyArray()) {
-                                            source.console().debug("Writing map", Level.INFO);
-
-                                            KarmaKeyArray kA = element.getKeyArray();
-                                            kA.getKeys().forEach((k) -> {
-                                                KarmaElement kAElement = kA.get(k);
-                                                boolean rec = kA.isRecursive(k) || kA.isRecursive(kAElement);
-
-                                                write.add(space + "\t'" + k + "' " + (rec ? "<-> " : "-> ") + kAElement.getObjet());
-                                            });
-                                        } else {
-                                            source.console().debug("Writing list", Level.INFO);
-
-                                            KarmaArray a = element.getArray();
-                                            for (KarmaElement sub : a) {
-                                                write.add(space + "\t'" + sub.getObjet().textValue() + "'");
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    if (line.endsWith("}")) {
-                                        readingList = false;
-                                        write.add(line);
-                                    }
-                                }
-                            }
-                        } else {
-                            APISource.getOriginal(false).logger().scheduleLog(Level.WARNING,
-                                    "An error occurred while saving file {0}. Required key {1} is not defined{2}. The file will be try to be saved anyway",
-                                    PathUtilities.getPrettyPath(document),
-                                    key,
-                                    (internal == null ? " ( setting internal file may fix the issue )" : " ( internal file does not contain the key neither )"));
-
-                            APISource.getOriginal(false).console().send("An error occurred while saving file {0} because the key {1} is not defined{2}. The file will be try to be saved anyway",
-                                    Level.WARNING,
-                                    PathUtilities.getPrettyPath(document),
-                                    key,
-                                    (internal == null ? " ( setting internal file may fix the issue )" : " ( internal file does not contain the key neither )"));
-                        }
-                    } else {
-                        if (readingList) {
-                            if (line.endsWith("}")) {
-                                readingList = false;
-                                write.add(line);
-                            }
-                        } else {
-                            Pattern sectMatcher = Pattern.compile("\\(\".*\"");
-
-                            matcher = sectMatcher.matcher(line);
-
-                            if (line.replaceAll("\\s", "").equals(")") && !section.toString().equals("main")) {
-                                write.add(line);
-
-                                String current = section.toString();
-                                String[] data = current.split("\\.");
-                                if (data.length >= 1)
-                                    current = current.replace("." + data[data.length - 1], "");
-
-                                section = new StringBuilder(current);
-                                continue;
-                            }
-
-                            if (matcher.find()) {
-                                int start = matcher.start();
-                                int end = matcher.end();
-
-                                if (line.contains("\"")) {
-                                    String name = line.substring(start + 2, end - 1);
-
-                                    if (section.length() > 0) {
-                                        section.append(".").append(name);
-                                    } else {
-                                        section = new StringBuilder(name);
-                                    }
-
-                                    if (!name.equalsIgnoreCase("main")) {
-                                        write.add(line);
-                                    }
-                                } else {
-                                    if (!section.toString().equals("main")) {
-                                        section = new StringBuilder("main");
-                                    } else {
-                                        throw new KarmaFormatException(document, "Error, couldn't save file because the main section has been defined two or more times", index);
-                                    }
-                                }
-                            } else {
-                                if (!bigComment) {
-                                    Pattern comment = Pattern.compile("(\\*\\(.[^)*]*\\)\\*)|(\\*\\(\\n[^)*]*\\)\\*)|(\\*/.[^\\n]*)");
-                                    matcher = comment.matcher(line);
-
-                                    if (matcher.find()) {
-                                        write.add(line);
-                                    } else {
-                                        bigComment = line.replaceAll("\\s", "").startsWith("*(");
-                                        if (bigComment) {
-                                            write.add(line);
-                                        }
-                                    }
-                                } else {
-                                    write.add(line);
-                                    bigComment = !line.endsWith(")*");
-                                }
-                            }
-                        }
-                    }
-                }
-
-                Map<String, Map<String, KarmaElement>> sections = new LinkedHashMap<>();
-                for (String key : content.keySet()) {
-                    if (key.contains(".")) {
-                        String[] data = key.split("\\.");
-                        if (data.length > 2) {
-                            String realKey = data[data.length - 1];
-                            String realPath = key.replace("." + realKey, "");
-
-                            Map<String, KarmaElement> values = sections.getOrDefault(realPath, new LinkedHashMap<>());
-                            values.put(realKey, content.get(key));
-
-                            sections.put(realPath, values);
-                        } else {
-                            Map<String, KarmaElement> values = sections.getOrDefault("main", new LinkedHashMap<>());
-                            values.put(data[1], content.get(key));
-
-                            sections.put("main", values);
-                        }
-                    }
-                }
-
-                int i2;
-                int sectionIndex = 0;
-                for (String s : sections.keySet()) {
-                    boolean wrote = false;
-                    sectionIndex++;
-
-                    if (!s.equals("main")) {
-                        if (!wrote_keys.contains(s)) {
-                            wrote = true;
-
-                            if (s.contains(".")) {
-                                String[] data = s.split("\\.");
-
-                                i2 = 1;
-                                StringBuilder realKeyBuilder = new StringBuilder("main");
-                                for (String sub : data) {
-                                    if (!sub.equals("main")) {
-                                        realKeyBuilder.append(".").append(sub);
-
-                                        StringBuilder b = new StringBuilder();
-                                        for (int i = 0; i < i2; i++)
-                                            b.append("\t");
-
-                                        write.add(b + "(\"" + sub + "\"");
-                                        Map<String, KarmaElement> values = sections.getOrDefault(realKeyBuilder.toString(), new LinkedHashMap<>());
-
-                                        source.console().debug("Section: {0}", Level.INFO, sub);
-
-                                        for (String key : values.keySet()) {
-                                            KarmaElement value = values.get(key);
-                                            if (value.isArray()) {
-                                                source.console().debug("Writing list {0}", Level.INFO, key);
-
-                                                write.add(b + "\t'" + key + "' -> {");
-                                                KarmaArray array = value.getArray();
-
-                                                array.forEach((element) -> {
-                                                    write.add(b + "\t\t'" + element.getObjet().textValue() + "'");
-                                                });
-                                                write.add(b + "\t}");
-                                            } else {
-                                                if (value.isKeyArray()) {
-                                                    source.console().debug("Writing map {0}", Level.INFO, key);
-
-                                                    write.add(b + "\t'" + key + "' -> {");
-                                                    KarmaKeyArray array = value.getKeyArray();
-
-                                                    array.getKeys().forEach((k) -> {
-                                                        KarmaElement val = array.get(k);
-                                                        if (array.isRecursive(k)) {
-                                                            write.add(b + "\t\t'" + k + "' <-> " + val.toString());
-                                                        } else {
-                                                            write.add(b + "\t\t'" + k + "' -> " + val.toString());
-                                                        }
-                                                    });
-                                                    write.add(b + "\t}");
-                                                } else {
-                                                    source.console().debug("Writing key {0} with value: {1}", Level.INFO, key, values.get(key));
-
-                                                    write.add(b + "\t'" + key + "' -> " + values.get(key).toString());
-                                                }
-                                            }
-                                        }
-                                        write.add(b + ")");
-
-                                        i2++;
-                                    }
-                                }
-                            } else {
-                                source.console().debug("Section: {0}", Level.INFO, s);
-
-                                write.add("\t(\"" + s + "\"");
-                                Map<String, KarmaElement> values = sections.getOrDefault(s, new LinkedHashMap<>());
-
-                                for (String key : values.keySet()) {
-                                    KarmaElement value = values.get(key);
-
-                                    if (value.isArray()) {
-                                        source.console().debug("Writing list {0}", Level.INFO, key);
-
-                                        write.add("\t\t'" + key + "' -> {");
-                                        KarmaArray array = value.getArray();
-
-                                        array.forEach((element) -> {
-                                            write.add("\t\t\t'" + element.getObjet().textValue() + "'");
-                                        });
-                                        write.add("\t\t}");
-                                    } else {
-                                        if (value.isKeyArray()) {
-                                            source.console().debug("Writing map {0}", Level.INFO, key);
-
-                                            write.add("\t\t'" + key + "' -> {");
-                                            KarmaKeyArray array = value.getKeyArray();
-
-                                            array.getKeys().forEach((k) -> {
-                                                KarmaElement val = array.get(k);
-                                                if (array.isRecursive(k)) {
-                                                    write.add("\t\t\t'" + k + "' <-> " + val.toString());
-                                                } else {
-                                                    write.add("\t\t\t'" + k + "' -> " + val.toString());
-                                                }
-                                            });
-                                            write.add("\t\t}");
-                                        } else {
-                                            source.console().debug("Writing key {0} with value: {1}", Level.INFO, key, values.get(key));
-
-                                            write.add("\t\t'" + key + "' -> " + values.get(key).toString());
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    } else {
-                        source.console().debug("Section: main", Level.INFO);
-
-                        Map<String, KarmaElement> values = sections.getOrDefault(s, new LinkedHashMap<>());
-
-                        for (String key : values.keySet()) {
-                            if (!wrote_keys.contains("main." + key)) {
-                                wrote = true;
-
-                                write.add("");
-                                KarmaElement value = values.get(key);
-
-                                if (value.isArray()) {
-                                    source.console().debug("Writing list {0}", Level.INFO, key);
-
-                                    write.add("\t'" + key + "' -> {");
-                                    KarmaArray array = value.getArray();
-
-                                    array.forEach((element) -> {
-                                        write.add("\t\t'" + element.getObjet().textValue() + "'");
-                                    });
-                                    write.add("\t}");
-                                } else {
-                                    if (value.isKeyArray()) {
-                                        source.console().debug("Writing map {0}", Level.INFO, key);
-
-                                        write.add("\t'" + key + "' -> {");
-                                        KarmaKeyArray array = value.getKeyArray();
-
-                                        array.getKeys().forEach((k) -> {
-                                            KarmaElement val = array.get(k);
-                                            if (array.isRecursive(k)) {
-                                                write.add("\t\t'" + k + "' <-> " + val.toString());
-                                            } else {
-                                                write.add("\t\t'" + k + "' -> " + val.toString());
-                                            }
-                                        });
-                                        write.add("\t}");
-                                    } else {
-                                        source.console().debug("Writing key {0} with value: {1}", Level.INFO, key, values.get(key));
-
-                                        write.add("\t'" + key + "' -> " + values.get(key).toString());
-                                    }
-                                }
-                            }
-                        }
+            String data;
+            synchronized (this) {
+                data = layout().write(content, reverse, (key) -> {
+                    KarmaElement element = defaults().get(key);
+                    if (element == null) {
+                        source.logger().scheduleLog(Level.WARNING,
+                                "An error occurred while saving file {0}. Required key {1} is not defined{2}. The file will be try to be saved anyway",
+                                PathUtilities.getPrettyPath(document),
+                                key,
+                                (internal == null ? " ( setting internal file may fix the issue )" : " ( internal file does not contain the key neither )"));
+
+                        source.console().send("An error occurred while saving file {0} because the key {1} is not defined{2}. The file will be try to be saved anyway",
+                                Level.WARNING,
+                                PathUtilities.getPrettyPath(document),
+                                key,
+                                (internal == null ? " ( setting internal file may fix the issue )" : " ( internal file does not contain the key neither )"));
                     }
 
-                    if (wrote) {
-                        if (sectionIndex != sections.size()) {
-                            write.add("");
-                        }
-                    }
-                }
-
-                write.add(")");
-
-                String firstLine = write.get(0);
-                if (!firstLine.equals("(") && !firstLine.equals("(\"main\"")) {
-                    write.add(0, "(\"main\"");
-                }
-            } else {
-                source.console().debug("File is empty. Storing only set paths", Level.INFO);
-
-                //Basically the file is new and we must set the values
-                Map<String, Map<String, KarmaElement>> sections = new LinkedHashMap<>();
-                for (String key : content.keySet()) {
-                    if (key.contains(".")) {
-                        String[] data = key.split("\\.");
-                        if (data.length > 2) {
-                            String realKey = data[data.length - 1];
-                            String realPath = key.replace("." + realKey, "");
+                    return element;
+                });
+            }
 
-                            Map<String, KarmaElement> values = sections.getOrDefault(realPath, new LinkedHashMap<>());
-                            values.put(realKey, content.get(key));
+            Path file = target.toAbsolutePath();
+            Path parent = file.getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
 
-                            sections.put(realPath, values);
-                        } else {
-                            Map<String, KarmaElement> values = sections.getOrDefault("main", new LinkedHashMap<>());
-                            values.put(data[1], content.get(key));
-
-                            sections.put("main", values);
-                        }
-                    }
+            //Write to a temporal file first, so the target is never left half written
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, data.getBytes(StandardCharsets.UTF_8));
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
                 }
+            } finally {
+                Files.deleteIfExists(temp);
+                KarmaCache.invalidate(file);
+            }
 
-                int index;
-                int sectionIndex = 0;
-                for (String section : sections.keySet()) {
-                    sectionIndex++;
-
-                    if (!section.equals("main")) {
-                        if (section.contains(".")) {
-                            String[] data = section.split("\\.");
-
-                            index = 1;
-                            StringBuilder realKeyBuilder = new StringBuilder("main");
-                            for (String sub : data) {
-                                if (!sub.equals("main")) {
-                                    realKeyBuilder.append(".").append(sub);
-
-                                    StringBuilder b = new StringBuilder();
-                                    for (int i = 0; i < index; i++)
-                                        b.append("\t");
-
-                                    write.add(b + "(\"" + sub + "\"");
-                                    Map<String, KarmaElement> values = sections.getOrDefault(realKeyBuilder.toString(), new LinkedHashMap<>());
-
-                                    source.console().debug("Section: {0}", Level.INFO, sub);
-
-                                    for (String key : values.keySet()) {
-                                        KarmaElement value = values.get(key);
-                                        if (value.isArray()) {
-                                            source.console().debug("Writing list {0}", Level.INFO, key);
-
-                                            write.add(b + "\t'" + key + "' -> {");
-                                            KarmaArray array = value.getArray();
-
-                                            array.forEach((element) -> {
-                                                write.add(b + "\t\t'" + element.getObjet().textValue() + "'");
-                                            });
-                                            write.add(b + "\t}");
-                                        } else {
-                                            if (value.isKeyArray()) {
-                                                source.console().debug("Writing map {0}", Level.INFO, key);
-
-                                                write.add(b + "\t'" + key + "' -> {");
-                                                KarmaKeyArray array = value.getKeyArray();
-
-                                                array.getKeys().forEach((k) -> {
-                                                    KarmaElement val = array.get(k);
-                                                    if (array.isRecursive(k)) {
-                                                        write.add(b + "\t\t'" + k + "' <-> " + val.toString());
-                                                    } else {
-                                                        write.add(b + "\t\t'" + k + "' -> " + val.toString());
-                                                    }
-                                                });
-                                                write.add(b + "\t}");
-                                            } else {
-                                                source.console().debug("Writing key {0} with value: {1}", Level.INFO, key, values.get(key));
-
-                                                write.add(b + "\t'" + key + "' -> " + values.get(key).toString());
-                                            }
-                                        }
-                                    }
-                                    write.add(b + ")");
-
-                                    index++;
-                                }
-                            }
-                        } else {
-                            source.console().debug("Section: {0}", Level.INFO, section);
-
-                            write.add("\t(\"" + section + "\"");
-                            Map<String, KarmaElement> values = sections.getOrDefault(section, new LinkedHashMap<>());
-
-                            for (String key : values.keySet()) {
-                                KarmaElement value = values.get(key);
-
-                                if (value.isArray()) {
-                                    source.console().debug("Writing list {0}", Level.INFO, key);
-
-                                    write.add("\t\t'" + key + "' -> {");
-                                    KarmaArray array = value.getArray();
-
-                                    array.forEach((element) -> {
-                                        write.add("\t\t\t'" + element.getObjet().textValue() + "'");
-                                    });
-                                    write.add("\t\t}");
-                                } else {
-                                    if (value.isKeyArray()) {
-                                        source.console().debug("Writing map {0}", Level.INFO, key);
-
-                                        write.add("\t\t'" + key + "' -> {");
-                                        KarmaKeyArray array = value.getKeyArray();
-
-                                        array.getKeys().forEach((k) -> {
-                                            KarmaElement val = array.get(k);
-                                            if (array.isRecursive(k)) {
-                                                write.add("\t\t\t'" + k + "' <-> " + val.toString());
-                                            } else {
-                                                write.add("\t\t\t'" + k + "' -> " + val.toString());
-                                            }
-                                        });
-                                        write.add("\t\t}");
-                                    } else {
-                                        source.console().debug("Writing key {0} with value: {1}", Level.INFO, key, values.get(key));
-
-                                        write.add("\t\t'" + key + "' -> " + values.get(key).toString());
-                                    }
-                                }
-                            }
-                        }
-                    } else {
-                        source.console().debug("Section: main", Level.INFO);
-
-                        write.add("(\"main\"");
-                        Map<String, KarmaElement> values = sections.getOrDefault(section, new LinkedHashMap<>());
-
-                        for (String key : values.keySet()) {
-                            write.add("");
-                            KarmaElement value = values.get(key);
-
-                            if (value.isArray()) {
-                                source.console().debug("Writing list {0}", Level.INFO, key);
-
-                                write.add("\t'" + key + "' -> {");
-                                KarmaArray array = value.getArray();
-
-                                array.forEach((element) -> {
-                                    write.add("\t\t'" + element.getObjet().textValue() + "'");
-                                });
-                                write.add("\t}");
-                            } else {
-                                if (value.isKeyArray()) {
-                                    source.console().debug("Writing map {0}", Level.INFO, key);
-
-                                    write.add("\t'" + key + "' -> {");
-                                    KarmaKeyArray array = value.getKeyArray();
-
-                                    array.getKeys().forEach((k) -> {
-                                        KarmaElement val = array.get(k);
-                                        if (array.isRecursive(k)) {
-                                            write.add("\t\t'" + k + "' <-> " + val.toString());
-                                        } else {
-                                            write.add("\t\t'" + k + "' -> " + val.toString());
-                                        }
-                                    });
-                                    write.add("\t}");
-                                } else {
-                                    source.console().debug("Writing key {0} with value: {1}", Level.INFO, key, values.get(key));
+            return true;
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+            return false;
+        }
+    }
 
-                                    write.add("\t'" + key + "' -> " + values.get(key).toString());
-                                }
-                            }
-                        }
-                    }
+    /**
+     * Get the internal file values, used when saving
+     * keys that are not defined anymore
+     *
+     * @return the internal file values
+     */
+    private Map<String, KarmaElement> defaults() {
+        if (defaults == null) {
+            defaults = new HashMap<>();
 
-                    if (sectionIndex != sections.size()) {
-                        write.add("");
-                    }
-                }
+            if (internal != null) {
+                try {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = internal.read(buffer)) != -1)
+                        out.write(buffer, 0, read);
 
-                write.add(")");
+                    byte[] bytes = out.toByteArray();
+                    //The internal stream can only be read once, keep a copy for the rest of users
+                    internal = new ByteArrayInputStream(bytes);
 
-                String firstLine = write.get(0);
-                if (!firstLine.equals("(") && !firstLine.equals("(\"main\"")) {
-                    write.add(0, "(\"main\"");
+                    new KarmaParser(document, StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes))).parse(defaults, new HashMap<>());
+                } catch (Throwable ignored) {
                 }
             }
-
-            PathUtilities.create(target);
-            Files.write(target, StringUtils.listToString(write, false).getBytes(StandardCharsets.UTF_8));
-            return true;
-        } catch (Throwable ex) {
-            ex.printStackTrace();
-            return false;
         }
+
+        return defaults;
     }
 
     /**
@@ -1632,6 +895,7 @@ public class KarmaMain {
 
             if (raw.isEmpty()) {
                 Files.copy(internal, document, StandardCopyOption.REPLACE_EXISTING);
+                KarmaCache.invalidate(document);
             } else {
                 clearCache();
                 preCache(); //We must update the cache
@@ -1811,6 +1075,7 @@ public class KarmaMain {
 
                 PathUtilities.create(document);
                 Files.write(document, StringUtils.listToString(write, false).getBytes(StandardCharsets.UTF_8));
+                KarmaCache.invalidate(document);
 
                 clearCache();
                 preCache();
@@ -1823,12 +1088,14 @@ public class KarmaMain {
      *
      * ONLY RECOMMENDED DOING WHEN RELOADING THE FILE
      */
-    public void clearCache() {
+    public synchronized void clearCache() {
         raw = "";
+        text = null;
+        layout = null;
 
-        content.clear();
-        reverse.clear();
-        indexes.clear();
+        content = new LinkedHashMap<>();
+        reverse = new LinkedHashMap<>();
+        shared = false;
     }
 
     /**
@@ -1836,6 +1103,7 @@ public class KarmaMain {
      */
     public void delete() {
         PathUtilities.destroy(document);
+        KarmaCache.invalidate(document);
     }
 
     /**
@@ -0,0 +1,532 @@
+package ml.karmaconfigs.api.common.karma.file;
+
+import ml.karmaconfigs.api.common.karma.file.element.KarmaArray;
+import ml.karmaconfigs.api.common.karma.file.element.KarmaElement;
+import ml.karmaconfigs.api.common.karma.file.element.KarmaKeyArray;
+import ml.karmaconfigs.api.common.karma.file.element.KarmaObject;
+import ml.karmaconfigs.api.common.karma.file.error.KarmaFormatException;
+
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single pass karma file parser. The data is read line by
+ * line, removing comments while reading, and each line is
+ * parsed as soon as it is read
+ */
+final class KarmaParser {
+
+    private final Path document;
+    private final CharBuffer data;
+    private final int limit;
+
+    private int position = 0;
+    private int line_number = 1;
+
+    private boolean comment = false;
+    private int comment_line = 0;
+    private int comment_column = 0;
+
+    private final StringBuilder line = new StringBuilder();
+    private int current = 0;
+    private int line_start = 0;
+    private int line_end = 0;
+    private int line_comment = -1;
+
+    private final StringBuilder raw = new StringBuilder();
+
+    private KarmaLayout layout = null;
+    private final List<String> trivia = new ArrayList<>();
+
+    /**
+     * Initialize the parser
+     *
+     * @param doc the document being parsed
+     * @param buffer the document data
+     */
+    KarmaParser(final Path doc, final CharBuffer buffer) {
+        document = doc;
+        data = buffer;
+        limit = buffer.limit();
+    }
+
+    /**
+     * Parse the document
+     *
+     * @param content the map to store key => element
+     * @param reverse the map to store recursive element => key
+     * @return the document raw data, without comments
+     * @throws KarmaFormatException if the document has an invalid format
+     */
+    String parse(final Map<String, KarmaElement> content, final Map<KarmaElement, String> reverse) throws KarmaFormatException {
+        String first = null;
+        while (next()) {
+            first = line.toString().trim();
+            if (!first.isEmpty())
+                break;
+
+            trivia.add(original());
+        }
+
+        if (first == null || first.isEmpty()) {
+            if (comment)
+                throw new KarmaFormatException(document, "Error, non closed comment", comment_line, comment_column);
+
+            return raw.toString();
+        }
+        if (!first.equals("(") && !first.equals("(\"main\""))
+            throw new KarmaFormatException(document, "Error, found invalid main section name at " + first + "; it must be \"main\" or empty!", current, 1);
+
+        layout = new KarmaLayout(first);
+        KarmaLayout.Section root = layout.root();
+        root.trailing = trailing();
+        take(root.trivia);
+
+        KarmaLayout.Section[] opened = new KarmaLayout.Section[8];
+        int[] opened_line = new int[8];
+        int depth = 0;
+        KarmaLayout.Section section = root;
+        boolean closed = false;
+        Set<String> sections = new HashSet<>();
+
+        while (next()) {
+            int start = skipSpaces(0);
+            if (start == line.length() || closed) {
+                trivia.add(original());
+                continue;
+            }
+
+            char character = line.charAt(start);
+            if (character == '(') {
+                int end = line.length();
+                while (end > start && Character.isWhitespace(line.charAt(end - 1)))
+                    end--;
+
+                if (end - start < 3 || line.charAt(start + 1) != '"' || line.charAt(end - 1) != '"')
+                    throw error("Error, found invalid section definition at " + line + ", it must be (\"x\" where 'x' is any value!", start);
+
+                String name = compact(line, start + 2, end - 1);
+                String path = section.path + "." + name;
+                if (!sections.add(path))
+                    throw error("Error, found repeated section definition " + name, start + 2);
+
+                KarmaLayout.Section child = new KarmaLayout.Section(path, line.substring(0, start), line.substring(start, end));
+                child.trailing = trailing();
+                take(child.trivia);
+                layout.add(section, child);
+
+                if (depth == opened.length) {
+                    opened = Arrays.copyOf(opened, depth << 1);
+                    opened_line = Arrays.copyOf(opened_line, depth << 1);
+                }
+                opened[depth] = section;
+                opened_line[depth++] = current;
+                section = child;
+                continue;
+            }
+
+            int arrow = arrow(start);
+            if (arrow != -1) {
+                key(section, start, arrow, content, reverse);
+                continue;
+            }
+
+            int end = line.length();
+            while (Character.isWhitespace(line.charAt(end - 1)))
+                end--;
+            if (line.charAt(end - 1) == ')') {
+                section.close_indent = line.substring(0, start);
+                section.close_trailing = trailing();
+                take(section.closing);
+
+                if (depth > 0) {
+                    section = opened[--depth];
+                } else {
+                    closed = true;
+                }
+                continue;
+            }
+
+            trivia.add(original());
+        }
+
+        take(root.tail);
+
+        if (comment)
+            throw new KarmaFormatException(document, "Error, non closed comment", comment_line, comment_column);
+        if (depth > 0)
+            throw new KarmaFormatException(document, "Error, non closed section path ( " + section.path + " )", opened_line[depth - 1], 1);
+
+        return raw.toString();
+    }
+
+    /**
+     * Get the layout of the parsed document
+     *
+     * @return the document layout, or null if the
+     * document was empty
+     */
+    KarmaLayout layout() {
+        return layout;
+    }
+
+    /**
+     * Parse a key line
+     *
+     * @param parent the current section
+     * @param start the key start
+     * @param arrow the key arrow start
+     * @param content the map to store key => element
+     * @param reverse the map to store recursive element => key
+     */
+    private void key(final KarmaLayout.Section parent, final int start, final int arrow,
+                     final Map<String, KarmaElement> content, final Map<KarmaElement, String> reverse) {
+        boolean recursive = line.charAt(arrow) == '<';
+        String key = parent.path + "." + compact(line, start + 1, keyEnd(arrow));
+
+        KarmaLayout.Entry entry = new KarmaLayout.Entry(key, line.substring(start, keyEnd(arrow) + 1), line.substring(0, start), recursive);
+        entry.trailing = trailing();
+        take(entry.trivia);
+        layout.add(parent, entry);
+
+        int value = skipSpaces(arrow + (recursive ? 3 : 2));
+        int end = line.length();
+        while (end > value && Character.isWhitespace(line.charAt(end - 1)))
+            end--;
+
+        KarmaElement element;
+        if (value < end && line.charAt(value) == '{') {
+            int list = current;
+            boolean closed = end - value > 1 && line.charAt(end - 1) == '}';
+            element = (closed ? new KarmaArray() : list(list, entry));
+        } else {
+            element = (value < end ? value(value, end) : new KarmaObject(""));
+        }
+
+        content.put(key, element);
+        if (recursive)
+            reverse.put(element, key);
+    }
+
+    /**
+     * Parse the list that starts after the current line
+     *
+     * @param start the line where the list starts
+     * @param entry the list key layout
+     * @return the list
+     */
+    private KarmaElement list(final int start, final KarmaLayout.Entry entry) {
+        KarmaArray simple = null;
+        KarmaKeyArray keyed = null;
+
+        while (next()) {
+            int begin = skipSpaces(0);
+            int end = line.length();
+            while (end > begin && Character.isWhitespace(line.charAt(end - 1)))
+                end--;
+
+            boolean last = end > begin && line.charAt(end - 1) == '}';
+            if (last) {
+                end--;
+                while (end > begin && Character.isWhitespace(line.charAt(end - 1)))
+                    end--;
+            }
+
+            if (begin == end && !last)
+                entry.inner.add(original());
+
+            if (begin < end && !(end - begin == 1 && line.charAt(begin) == '{')) {
+                if (entry.element_indent == null)
+                    entry.element_indent = line.substring(0, begin);
+
+                int arrow = arrow(begin);
+                if (arrow != -1) {
+                    if (simple != null)
+                        throw error("Error, invalid list format. It seems that you mixed a simple list and a keyed list", begin);
+                    if (keyed == null)
+                        keyed = new KarmaKeyArray();
+
+                    boolean recursive = line.charAt(arrow) == '<';
+                    String key = line.substring(begin + 1, keyEnd(arrow));
+
+                    int value = skipSpaces(arrow + (recursive ? 3 : 2));
+                    if (value < end)
+                        keyed.add(key, value(value, end), recursive);
+                } else {
+                    if (keyed != null)
+                        throw error("Error, invalid list format. It seems that you mixed a simple list and a keyed list", begin);
+                    if (simple == null)
+                        simple = new KarmaArray();
+
+                    simple.add(value(begin, end));
+                }
+            }
+
+            if (last) {
+                if (begin == end)
+                    entry.close_indent = line.substring(0, begin);
+
+                if (keyed != null)
+                    return keyed;
+                if (simple != null)
+                    return simple;
+
+                return new KarmaArray();
+            }
+        }
+
+        throw new KarmaFormatException(document, "Error, non closed list", start, 1);
+    }
+
+    /**
+     * Parse a value
+     *
+     * @param start the value start
+     * @param end the value end
+     * @return the value element
+     */
+    private KarmaObject value(final int start, final int end) {
+        char first = line.charAt(start);
+        if (first == '"' || first == '\'') {
+            if (end - start < 2 || line.charAt(end - 1) != first)
+                throw error("Error, invalid text format. It seems that you mixed quotes or forgot to close string", start);
+
+            return new KarmaObject(line.substring(start + 1, end - 1));
+        }
+
+        String text = line.substring(start, end);
+        String compact = compact(line, start, end);
+        if (compact.equalsIgnoreCase("true") || compact.equalsIgnoreCase("false"))
+            return new KarmaObject(Boolean.parseBoolean(compact));
+
+        try {
+            if (compact.indexOf(',') != -1)
+                return new KarmaObject(Double.parseDouble(compact.replace(',', '.')));
+            if (compact.indexOf('.') != -1)
+                return new KarmaObject(Float.parseFloat(compact));
+
+            return new KarmaObject(Integer.parseInt(compact));
+        } catch (NumberFormatException ex) {
+            return new KarmaObject(text);
+        }
+    }
+
+    /**
+     * Find the key arrow ( -> or <-> ) of the current line
+     *
+     * @param start the key start
+     * @return the arrow start or -1 if the line has no
+     * arrow
+     */
+    private int arrow(final int start) {
+        int arrow = line.indexOf("->", start);
+        if (arrow == -1)
+            return -1;
+        if (arrow > start && line.charAt(arrow - 1) == '<')
+            arrow--;
+
+        char quote = line.charAt(start);
+        int end = keyEnd(arrow);
+        if ((quote != '\'' && quote != '"') || end <= start || line.charAt(end) != quote)
+            throw error("Error, invalid key format, it must be 'x' where x is any value", start);
+
+        return arrow;
+    }
+
+    /**
+     * Get the closing quote of the key
+     *
+     * @param arrow the key arrow start
+     * @return the key closing quote index
+     */
+    private int keyEnd(final int arrow) {
+        int end = arrow;
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1)))
+            end--;
+
+        return end - 1;
+    }
+
+    /**
+     * Get the first non-space character of
+     * the current line
+     *
+     * @param from the index to start from
+     * @return the first non-space index, or the line length
+     */
+    private int skipSpaces(final int from) {
+        int index = from;
+        while (index < line.length() && Character.isWhitespace(line.charAt(index)))
+            index++;
+
+        return index;
+    }
+
+    /**
+     * Read the next line, removing its comments
+     *
+     * @return if a line was read
+     */
+    private boolean next() {
+        line.setLength(0);
+        if (position >= limit)
+            return false;
+
+        current = line_number;
+        line_start = position;
+        line_comment = (comment ? 0 : -1);
+        boolean commented = comment;
+        boolean ended = false;
+        char quote = 0;
+
+        while (position < limit) {
+            char character = data.get(position);
+            char next = (position + 1 < limit ? data.get(position + 1) : 0);
+
+            if (character == '\n') {
+                line_end = position++;
+                line_number++;
+                ended = true;
+                break;
+            }
+            if (character == '\r') {
+                position++;
+                continue;
+            }
+
+            if (comment) {
+                if (character == ')' && next == '*') {
+                    comment = false;
+                    position += 2;
+                } else {
+                    position++;
+                }
+                continue;
+            }
+
+            if (quote == 0) {
+                if (character == '*' && next == '(') {
+                    if (line_comment == -1)
+                        line_comment = position - line_start;
+                    comment = true;
+                    commented = true;
+                    comment_line = line_number;
+                    comment_column = line.length() + 1;
+                    position += 2;
+                    continue;
+                }
+                if (character == '*' && next == '/') {
+                    if (line_comment == -1)
+                        line_comment = position - line_start;
+                    commented = true;
+                    while (position < limit && data.get(position) != '\n')
+                        position++;
+                    continue;
+                }
+
+                if (character == '"' || character == '\'')
+                    quote = character;
+            } else if (character == quote) {
+                quote = 0;
+            }
+
+            line.append(character);
+            position++;
+        }
+
+        if (!ended)
+            line_end = position;
+
+        if (!commented || skipSpaces(0) != line.length()) {
+            if (raw.length() != 0 || skipSpaces(0) != line.length())
+                raw.append(line).append('\n');
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the current line as it is written
+     * in the document
+     *
+     * @return the current original line
+     */
+    private String original() {
+        int end = line_end;
+        if (end > line_start && data.get(end - 1) == '\r')
+            end--;
+
+        return data.subSequence(line_start, end).toString();
+    }
+
+    /**
+     * Get the comment at the end of the current
+     * line, with the spaces before it
+     *
+     * @return the current line trailing comment, or
+     * an empty string if the line has no comment after
+     * its content
+     */
+    private String trailing() {
+        if (line_comment == -1)
+            return "";
+
+        String original = original();
+        int start = Math.min(line_comment, original.length());
+        if (!original.substring(0, start).trim().equals(line.toString().trim()))
+            return "";
+
+        while (start > 0 && Character.isWhitespace(original.charAt(start - 1)))
+            start--;
+
+        return original.substring(start);
+    }
+
+    /**
+     * Move the pending comments and blank
+     * lines to a layout node
+     *
+     * @param target the layout node lines
+     */
+    private void take(final List<String> target) {
+        target.addAll(trivia);
+        trivia.clear();
+    }
+
+    /**
+     * Get a part of a text without any
+     * whitespace
+     *
+     * @param source the text
+     * @param start the part start
+     * @param end the part end
+     * @return the part without whitespace
+     */
+    private static String compact(final CharSequence source, final int start, final int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char character = source.charAt(i);
+            if (!Character.isWhitespace(character))
+                builder.append(character);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Create a format error at the current line
+     *
+     * @param info the error info
+     * @param column the error column, starting from 0
+     * @return the format error
+     */
+    private KarmaFormatException error(final String info, final int column) {
+        return new KarmaFormatException(document, info, current, column + 1);
+    }
+}
@@ -24,4 +24,17 @@ public class KarmaFormatException extends RuntimeException {
     public KarmaFormatException(final Path file, final String info, final int index) {
         super("An error occurred while reading file " + PathUtilities.getPrettyPath(file) + " at index (" + index + "): " + info);
     }
+
+    /**
+     * Initialize the error
+     *
+     * @param file the file that is being read
+     * @param info extra information about where the file
+     *             failed to read
+     * @param line the line number
+     * @param column the column number
+     */
+    public KarmaFormatException(final Path file, final String info, final int line, final int column) {
+        super("An error occurred while reading file " + PathUtilities.getPrettyPath(file) + " at line " + line + ", column " + column + ": " + info);
+    }
 }
@@ -129,6 +129,7 @@ public final class AsyncKarmaFile implements Serializable {
                     writer.close();
                     reader.close();
                     resource.close();
+                    KarmaIndex.invalidate(file);
 
                     result.complete(null);
                 } catch (Throwable ex) {
@@ -300,6 +301,7 @@ public final class AsyncKarmaFile implements Serializable {
 
                     writer.flush();
                     writer.close();
+                    KarmaIndex.invalidate(file);
 
                     result.complete(null);
                 } catch (Throwable ex) {
@@ -378,6 +380,7 @@ public final class AsyncKarmaFile implements Serializable {
 
                             writer.flush();
                             writer.close();
+                            KarmaIndex.invalidate(file);
                             result.complete(null);
                         } catch (Throwable ex) {
                             result.complete(null, ex);
@@ -450,6 +453,7 @@ public final class AsyncKarmaFile implements Serializable {
 
                         writer.flush();
                         writer.close();
+                        KarmaIndex.invalidate(file);
 
                         result.complete(null);
                     } catch (Throwable ex) {
@@ -494,6 +498,7 @@ public final class AsyncKarmaFile implements Serializable {
 
                 writer.flush();
                 writer.close();
+                KarmaIndex.invalidate(file);
 
                 result.complete(null);
             } catch (Throwable ex) {
@@ -547,6 +552,7 @@ public final class AsyncKarmaFile implements Serializable {
 
                     writer.flush();
                     writer.close();
+                    KarmaIndex.invalidate(file);
 
                     result.complete(null);
                 } catch (Throwable ex) {
@@ -565,6 +571,7 @@ public final class AsyncKarmaFile implements Serializable {
      */
     public void delete() {
         FileUtilities.destroy(file);
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -582,29 +589,15 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_get", () -> {
-            Object val = def;
-
-            if (exists()) {
-                BufferedReader reader = null;
+            String value = value(finalPath);
+            if (value != null) {
                 try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.split(":")[0] != null) {
-                            String actualPath = line.split(":")[0];
-                            if (actualPath.equals(finalPath))
-                                val = line.replace(actualPath + ": ", "");
-                        }
-                    }
-
-                    result.complete(val);
+                    result.complete(value);
                 } catch (Throwable ex) {
-                    result.complete(val, ex);
-                } finally {
-                    closeStreams(reader);
+                    result.complete(def, ex);
                 }
             } else {
-                result.complete(val);
+                result.complete(def);
             }
         });
 
@@ -626,28 +619,15 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_get", () -> {
-            String val = def;
-            if (exists()) {
-                BufferedReader reader = null;
+            String value = value(finalPath);
+            if (value != null) {
                 try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.split(":")[0] != null) {
-                            String actualPath = line.split(":")[0];
-                            if (actualPath.equals(finalPath))
-                                val = line.replace(actualPath + ": ", "");
-                        }
-                    }
-
-                    result.complete(val);
+                    result.complete(value);
                 } catch (Throwable ex) {
-                    result.complete(val, ex);
-                } finally {
-                    closeStreams(reader);
+                    result.complete(def, ex);
                 }
             } else {
-                result.complete(val);
+                result.complete(def);
             }
         });
 
@@ -669,36 +649,12 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_get", () -> {
-            List<Object> values = new ArrayList<>();
-            isSet(finalPath).whenComplete((rs) -> {
-               if (rs && exists()) {
-                   BufferedReader reader = null;
-                   try {
-                       reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                       boolean adding = false;
-                       Object line;
-                       while ((line = reader.readLine()) != null) {
-                           if (isOpenList(line.toString(), finalPath))
-                               adding = true;
-                           if (isCloseList(line.toString(), finalPath))
-                               adding = false;
-                           if (adding &&
-                                   !isOpenList(line.toString(), finalPath))
-                               if (!line.toString().startsWith("/// ") && !line.toString().endsWith(" -->"))
-                                   values.add(line);
-                       }
-
-                       result.complete(values);
-                   } catch (Throwable ex) {
-                       result.complete(values, ex);
-                   } finally {
-                       closeStreams(reader);
-                   }
-               } else {
-                   values.addAll(Arrays.asList(default_contents));
-                   result.complete(values);
-               }
-            });
+            KarmaIndex index = index();
+            if (index != null && index.isSet(finalPath)) {
+                result.complete(index.list(finalPath));
+            } else {
+                result.complete(new ArrayList<>(Arrays.asList(default_contents)));
+            }
         });
 
         return result;
@@ -769,29 +725,15 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_get", () -> {
-            boolean val = def;
-
-            if (exists()) {
-                BufferedReader reader = null;
+            String value = value(finalPath);
+            if (value != null) {
                 try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.split(":")[0] != null) {
-                            String actualPath = line.split(":")[0];
-                            if (actualPath.equals(finalPath))
-                                val = Boolean.parseBoolean(line.replace(actualPath + ": ", ""));
-                        }
-                    }
-
-                    result.complete(val);
+                    result.complete(Boolean.parseBoolean(value));
                 } catch (Throwable ex) {
-                    result.complete(val, ex);
-                } finally {
-                    closeStreams(reader);
+                    result.complete(def, ex);
                 }
             } else {
-                result.complete(val);
+                result.complete(def);
             }
         });
 
@@ -810,30 +752,10 @@ public final class AsyncKarmaFile implements Serializable {
         path = path.replaceAll("\\s", "_");
 
         String finalPath = path;
-        source(true).async().queue("async_file_read", () -> isSet(finalPath).whenComplete((rs) -> {
-            boolean exist = false;
-
-            if (rs && exists()) {
-                BufferedReader reader = null;
-                try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    boolean adding = false;
-                    Object line;
-                    while ((line = reader.readLine()) != null) {
-                        if (isOpenList(line.toString(), finalPath))
-                            exist = true;
-                    }
-
-                    result.complete(exist);
-                } catch (Throwable ex) {
-                    result.complete(exist, null);
-                } finally {
-                    closeStreams(reader);
-                }
-            } else {
-                result.complete(false);
-            }
-        }));
+        source(true).async().queue("async_file_read", () -> {
+            KarmaIndex index = index();
+            result.complete(index != null && index.isSet(finalPath) && index.isList(finalPath));
+        });
 
         return result;
     }
@@ -851,31 +773,8 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_read", () -> {
-            boolean set = false;
-            if (exists()) {
-                BufferedReader reader = null;
-                try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.split(":")[0] != null) {
-                            String currentPath = line.split(":")[0];
-                            if (currentPath.equals(finalPath) || isOpenList(line, finalPath) || isCloseList(line, finalPath)) {
-                                set = true;
-                                break;
-                            }
-                        }
-                    }
-
-                    result.complete(set);
-                } catch (Throwable ex) {
-                    result.complete(set, ex);
-                } finally {
-                    closeStreams(reader);
-                }
-            } else {
-                result.complete(false);
-            }
+            KarmaIndex index = index();
+            result.complete(index != null && index.isSet(finalPath));
         });
 
         return result;
@@ -895,28 +794,15 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_get", () -> {
-            int val = def;
-            if (exists()) {
-                BufferedReader reader = null;
+            String value = value(finalPath);
+            if (value != null) {
                 try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.split(":")[0] != null) {
-                            String actualPath = line.split(":")[0];
-                            if (actualPath.equals(finalPath))
-                                val = Integer.parseInt(line.replace(actualPath + ": ", ""));
-                        }
-                    }
-
-                    result.complete(val);
+                    result.complete(Integer.parseInt(value));
                 } catch (Throwable ex) {
-                    result.complete(val, ex);
-                } finally {
-                    closeStreams(reader);
+                    result.complete(def, ex);
                 }
             } else {
-                result.complete(val);
+                result.complete(def);
             }
         });
 
@@ -937,29 +823,15 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_get", () -> {
-            double val = def;
-
-            if (exists()) {
-                BufferedReader reader = null;
+            String value = value(finalPath);
+            if (value != null) {
                 try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.split(":")[0] != null) {
-                            String actualPath = line.split(":")[0];
-                            if (actualPath.equals(finalPath))
-                                val = Double.parseDouble(line.replace(actualPath + ": ", ""));
-                        }
-                    }
-
-                    result.complete(val);
+                    result.complete(Double.parseDouble(value));
                 } catch (Throwable ex) {
-                    result.complete(val, ex);
-                } finally {
-                    closeStreams(reader);
+                    result.complete(def, ex);
                 }
             } else {
-                result.complete(val);
+                result.complete(def);
             }
         });
 
@@ -980,28 +852,15 @@ public final class AsyncKarmaFile implements Serializable {
 
         String finalPath = path;
         source(true).async().queue("async_file_get", () -> {
-            long val = def;
-            if (exists()) {
-                BufferedReader reader = null;
+            String value = value(finalPath);
+            if (value != null) {
                 try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.split(":")[0] != null) {
-                            String actualPath = line.split(":")[0];
-                            if (actualPath.equals(finalPath))
-                                val = Long.parseLong(line.replace(actualPath + ": ", ""));
-                        }
-                    }
-
-                    result.complete(val);
+                    result.complete(Long.parseLong(value));
                 } catch (Throwable ex) {
-                    result.complete(val, ex);
-                } finally {
-                    closeStreams(reader);
+                    result.complete(def, ex);
                 }
             } else {
-                result.complete(val);
+                result.complete(def);
             }
         });
 
@@ -1125,6 +984,38 @@ public final class AsyncKarmaFile implements Serializable {
         return val;
     }
 
+    /**
+     * Get the file index
+     *
+     * @return the file index, or null if the
+     * file does not exist or could not be read
+     */
+    private KarmaIndex index() {
+        if (exists())
+            return KarmaIndex.of(file);
+
+        return null;
+    }
+
+    /**
+     * Get the value of a key, as it is
+     * written in the file
+     *
+     * @param path the key path
+     * @return the key value, or null if the key
+     * is not defined
+     */
+    private String value(final String path) {
+        KarmaIndex index = index();
+        if (index != null) {
+            String line = index.line(path);
+            if (line != null)
+                return line.replace(path + ": ", "");
+        }
+
+        return null;
+    }
+
     /**
      * Close streams
      *
@@ -116,6 +116,8 @@ public final class KarmaFile implements Serializable {
         } catch (Throwable ex) {
             ex.printStackTrace();
         }
+
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -244,6 +246,8 @@ public final class KarmaFile implements Serializable {
         } finally {
             closeStreams(reader);
         }
+
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -296,6 +300,8 @@ public final class KarmaFile implements Serializable {
         } finally {
             closeStreams(reader);
         }
+
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -340,6 +346,8 @@ public final class KarmaFile implements Serializable {
         } finally {
             closeStreams(reader);
         }
+
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -368,6 +376,8 @@ public final class KarmaFile implements Serializable {
         } finally {
             closeStreams(reader);
         }
+
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -401,6 +411,8 @@ public final class KarmaFile implements Serializable {
         } finally {
             closeStreams(reader);
         }
+
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -408,6 +420,7 @@ public final class KarmaFile implements Serializable {
      */
     public void delete() {
         FileUtilities.destroy(file);
+        KarmaIndex.invalidate(file);
     }
 
     /**
@@ -419,32 +432,9 @@ public final class KarmaFile implements Serializable {
      */
     @NotNull
     public Object get(String path, final @NotNull Object def) {
-        Object val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
-            try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = line.replace(actualPath + ": ", "");
-                            } else {
-                                val = line.replace(actualPath + ":", "");
-                            }
-                        }
-                    }
-                }
-            } catch (Throwable e) {
-                e.printStackTrace();
-            } finally {
-                closeStreams(reader);
-            }
-        }
-        return val;
+        String value = value(path);
+        return (value != null ? value : def);
     }
 
     /**
@@ -456,32 +446,9 @@ public final class KarmaFile implements Serializable {
      */
     @NotNull
     public String getString(String path, final @NotNull String def) {
-        String val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
-            try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = line.replace(actualPath + ": ", "");
-                            } else {
-                                val = line.replace(actualPath + ":", "");
-                            }
-                        }
-                    }
-                }
-            } catch (Throwable e) {
-                e.printStackTrace();
-            } finally {
-                closeStreams(reader);
-            }
-        }
-        return val;
+        String value = value(path);
+        return (value != null ? value : def);
     }
 
     /**
@@ -496,29 +463,9 @@ public final class KarmaFile implements Serializable {
         path = path.replaceAll("\\s", "_");
         List<Object> values = new ArrayList<>();
         if (isSet(path)) {
-            if (exists()) {
-                BufferedReader reader = null;
-                try {
-                    reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                    boolean adding = false;
-                    Object line;
-                    while ((line = reader.readLine()) != null) {
-                        if (isOpenList(line.toString(), path))
-                            adding = true;
-                        if (isCloseList(line.toString(), path))
-                            adding = false;
-                        if (adding &&
-                                !isOpenList(line.toString(), path))
-                            if (!line.toString().startsWith("/// ") && !line.toString().endsWith(" -->"))
-                                values.add(line);
-                    }
-                    return values;
-                } catch (Throwable ex) {
-                    ex.printStackTrace();
-                } finally {
-                    closeStreams(reader);
-                }
-            }
+            KarmaIndex index = index();
+            if (index != null)
+                return index.list(path);
         } else {
             values.addAll(Arrays.asList(default_contents));
         }
@@ -569,32 +516,9 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public boolean getBoolean(String path, final boolean def) {
-        boolean val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
-            try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = Boolean.parseBoolean(line.replace(actualPath + ": ", ""));
-                            } else {
-                                val = Boolean.parseBoolean(line.replace(actualPath + ":", ""));
-                            }
-                        }
-                    }
-                }
-            } catch (Throwable e) {
-                e.printStackTrace();
-            } finally {
-                closeStreams(reader);
-            }
-        }
-        return val;
+        String value = value(path);
+        return (value != null ? Boolean.parseBoolean(value) : def);
     }
 
     /**
@@ -605,25 +529,8 @@ public final class KarmaFile implements Serializable {
      */
     public boolean isList(String path) {
         path = path.replaceAll("\\s", "_");
-        boolean exist = false;
-        if (isSet(path) &&
-                exists()) {
-            BufferedReader reader = null;
-            try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                boolean adding = false;
-                Object line;
-                while ((line = reader.readLine()) != null) {
-                    if (isOpenList(line.toString(), path))
-                        exist = true;
-                }
-            } catch (Throwable ex) {
-                ex.printStackTrace();
-            } finally {
-                closeStreams(reader);
-            }
-        }
-        return exist;
+        KarmaIndex index = index();
+        return index != null && index.isSet(path) && index.isList(path);
     }
 
     /**
@@ -634,28 +541,8 @@ public final class KarmaFile implements Serializable {
      */
     public boolean isSet(String path) {
         path = path.replaceAll("\\s", "_");
-        boolean set = false;
-        if (exists()) {
-            BufferedReader reader = null;
-            try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String currentPath = line.split(":")[0];
-                        if (currentPath.equals(path) || isOpenList(line, path) || isCloseList(line, path)) {
-                            set = true;
-                            break;
-                        }
-                    }
-                }
-            } catch (Throwable e) {
-                e.printStackTrace();
-            } finally {
-                closeStreams(reader);
-            }
-        }
-        return set;
+        KarmaIndex index = index();
+        return index != null && index.isSet(path);
     }
 
     /**
@@ -666,32 +553,16 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public int getInt(String path, final int def) {
-        int val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
+        String value = value(path);
+        if (value != null) {
             try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = Integer.parseInt(line.replace(actualPath + ": ", ""));
-                            } else {
-                                val = Integer.parseInt(line.replace(actualPath + ":", ""));
-                            }
-                        }
-                    }
-                }
+                return Integer.parseInt(value);
             } catch (Throwable e) {
                 e.printStackTrace();
-            } finally {
-                closeStreams(reader);
             }
         }
-        return val;
+        return def;
     }
 
     /**
@@ -702,32 +573,16 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public double getDouble(String path, final double def) {
-        double val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
+        String value = value(path);
+        if (value != null) {
             try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = Double.parseDouble(line.replace(actualPath + ": ", ""));
-                            } else {
-                                val = Double.parseDouble(line.replace(actualPath + ":", ""));
-                            }
-                        }
-                    }
-                }
+                return Double.parseDouble(value);
             } catch (Throwable e) {
                 e.printStackTrace();
-            } finally {
-                closeStreams(reader);
             }
         }
-        return val;
+        return def;
     }
 
     /**
@@ -738,32 +593,16 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public long getLong(String path, final long def) {
-        long val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
+        String value = value(path);
+        if (value != null) {
             try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = Long.parseLong(line.replace(actualPath + ": ", ""));
-                            } else {
-                                val = Long.parseLong(line.replace(actualPath + ":", ""));
-                            }
-                        }
-                    }
-                }
+                return Long.parseLong(value);
             } catch (Throwable e) {
                 e.printStackTrace();
-            } finally {
-                closeStreams(reader);
             }
         }
-        return val;
+        return def;
     }
 
     /**
@@ -774,32 +613,16 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public float getFloat(String path, final float def) {
-        float val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
+        String value = value(path);
+        if (value != null) {
             try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = Float.parseFloat(line.replace(actualPath + ": ", ""));
-                            } else {
-                                val = Float.parseFloat(line.replace(actualPath + ":", ""));
-                            }
-                        }
-                    }
-                }
+                return Float.parseFloat(value);
             } catch (Throwable e) {
                 e.printStackTrace();
-            } finally {
-                closeStreams(reader);
             }
         }
-        return val;
+        return def;
     }
 
     /**
@@ -810,32 +633,16 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public short getShort(String path, final short def) {
-        short val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
+        String value = value(path);
+        if (value != null) {
             try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = Short.parseShort(line.replace(actualPath + ": ", ""));
-                            } else {
-                                val = Short.parseShort(line.replace(actualPath + ":", ""));
-                            }
-                        }
-                    }
-                }
+                return Short.parseShort(value);
             } catch (Throwable e) {
                 e.printStackTrace();
-            } finally {
-                closeStreams(reader);
             }
         }
-        return val;
+        return def;
     }
 
     /**
@@ -846,32 +653,16 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public byte getByte(String path, final byte def) {
-        byte val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
+        String value = value(path);
+        if (value != null) {
             try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            if (line.startsWith(actualPath + ": ")) {
-                                val = Byte.parseByte(line.replace(actualPath + ": ", ""));
-                            } else {
-                                val = Byte.parseByte(line.replace(actualPath + ":", ""));
-                            }
-                        }
-                    }
-                }
+                return Byte.parseByte(value);
             } catch (Throwable e) {
                 e.printStackTrace();
-            } finally {
-                closeStreams(reader);
             }
         }
-        return val;
+        return def;
     }
 
     /**
@@ -882,36 +673,9 @@ public final class KarmaFile implements Serializable {
      * @return the value
      */
     public byte[] getBytes(String path, final byte[] def) {
-        byte[] val = def;
         path = path.replaceAll("\\s", "_");
-        if (exists()) {
-            BufferedReader reader = null;
-            try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.split(":")[0] != null) {
-                        String actualPath = line.split(":")[0];
-                        if (actualPath.equals(path)) {
-                            String result;
-                            if (line.startsWith(actualPath + ": ")) {
-                                result = line.replace(actualPath + ": ", "");
-                            } else {
-                                result = line.replace(actualPath + ":", "");
-                            }
-
-                            val = result.getBytes(StandardCharsets.UTF_8);
-                        }
-                    }
-                }
-            } catch (Throwable e) {
-                e.printStackTrace();
-            } finally {
-                closeStreams(reader);
-            }
-        }
-
-        return val;
+        String value = value(path);
+        return (value != null ? value.getBytes(StandardCharsets.UTF_8) : def);
     }
 
     /**
@@ -940,34 +704,26 @@ public final class KarmaFile implements Serializable {
      */
     public Set<Key> getKeys(final boolean deep) {
         Set<Key> keys = new LinkedHashSet<>();
-        if (exists()) {
-            BufferedReader reader = null;
-            try {
-                reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8);
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (!line.replaceAll("\\s", "").isEmpty() &&
-                            !isComment(line)) {
-                        Key key;
-                        String pathKey = getKeyPath(line);
-                        if (isList(pathKey)) {
-                            List<?> list = getList(pathKey);
-                            if (list.isEmpty() && !deep)
-                                continue;
-                            key = new Key(pathKey, list);
-                        } else {
-                            Object value = get(pathKey, "");
-                            if (StringUtils.isNullOrEmpty(value) && !deep)
-                                continue;
-                            key = new Key(pathKey, value);
-                        }
-                        keys.add(key);
+        KarmaIndex index = index();
+        if (index != null) {
+            for (String line : index.lines()) {
+                if (!line.replaceAll("\\s", "").isEmpty() &&
+                        !isComment(line)) {
+                    Key key;
+                    String pathKey = getKeyPath(line);
+                    if (isList(pathKey)) {
+                        List<?> list = getList(pathKey);
+                        if (list.isEmpty() && !deep)
+                            continue;
+                        key = new Key(pathKey, list);
+                    } else {
+                        Object value = get(pathKey, "");
+                        if (StringUtils.isNullOrEmpty(value) && !deep)
+                            continue;
+                        key = new Key(pathKey, value);
                     }
+                    keys.add(key);
                 }
-            } catch (Throwable e) {
-                e.printStackTrace();
-            } finally {
-                closeStreams(reader);
             }
         }
         return keys;
@@ -998,6 +754,42 @@ public final class KarmaFile implements Serializable {
         return val;
     }
 
+    /**
+     * Get the file index
+     *
+     * @return the file index, or null if the
+     * file does not exist or could not be read
+     */
+    private KarmaIndex index() {
+        if (exists())
+            return KarmaIndex.of(file);
+
+        return null;
+    }
+
+    /**
+     * Get the value of a key, as it is
+     * written in the file
+     *
+     * @param path the key path
+     * @return the key value, or null if the key
+     * is not defined
+     */
+    private String value(final String path) {
+        KarmaIndex index = index();
+        if (index != null) {
+            String line = index.line(path);
+            if (line != null) {
+                if (line.startsWith(path + ": "))
+                    return line.replace(path + ": ", "");
+
+                return line.replace(path + ":", "");
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Close streams
      *
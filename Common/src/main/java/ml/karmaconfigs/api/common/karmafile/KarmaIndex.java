@@ -0,0 +1,230 @@
+package ml.karmaconfigs.api.common.karmafile;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Memory index of a legacy karma file. The file is read
+ * once and its keys and lists are stored by name, so each
+ * lookup does not need to read the whole file again. The
+ * index is read again when the file is modified
+ */
+final class KarmaIndex {
+
+    /**
+     * The max amount of files to keep indexed
+     */
+    private final static int MAX_INDEXES = 64;
+
+    /**
+     * A map that contains path => file index, in
+     * least recently used order
+     */
+    private final static Map<Path, KarmaIndex> indexes = new LinkedHashMap<Path, KarmaIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Path, KarmaIndex> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
+
+    private final long modified;
+    private final long size;
+
+    private final List<String> lines;
+    private final Map<String, String> values = new HashMap<>();
+    private final Set<String> opened = new HashSet<>();
+    private final Set<String> closed = new HashSet<>();
+    private final Map<String, List<String>> lists = new HashMap<>();
+
+    /**
+     * Initialize the index
+     *
+     * @param time the file modification time
+     * @param length the file size
+     * @param data the file lines
+     */
+    private KarmaIndex(final long time, final long length, final List<String> data) {
+        modified = time;
+        size = length;
+        lines = Collections.unmodifiableList(data);
+
+        Set<String> adding = new HashSet<>();
+        for (String line : data) {
+            String[] split = line.split(":");
+            if (split.length > 0)
+                values.put(split[0], line);
+
+            String open = name(line, "[LIST=");
+            String close = name(line, "[/LIST=");
+            if (open != null) {
+                opened.add(open);
+                adding.add(open);
+            }
+            if (close != null) {
+                closed.add(close);
+                adding.remove(close);
+            }
+
+            if (!adding.isEmpty() && !line.startsWith("/// ") && !line.endsWith(" -->")) {
+                for (String list : adding) {
+                    if (!list.equals(open))
+                        lists.computeIfAbsent(list, (key) -> new ArrayList<>()).add(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the index of a file, reading it if it is not
+     * indexed or it has been modified since it was indexed
+     *
+     * @param file the file
+     * @return the file index, or null if the file could not be read
+     */
+    static KarmaIndex of(final File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (Throwable ex) {
+            invalidate(file);
+            return null;
+        }
+
+        long time = attributes.lastModifiedTime().toMillis();
+        long length = attributes.size();
+
+        KarmaIndex index;
+        synchronized (indexes) {
+            index = indexes.get(path);
+        }
+        if (index != null && index.modified == time && index.size == length)
+            return index;
+
+        try {
+            index = new KarmaIndex(time, length, Files.readAllLines(path, StandardCharsets.UTF_8));
+        } catch (Throwable ex) {
+            invalidate(file);
+            return null;
+        }
+
+        synchronized (indexes) {
+            indexes.put(path, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Remove the index of a file, so it is read
+     * again the next time it is used
+     *
+     * @param file the file
+     */
+    static void invalidate(final File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        synchronized (indexes) {
+            indexes.remove(path);
+        }
+    }
+
+    /**
+     * Get the list name of a list line
+     *
+     * @param line the line
+     * @param prefix the list line prefix
+     * @return the list name, or null if the line is not a list line
+     */
+    private static String name(final String line, final String prefix) {
+        if (line.startsWith(prefix) && line.endsWith("]"))
+            return line.substring(prefix.length(), line.length() - 1);
+
+        return null;
+    }
+
+    /**
+     * Get the file lines
+     *
+     * @return the file lines
+     */
+    List<String> lines() {
+        return lines;
+    }
+
+    /**
+     * Get the last line that defines a key
+     *
+     * @param path the key path
+     * @return the key line, or null if the key is not defined
+     */
+    String line(final String path) {
+        return values.get(path);
+    }
+
+    /**
+     * Get if a key or list is set
+     *
+     * @param path the key path
+     * @return if the key is set
+     */
+    boolean isSet(final String path) {
+        return values.containsKey(path) || opened.contains(path) || closed.contains(path);
+    }
+
+    /**
+     * Get if a key is a list
+     *
+     * @param path the key path
+     * @return if the key is a list
+     */
+    boolean isList(final String path) {
+        return opened.contains(path);
+    }
+
+    /**
+     * Get the values of a list
+     *
+     * @param path the list path
+     * @return the list values
+     */
+    List<Object> list(final String path) {
+        return new ArrayList<>(lists.getOrDefault(path, Collections.emptyList()));
+    }
+}
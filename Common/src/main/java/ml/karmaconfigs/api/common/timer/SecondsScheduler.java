@@ -31,11 +31,10 @@ import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.errors.IllegalTimerAccess;
 import ml.karmaconfigs.api.common.timer.scheduler.errors.TimerAlreadyStarted;
 import ml.karmaconfigs.api.common.timer.scheduler.errors.TimerNotFound;
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -230,9 +229,8 @@ public final class SecondsScheduler extends SimpleScheduler {
         KarmaConfig config = new KarmaConfig();
         Set<Integer> running = runningTimers.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
         if (!running.contains(id)) {
-            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
 
-            timer.scheduleAtFixedRate(() -> {
+            TimerWheel.scheduleAtFixedRate((timer) -> {
                 //boolean run = (!cancelUnloaded || KarmaAPI.isLoaded(source));
 
                 //if (run) {
@@ -251,7 +249,7 @@ public final class SecondsScheduler extends SimpleScheduler {
                                 pause = false;
                                 temp_restart = false;
 
-                                timer.shutdown();
+                                timer.cancel();
                             } else {
                                 back = original;
                                 onRestartTasks.forEach(this::runTaskWithThread);
@@ -278,7 +276,7 @@ public final class SecondsScheduler extends SimpleScheduler {
                                     pause = false;
                                     temp_restart = false;
 
-                                    timer.shutdown();
+                                    timer.cancel();
                                 }
                             }
 
@@ -298,7 +296,7 @@ public final class SecondsScheduler extends SimpleScheduler {
                     pause = false;
                     temp_restart = false;
 
-                    timer.shutdown();
+                    timer.cancel();
 
                     if (config.debug(Level.INFO)) {
                         source(true).console().send("Timer task with ID {0} has been cancelled because its source {1} has been unloaded", Level.INFO, id, source.name());
@@ -724,7 +722,7 @@ public final class SecondsScheduler extends SimpleScheduler {
      */
     private void runSecondsWithThread(final Consumer<Integer> task) {
         if (thread) {
-            (new Thread(() -> task.accept(back))).start();
+            WorkerPool.execute(source, () -> task.accept(back));
         } else {
             task.accept(back);
         }
@@ -738,7 +736,7 @@ public final class SecondsScheduler extends SimpleScheduler {
      */
     private void runSecondsLongWithThread(final Consumer<Long> task) {
         if (thread) {
-            (new Thread(() -> task.accept(TimeUnit.SECONDS.toMillis(back)))).start();
+            WorkerPool.execute(source, () -> task.accept(TimeUnit.SECONDS.toMillis(back)));
         } else {
             task.accept(TimeUnit.SECONDS.toMillis(back));
         }
@@ -752,7 +750,7 @@ public final class SecondsScheduler extends SimpleScheduler {
      */
     private void runTaskWithThread(final Runnable task) {
         if (thread) {
-            (new Thread(task)).start();
+            WorkerPool.execute(source, task);
         } else {
             task.run();
         }
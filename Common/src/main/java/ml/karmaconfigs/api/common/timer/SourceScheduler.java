@@ -32,12 +32,11 @@ import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.errors.IllegalTimerAccess;
 import ml.karmaconfigs.api.common.timer.scheduler.errors.TimerAlreadyStarted;
 import ml.karmaconfigs.api.common.timer.scheduler.errors.TimerNotFound;
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
 import ml.karmaconfigs.api.common.utils.enums.Level;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -338,7 +337,6 @@ public final class SourceScheduler extends SimpleScheduler {
     public void start() throws TimerAlreadyStarted {
         Set<Integer> running = runningTimers.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
         if (!running.contains(id)) {
-            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
 
             AtomicInteger minutes = new AtomicInteger();
             AtomicInteger hours = new AtomicInteger();
@@ -348,7 +346,7 @@ public final class SourceScheduler extends SimpleScheduler {
             AtomicLong last_hour = new AtomicLong(0);
             AtomicLong last_day = new AtomicLong(0);
 
-            timer.scheduleAtFixedRate(() -> {
+            TimerWheel.scheduleAtFixedRate((timer) -> {
                 boolean run = (!cancelUnloaded || KarmaAPI.isLoaded(source));
 
                 long one_minute = (!working_unit.equals(SchedulerUnit.MILLISECOND) ? (working_unit.equals(SchedulerUnit.SECOND) ? working_unit : SchedulerUnit.SECOND) : SchedulerUnit.MILLISECOND).toJavaUnit().convert(1, TimeUnit.MINUTES);
@@ -396,7 +394,7 @@ public final class SourceScheduler extends SimpleScheduler {
                                 pause = false;
                                 temp_restart = false;
 
-                                timer.shutdown();
+                                timer.cancel();
                             } else {
                                 back = original;
                                 onRestartTasks.forEach(this::runTaskWithThread);
@@ -423,7 +421,7 @@ public final class SourceScheduler extends SimpleScheduler {
                                     pause = false;
                                     temp_restart = false;
 
-                                    timer.shutdown();
+                                    timer.cancel();
                                 }
                             }
 
@@ -451,7 +449,7 @@ public final class SourceScheduler extends SimpleScheduler {
                     pause = false;
                     temp_restart = false;
 
-                    timer.shutdown();
+                    timer.cancel();
                 }
             }, 1, period, (!working_unit.equals(SchedulerUnit.MILLISECOND) ? (working_unit.equals(SchedulerUnit.SECOND) ? working_unit : SchedulerUnit.SECOND) : SchedulerUnit.MILLISECOND).toJavaUnit());
         } else {
@@ -937,7 +935,7 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runWithThread(final Consumer<Integer> task, final int value) {
         if (thread) {
-            (new Thread(() -> task.accept(value))).start();
+            WorkerPool.execute(source, () -> task.accept(value));
         } else {
             task.accept(value);
         }
@@ -951,7 +949,7 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runSecondsWithThread(final Consumer<Integer> task) {
         if (thread) {
-            (new Thread(() -> task.accept((int) (working_unit.toJavaUnit() == TimeUnit.MILLISECONDS ? TimeUnit.MILLISECONDS.toSeconds(back) : back)))).start();
+            WorkerPool.execute(source, () -> task.accept((int) (working_unit.toJavaUnit() == TimeUnit.MILLISECONDS ? TimeUnit.MILLISECONDS.toSeconds(back) : back)));
         } else {
             task.accept((int) TimeUnit.MILLISECONDS.toSeconds(back));
         }
@@ -965,7 +963,7 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runPeriodWithThread(final Consumer<Long> task) {
         if (thread) {
-            (new Thread(() -> task.accept(back))).start();
+            WorkerPool.execute(source, () -> task.accept(back));
         } else {
             task.accept(back);
         }
@@ -979,7 +977,7 @@ public final class SourceScheduler extends SimpleScheduler {
      */
     private void runTaskWithThread(final Runnable task) {
         if (thread) {
-            (new Thread(task)).start();
+            WorkerPool.execute(source, task);
         } else {
             task.run();
         }
@@ -0,0 +1,456 @@
+package ml.karmaconfigs.api.common.timer;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide hashed timing wheel. All the timers share
+ * a single ticking thread, while the timer tasks are run
+ * in the {@link WorkerPool}. Scheduling and cancelling a
+ * timer are O(1) operations
+ */
+public final class TimerWheel {
+
+    /**
+     * The amount of buckets of the wheel
+     */
+    private final static int WHEEL_SIZE = 1024;
+    /**
+     * The wheel bucket mask
+     */
+    private final static int WHEEL_MASK = WHEEL_SIZE - 1;
+    /**
+     * The duration of a wheel tick. Timers with a shorter
+     * period run as many times as their period elapsed on
+     * each tick
+     */
+    private final static long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The wheel buckets
+     */
+    private final static Bucket[] wheel = new Bucket[WHEEL_SIZE];
+
+    /**
+     * Timeouts waiting to be added to the wheel
+     */
+    private final static Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * Timeouts waiting to be removed from the wheel
+     */
+    private final static Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The amount of timeouts that are alive
+     */
+    private final static AtomicInteger alive = new AtomicInteger(0);
+
+    /**
+     * The wheel ticking thread
+     */
+    private static volatile Thread worker;
+
+    /**
+     * The wheel start time
+     */
+    private static long start_time;
+    /**
+     * The current wheel tick
+     */
+    private static long tick;
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            wheel[i] = new Bucket();
+    }
+
+    /**
+     * Initialize the timer wheel
+     */
+    private TimerWheel() {}
+
+    /**
+     * Run a task once after the specified delay
+     *
+     * @param task the task to run
+     * @param delay the task delay
+     * @param unit the delay time unit
+     * @return the task timeout
+     */
+    public static Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        return submit(new Timeout((timeout) -> task.run(), unit.toNanos(Math.max(0, delay)), 0));
+    }
+
+    /**
+     * Run a task periodically. Runs of the same task never
+     * overlap, if a run takes longer than the period the missed
+     * runs are performed right after it
+     *
+     * @param task the task to run
+     * @param delay the initial delay
+     * @param period the period between runs
+     * @param unit the delay and period time unit
+     * @return the task timeout
+     */
+    public static Timeout scheduleAtFixedRate(final Runnable task, final long delay, final long period, final TimeUnit unit) {
+        return scheduleAtFixedRate((timeout) -> task.run(), delay, period, unit);
+    }
+
+    /**
+     * Run a task periodically. Runs of the same task never
+     * overlap, if a run takes longer than the period the missed
+     * runs are performed right after it
+     *
+     * @param task the task to run, which receives its own
+     *             timeout so it can cancel itself
+     * @param delay the initial delay
+     * @param period the period between runs
+     * @param unit the delay and period time unit
+     * @return the task timeout
+     */
+    public static Timeout scheduleAtFixedRate(final Consumer<Timeout> task, final long delay, final long period, final TimeUnit unit) {
+        if (period <= 0)
+            throw new IllegalArgumentException("Timer period must be greater than zero");
+
+        return submit(new Timeout(task, unit.toNanos(Math.max(0, delay)), unit.toNanos(period)));
+    }
+
+    /**
+     * Get the amount of timers currently scheduled
+     *
+     * @return the scheduled timers
+     */
+    public static int scheduled() {
+        return alive.get();
+    }
+
+    /**
+     * Submit a timeout to the wheel
+     *
+     * @param timeout the timeout
+     * @return the timeout
+     */
+    private static Timeout submit(final Timeout timeout) {
+        alive.incrementAndGet();
+        pending.offer(timeout);
+
+        Thread current = worker;
+        if (current == null) {
+            synchronized (TimerWheel.class) {
+                current = worker;
+                if (current == null) {
+                    current = new Thread(TimerWheel::work, "KarmaAPI-TimerWheel");
+                    current.setDaemon(true);
+
+                    worker = current;
+                    current.start();
+                    return timeout;
+                }
+            }
+        }
+
+        LockSupport.unpark(current);
+        return timeout;
+    }
+
+    /**
+     * The wheel ticking loop
+     */
+    private static void work() {
+        start_time = System.nanoTime();
+        tick = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            if (alive.get() <= 0 && pending.isEmpty() && cancelled.isEmpty()) {
+                LockSupport.park();
+
+                //Do not try to catch up the ticks we were idle
+                start_time = System.nanoTime() - tick * TICK_NANOS;
+                continue;
+            }
+
+            long now = waitForNextTick();
+
+            removeCancelled();
+            transferPending();
+
+            wheel[(int) (tick & WHEEL_MASK)].expire(now);
+            tick++;
+        }
+    }
+
+    /**
+     * Wait until the next tick is reached
+     *
+     * @return the current time
+     */
+    private static long waitForNextTick() {
+        long deadline = start_time + (tick + 1) * TICK_NANOS;
+
+        while (true) {
+            long now = System.nanoTime();
+            long sleep = deadline - now;
+            if (sleep <= 0)
+                return now;
+
+            LockSupport.parkNanos(sleep);
+        }
+    }
+
+    /**
+     * Add the pending timeouts to their buckets
+     */
+    private static void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.state.get() == Timeout.CANCELLED)
+                continue;
+
+            long calculated = Math.max(0, timeout.deadline - start_time) / TICK_NANOS;
+            long target = Math.max(calculated, tick);
+
+            timeout.rounds = (target - tick) / WHEEL_SIZE;
+            wheel[(int) (target & WHEEL_MASK)].add(timeout);
+        }
+    }
+
+    /**
+     * Remove the cancelled timeouts from their buckets
+     */
+    private static void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            Bucket bucket = timeout.bucket;
+            if (bucket != null)
+                bucket.remove(timeout);
+        }
+    }
+
+    /**
+     * A scheduled wheel task
+     */
+    public final static class Timeout {
+
+        private final static int WAITING = 0;
+        private final static int CANCELLED = 1;
+        private final static int EXPIRED = 2;
+
+        private final Consumer<Timeout> task;
+        private final long period;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final AtomicInteger runs = new AtomicInteger(0);
+
+        private long deadline;
+        private long rounds;
+
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        /**
+         * Initialize the timeout
+         *
+         * @param tsk the task to run
+         * @param delay the delay in nanoseconds
+         * @param repeat the period in nanoseconds, 0 to
+         *               run only once
+         */
+        Timeout(final Consumer<Timeout> tsk, final long delay, final long repeat) {
+            task = tsk;
+            period = repeat;
+            deadline = System.nanoTime() + delay;
+        }
+
+        /**
+         * Cancel the timeout. The task will not be
+         * run anymore
+         *
+         * @return if the timeout has been cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED))
+                return false;
+
+            alive.decrementAndGet();
+            cancelled.offer(this);
+            return true;
+        }
+
+        /**
+         * Get if the timeout has been cancelled
+         *
+         * @return if the timeout is cancelled
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Get if the timeout task has already been
+         * run. Periodic timeouts never expire
+         *
+         * @return if the timeout expired
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Fire the timeout
+         *
+         * @param now the current time
+         */
+        private void expire(final long now) {
+            int fired = 1;
+            if (period > 0) {
+                if (state.get() != WAITING)
+                    return;
+
+                deadline += period;
+                while (deadline <= now) {
+                    deadline += period;
+                    fired++;
+                }
+                pending.offer(this);
+            } else {
+                if (!state.compareAndSet(WAITING, EXPIRED))
+                    return;
+
+                alive.decrementAndGet();
+            }
+
+            //Only one worker drains the runs of the same timeout
+            if (runs.getAndAdd(fired) == 0)
+                WorkerPool.getExecutor().execute(this::drain);
+        }
+
+        /**
+         * Run the task as many times as the
+         * timeout fired
+         */
+        private void drain() {
+            do {
+                if (state.get() == CANCELLED) {
+                    runs.set(0);
+                    return;
+                }
+
+                try {
+                    task.accept(this);
+                } catch (Throwable ex) {
+                    ex.printStackTrace();
+                }
+            } while (runs.decrementAndGet() > 0);
+        }
+    }
+
+    /**
+     * A wheel bucket, which is a doubly linked
+     * list of timeouts
+     */
+    private final static class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        /**
+         * Add a timeout to the bucket
+         *
+         * @param timeout the timeout
+         */
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Remove a timeout from the bucket
+         *
+         * @param timeout the timeout
+         * @return the next timeout of the bucket
+         */
+        Timeout remove(final Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null)
+                timeout.prev.next = next;
+            if (next != null)
+                next.prev = timeout.prev;
+
+            if (timeout == head)
+                head = next;
+            if (timeout == tail)
+                tail = timeout.prev;
+
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+
+            return next;
+        }
+
+        /**
+         * Fire all the timeouts of the bucket whose
+         * deadline has been reached
+         *
+         * @param now the current time
+         */
+        void expire(final long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                if (timeout.state.get() == Timeout.CANCELLED) {
+                    timeout = remove(timeout);
+                } else if (timeout.rounds <= 0) {
+                    Timeout next = remove(timeout);
+                    if (timeout.deadline <= now) {
+                        timeout.expire(now);
+                    } else {
+                        //Not yet, try again on next tick
+                        pending.offer(timeout);
+                    }
+                    timeout = next;
+                } else {
+                    timeout.rounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+}
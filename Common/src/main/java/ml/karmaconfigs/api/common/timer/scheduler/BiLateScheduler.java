@@ -25,9 +25,16 @@ package ml.karmaconfigs.api.common.timer.scheduler;
  *  SOFTWARE.
  */
 
+import ml.karmaconfigs.api.common.timer.scheduler.worker.AsyncBiLateScheduler;
 import ml.karmaconfigs.api.common.utils.TriConsumer;
 
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 /**
  * KarmaAPI bi-object late scheduler
@@ -101,4 +108,78 @@ public interface BiLateScheduler<A, B> extends CancellableScheduler {
      * @param paramThrowable any error that has been thrown
      */
     void complete(final A paramA, final B paramB, final Throwable paramThrowable);
+
+    /**
+     * Get a completable future that completes when
+     * this scheduler completes. Implementations backed by
+     * a future may override this to return it directly
+     *
+     * @return the scheduler completable future
+     */
+    default CompletableFuture<Map.Entry<A, B>> toCompletableFuture() {
+        CompletableFuture<Map.Entry<A, B>> future = new CompletableFuture<>();
+        whenComplete((a, b, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(new AbstractMap.SimpleImmutableEntry<>(a, b));
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Create a scheduler that completes with the results of
+     * this scheduler transformed by the specified function
+     *
+     * @param function the function to apply to the results
+     * @param <C> the new result type
+     * @return the new scheduler
+     */
+    default <C> LateScheduler<C> thenApply(final BiFunction<? super A, ? super B, ? extends C> function) {
+        return LateScheduler.fromCompletableFuture(toCompletableFuture().thenApply((entry) -> function.apply(entry.getKey(), entry.getValue())));
+    }
+
+    /**
+     * Create a scheduler that completes when the scheduler
+     * returned by the specified function completes
+     *
+     * @param function the function that creates the next scheduler
+     * @param <C> the new result type
+     * @return the new scheduler
+     */
+    default <C> LateScheduler<C> thenCompose(final BiFunction<? super A, ? super B, ? extends LateScheduler<C>> function) {
+        return LateScheduler.fromCompletableFuture(toCompletableFuture().thenCompose((entry) -> function.apply(entry.getKey(), entry.getValue()).toCompletableFuture()));
+    }
+
+    /**
+     * Create a scheduler that completes when the
+     * completable future completes
+     *
+     * @param future the completable future
+     * @param <A> the type A object
+     * @param <B> the type B object
+     * @return the completable future scheduler
+     */
+    static <A, B> BiLateScheduler<A, B> fromCompletableFuture(final CompletableFuture<? extends Map.Entry<A, B>> future) {
+        BiLateScheduler<A, B> result = new AsyncBiLateScheduler<>();
+        future.whenComplete((entry, error) -> {
+            Throwable cause = error;
+            if (cause instanceof CompletionException && cause.getCause() != null)
+                cause = cause.getCause();
+
+            if (cause instanceof CancellationException) {
+                result.setCancelled();
+            } else {
+                if (entry != null) {
+                    result.complete(entry.getKey(), entry.getValue(), cause);
+                } else {
+                    result.complete(null, null, cause);
+                }
+            }
+        });
+
+        return result;
+    }
 }
@@ -25,8 +25,14 @@ package ml.karmaconfigs.api.common.timer.scheduler;
  *  SOFTWARE.
  */
 
+import ml.karmaconfigs.api.common.timer.scheduler.worker.AsyncLateScheduler;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * KarmaAPI single-object late scheduler
@@ -91,6 +97,75 @@ public interface LateScheduler<A> extends CancellableScheduler {
      */
     void complete(final A paramA, final Throwable paramThrowable);
 
+    /**
+     * Get a completable future that completes when
+     * this scheduler completes. Implementations backed by
+     * a future may override this to return it directly
+     *
+     * @return the scheduler completable future
+     */
+    default CompletableFuture<A> toCompletableFuture() {
+        CompletableFuture<A> future = new CompletableFuture<>();
+        whenComplete((result, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Create a scheduler that completes with the result of
+     * this scheduler transformed by the specified function
+     *
+     * @param function the function to apply to the result
+     * @param <B> the new result type
+     * @return the new scheduler
+     */
+    default <B> LateScheduler<B> thenApply(final Function<? super A, ? extends B> function) {
+        return fromCompletableFuture(toCompletableFuture().thenApply(function));
+    }
+
+    /**
+     * Create a scheduler that completes when the scheduler
+     * returned by the specified function completes
+     *
+     * @param function the function that creates the next scheduler
+     * @param <B> the new result type
+     * @return the new scheduler
+     */
+    default <B> LateScheduler<B> thenCompose(final Function<? super A, ? extends LateScheduler<B>> function) {
+        return fromCompletableFuture(toCompletableFuture().thenCompose((result) -> function.apply(result).toCompletableFuture()));
+    }
+
+    /**
+     * Create a scheduler that completes when the
+     * completable future completes
+     *
+     * @param future the completable future
+     * @param <A> the result type
+     * @return the completable future scheduler
+     */
+    static <A> LateScheduler<A> fromCompletableFuture(final CompletableFuture<A> future) {
+        LateScheduler<A> result = new AsyncLateScheduler<>();
+        future.whenComplete((value, error) -> {
+            Throwable cause = error;
+            if (cause instanceof CompletionException && cause.getCause() != null)
+                cause = cause.getCause();
+
+            if (cause instanceof CancellationException) {
+                result.setCancelled();
+            } else {
+                result.complete(value, cause);
+            }
+        });
+
+        return result;
+    }
+
     /**
      * Complete another single consumer with these
      * objects
@@ -25,15 +25,24 @@ package ml.karmaconfigs.api.common.timer.scheduler.worker;
  *  SOFTWARE.
  */
 
-import ml.karmaconfigs.api.common.karma.APISource;
 import ml.karmaconfigs.api.common.timer.scheduler.BiLateScheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.CancellableScheduler;
 import ml.karmaconfigs.api.common.utils.TriConsumer;
 
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 
 /**
- * This scheduler will run a task when X is completed
+ * This scheduler will run a task when X is completed.
+ *
+ * Completion is lock-free; the first call to any complete
+ * or cancel method wins and the rest are ignored. Completion
+ * actions run on the thread that completes the scheduler unless
+ * an executor is specified
  *
  * @param <A> the A object consumer
  * @param <B> the B object consumer
@@ -41,47 +50,58 @@ import java.util.function.BiConsumer;
 public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
 
     /**
-     * Basic when complete action
+     * The future holding the scheduler result
      */
-    private Runnable whenCompleteRunner;
+    private final CompletableFuture<Map.Entry<A, B>> future = new CompletableFuture<>();
+
     /**
-     * When cancel action
+     * If the scheduler is already completed or
+     * cancelled
      */
-    private Runnable onCancel;
+    private final AtomicBoolean done = new AtomicBoolean(false);
 
     /**
-     * When complete action
+     * The executor that runs completion actions, or
+     * null to run them on the completing thread
      */
-    private BiConsumer<A, B> whenComplete;
+    private final Executor executor;
 
     /**
-     * When complete action with error
+     * When cancel action
      */
-    private TriConsumer<A, B, Throwable> whenCompleteWithError;
+    private volatile Runnable onCancel;
 
     /**
-     * If the scheduler is cancelled
+     * The scheduler type A object
      */
-    private boolean cancelled = false;
+    private volatile A typeA = null;
     /**
-     * If the scheduler is completed
+     * The scheduler type B object
      */
-    private boolean completed = false;
-
+    private volatile B typeB = null;
 
     /**
-     * The scheduler type A object
+     * The scheduler error
      */
-    private A typeA = null;
+    private volatile Throwable typeE = null;
+
     /**
-     * The scheduler type B object
+     * Initialize the scheduler, completion actions
+     * will run on the thread that completes it
      */
-    private B typeB = null;
+    public AsyncBiLateScheduler() {
+        this(null);
+    }
 
     /**
-     * The scheduler error
+     * Initialize the scheduler
+     *
+     * @param runner the executor that will run the
+     *               completion actions
      */
-    private Throwable typeE = null;
+    public AsyncBiLateScheduler(final Executor runner) {
+        executor = runner;
+    }
 
     /**
      * Set the complete action
@@ -92,13 +112,8 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public BiLateScheduler<A, B> whenComplete(final Runnable action) {
-        whenCompleteRunner = action;
-
-        if (completed) {
-            if (whenCompleteRunner != null) {
-                whenCompleteRunner.run();
-            }
-        }
+        if (action != null)
+            register(action);
 
         return this;
     }
@@ -112,13 +127,8 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public BiLateScheduler<A, B> whenComplete(final BiConsumer<A, B> action) {
-        whenComplete = action;
-
-        if (completed) {
-            if (whenComplete != null) {
-                whenComplete.accept(typeA, typeB);
-            }
-        }
+        if (action != null)
+            register(() -> action.accept(typeA, typeB));
 
         return this;
     }
@@ -132,13 +142,8 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public BiLateScheduler<A, B> whenComplete(final TriConsumer<A, B, Throwable> caughtAction) {
-        whenCompleteWithError = caughtAction;
-
-        if (completed) {
-            if (whenCompleteWithError != null) {
-                whenCompleteWithError.accept(typeA, typeB, typeE);
-            }
-        }
+        if (caughtAction != null)
+            register(() -> caughtAction.accept(typeA, typeB, typeE));
 
         return this;
     }
@@ -150,7 +155,7 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public boolean isCompleted() {
-        return this.completed;
+        return future.isDone() && !future.isCancelled();
     }
 
     /**
@@ -181,31 +186,7 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public void complete(final A target, final B subTarget) {
-        if (this.cancelled || this.completed)
-            return;
-        try {
-            typeA = target;
-            typeB = subTarget;
-
-            TriConsumer<A, B, Throwable> cachedError = whenCompleteWithError;
-            BiConsumer<A, B> cachedComplete = whenComplete;
-            Runnable cachedRunner = whenCompleteRunner;
-
-            APISource.getOriginal(false).async().queue("late_scheduler", () -> {
-                if (cachedError != null)
-                    cachedError.accept(target, subTarget, typeE);
-
-                if (cachedComplete != null)
-                    cachedComplete.accept(target, subTarget);
-
-                if (cachedRunner != null)
-                    cachedRunner.run();
-            });
-
-            this.completed = true;
-        } catch (Throwable ex) {
-            ex.printStackTrace();
-        }
+        complete(target, subTarget, null);
     }
 
     /**
@@ -217,32 +198,34 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public void complete(final A target, final B subTarget, final Throwable error) {
-        if (this.cancelled || this.completed)
+        if (!done.compareAndSet(false, true))
             return;
-        try {
-            typeA = target;
-            typeB = subTarget;
-            typeE = error;
-
-            TriConsumer<A, B, Throwable> cachedError = whenCompleteWithError;
-            BiConsumer<A, B> cachedComplete = whenComplete;
-            Runnable cachedRunner = whenCompleteRunner;
 
-            APISource.getOriginal(false).async().queue("late_scheduler", () -> {
-                if (cachedError != null)
-                    cachedError.accept(target, subTarget, error);
+        typeA = target;
+        typeB = subTarget;
+        typeE = error;
+        future.complete(new AbstractMap.SimpleImmutableEntry<>(target, subTarget));
+    }
 
-                if (cachedComplete != null)
-                    cachedComplete.accept(target, subTarget);
+    /**
+     * Get a completable future that completes when this
+     * scheduler completes. If the scheduler completes with an
+     * error, the future completes exceptionally
+     *
+     * @return the scheduler completable future
+     */
+    @Override
+    public CompletableFuture<Map.Entry<A, B>> toCompletableFuture() {
+        return future.thenCompose((result) -> {
+            Throwable error = typeE;
+            if (error == null)
+                return CompletableFuture.completedFuture(result);
 
-                if (cachedRunner != null)
-                    cachedRunner.run();
-            });
+            CompletableFuture<Map.Entry<A, B>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(error);
 
-            this.completed = true;
-        } catch (Throwable ex) {
-            ex.printStackTrace();
-        }
+            return failed;
+        });
     }
 
     /**
@@ -256,9 +239,8 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
     public CancellableScheduler whenCancelled(final Runnable action) {
         this.onCancel = action;
 
-        if (cancelled) {
+        if (future.isCancelled() && action != null)
             action.run();
-        }
 
         return this;
     }
@@ -270,7 +252,7 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public boolean isCancelled() {
-        return this.cancelled;
+        return future.isCancelled();
     }
 
     /**
@@ -278,8 +260,38 @@ public final class AsyncBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     @Override
     public void setCancelled() {
-        this.cancelled = true;
-        if (this.onCancel != null)
-            this.onCancel.run();
+        if (!done.compareAndSet(false, true))
+            return;
+
+        future.cancel(false);
+
+        Runnable action = onCancel;
+        if (action != null)
+            action.run();
+    }
+
+    /**
+     * Register a completion action. The action runs right
+     * now if the scheduler is already completed
+     *
+     * @param action the action
+     */
+    private void register(final Runnable action) {
+        BiConsumer<Map.Entry<A, B>, Throwable> callback = (result, error) -> {
+            if (future.isCancelled())
+                return;
+
+            try {
+                action.run();
+            } catch (Throwable ex) {
+                ex.printStackTrace();
+            }
+        };
+
+        if (executor == null) {
+            future.whenComplete(callback);
+        } else {
+            future.whenCompleteAsync(callback, executor);
+        }
     }
 }
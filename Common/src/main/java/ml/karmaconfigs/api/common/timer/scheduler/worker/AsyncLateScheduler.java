@@ -25,57 +25,76 @@ package ml.karmaconfigs.api.common.timer.scheduler.worker;
  *  SOFTWARE.
  */
 
-import ml.karmaconfigs.api.common.karma.APISource;
 import ml.karmaconfigs.api.common.timer.scheduler.CancellableScheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.LateScheduler;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
- * This scheduler will run a task when X is completed
+ * This scheduler will run a task when X is completed.
+ *
+ * Completion is lock-free; the first call to any complete
+ * or cancel method wins and the rest are ignored. Completion
+ * actions run on the thread that completes the scheduler unless
+ * an executor is specified
  *
  * @param <A> the A object consumer
  */
 public final class AsyncLateScheduler<A> implements LateScheduler<A> {
 
     /**
-     * Basic when complete action
+     * The future holding the scheduler result
      */
-    private Runnable whenCompleteRunner;
+    private final CompletableFuture<A> future = new CompletableFuture<>();
+
     /**
-     * When cancel action
+     * If the scheduler is already completed or
+     * cancelled
      */
-    private Runnable onCancel;
+    private final AtomicBoolean done = new AtomicBoolean(false);
 
     /**
-     * When complete action
+     * The executor that runs completion actions, or
+     * null to run them on the completing thread
      */
-    private Consumer<A> whenComplete;
+    private final Executor executor;
 
     /**
-     * When complete action with error
+     * When cancel action
      */
-    private BiConsumer<A, Throwable> whenCompleteWithError;
+    private volatile Runnable onCancel;
 
     /**
-     * If the scheduler is cancelled
+     * The scheduler type A object
      */
-    private boolean cancelled = false;
+    private volatile A typeA = null;
+
     /**
-     * If the scheduler is completed
+     * The scheduler error
      */
-    private boolean completed = false;
+    private volatile Throwable typeE = null;
 
     /**
-     * The scheduler type A object
+     * Initialize the scheduler, completion actions
+     * will run on the thread that completes it
      */
-    private A typeA = null;
+    public AsyncLateScheduler() {
+        this(null);
+    }
 
     /**
-     * The scheduler error
+     * Initialize the scheduler
+     *
+     * @param runner the executor that will run the
+     *               completion actions
      */
-    private Throwable typeE = null;
+    public AsyncLateScheduler(final Executor runner) {
+        executor = runner;
+    }
 
     /**
      * Set the complete action
@@ -86,13 +105,8 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public LateScheduler<A> whenComplete(final Runnable action) {
-        whenCompleteRunner = action;
-
-        if (completed) {
-            if (whenCompleteRunner != null) {
-                whenCompleteRunner.run();
-            }
-        }
+        if (action != null)
+            register(action);
 
         return this;
     }
@@ -106,13 +120,8 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public LateScheduler<A> whenComplete(final Consumer<A> action) {
-        whenComplete = action;
-
-        if (completed) {
-            if (whenComplete != null) {
-                whenComplete.accept(typeA);
-            }
-        }
+        if (action != null)
+            register(() -> action.accept(typeA));
 
         return this;
     }
@@ -126,13 +135,8 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public LateScheduler<A> whenComplete(final BiConsumer<A, Throwable> caughtAction) {
-        whenCompleteWithError = caughtAction;
-
-        if (completed) {
-            if (whenCompleteWithError != null) {
-                whenCompleteWithError.accept(typeA, typeE);
-            }
-        }
+        if (caughtAction != null)
+            register(() -> caughtAction.accept(typeA, typeE));
 
         return this;
     }
@@ -144,7 +148,7 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public boolean isCompleted() {
-        return this.completed;
+        return future.isDone() && !future.isCancelled();
     }
 
     /**
@@ -164,28 +168,7 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public void complete(final A target) {
-        if (this.cancelled || this.completed) {
-            return;
-        }
-
-        typeA = target;
-
-        BiConsumer<A, Throwable> cachedError = whenCompleteWithError;
-        Consumer<A> cachedComplete = whenComplete;
-        Runnable cachedRunner = whenCompleteRunner;
-
-        APISource.getOriginal(false).async().queue("late_scheduler", () -> {
-            if (cachedError != null)
-                cachedError.accept(target, typeE);
-
-            if (cachedComplete != null)
-                cachedComplete.accept(target);
-
-            if (cachedRunner != null)
-                cachedRunner.run();
-        });
-
-        completed = true;
+        complete(target, null);
     }
 
     /**
@@ -196,29 +179,33 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public void complete(final A target, final Throwable error) {
-        if (this.cancelled || this.completed) {
+        if (!done.compareAndSet(false, true))
             return;
-        }
 
         typeA = target;
         typeE = error;
+        future.complete(target);
+    }
 
-        BiConsumer<A, Throwable> cachedError = whenCompleteWithError;
-        Consumer<A> cachedComplete = whenComplete;
-        Runnable cachedRunner = whenCompleteRunner;
-
-        APISource.getOriginal(false).async().queue("late_scheduler", () -> {
-            if (cachedError != null)
-                cachedError.accept(target, error);
+    /**
+     * Get a completable future that completes when this
+     * scheduler completes. If the scheduler completes with an
+     * error, the future completes exceptionally
+     *
+     * @return the scheduler completable future
+     */
+    @Override
+    public CompletableFuture<A> toCompletableFuture() {
+        return future.thenCompose((result) -> {
+            Throwable error = typeE;
+            if (error == null)
+                return CompletableFuture.completedFuture(result);
 
-            if (cachedComplete != null)
-                cachedComplete.accept(target);
+            CompletableFuture<A> failed = new CompletableFuture<>();
+            failed.completeExceptionally(error);
 
-            if (cachedRunner != null)
-                cachedRunner.run();
+            return failed;
         });
-
-        completed = true;
     }
 
     /**
@@ -229,8 +216,12 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      * @return a cancellable instance of this
      */
     @Override
-    public CancellableScheduler whenCancelled(Runnable action) {
+    public CancellableScheduler whenCancelled(final Runnable action) {
         this.onCancel = action;
+
+        if (future.isCancelled() && action != null)
+            action.run();
+
         return this;
     }
 
@@ -241,7 +232,7 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public boolean isCancelled() {
-        return this.cancelled;
+        return future.isCancelled();
     }
 
     /**
@@ -249,8 +240,38 @@ public final class AsyncLateScheduler<A> implements LateScheduler<A> {
      */
     @Override
     public void setCancelled() {
-        this.cancelled = true;
-        if (this.onCancel != null)
-            this.onCancel.run();
+        if (!done.compareAndSet(false, true))
+            return;
+
+        future.cancel(false);
+
+        Runnable action = onCancel;
+        if (action != null)
+            action.run();
+    }
+
+    /**
+     * Register a completion action. The action runs right
+     * now if the scheduler is already completed
+     *
+     * @param action the action
+     */
+    private void register(final Runnable action) {
+        BiConsumer<A, Throwable> callback = (result, error) -> {
+            if (future.isCancelled())
+                return;
+
+            try {
+                action.run();
+            } catch (Throwable ex) {
+                ex.printStackTrace();
+            }
+        };
+
+        if (executor == null) {
+            future.whenComplete(callback);
+        } else {
+            future.whenCompleteAsync(callback, executor);
+        }
     }
 }
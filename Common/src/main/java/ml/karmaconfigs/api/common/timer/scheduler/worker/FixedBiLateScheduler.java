@@ -29,6 +29,9 @@ import ml.karmaconfigs.api.common.timer.scheduler.BiLateScheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.CancellableScheduler;
 import ml.karmaconfigs.api.common.utils.TriConsumer;
 
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 /**
@@ -58,14 +61,19 @@ public final class FixedBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
      */
     private TriConsumer<A, B, Throwable> whenCompleteWithError;
 
+    /**
+     * The future holding the scheduler result
+     */
+    private final CompletableFuture<Map.Entry<A, B>> future = new CompletableFuture<>();
+
     /**
      * If the scheduler is cancelled
      */
-    private boolean cancelled = false;
+    private volatile boolean cancelled = false;
     /**
      * If the scheduler is completed
      */
-    private boolean completed = false;
+    private volatile boolean completed = false;
 
 
     /**
@@ -196,6 +204,7 @@ public final class FixedBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
                 this.whenCompleteRunner.run();
 
             this.completed = true;
+            future.complete(new AbstractMap.SimpleImmutableEntry<>(target, subTarget));
         } catch (Throwable ex) {
             ex.printStackTrace();
         }
@@ -227,11 +236,28 @@ public final class FixedBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
                 this.whenCompleteRunner.run();
 
             this.completed = true;
+            if (error == null) {
+                future.complete(new AbstractMap.SimpleImmutableEntry<>(target, subTarget));
+            } else {
+                future.completeExceptionally(error);
+            }
         } catch (Throwable ex) {
             ex.printStackTrace();
         }
     }
 
+    /**
+     * Get a completable future that completes when this
+     * scheduler completes. If the scheduler completes with an
+     * error, the future completes exceptionally
+     *
+     * @return the scheduler completable future
+     */
+    @Override
+    public CompletableFuture<Map.Entry<A, B>> toCompletableFuture() {
+        return future.thenApply((result) -> result);
+    }
+
     /**
      * Set the cancelled action
      *
@@ -261,6 +287,7 @@ public final class FixedBiLateScheduler<A, B> implements BiLateScheduler<A, B> {
     @Override
     public void setCancelled() {
         this.cancelled = true;
+        future.cancel(false);
         if (this.onCancel != null)
             this.onCancel.run();
     }
@@ -28,6 +28,7 @@ package ml.karmaconfigs.api.common.timer.scheduler.worker;
 import ml.karmaconfigs.api.common.timer.scheduler.CancellableScheduler;
 import ml.karmaconfigs.api.common.timer.scheduler.LateScheduler;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -57,14 +58,19 @@ public final class FixedLateScheduler<A> implements LateScheduler<A> {
      */
     private BiConsumer<A, Throwable> whenCompleteWithError;
 
+    /**
+     * The future holding the scheduler result
+     */
+    private final CompletableFuture<A> future = new CompletableFuture<>();
+
     /**
      * If the scheduler is cancelled
      */
-    private boolean cancelled = false;
+    private volatile boolean cancelled = false;
     /**
      * If the scheduler is completed
      */
-    private boolean completed = false;
+    private volatile boolean completed = false;
 
 
     /**
@@ -179,6 +185,7 @@ public final class FixedLateScheduler<A> implements LateScheduler<A> {
                 this.whenCompleteRunner.run();
 
             this.completed = true;
+            future.complete(target);
         } catch (Throwable ex) {
             ex.printStackTrace();
         }
@@ -208,11 +215,28 @@ public final class FixedLateScheduler<A> implements LateScheduler<A> {
                 this.whenCompleteRunner.run();
 
             this.completed = true;
+            if (error == null) {
+                future.complete(target);
+            } else {
+                future.completeExceptionally(error);
+            }
         } catch (Throwable ex) {
             ex.printStackTrace();
         }
     }
 
+    /**
+     * Get a completable future that completes when this
+     * scheduler completes. If the scheduler completes with an
+     * error, the future completes exceptionally
+     *
+     * @return the scheduler completable future
+     */
+    @Override
+    public CompletableFuture<A> toCompletableFuture() {
+        return future.thenApply((result) -> result);
+    }
+
     /**
      * Set the cancelled action
      *
@@ -242,6 +266,7 @@ public final class FixedLateScheduler<A> implements LateScheduler<A> {
     @Override
     public void setCancelled() {
         this.cancelled = true;
+        future.cancel(false);
         if (this.onCancel != null)
             this.onCancel.run();
     }
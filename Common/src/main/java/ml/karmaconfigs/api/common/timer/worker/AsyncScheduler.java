@@ -8,9 +8,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -25,67 +23,98 @@ public class AsyncScheduler<T extends KarmaSource> extends Scheduler {
 
     private final static Map<KarmaSource, Set<TaskListener>> listeners = new ConcurrentHashMap<>();
     private final static Map<Integer, ScheduledTask> tasks = new ConcurrentHashMap<>();
+    private final static Map<KarmaSource, TaskQueue> queues = new ConcurrentHashMap<>();
 
     private final KarmaSource source;
 
-    private static ScheduledExecutorService runner;
-    private static int taskId = 0;
-    private static int current_task = 0;
+    private final static AtomicInteger taskId = new AtomicInteger(0);
+    private static volatile int current_task = 0;
 
     public AsyncScheduler(final T src) {
         source = src;
-        boolean initialize = false;
+    }
 
-        if (runner == null) {
-            //We will use the half of processors to have the best performance without using all CPU
-            int threadCount = Math.abs(Runtime.getRuntime().availableProcessors() / 2);
-            if (threadCount <= 0)
-                threadCount = 1;
+    /**
+     * Set the max amount of tasks of this source
+     * that can run at the same time. Tasks are always
+     * started in the same order they were queued, but only
+     * a max of 1 makes them also finish in that order
+     *
+     * @param max the max in-flight tasks
+     */
+    public void setMaxInFlight(final int max) {
+        queue(source).setMaxInFlight(max);
+    }
 
-            runner = Executors.newScheduledThreadPool(threadCount);
-            initialize = true;
-        }
+    /**
+     * Get the max amount of tasks of this source
+     * that can run at the same time
+     *
+     * @return the max in-flight tasks
+     */
+    public int getMaxInFlight() {
+        return queue(source).getMaxInFlight();
+    }
 
-        if (!runner.isShutdown() || runner.isTerminated()) {
-            //We will use the half of processors to have the best performance without using all CPU
-            int threadCount = Math.abs(Runtime.getRuntime().availableProcessors() / 2);
-            if (threadCount <= 0)
-                threadCount = 1;
+    /**
+     * Get the amount of tasks of this source waiting
+     * to be run
+     *
+     * @return the source queued tasks
+     */
+    public int queued() {
+        return queue(source).size();
+    }
 
-            runner = Executors.newScheduledThreadPool(threadCount);
-            initialize = true;
-        }
+    /**
+     * Get the source task queue
+     *
+     * @param owner the source
+     * @return the source task queue
+     */
+    private static TaskQueue queue(final KarmaSource owner) {
+        return queues.computeIfAbsent(owner, (key) -> new TaskQueue(key, (task) -> run(key, task)));
+    }
 
-        if (initialize) {
-            runner.scheduleAtFixedRate(() -> {
-                Integer[] ids = tasks.keySet().toArray(new Integer[0]);
-                Arrays.sort(ids);
+    /**
+     * Run a queued task
+     *
+     * @param owner the task source
+     * @param task the task
+     */
+    private static void run(final KarmaSource owner, final ScheduledTask task) {
+        tasks.remove(task.getId());
+        current_task = task.getId();
 
-                current_task = ids[0];
-                if (tasks.containsKey(current_task)) {
-                    ScheduledTask task = tasks.remove(current_task);
-                    if (task != null) {
-                        Consumer<Integer> start = taskStart.getOrDefault(source, null);
-                        Consumer<Integer> complete = taskComplete.getOrDefault(source, null);
+        Consumer<Integer> start = taskStart.getOrDefault(owner, null);
+        Consumer<Integer> complete = taskComplete.getOrDefault(owner, null);
 
-                        runner.execute(() -> {
-                            if (start != null) start.accept(task.getId());
+        if (start != null) start.accept(task.getId());
 
-                            Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-                            registered.forEach((listener) -> listener.onAsyncTaskStart(task));
+        Set<TaskListener> registered = listeners.getOrDefault(owner, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+        registered.forEach((listener) -> listener.onAsyncTaskStart(task));
 
-                            task.getTask().run();
+        task.getTask().run();
 
-                            if (complete != null) complete.accept(task.getId());
+        if (complete != null) complete.accept(task.getId());
 
-                            registered.forEach((listener) -> listener.onAsyncTaskComplete(task));
-                        });
-                    }
-                }
-            }, 1, 1, TimeUnit.SECONDS);
-        }
+        registered.forEach((listener) -> listener.onAsyncTaskComplete(task));
     }
 
+    /**
+     * Remove all the queued tasks of the source
+     *
+     * @param src the source
+     */
+    static void purge(final KarmaSource src) {
+        for (KarmaSource owner : queues.keySet()) {
+            if (owner.isSource(src)) {
+                TaskQueue queue = queues.remove(owner);
+                if (queue != null)
+                    queue.clear().forEach((task) -> tasks.remove(task.getId()));
+            }
+        }
+    }
 
     /**
      * Add a task listener
@@ -146,7 +175,7 @@ public class AsyncScheduler<T extends KarmaSource> extends Scheduler {
      */
     @Override
     public @Deprecated int queue(final Runnable paramRunnable) {
-        int task = taskId++;
+        int task = taskId.getAndIncrement();
 
         ScheduledTask tsk = new ScheduledTask(StringUtils.generateString().create(), paramRunnable, task);
         tasks.put(task, tsk);
@@ -154,6 +183,8 @@ public class AsyncScheduler<T extends KarmaSource> extends Scheduler {
         Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
         registered.forEach((listener) -> listener.onAsyncTaskSchedule(tsk));
 
+        queue(source).offer(tsk);
+
         return task;
     }
 
@@ -165,13 +196,15 @@ public class AsyncScheduler<T extends KarmaSource> extends Scheduler {
      */
     @Override
     public void queue(final String name, final Runnable paramRunnable) {
-        int task = taskId++;
+        int task = taskId.getAndIncrement();
 
         ScheduledTask tsk = new ScheduledTask(name, paramRunnable, task);
         tasks.put(task, tsk);
 
         Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
         registered.forEach((listener) -> listener.onAsyncTaskSchedule(tsk));
+
+        queue(source).offer(tsk);
     }
 
     /**
@@ -10,9 +10,9 @@ import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import javax.swing.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -27,66 +27,74 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
 
     private final static Map<KarmaSource, Set<TaskListener>> listeners = new ConcurrentHashMap<>();
     private final static Map<Integer, ScheduledTask> tasks = new ConcurrentHashMap<>();
+    private final static Map<Integer, KarmaSource> owners = new ConcurrentHashMap<>();
 
     private final KarmaSource source;
 
-    private static ScheduledExecutorService runner;
-    private static int taskId = 0;
+    private static ScheduledFuture<?> runner;
+    private final static AtomicInteger taskId = new AtomicInteger(0);
     private static int current_task = 0;
 
     public SyncScheduler(final T src) {
         source = src;
-        boolean initialize = false;
 
-        if (runner == null) {
-            runner = Executors.newSingleThreadScheduledExecutor();
-            initialize = true;
-        }
-
-        if (!runner.isShutdown() || runner.isTerminated()) {
-            runner = Executors.newSingleThreadScheduledExecutor();
-            initialize = true;
-        }
+        synchronized (SyncScheduler.class) {
+            if (runner == null || runner.isDone()) {
+                runner = WorkerPool.getExecutor().scheduleAtFixedRate(() -> {
+                    Integer[] ids = tasks.keySet().toArray(new Integer[0]);
+                    if (ids.length == 0)
+                        return;
+                    Arrays.sort(ids);
 
-        if (initialize) {
-            runner.scheduleAtFixedRate(() -> {
-                Integer[] ids = tasks.keySet().toArray(new Integer[0]);
-                Arrays.sort(ids);
-
-                current_task = ids[0];
-                if (tasks.containsKey(current_task)) {
+                    current_task = ids[0];
                     ScheduledTask task = tasks.remove(current_task);
-                    if (task != null) {
-                        Consumer<Integer> start = taskStart.getOrDefault(source, null);
-                        Consumer<Integer> complete = taskComplete.getOrDefault(source, null);
+                    KarmaSource owner = owners.remove(current_task);
+                    if (task != null && owner != null) {
+                        Consumer<Integer> start = taskStart.getOrDefault(owner, null);
+                        Consumer<Integer> complete = taskComplete.getOrDefault(owner, null);
 
                         try {
                             SwingUtilities.invokeAndWait(() -> {
-                                if (start != null) start.accept(current_task);
-                                Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+                                if (start != null) start.accept(task.getId());
+                                Set<TaskListener> registered = listeners.getOrDefault(owner, Collections.newSetFromMap(new ConcurrentHashMap<>()));
                                 registered.forEach((listener) -> listener.onSyncTaskStart(task));
 
                                 task.getTask().run();
 
-                                if (complete != null) complete.accept(current_task);
+                                if (complete != null) complete.accept(task.getId());
                                 registered.forEach((listener) -> listener.onSyncTaskComplete(task));
                             });
                         } catch (Throwable ex) {
                             KarmaConfig config = new KarmaConfig();
                             if (config.log(Level.GRAVE)) {
-                                source.logger().scheduleLog(Level.GRAVE, ex);
+                                owner.logger().scheduleLog(Level.GRAVE, ex);
                             }
                             if (config.log(Level.INFO)) {
-                                source.logger().scheduleLog(Level.INFO, "Failed to schedule task {0}", task.getId());
+                                owner.logger().scheduleLog(Level.INFO, "Failed to schedule task {0}", task.getId());
                             }
 
                             if (config.debug(Level.GRAVE)) {
-                                source.console().send("Failed to schedule sync task {0} with id {1}", Level.GRAVE, task.getName(), task.getId());
+                                owner.console().send("Failed to schedule sync task {0} with id {1}", Level.GRAVE, task.getName(), task.getId());
                             }
                         }
                     }
-                }
-            }, 1, 1, TimeUnit.SECONDS);
+                }, 1, 1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Remove all the queued tasks of the source
+     *
+     * @param src the source
+     */
+    static void purge(final KarmaSource src) {
+        for (int id : owners.keySet()) {
+            KarmaSource owner = owners.getOrDefault(id, null);
+            if (owner != null && owner.isSource(src)) {
+                owners.remove(id);
+                tasks.remove(id);
+            }
         }
     }
 
@@ -148,9 +156,10 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
      */
     @Override
     public @Deprecated int queue(final Runnable paramRunnable) {
-        int task = taskId++;
+        int task = taskId.getAndIncrement();
 
         ScheduledTask tsk = new ScheduledTask(StringUtils.generateString().create(), paramRunnable, task);
+        owners.put(task, source);
         tasks.put(task, tsk);
 
         Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
@@ -167,9 +176,10 @@ public class SyncScheduler<T extends KarmaSource> extends Scheduler {
      */
     @Override
     public void queue(String name, Runnable paramRunnable) {
-        int task = taskId++;
+        int task = taskId.getAndIncrement();
 
         ScheduledTask tsk = new ScheduledTask(name, paramRunnable, task);
+        owners.put(task, source);
         tasks.put(task, tsk);
 
         Set<TaskListener> registered = listeners.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
@@ -0,0 +1,149 @@
+package ml.karmaconfigs.api.common.timer.worker;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.karma.KarmaSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Per-source FIFO task queue. Tasks are handed to the
+ * {@link WorkerPool} as soon as they are queued, as long as the
+ * source has not reached its max in-flight tasks
+ */
+final class TaskQueue {
+
+    private final Queue<ScheduledTask> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger in_flight = new AtomicInteger(0);
+
+    private final KarmaSource owner;
+    private final Consumer<ScheduledTask> runner;
+
+    private volatile int max_in_flight;
+
+    /**
+     * Initialize the task queue
+     *
+     * @param src the queue source
+     * @param run the action that runs a task
+     */
+    TaskQueue(final KarmaSource src, final Consumer<ScheduledTask> run) {
+        owner = src;
+        runner = run;
+        max_in_flight = Math.max(1, src.maxInFlight());
+    }
+
+    /**
+     * Queue a task and start draining
+     *
+     * @param task the task
+     */
+    void offer(final ScheduledTask task) {
+        queue.offer(task);
+        drain();
+    }
+
+    /**
+     * Remove all the queued tasks
+     *
+     * @return the removed tasks
+     */
+    List<ScheduledTask> clear() {
+        List<ScheduledTask> removed = new ArrayList<>();
+
+        ScheduledTask task;
+        while ((task = queue.poll()) != null)
+            removed.add(task);
+
+        return removed;
+    }
+
+    /**
+     * Update the max in-flight tasks
+     *
+     * @param max the max tasks that can run
+     *            at the same time
+     */
+    void setMaxInFlight(final int max) {
+        max_in_flight = Math.max(1, max);
+        drain();
+    }
+
+    /**
+     * Get the max in-flight tasks
+     *
+     * @return the max tasks that can run at
+     * the same time
+     */
+    int getMaxInFlight() {
+        return max_in_flight;
+    }
+
+    /**
+     * Get the amount of queued tasks
+     *
+     * @return the queued tasks
+     */
+    int size() {
+        return queue.size();
+    }
+
+    /**
+     * Hand queued tasks to the worker pool until
+     * the in-flight limit is reached or the queue
+     * is empty
+     */
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int current = in_flight.get();
+            if (current >= max_in_flight)
+                return;
+
+            if (!in_flight.compareAndSet(current, current + 1))
+                continue;
+
+            ScheduledTask task = queue.poll();
+            if (task == null) {
+                in_flight.decrementAndGet();
+                continue;
+            }
+
+            WorkerPool.execute(owner, () -> {
+                try {
+                    runner.accept(task);
+                } finally {
+                    in_flight.decrementAndGet();
+                    drain();
+                }
+            });
+        }
+    }
+}
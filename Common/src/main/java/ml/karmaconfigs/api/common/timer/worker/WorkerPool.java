@@ -0,0 +1,461 @@
+package ml.karmaconfigs.api.common.timer.worker;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.karma.KarmaConfig;
+import ml.karmaconfigs.api.common.karma.KarmaSource;
+import ml.karmaconfigs.api.common.utils.enums.Level;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide worker pool shared by every KarmaAPI
+ * scheduler. Tasks are accounted per source, so a source
+ * can cancel all its pending work without affecting others
+ */
+public final class WorkerPool {
+
+    /**
+     * A map that contains source => task accounting
+     */
+    private final static Map<KarmaSource, Account> accounts = new ConcurrentHashMap<>();
+
+    /**
+     * The worker thread id generator
+     */
+    private final static AtomicInteger thread_id = new AtomicInteger(0);
+
+    /**
+     * The shared executor
+     */
+    private static volatile ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Initialize the worker pool
+     */
+    private WorkerPool() {}
+
+    /**
+     * Get the shared executor, creating it if it does
+     * not exist or was shut down
+     *
+     * @return the shared executor
+     */
+    public static ScheduledExecutorService getExecutor() {
+        ScheduledThreadPoolExecutor current = executor;
+        if (current == null || current.isShutdown()) {
+            synchronized (WorkerPool.class) {
+                current = executor;
+                if (current == null || current.isShutdown()) {
+                    int threads = new KarmaConfig().workerThreads();
+
+                    current = new ScheduledThreadPoolExecutor(threads, (runnable) -> {
+                        Thread thread = new Thread(runnable, "KarmaAPI-Worker-" + thread_id.incrementAndGet());
+                        thread.setDaemon(true);
+
+                        return thread;
+                    });
+                    current.setRemoveOnCancelPolicy(true);
+                    current.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+                    executor = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Run a task as soon as a worker is free
+     *
+     * @param source the task source
+     * @param task the task to run
+     * @return the task future
+     */
+    public static Future<?> execute(final KarmaSource source, final Runnable task) {
+        return schedule(source, task, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Run a task after the specified delay
+     *
+     * @param source the task source
+     * @param task the task to run
+     * @param delay the task delay
+     * @param unit the delay time unit
+     * @return the task future
+     */
+    public static ScheduledFuture<?> schedule(final KarmaSource source, final Runnable task, final long delay, final TimeUnit unit) {
+        Account account = account(source);
+        Tracked tracked = new Tracked(source, account, task, false);
+
+        account.pending.incrementAndGet();
+        tracked.future = getExecutor().schedule(tracked, delay, unit);
+        account.track(tracked);
+
+        return new Handle(tracked);
+    }
+
+    /**
+     * Run a task periodically
+     *
+     * @param source the task source
+     * @param task the task to run
+     * @param delay the initial delay
+     * @param period the period between runs
+     * @param unit the delay and period time unit
+     * @return the task future
+     */
+    public static ScheduledFuture<?> scheduleAtFixedRate(final KarmaSource source, final Runnable task, final long delay, final long period, final TimeUnit unit) {
+        Account account = account(source);
+        Tracked tracked = new Tracked(source, account, task, true);
+
+        tracked.future = getExecutor().scheduleAtFixedRate(tracked, delay, period, unit);
+        account.track(tracked);
+
+        return new Handle(tracked);
+    }
+
+    /**
+     * Get the amount of tasks of the source that are
+     * waiting for a worker
+     *
+     * @param source the source
+     * @return the source pending tasks
+     */
+    public static int pendingTasks(final KarmaSource source) {
+        Account account = accounts.getOrDefault(source, null);
+        if (account != null)
+            return account.pending.get();
+
+        return 0;
+    }
+
+    /**
+     * Get the amount of tasks of the source that are
+     * currently running
+     *
+     * @param source the source
+     * @return the source running tasks
+     */
+    public static int activeTasks(final KarmaSource source) {
+        Account account = accounts.getOrDefault(source, null);
+        if (account != null)
+            return account.active.get();
+
+        return 0;
+    }
+
+    /**
+     * Get the amount of tasks of the source that have
+     * been completed
+     *
+     * @param source the source
+     * @return the source completed tasks
+     */
+    public static long completedTasks(final KarmaSource source) {
+        Account account = accounts.getOrDefault(source, null);
+        if (account != null)
+            return account.completed.get();
+
+        return 0L;
+    }
+
+    /**
+     * Cancel all the pending and periodic tasks of the
+     * specified source
+     *
+     * @param source the source
+     */
+    public static void cancelFor(final KarmaSource source) {
+        AsyncScheduler.purge(source);
+        SyncScheduler.purge(source);
+
+        for (KarmaSource stored : accounts.keySet()) {
+            if (stored.isSource(source)) {
+                Account account = accounts.remove(stored);
+                if (account != null)
+                    account.cancel();
+            }
+        }
+    }
+
+    /**
+     * Shutdown the shared executor. The executor
+     * will be created again if any task is submitted
+     * after this
+     */
+    public static void shutdown() {
+        synchronized (WorkerPool.class) {
+            for (KarmaSource stored : accounts.keySet()) {
+                Account account = accounts.remove(stored);
+                if (account != null)
+                    account.cancel();
+            }
+
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+    }
+
+    /**
+     * Get the source account
+     *
+     * @param source the source
+     * @return the source account
+     */
+    private static Account account(final KarmaSource source) {
+        return accounts.computeIfAbsent(source, (key) -> new Account());
+    }
+
+    /**
+     * Source task accounting
+     */
+    private final static class Account {
+
+        private final AtomicInteger pending = new AtomicInteger(0);
+        private final AtomicInteger active = new AtomicInteger(0);
+        private final AtomicLong completed = new AtomicLong(0);
+
+        private final Set<Future<?>> futures = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Track the future of a task, so it can be cancelled
+         * with its source. The task may have finished before
+         * its future was tracked, in which case the future is
+         * removed again here, as the task could not remove it
+         *
+         * @param task the task to track
+         */
+        void track(final Tracked task) {
+            Future<?> future = task.future;
+            if (!future.isDone()) {
+                futures.add(future);
+                if (task.finished)
+                    futures.remove(future);
+            }
+        }
+
+        /**
+         * Cancel all the tracked futures
+         */
+        void cancel() {
+            for (Future<?> future : futures)
+                future.cancel(false);
+
+            futures.clear();
+            pending.set(0);
+        }
+    }
+
+    /**
+     * A task that updates its source account
+     */
+    private final static class Tracked implements Runnable {
+
+        private final KarmaSource source;
+        private final Account account;
+        private final Runnable task;
+        private final boolean periodic;
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean finished = false;
+
+        /**
+         * Initialize the tracked task
+         *
+         * @param src the task source
+         * @param acc the source account
+         * @param tsk the task
+         * @param repeat if the task is periodic
+         */
+        Tracked(final KarmaSource src, final Account acc, final Runnable tsk, final boolean repeat) {
+            source = src;
+            account = acc;
+            task = tsk;
+            periodic = repeat;
+        }
+
+        /**
+         * Run the task
+         */
+        @Override
+        public void run() {
+            if (!periodic && started.compareAndSet(false, true))
+                account.pending.decrementAndGet();
+            account.active.incrementAndGet();
+
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                KarmaConfig config = new KarmaConfig();
+                if (config.log(Level.GRAVE)) {
+                    source.logger().scheduleLog(Level.GRAVE, ex);
+                }
+                if (config.debug(Level.GRAVE)) {
+                    source.console().send("Failed to run worker task of {0} ({1})", Level.GRAVE, source.name(), ex.fillInStackTrace());
+                }
+            } finally {
+                account.active.decrementAndGet();
+                account.completed.incrementAndGet();
+
+                if (!periodic) {
+                    finished = true;
+
+                    Future<?> tracked = future;
+                    if (tracked != null)
+                        account.futures.remove(tracked);
+                }
+            }
+        }
+    }
+
+    /**
+     * The future given to the task owner. Cancelling it
+     * also stops tracking the task in its source account,
+     * as a cancelled task never runs to remove itself
+     */
+    private final static class Handle implements ScheduledFuture<Object> {
+
+        private final Tracked tracked;
+
+        /**
+         * Initialize the task handle
+         *
+         * @param task the tracked task
+         */
+        Handle(final Tracked task) {
+            tracked = task;
+        }
+
+        /**
+         * Cancel the task and stop tracking it
+         *
+         * @param interrupt if the task should be interrupted
+         *                  if it is running
+         * @return if the task has been cancelled
+         */
+        @Override
+        public boolean cancel(final boolean interrupt) {
+            ScheduledFuture<?> future = tracked.future;
+            boolean cancelled = future.cancel(interrupt);
+
+            tracked.account.futures.remove(future);
+            if (cancelled && !tracked.periodic && tracked.started.compareAndSet(false, true))
+                tracked.account.pending.decrementAndGet();
+
+            return cancelled;
+        }
+
+        /**
+         * Get if the task has been cancelled
+         *
+         * @return if the task has been cancelled
+         */
+        @Override
+        public boolean isCancelled() {
+            return tracked.future.isCancelled();
+        }
+
+        /**
+         * Get if the task is done
+         *
+         * @return if the task is done
+         */
+        @Override
+        public boolean isDone() {
+            return tracked.future.isDone();
+        }
+
+        /**
+         * Wait for the task to complete
+         *
+         * @return the task result
+         * @throws InterruptedException if the wait is interrupted
+         * @throws ExecutionException if the task failed
+         */
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return tracked.future.get();
+        }
+
+        /**
+         * Wait for the task to complete
+         *
+         * @param timeout the max time to wait
+         * @param unit the timeout time unit
+         * @return the task result
+         * @throws InterruptedException if the wait is interrupted
+         * @throws ExecutionException if the task failed
+         * @throws TimeoutException if the wait timed out
+         */
+        @Override
+        public Object get(final long timeout, final @NotNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return tracked.future.get(timeout, unit);
+        }
+
+        /**
+         * Get the time left until the task runs
+         *
+         * @param unit the time unit
+         * @return the time left until the task runs
+         */
+        @Override
+        public long getDelay(final @NotNull TimeUnit unit) {
+            return tracked.future.getDelay(unit);
+        }
+
+        /**
+         * Compare the task delay with other delay
+         *
+         * @param other the other delay
+         * @return the comparison result
+         */
+        @Override
+        public int compareTo(final @NotNull Delayed other) {
+            return tracked.future.compareTo(other);
+        }
+    }
+}
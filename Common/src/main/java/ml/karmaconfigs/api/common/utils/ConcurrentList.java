@@ -37,7 +37,11 @@ import java.util.stream.Stream;
 
 /**
  * Karma concurrent list based on
- * https://stackoverflow.com/a/26444094
+ * https://stackoverflow.com/a/26444094. Iterators, streams
+ * and sub lists work on a copy of the list taken when they
+ * are created. For read-mostly lists use a
+ * {@link java.util.concurrent.CopyOnWriteArrayList}, and for
+ * sets of ids {@link UUIDSet}
  *
  * @param <T> the list type
  */
@@ -366,11 +370,11 @@ public final class ConcurrentList<T> implements List<T> {
      */
     @Override
     public void clear() {
-        readLock.lock();
+        writeLock.lock();
         try {
             list.clear();
         } finally {
-            readLock.unlock();
+            writeLock.unlock();
         }
     }
 
@@ -538,7 +542,7 @@ public final class ConcurrentList<T> implements List<T> {
     public ListIterator<T> listIterator() {
         readLock.lock();
         try {
-            return list.listIterator();
+            return Collections.unmodifiableList(new ArrayList<>(list)).listIterator();
         } finally {
             readLock.unlock();
         }
@@ -564,42 +568,22 @@ public final class ConcurrentList<T> implements List<T> {
     public ListIterator<T> listIterator(int index) {
         readLock.lock();
         try {
-            return list.listIterator(index);
+            return Collections.unmodifiableList(new ArrayList<>(list)).listIterator(index);
         } finally {
             readLock.unlock();
         }
     }
 
     /**
-     * Returns a view of the portion of this list between the specified
-     * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.  (If
-     * {@code fromIndex} and {@code toIndex} are equal, the returned list is
-     * empty.)  The returned list is backed by this list, so non-structural
-     * changes in the returned list are reflected in this list, and vice-versa.
-     * The returned list supports all of the optional list operations supported
-     * by this list.
-     *
-     * This method eliminates the need for explicit range operations (of
-     * the sort that commonly exist for arrays).  Any operation that expects
-     * a list can be used as a range operation by passing a subList view
-     * instead of a whole list.  For example, the following idiom
-     * removes a range of elements from a list:
-     * <pre>{@code
-     *      list.subList(from, to).clear();
-     * }</pre>
-     * Similar idioms may be constructed for {@code indexOf} and
-     * {@code lastIndexOf}, and all of the algorithms in the
-     * {@code Collections} class can be applied to a subList.
-     *
-     * The semantics of the list returned by this method become undefined if
-     * the backing list (i.e., this list) is <i>structurally modified</i> in
-     * any way other than via the returned list.  (Structural modifications are
-     * those that change the size of this list, or otherwise perturb it in such
-     * a fashion that iterations in progress may yield incorrect results.)
+     * Returns an unmodifiable copy of the portion of this list between the
+     * specified {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+     * (If {@code fromIndex} and {@code toIndex} are equal, the returned list
+     * is empty.)  The returned list is not backed by this list, so changes in
+     * this list are not reflected in the returned list.
      *
      * @param fromIndex low endpoint (inclusive) of the subList
      * @param toIndex   high endpoint (exclusive) of the subList
-     * @return a view of the specified range within this list
+     * @return an unmodifiable copy of the specified range within this list
      * @throws IndexOutOfBoundsException for an illegal endpoint index value
      *                                   ({@code fromIndex < 0 || toIndex > size ||
      *                                   fromIndex > toIndex})
@@ -609,7 +593,7 @@ public final class ConcurrentList<T> implements List<T> {
     public List<T> subList(int fromIndex, int toIndex) {
         readLock.lock();
         try {
-            return list.subList(fromIndex, toIndex);
+            return Collections.unmodifiableList(new ArrayList<>(list.subList(fromIndex, toIndex)));
         } finally {
             readLock.unlock();
         }
@@ -630,7 +614,7 @@ public final class ConcurrentList<T> implements List<T> {
     public Spliterator<T> spliterator() {
         readLock.lock();
         try {
-            return list.spliterator();
+            return new ArrayList<>(list).spliterator();
         } finally {
             readLock.unlock();
         }
@@ -651,7 +635,7 @@ public final class ConcurrentList<T> implements List<T> {
     public Stream<T> stream() {
         readLock.lock();
         try {
-            return list.stream();
+            return new ArrayList<>(list).stream();
         } finally {
             readLock.unlock();
         }
@@ -674,7 +658,7 @@ public final class ConcurrentList<T> implements List<T> {
     public Stream<T> parallelStream() {
         readLock.lock();
         try {
-            return list.parallelStream();
+            return new ArrayList<>(list).parallelStream();
         } finally {
             readLock.unlock();
         }
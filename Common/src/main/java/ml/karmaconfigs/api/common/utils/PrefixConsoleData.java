@@ -114,7 +114,11 @@ public final class PrefixConsoleData implements Serializable {
      * @return the prefix
      */
     public String getOkPrefix() {
-        return okPrefix.getOrDefault(this.source, StringUtils.toAnyOsColor(config.consolePrefix(source, Level.OK)));
+        String prefix = okPrefix.get(this.source);
+        if (prefix == null)
+            prefix = StringUtils.toAnyOsColor(config.consolePrefix(source, Level.OK));
+
+        return prefix;
     }
 
     /**
@@ -123,7 +127,11 @@ public final class PrefixConsoleData implements Serializable {
      * @return the info prefix
      */
     public String getInfoPrefix() {
-        return infoPrefix.getOrDefault(this.source, StringUtils.toAnyOsColor(config.consolePrefix(source, Level.INFO)));
+        String prefix = infoPrefix.get(this.source);
+        if (prefix == null)
+            prefix = StringUtils.toAnyOsColor(config.consolePrefix(source, Level.INFO));
+
+        return prefix;
     }
 
     /**
@@ -132,7 +140,11 @@ public final class PrefixConsoleData implements Serializable {
      * @return the warning prefix
      */
     public String getWarningPrefix() {
-        return warnPrefix.getOrDefault(this.source, StringUtils.toAnyOsColor(config.consolePrefix(source, Level.WARNING)));
+        String prefix = warnPrefix.get(this.source);
+        if (prefix == null)
+            prefix = StringUtils.toAnyOsColor(config.consolePrefix(source, Level.WARNING));
+
+        return prefix;
     }
 
     /**
@@ -141,6 +153,10 @@ public final class PrefixConsoleData implements Serializable {
      * @return the grave prefix
      */
     public String getGravePrefix() {
-        return gravPrefix.getOrDefault(this.source, StringUtils.toAnyOsColor(config.consolePrefix(source, Level.GRAVE)));
+        String prefix = gravPrefix.get(this.source);
+        if (prefix == null)
+            prefix = StringUtils.toAnyOsColor(config.consolePrefix(source, Level.GRAVE));
+
+        return prefix;
     }
 }
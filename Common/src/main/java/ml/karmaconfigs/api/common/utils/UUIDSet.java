@@ -0,0 +1,483 @@
+package ml.karmaconfigs.api.common.utils;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Karma concurrent UUID set. Ids are stored as their two
+ * long values in open addressing tables, so no UUID or node
+ * is kept per entry. The set is split in segments, each with
+ * its own lock; {@link #contains(Object)} does not lock unless
+ * its segment is being modified at the same time
+ */
+public final class UUIDSet extends AbstractSet<UUID> {
+
+    /**
+     * The max amount of segments
+     */
+    private final static int MAX_SEGMENTS = 64;
+
+    /**
+     * The set segments
+     */
+    private final Segment[] segments;
+    /**
+     * The mask to get the segment of an id
+     */
+    private final int mask;
+
+    /**
+     * Initialize the set with a segment per processor
+     */
+    public UUIDSet() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initialize the set
+     *
+     * @param concurrency the expected amount of writer threads
+     */
+    public UUIDSet(final int concurrency) {
+        int amount = 1;
+        while (amount < Math.min(Math.max(1, concurrency), MAX_SEGMENTS))
+            amount <<= 1;
+
+        segments = new Segment[amount];
+        for (int i = 0; i < amount; i++)
+            segments[i] = new Segment();
+
+        mask = amount - 1;
+    }
+
+    /**
+     * Add an id to the set
+     *
+     * @param id the id
+     * @return if the id was added
+     */
+    @Override
+    public boolean add(final @NotNull UUID id) {
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        long hash = hash(most, least);
+
+        return segment(hash).add(most, least, hash);
+    }
+
+    /**
+     * Get if the set contains the id
+     *
+     * @param o the id
+     * @return if the set contains the id
+     */
+    @Override
+    public boolean contains(final Object o) {
+        if (!(o instanceof UUID))
+            return false;
+
+        UUID id = (UUID) o;
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        long hash = hash(most, least);
+
+        return segment(hash).contains(most, least, hash);
+    }
+
+    /**
+     * Remove an id from the set
+     *
+     * @param o the id
+     * @return if the id was removed
+     */
+    @Override
+    public boolean remove(final Object o) {
+        if (!(o instanceof UUID))
+            return false;
+
+        UUID id = (UUID) o;
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        long hash = hash(most, least);
+
+        return segment(hash).remove(most, least, hash);
+    }
+
+    /**
+     * Get the set size
+     *
+     * @return the set size
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments)
+            size += segment.size;
+
+        return size;
+    }
+
+    /**
+     * Get if the set is empty
+     *
+     * @return if the set is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.size > 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Remove all the ids
+     */
+    @Override
+    public void clear() {
+        for (Segment segment : segments)
+            segment.clear();
+    }
+
+    /**
+     * Get an iterator over a copy of the set. Removing
+     * from the iterator removes from the set
+     *
+     * @return the set iterator
+     */
+    @NotNull
+    @Override
+    public Iterator<UUID> iterator() {
+        List<UUID> copy = new ArrayList<>();
+        for (Segment segment : segments)
+            segment.copy(copy);
+
+        Iterator<UUID> iterator = copy.iterator();
+        return new Iterator<UUID>() {
+            private UUID last = null;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public UUID next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null)
+                    throw new IllegalStateException();
+
+                UUIDSet.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Get the segment of an id
+     *
+     * @param hash the id hash
+     * @return the id segment
+     */
+    private Segment segment(final long hash) {
+        return segments[(int) (hash >>> 40) & mask];
+    }
+
+    /**
+     * Hash an id
+     *
+     * @param most the id most significant bits
+     * @param least the id least significant bits
+     * @return the id hash
+     */
+    private static long hash(final long most, final long least) {
+        long hash = most ^ (least * 0x9E3779B97F4A7C15L);
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    /**
+     * A set segment. Each slot takes two longs of the table;
+     * a slot with both longs set to zero is empty, so the zero
+     * id is tracked apart
+     */
+    private final static class Segment {
+
+        private final static int INITIAL = 16;
+
+        private final StampedLock lock = new StampedLock();
+
+        private volatile long[] table = new long[INITIAL << 1];
+        private volatile boolean zero = false;
+        private volatile int size = 0;
+
+        /**
+         * Add an id to the segment
+         *
+         * @param most the id most significant bits
+         * @param least the id least significant bits
+         * @param hash the id hash
+         * @return if the id was added
+         */
+        boolean add(final long most, final long least, final long hash) {
+            long stamp = lock.writeLock();
+            try {
+                if (most == 0 && least == 0) {
+                    if (zero)
+                        return false;
+
+                    zero = true;
+                    size++;
+                    return true;
+                }
+
+                long[] current = table;
+                if (find(current, most, least, hash) != -1)
+                    return false;
+
+                int slots = current.length >> 1;
+                if ((size + 1) * 4 > slots * 3) {
+                    current = resize(current, slots << 1);
+                    table = current;
+                }
+
+                insert(current, most, least, hash);
+                size++;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Get if the segment contains the id
+         *
+         * @param most the id most significant bits
+         * @param least the id least significant bits
+         * @param hash the id hash
+         * @return if the segment contains the id
+         */
+        boolean contains(final long most, final long least, final long hash) {
+            if (most == 0 && least == 0)
+                return zero;
+
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                boolean found = find(table, most, least, hash) != -1;
+                if (lock.validate(stamp))
+                    return found;
+            }
+
+            stamp = lock.readLock();
+            try {
+                return find(table, most, least, hash) != -1;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Remove an id from the segment
+         *
+         * @param most the id most significant bits
+         * @param least the id least significant bits
+         * @param hash the id hash
+         * @return if the id was removed
+         */
+        boolean remove(final long most, final long least, final long hash) {
+            long stamp = lock.writeLock();
+            try {
+                if (most == 0 && least == 0) {
+                    if (!zero)
+                        return false;
+
+                    zero = false;
+                    size--;
+                    return true;
+                }
+
+                long[] current = table;
+                int slot = find(current, most, least, hash);
+                if (slot == -1)
+                    return false;
+
+                delete(current, slot);
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Remove all the ids of the segment
+         */
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new long[INITIAL << 1];
+                zero = false;
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Copy the segment ids
+         *
+         * @param target the list to copy the ids to
+         */
+        void copy(final List<UUID> target) {
+            long stamp = lock.readLock();
+            try {
+                if (zero)
+                    target.add(new UUID(0, 0));
+
+                long[] current = table;
+                for (int i = 0; i < current.length; i += 2) {
+                    if (current[i] != 0 || current[i + 1] != 0)
+                        target.add(new UUID(current[i], current[i + 1]));
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Find the slot of an id
+         *
+         * @param current the table
+         * @param most the id most significant bits
+         * @param least the id least significant bits
+         * @param hash the id hash
+         * @return the id slot, or -1 if it's not in the table
+         */
+        private static int find(final long[] current, final long most, final long least, final long hash) {
+            int slots = current.length >> 1;
+            int slot = (int) hash & (slots - 1);
+
+            for (int probe = 0; probe < slots; probe++) {
+                long m = current[slot << 1];
+                long l = current[(slot << 1) + 1];
+                if (m == most && l == least)
+                    return slot;
+                if (m == 0 && l == 0)
+                    return -1;
+
+                slot = (slot + 1) & (slots - 1);
+            }
+
+            return -1;
+        }
+
+        /**
+         * Insert an id that is not in the table
+         *
+         * @param current the table
+         * @param most the id most significant bits
+         * @param least the id least significant bits
+         * @param hash the id hash
+         */
+        private static void insert(final long[] current, final long most, final long least, final long hash) {
+            int slots = current.length >> 1;
+            int slot = (int) hash & (slots - 1);
+
+            while (current[slot << 1] != 0 || current[(slot << 1) + 1] != 0)
+                slot = (slot + 1) & (slots - 1);
+
+            current[slot << 1] = most;
+            current[(slot << 1) + 1] = least;
+        }
+
+        /**
+         * Delete the id at the slot, moving back the ids
+         * after it so no probe chain is broken
+         *
+         * @param current the table
+         * @param slot the slot to delete
+         */
+        private static void delete(final long[] current, final int slot) {
+            int slots = current.length >> 1;
+            int hole = slot;
+            int next = (hole + 1) & (slots - 1);
+
+            while (current[next << 1] != 0 || current[(next << 1) + 1] != 0) {
+                long m = current[next << 1];
+                long l = current[(next << 1) + 1];
+                int home = (int) hash(m, l) & (slots - 1);
+
+                //Move the id back if its home slot is not between the hole and its current slot
+                boolean stays = (next > hole ? home > hole && home <= next : home > hole || home <= next);
+                if (!stays) {
+                    current[hole << 1] = m;
+                    current[(hole << 1) + 1] = l;
+                    hole = next;
+                }
+
+                next = (next + 1) & (slots - 1);
+            }
+
+            current[hole << 1] = 0;
+            current[(hole << 1) + 1] = 0;
+        }
+
+        /**
+         * Copy the ids to a bigger table
+         *
+         * @param current the table
+         * @param slots the new table slots
+         * @return the new table
+         */
+        private static long[] resize(final long[] current, final int slots) {
+            long[] resized = new long[slots << 1];
+            for (int i = 0; i < current.length; i += 2) {
+                long m = current[i];
+                long l = current[i + 1];
+                if (m != 0 || l != 0)
+                    insert(resized, m, l, hash(m, l));
+            }
+
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ml.karmaconfigs.api.common.utils.logging;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.utils.enums.LogCalendar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.function.Supplier;
+
+/**
+ * Append-only log file. The file channel is kept open
+ * and re-opened when the log day changes. This is not
+ * thread safe, callers must hold their own write lock
+ */
+final class LogFile {
+
+    private final Supplier<Path> file;
+    private final Supplier<String> header;
+    private final Supplier<LogCalendar> calendar;
+
+    private FileChannel channel;
+    private int channel_day = -1;
+
+    /**
+     * Initialize the log file
+     *
+     * @param target the supplier of the current log file
+     * @param head the supplier of the log header, written
+     *             once on each new file
+     * @param type the supplier of the log calendar, used to
+     *             detect when the log file must be rolled over
+     */
+    LogFile(final Supplier<Path> target, final Supplier<String> head, final Supplier<LogCalendar> type) {
+        file = target;
+        header = head;
+        calendar = type;
+    }
+
+    /**
+     * Append data to the log file
+     *
+     * @param data the data to append
+     * @throws IOException if the data could not be written
+     */
+    void write(final CharSequence data) throws IOException {
+        write(open(), data);
+    }
+
+    /**
+     * Empty the current log file
+     *
+     * @throws IOException if the file could not be truncated
+     */
+    void truncate() throws IOException {
+        FileChannel current = open();
+        current.truncate(0);
+        current.position(0);
+    }
+
+    /**
+     * Close the current file, so the next write
+     * resolves the file again
+     */
+    void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (Throwable ignored) {}
+            channel = null;
+        }
+    }
+
+    /**
+     * Get the channel of the current log file, rolling
+     * over to a new file if the day changed
+     *
+     * @return the current log file channel
+     * @throws IOException if the file could not be opened
+     */
+    private FileChannel open() throws IOException {
+        Calendar now = calendar.get().getType();
+        int day = now.get(Calendar.YEAR) * 1000 + now.get(Calendar.DAY_OF_YEAR);
+
+        if (channel == null || !channel.isOpen() || day != channel_day) {
+            close();
+
+            channel = FileChannel.open(file.get(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            channel_day = day;
+        }
+
+        if (channel.size() == 0)
+            write(channel, header.get());
+
+        return channel;
+    }
+
+    /**
+     * Write data to a channel
+     *
+     * @param target the channel
+     * @param data the data to write
+     * @throws IOException if the data could not be written
+     */
+    private static void write(final FileChannel target, final CharSequence data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining())
+            target.write(buffer);
+    }
+}
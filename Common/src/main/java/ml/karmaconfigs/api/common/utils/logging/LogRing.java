@@ -0,0 +1,438 @@
+package ml.karmaconfigs.api.common.utils.logging;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.utils.enums.Level;
+import ml.karmaconfigs.api.common.utils.enums.LogCalendar;
+import ml.karmaconfigs.api.common.utils.enums.LogOverflow;
+import ml.karmaconfigs.api.common.utils.string.StringUtils;
+
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Preallocated log ring buffer. Producers only capture the
+ * entry level, time and arguments into a reused slot, and a
+ * single background consumer formats and writes them to the
+ * log file
+ */
+public final class LogRing {
+
+    /**
+     * All the rings, drained by the consumer
+     */
+    private final static Set<LogRing> rings = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The time the consumer waits between drains
+     */
+    private final static long CONSUME_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The background consumer
+     */
+    private static volatile Thread consumer;
+
+    private final Slot[] slots;
+    private final int mask;
+
+    private final AtomicLong claimed = new AtomicLong(0);
+    private final AtomicLong consumed = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private final ReentrantLock write_lock = new ReentrantLock();
+    private final StringBuilder batch = new StringBuilder();
+
+    private long clock_second = -1;
+    private String clock = "";
+
+    private final LogFile file;
+    private final Supplier<LogCalendar> calendar;
+
+    private volatile LogOverflow policy;
+    private volatile Level threshold;
+
+    /**
+     * Initialize the log ring
+     *
+     * @param size the ring size, rounded up to
+     *             a power of two
+     * @param overflow the overflow policy
+     * @param level the minimum level an entry must have to
+     *              not be dropped by {@link LogOverflow#DROP_LEVEL_BELOW}
+     * @param target the supplier of the current log file
+     * @param head the supplier of the log header, written
+     *             once on each new file
+     * @param type the supplier of the log calendar
+     */
+    public LogRing(final int size, final LogOverflow overflow, final Level level,
+                   final Supplier<Path> target, final Supplier<String> head, final Supplier<LogCalendar> type) {
+        int capacity = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++)
+            slots[i] = new Slot();
+        mask = capacity - 1;
+
+        policy = overflow;
+        threshold = level;
+        file = new LogFile(target, head, type);
+        calendar = type;
+
+        rings.add(this);
+        start();
+    }
+
+    /**
+     * Set the overflow policy
+     *
+     * @param overflow the overflow policy
+     */
+    public void setOverflow(final LogOverflow overflow) {
+        policy = overflow;
+    }
+
+    /**
+     * Set the minimum level an entry must have to not
+     * be dropped by {@link LogOverflow#DROP_LEVEL_BELOW}
+     *
+     * @param level the overflow level
+     */
+    public void setOverflowLevel(final Level level) {
+        threshold = level;
+    }
+
+    /**
+     * Get the amount of entries discarded because
+     * the ring was full
+     *
+     * @return the dropped entries
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the amount of entries waiting to be
+     * written
+     *
+     * @return the pending entries
+     */
+    public int pending() {
+        return (int) Math.max(0, claimed.get() - consumed.get());
+    }
+
+    /**
+     * Publish an info entry
+     *
+     * @param level the entry level
+     * @param info the info
+     * @param replaces the info replaces
+     * @return if the entry was published
+     */
+    public boolean publish(final Level level, final CharSequence info, final Object[] replaces) {
+        return publish(level, info, replaces, null);
+    }
+
+    /**
+     * Publish an error entry
+     *
+     * @param level the entry level
+     * @param error the error
+     * @return if the entry was published
+     */
+    public boolean publish(final Level level, final Throwable error) {
+        return publish(level, null, null, error);
+    }
+
+    /**
+     * Write all the published entries
+     */
+    public void flush() {
+        write_lock.lock();
+        try {
+            drain(true);
+        } finally {
+            write_lock.unlock();
+        }
+    }
+
+    /**
+     * Discard the published entries without writing
+     * them. The log file is not modified
+     */
+    public void clear() {
+        write_lock.lock();
+        try {
+            drain(false);
+        } finally {
+            write_lock.unlock();
+        }
+    }
+
+    /**
+     * Write the published entries and close the current
+     * file, so the next write resolves the file again
+     */
+    public void reset() {
+        write_lock.lock();
+        try {
+            drain(true);
+            file.close();
+        } finally {
+            write_lock.unlock();
+        }
+    }
+
+    /**
+     * Write the published entries and stop
+     * consuming this ring
+     */
+    public void close() {
+        rings.remove(this);
+
+        write_lock.lock();
+        try {
+            drain(true);
+            file.close();
+        } finally {
+            write_lock.unlock();
+        }
+    }
+
+    /**
+     * Publish an entry
+     *
+     * @param level the entry level
+     * @param info the entry info
+     * @param replaces the info replaces
+     * @param error the entry error
+     * @return if the entry was published
+     */
+    private boolean publish(final Level level, final CharSequence info, final Object[] replaces, final Throwable error) {
+        long time = System.currentTimeMillis();
+
+        while (true) {
+            long position = claimed.get();
+            long oldest = consumed.get();
+
+            if (position - oldest >= slots.length) {
+                LogOverflow current = policy;
+                if (current == LogOverflow.DROP_LEVEL_BELOW && level.ordinal() < threshold.ordinal()) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+
+                if (current == LogOverflow.DROP_OLDEST) {
+                    //Only drop the oldest entry once its producer has published it
+                    if (slots[(int) (oldest & mask)].sequence == oldest + 1 && consumed.compareAndSet(oldest, oldest + 1)) {
+                        dropped.incrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                } else {
+                    wake();
+                    LockSupport.parkNanos(1000);
+                }
+
+                continue;
+            }
+
+            if (claimed.compareAndSet(position, position + 1)) {
+                Slot slot = slots[(int) (position & mask)];
+                slot.level = level;
+                slot.time = time;
+                slot.info = info;
+                slot.replaces = replaces;
+                slot.error = error;
+                slot.sequence = position + 1;
+
+                if (position + 1 - oldest >= slots.length >> 1)
+                    wake();
+
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Consume the published entries. Must be called
+     * while holding the write lock
+     *
+     * @param write if the entries should be written or
+     *              discarded
+     */
+    private void drain(final boolean write) {
+        while (true) {
+            long position = consumed.get();
+            if (position >= claimed.get())
+                break;
+
+            Slot slot = slots[(int) (position & mask)];
+            if (slot.sequence != position + 1) {
+                //Not published yet, unless a producer dropped it
+                if (consumed.get() != position)
+                    continue;
+                break;
+            }
+
+            Level level = slot.level;
+            long time = slot.time;
+            CharSequence info = slot.info;
+            Object[] replaces = slot.replaces;
+            Throwable error = slot.error;
+
+            //A producer dropped this entry while it was being read
+            if (!consumed.compareAndSet(position, position + 1))
+                continue;
+
+            if (write)
+                format(level, time, info, replaces, error);
+        }
+
+        if (batch.length() > 0) {
+            try {
+                file.write(batch);
+            } catch (Throwable ex) {
+                ex.printStackTrace();
+            } finally {
+                batch.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Format an entry into the current batch
+     *
+     * @param level the entry level
+     * @param time the entry time
+     * @param info the entry info
+     * @param replaces the info replaces
+     * @param error the entry error
+     */
+    private void format(final Level level, final long time, final CharSequence info, final Object[] replaces, final Throwable error) {
+        long second = time / 1000;
+        if (second != clock_second) {
+            Calendar date = calendar.get().getType();
+            date.setTimeInMillis(time);
+            clock = String.format("%02d:%02d:%02d",
+                    date.get(Calendar.HOUR_OF_DAY),
+                    date.get(Calendar.MINUTE),
+                    date.get(Calendar.SECOND));
+            clock_second = second;
+        }
+
+        if (error == null) {
+            batch.append(StringUtils.formatString("[ {0} - {1} ] {2}<br>\n", level.name(), clock,
+                    (replaces == null ? StringUtils.formatString(info) : StringUtils.formatString(info, replaces))));
+        } else {
+            Throwable prefix = new Throwable(error);
+            batch.append(StringUtils.formatString("[ {0} - {1} ] {2}\n", level.name(), clock, prefix.fillInStackTrace()));
+            batch.append("```java\n");
+            for (StackTraceElement element : error.getStackTrace())
+                batch.append(element).append("\n");
+            batch.append("```\n");
+        }
+    }
+
+    /**
+     * Wake up the consumer
+     */
+    private static void wake() {
+        Thread current = consumer;
+        if (current != null)
+            LockSupport.unpark(current);
+    }
+
+    /**
+     * Start the consumer if it is not running
+     */
+    private static void start() {
+        if (consumer == null) {
+            synchronized (LogRing.class) {
+                if (consumer == null) {
+                    Thread thread = new Thread(LogRing::consume, "KarmaAPI-LogConsumer");
+                    thread.setDaemon(true);
+                    consumer = thread;
+                    thread.start();
+
+                    Runtime.getRuntime().addShutdownHook(new Thread(LogRing::flushAll, "KarmaAPI-LogRingFlush"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush all the rings
+     */
+    public static void flushAll() {
+        for (LogRing ring : rings)
+            ring.flush();
+    }
+
+    /**
+     * Consume all the rings until the
+     * process ends
+     */
+    private static void consume() {
+        while (true) {
+            for (LogRing ring : rings) {
+                if (ring.write_lock.tryLock()) {
+                    try {
+                        ring.drain(true);
+                    } catch (Throwable ex) {
+                        ex.printStackTrace();
+                    } finally {
+                        ring.write_lock.unlock();
+                    }
+                }
+            }
+
+            LockSupport.parkNanos(CONSUME_INTERVAL);
+        }
+    }
+
+    /**
+     * A reused ring entry
+     */
+    private final static class Slot {
+
+        private volatile long sequence = 0;
+
+        private Level level;
+        private long time;
+        private CharSequence info;
+        private Object[] replaces;
+        private Throwable error;
+    }
+}
@@ -0,0 +1,297 @@
+package ml.karmaconfigs.api.common.utils.logging;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.timer.TimerWheel;
+import ml.karmaconfigs.api.common.timer.worker.WorkerPool;
+import ml.karmaconfigs.api.common.utils.enums.LogCalendar;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Append-only log writer. Entries are queued in a lock-free
+ * bounded ring buffer and written in batches through a single
+ * open {@link LogFile}, either when enough entries are queued or
+ * a short time after the first entry that was not written
+ */
+public final class LogWriter {
+
+    /**
+     * All the writers, so they can be flushed
+     * on shutdown
+     */
+    private final static Set<LogWriter> writers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * If the shutdown hook has been registered
+     */
+    private final static AtomicBoolean hooked = new AtomicBoolean(false);
+
+    /**
+     * The ring buffer capacity
+     */
+    private final static int CAPACITY = 4096;
+    /**
+     * The ring buffer index mask
+     */
+    private final static int MASK = CAPACITY - 1;
+    /**
+     * The amount of entries that trigger a flush
+     */
+    private final static int BATCH_SIZE = 128;
+    /**
+     * The time between automatic flushes, in milliseconds
+     */
+    private final static long FLUSH_INTERVAL = 1000;
+
+    private final AtomicReferenceArray<String> entries = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private final AtomicLong tail = new AtomicLong(0);
+    private volatile long head = 0;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicBoolean requested = new AtomicBoolean(false);
+    private final ReentrantLock write_lock = new ReentrantLock();
+
+    private final LogFile file;
+
+    private volatile TimerWheel.Timeout flusher;
+
+    /**
+     * Initialize the log writer
+     *
+     * @param target the supplier of the current log file
+     * @param head the supplier of the log header, written
+     *             once on each new file
+     * @param type the supplier of the log calendar, used to
+     *             detect when the log file must be rolled over
+     */
+    public LogWriter(final Supplier<Path> target, final Supplier<String> head, final Supplier<LogCalendar> type) {
+        file = new LogFile(target, head, type);
+
+        for (int i = 0; i < CAPACITY; i++)
+            sequences.set(i, i);
+
+        writers.add(this);
+        if (hooked.compareAndSet(false, true))
+            Runtime.getRuntime().addShutdownHook(new Thread(LogWriter::flushAll, "KarmaAPI-LogFlush"));
+    }
+
+    /**
+     * Queue an entry to be written. If the buffer is
+     * full, this waits until the writer frees space
+     *
+     * @param entry the entry to write
+     */
+    public void append(final String entry) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & MASK);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entries.set(index, entry);
+                    sequences.set(index, position + 1);
+                    break;
+                }
+            } else if (difference < 0) {
+                //The buffer is full, write it
+                flush();
+                LockSupport.parkNanos(1000);
+            }
+        }
+
+        if (tail.get() - head >= BATCH_SIZE) {
+            if (requested.compareAndSet(false, true)) {
+                WorkerPool.getExecutor().execute(() -> {
+                    requested.set(false);
+                    tryFlush();
+                });
+            }
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Write all the queued entries
+     */
+    public void flush() {
+        write_lock.lock();
+        try {
+            drain();
+        } finally {
+            write_lock.unlock();
+        }
+    }
+
+    /**
+     * Discard the queued entries and empty
+     * the current log file
+     *
+     * @throws IOException if the file could not be truncated
+     */
+    public void clear() throws IOException {
+        write_lock.lock();
+        try {
+            while (poll() != null);
+
+            file.truncate();
+        } finally {
+            write_lock.unlock();
+        }
+    }
+
+    /**
+     * Write the queued entries and close the current
+     * file, so the next write resolves the file again
+     */
+    public void reset() {
+        write_lock.lock();
+        try {
+            drain();
+            file.close();
+        } finally {
+            write_lock.unlock();
+        }
+    }
+
+    /**
+     * Write the queued entries and close the file
+     */
+    public void close() {
+        TimerWheel.Timeout current = flusher;
+        if (current != null)
+            current.cancel();
+
+        write_lock.lock();
+        try {
+            drain();
+            file.close();
+        } finally {
+            write_lock.unlock();
+            writers.remove(this);
+        }
+    }
+
+    /**
+     * Flush all the writers
+     */
+    public static void flushAll() {
+        for (LogWriter writer : writers)
+            writer.flush();
+    }
+
+    /**
+     * Schedule a single flush of the queued entries,
+     * unless one is already scheduled. The flush is scheduled
+     * again by the next write after it runs, so an idle writer
+     * does not keep a timer alive
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true))
+            flusher = TimerWheel.schedule(this::timedFlush, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run the scheduled flush, and schedule it again
+     * if entries were left in the buffer
+     */
+    private void timedFlush() {
+        scheduled.set(false);
+        tryFlush();
+
+        if (head != tail.get())
+            schedule();
+    }
+
+    /**
+     * Write the queued entries, unless another
+     * thread is already writing them
+     */
+    private void tryFlush() {
+        if (write_lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                write_lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write the queued entries. Must be called
+     * while holding the write lock
+     */
+    private void drain() {
+        if (head == tail.get())
+            return;
+
+        StringBuilder batch = new StringBuilder();
+        String entry;
+        while ((entry = poll()) != null)
+            batch.append(entry);
+
+        try {
+            file.write(batch);
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Take the next entry out of the buffer. Must
+     * be called while holding the write lock
+     *
+     * @return the next entry or null if the buffer
+     * is empty
+     */
+    private String poll() {
+        long position = head;
+        int index = (int) (position & MASK);
+        if (sequences.get(index) != position + 1)
+            return null;
+
+        String entry = entries.get(index);
+        entries.set(index, null);
+        sequences.set(index, position + CAPACITY);
+        head = position + 1;
+
+        return entry;
+    }
+}
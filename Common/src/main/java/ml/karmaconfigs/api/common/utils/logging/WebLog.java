@@ -75,6 +75,7 @@ public final class WebLog {
 
                     if (util != null) {
                         KarmaLogger logger = source.logger();
+                        logger.flush();
                         try {
                             Method getLoggerFile = KarmaLogger.class.getDeclaredMethod("getLoggerFile", LogExtension.class);
                             getLoggerFile.setAccessible(true);
@@ -129,6 +130,7 @@ public final class WebLog {
 
                     if (util != null) {
                         KarmaLogger logger = source.logger();
+                        logger.flush();
                         try {
                             Method getLoggerFile = KarmaLogger.class.getDeclaredMethod("getLoggerFile", LogExtension.class);
                             getLoggerFile.setAccessible(true);
@@ -0,0 +1,175 @@
+package ml.karmaconfigs.api.common.utils.placeholder;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.utils.placeholder.util.Placeholder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Karma placeholder that remembers the value of another
+ * placeholder for each container during a time, so expensive
+ * placeholders are not requested on every message
+ *
+ * @param <T> the placeholder type
+ */
+public class CachedPlaceholder<T> extends Placeholder<T> {
+
+    private final Placeholder<T> placeholder;
+    private final Function<Object, Object> identity;
+    private final long ttl;
+
+    /**
+     * A map that contains container id => cached value
+     */
+    private final Map<Object, Entry<T>> values = new ConcurrentHashMap<>();
+
+    /**
+     * The time of the next expired values cleanup
+     */
+    private volatile long next_purge;
+
+    /**
+     * Initialize the cached placeholder
+     *
+     * @param original the placeholder to cache
+     * @param id the function to get the id of a container, values
+     *           are cached per id
+     * @param time the time to keep the values
+     * @param unit the time unit
+     */
+    public CachedPlaceholder(final Placeholder<T> original, final Function<Object, Object> id, final long time, final TimeUnit unit) {
+        placeholder = original;
+        identity = id;
+        ttl = unit.toNanos(time);
+        next_purge = System.nanoTime() + ttl;
+    }
+
+    /**
+     * Initialize the cached placeholder
+     *
+     * @param original the placeholder to cache
+     * @param time the time to keep the values
+     * @param unit the time unit
+     */
+    public CachedPlaceholder(final Placeholder<T> original, final long time, final TimeUnit unit) {
+        this(original, Function.identity(), time, unit);
+    }
+
+    /**
+     * Get the placeholder key
+     *
+     * @return the placeholder key
+     */
+    @Override
+    public String getKey() {
+        return placeholder.getKey();
+    }
+
+    /**
+     * Get the placeholder value
+     *
+     * @param container the placeholder container
+     * @return the placeholder value
+     */
+    @Override
+    public T getValue(final @Nullable Object container) {
+        Object id = (container != null ? identity.apply(container) : null);
+        if (id == null)
+            return placeholder.getValue(container);
+
+        long now = System.nanoTime();
+        Entry<T> entry = values.get(id);
+        if (entry != null && now - entry.expires < 0)
+            return entry.value;
+
+        T value = placeholder.getValue(container);
+        values.put(id, new Entry<>(value, now + ttl));
+
+        if (now - next_purge >= 0) {
+            next_purge = now + ttl;
+            values.values().removeIf((stored) -> now - stored.expires >= 0);
+        }
+
+        return value;
+    }
+
+    /**
+     * Get the placeholder type
+     *
+     * @return the placeholder type
+     */
+    @Override
+    public Class<?> getType() {
+        return placeholder.getType();
+    }
+
+    /**
+     * Remove the cached value of a container
+     *
+     * @param container the placeholder container
+     */
+    public void invalidate(final Object container) {
+        if (container != null) {
+            Object id = identity.apply(container);
+            if (id != null)
+                values.remove(id);
+        }
+    }
+
+    /**
+     * Remove all the cached values
+     */
+    public void invalidateAll() {
+        values.clear();
+    }
+
+    /**
+     * A cached placeholder value
+     *
+     * @param <T> the value type
+     */
+    private final static class Entry<T> {
+
+        private final T value;
+        private final long expires;
+
+        /**
+         * Initialize the cached value
+         *
+         * @param v the value
+         * @param time the value expiration time
+         */
+        Entry(final T v, final long time) {
+            value = v;
+            expires = time;
+        }
+    }
+}
@@ -30,13 +30,10 @@ import ml.karmaconfigs.api.common.karma.KarmaAPI;
 import ml.karmaconfigs.api.common.karma.KarmaSource;
 import ml.karmaconfigs.api.common.utils.placeholder.util.Placeholder;
 import ml.karmaconfigs.api.common.utils.placeholder.util.PlaceholderEngine;
-import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Global KarmaAPI placeholder engine
@@ -49,7 +46,30 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
 
     private final static Set<KarmaSource> protect = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
+    /**
+     * A map that contains source => placeholder key => placeholder
+     * values, rebuilt every time the source placeholders change
+     */
+    private final static Map<KarmaSource, Map<String, Placeholder<?>>> sourceIndex = new ConcurrentHashMap<>();
+
+    /**
+     * The max amount of compiled messages to keep
+     */
+    private final static int MAX_TEMPLATES = 1024;
+
+    /**
+     * A map that contains message => compiled message, in
+     * least recently used order
+     */
+    private final static Map<TemplateKey, Template> templates = new LinkedHashMap<TemplateKey, Template>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<TemplateKey, Template> eldest) {
+            return size() > MAX_TEMPLATES;
+        }
+    };
+
     private final KarmaSource source;
+    private final KarmaSource[] chain;
 
     /**
      * Initialize the global placeholder engine
@@ -58,17 +78,26 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
      */
     public GlobalPlaceholderEngine(final KarmaSource owner) {
         source = owner;
-
-        Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-        SimplePlaceholder<String> java = new SimplePlaceholder<>("karma java", KarmaAPI.getCompilerVersion());
-        SimplePlaceholder<String> version = new SimplePlaceholder<>("karma version", KarmaAPI.getVersion());
-        SimplePlaceholder<String> build = new SimplePlaceholder<>("karma build", KarmaAPI.getBuildDate());
-
-        registered.add(java);
-        registered.add(version);
-        registered.add(build);
-
-        sourcePlaceholders.put(source, registered);
+        chain = new KarmaSource[]{owner};
+
+        //The default placeholders are only registered the first time an engine is created for the source
+        if (!sourcePlaceholders.containsKey(source)) {
+            synchronized (sourcePlaceholders) {
+                if (!sourcePlaceholders.containsKey(source)) {
+                    Set<Placeholder<?>> registered = Collections.newSetFromMap(new ConcurrentHashMap<>());
+                    SimplePlaceholder<String> java = new SimplePlaceholder<>("karma java", KarmaAPI.getCompilerVersion());
+                    SimplePlaceholder<String> version = new SimplePlaceholder<>("karma version", KarmaAPI.getVersion());
+                    SimplePlaceholder<String> build = new SimplePlaceholder<>("karma build", KarmaAPI.getBuildDate());
+
+                    registered.add(java);
+                    registered.add(version);
+                    registered.add(build);
+
+                    index(registered);
+                    sourcePlaceholders.put(source, registered);
+                }
+            }
+        }
     }
 
     /**
@@ -128,6 +157,7 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
         }
 
         sourcePlaceholders.put(source, registered);
+        index(registered);
     }
 
     /**
@@ -144,6 +174,7 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
             registered.addAll(Arrays.asList(placeholders));
 
             sourcePlaceholders.put(source, registered);
+            index(registered);
         }
     }
 
@@ -167,6 +198,7 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
             });
 
             sourcePlaceholders.put(source, registered);
+            index(registered);
         }
     }
 
@@ -184,6 +216,7 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
             registered.removeAll(unregister);
 
             sourcePlaceholders.put(source, registered);
+            index(registered);
         }
     }
 
@@ -196,16 +229,12 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     @Override
     @Unstable(reason = "Return method may differ from stored method")
     public @Nullable @SuppressWarnings("unchecked") <T> Placeholder<T> getPlaceholder(final String key) {
-        Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+        Map<String, Placeholder<?>> index = sourceIndex.getOrDefault(source, Collections.emptyMap());
 
         Placeholder<T> result = null;
-        for (Placeholder<?> placeholder : registered) {
-            if (placeholder.getKey().equals(key)) {
-                try {
-                    result = (Placeholder<T>) placeholder;
-                } catch (Throwable ignored) {}
-            }
-        }
+        try {
+            result = (Placeholder<T>) index.get(key);
+        } catch (Throwable ignored) {}
 
         return result;
     }
@@ -219,61 +248,7 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
      */
     @Override
     public String parse(final String message, final Object... containers) {
-        //Always escape the open character
-        String startChar = StringUtils.escapeString(String.valueOf(open.getOrDefault(source, '%')));
-        String closeChar = String.valueOf(close.getOrDefault(source, '%'));
-
-        //KarmaAPI will use the custom start and open characters ( {} ) with the custom source characters
-        Pattern pattern = Pattern.compile("(" + startChar + ".[^" + closeChar + "]*" + closeChar + ")|(\\{.[^}]*})");
-        Map<String, String> replaces = new ConcurrentHashMap<>();
-
-        Matcher matcher = pattern.matcher(message);
-        while (matcher.find()) {
-            int start = matcher.start();
-            int end = matcher.end();
-
-            String name = message.substring(start + 1, end - 1);
-            String key = message.substring(start, end);
-
-            replaces.put(name, key);
-        }
-        if (replaces.isEmpty() && matcher.matches()) {
-            int start = matcher.start();
-            int end = matcher.end();
-
-            String name = message.substring(start + 1, end - 1);
-            String key = message.substring(start, end);
-
-            replaces.put(name, key);
-        }
-
-        Set<Placeholder<?>> registered = sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
-
-        String finalMessage = message;
-        for (Placeholder<?> placeholder : registered) {
-            if (placeholder != null) {
-                String placeholderName = placeholder.getKey();
-                String placeholderKey = replaces.getOrDefault(placeholderName, null);
-
-                if (placeholderKey != null) {
-                    if (containers.length > 0) {
-                        for (Object container : containers) {
-                            if (container != null) {
-                                if (placeholder.getType().isAssignableFrom(container.getClass())) {
-                                    finalMessage = finalMessage.replace(placeholderKey, String.valueOf(placeholder.getValue(container)));
-                                }
-                            }
-                        }
-                    } else {
-                        try {
-                            finalMessage = finalMessage.replace(placeholderKey, String.valueOf(placeholder.getValue(null)));
-                        } catch (Throwable ignored) {}
-                    }
-                }
-            }
-        }
-
-        return finalMessage;
+        return render(chain, message, containers);
     }
 
     /**
@@ -305,6 +280,125 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
         return parse(Arrays.asList(message), containers).toArray(new String[0]);
     }
 
+    /**
+     * Parse a message with the placeholders of several sources.
+     * A placeholder is resolved by the first source that has a
+     * value for it. When all the sources use the same identifiers
+     * the message is parsed in a single pass, otherwise it's
+     * parsed by each source in order
+     *
+     * @param sources the placeholder sources
+     * @param message the message
+     * @param containers the placeholder containers
+     * @return the parsed message
+     */
+    static String render(final KarmaSource[] sources, final String message, final Object... containers) {
+        if (message == null || sources.length == 0)
+            return message;
+
+        char o = open.getOrDefault(sources[0], '%');
+        char c = close.getOrDefault(sources[0], '%');
+        for (int i = 1; i < sources.length; i++) {
+            if (open.getOrDefault(sources[i], '%') != o || close.getOrDefault(sources[i], '%') != c) {
+                String result = message;
+                for (KarmaSource src : sources)
+                    result = render(new KarmaSource[]{src}, result, containers);
+
+                return result;
+            }
+        }
+
+        Template template = template(message, o, c);
+        if (template.names.length == 0)
+            return message;
+
+        //Placeholder values may parse other messages, so each render needs its own builder
+        StringBuilder result = new StringBuilder(message.length() + (template.names.length << 4));
+        for (int i = 0; i < template.names.length; i++) {
+            result.append(template.literals[i]);
+
+            String value = null;
+            for (KarmaSource src : sources) {
+                Placeholder<?> placeholder = sourceIndex.getOrDefault(src, Collections.emptyMap()).get(template.names[i]);
+                if (placeholder != null) {
+                    value = value(placeholder, containers);
+                    if (value != null)
+                        break;
+                }
+            }
+            result.append(value != null ? value : template.keys[i]);
+        }
+        result.append(template.literals[template.names.length]);
+
+        return result.toString();
+    }
+
+    /**
+     * Update the placeholder key index of the source
+     *
+     * @param registered the source placeholders
+     */
+    private void index(final Set<Placeholder<?>> registered) {
+        Map<String, Placeholder<?>> index = new HashMap<>();
+        for (Placeholder<?> placeholder : registered) {
+            if (placeholder != null)
+                index.putIfAbsent(placeholder.getKey(), placeholder);
+        }
+
+        sourceIndex.put(source, index);
+    }
+
+    /**
+     * Get the value of a placeholder
+     *
+     * @param placeholder the placeholder
+     * @param containers the placeholder containers
+     * @return the placeholder value, or null if the
+     * placeholder does not apply to any container
+     */
+    private static String value(final Placeholder<?> placeholder, final Object... containers) {
+        if (containers.length > 0) {
+            for (Object container : containers) {
+                if (container != null && placeholder.getType().isAssignableFrom(container.getClass()))
+                    return String.valueOf(placeholder.getValue(container));
+            }
+
+            return null;
+        }
+
+        try {
+            return String.valueOf(placeholder.getValue(null));
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the compiled message
+     *
+     * @param message the message
+     * @param open the placeholder open identifier
+     * @param close the placeholder close identifier
+     * @return the compiled message
+     */
+    private static Template template(final String message, final char open, final char close) {
+        TemplateKey key = new TemplateKey(message, open, close);
+
+        Template template;
+        synchronized (templates) {
+            template = templates.get(key);
+        }
+
+        if (template == null) {
+            template = new Template(message, open, close);
+            synchronized (templates) {
+                templates.put(key, template);
+            }
+        }
+
+        return template;
+    }
+
     /**
      * Get all the placeholders registered to this engine
      *
@@ -314,4 +408,126 @@ public final class GlobalPlaceholderEngine extends PlaceholderEngine {
     public Set<Placeholder<?>> getKeys() {
         return sourcePlaceholders.getOrDefault(source, Collections.newSetFromMap(new ConcurrentHashMap<>()));
     }
+
+    /**
+     * A message compiled into its literal parts and its
+     * placeholders, so it can be rendered in a single pass.
+     * Placeholders are written as the open identifier followed
+     * by the name and the close identifier, or as {name}
+     */
+    private final static class Template {
+
+        private final String[] literals;
+        private final String[] names;
+        private final String[] keys;
+
+        /**
+         * Compile a message
+         *
+         * @param message the message
+         * @param open the placeholder open identifier
+         * @param close the placeholder close identifier
+         */
+        Template(final String message, final char open, final char close) {
+            List<String> literal = new ArrayList<>();
+            List<String> name = new ArrayList<>();
+            List<String> key = new ArrayList<>();
+
+            int last = 0;
+            int index = 0;
+            while (index < message.length()) {
+                int end = end(message, index, open, close);
+                if (end == -1)
+                    end = end(message, index, '{', '}');
+
+                if (end == -1) {
+                    index++;
+                    continue;
+                }
+
+                literal.add(message.substring(last, index));
+                name.add(message.substring(index + 1, end));
+                key.add(message.substring(index, end + 1));
+
+                last = end + 1;
+                index = end + 1;
+            }
+            literal.add(message.substring(last));
+
+            literals = literal.toArray(new String[0]);
+            names = name.toArray(new String[0]);
+            keys = key.toArray(new String[0]);
+        }
+
+        /**
+         * Get the end of the placeholder starting at the
+         * specified index
+         *
+         * @param message the message
+         * @param index the placeholder start
+         * @param open the placeholder open identifier
+         * @param close the placeholder close identifier
+         * @return the index of the placeholder close identifier,
+         * or -1 if there is no placeholder at the index
+         */
+        private static int end(final String message, final int index, final char open, final char close) {
+            if (message.charAt(index) != open || index + 1 >= message.length())
+                return -1;
+
+            //The placeholder name must have at least one character, which cannot be a line break
+            char first = message.charAt(index + 1);
+            if (first == '\n' || first == '\r' || first == '\u0085' || first == '\u2028' || first == '\u2029')
+                return -1;
+
+            return message.indexOf(close, index + 2);
+        }
+    }
+
+    /**
+     * The key of a compiled message
+     */
+    private final static class TemplateKey {
+
+        private final String message;
+        private final char open;
+        private final char close;
+
+        /**
+         * Initialize the key
+         *
+         * @param message the message
+         * @param open the placeholder open identifier
+         * @param close the placeholder close identifier
+         */
+        TemplateKey(final String message, final char open, final char close) {
+            this.message = message;
+            this.open = open;
+            this.close = close;
+        }
+
+        /**
+         * Get if the key is the same as other
+         *
+         * @param other the other key
+         * @return if the keys are the same
+         */
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof TemplateKey))
+                return false;
+
+            TemplateKey key = (TemplateKey) other;
+            return open == key.open && close == key.close && message.equals(key.message);
+        }
+
+        /**
+         * Get the key hash code
+         *
+         * @return the key hash code
+         */
+        @Override
+        public int hashCode() {
+            return (message.hashCode() * 31 + open) * 31 + close;
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package ml.karmaconfigs.api.common.utils.placeholder;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.karma.KarmaSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the placeholders of several sources at once. A
+ * placeholder is resolved by the first source that has a value
+ * for it, as if the message was parsed by the global placeholder
+ * engine of each source in order, but in a single pass
+ */
+public final class PlaceholderChain {
+
+    /**
+     * A map that contains sources => chain
+     */
+    private final static Map<List<KarmaSource>, PlaceholderChain> chains = new ConcurrentHashMap<>();
+
+    private final KarmaSource[] sources;
+
+    /**
+     * Initialize the placeholder chain
+     *
+     * @param owners the placeholder sources, in resolution order
+     */
+    private PlaceholderChain(final KarmaSource[] owners) {
+        sources = owners;
+
+        //Make sure every source has its default placeholders
+        for (KarmaSource source : sources)
+            new GlobalPlaceholderEngine(source);
+    }
+
+    /**
+     * Get the chain of the specified sources. Null and
+     * repeated sources are ignored
+     *
+     * @param sources the placeholder sources, in resolution order
+     * @return the placeholder chain
+     */
+    public static PlaceholderChain of(final KarmaSource... sources) {
+        Set<KarmaSource> unique = new LinkedHashSet<>();
+        for (KarmaSource source : sources) {
+            if (source != null)
+                unique.add(source);
+        }
+
+        List<KarmaSource> key = new ArrayList<>(unique);
+        return chains.computeIfAbsent(key, (list) -> new PlaceholderChain(list.toArray(new KarmaSource[0])));
+    }
+
+    /**
+     * Parse a message
+     *
+     * @param message the message
+     * @param containers the placeholder containers
+     * @return the parsed message
+     */
+    public String parse(final String message, final Object... containers) {
+        return GlobalPlaceholderEngine.render(sources, message, containers);
+    }
+
+    /**
+     * Parse a message
+     *
+     * @param message the message
+     * @param containers the placeholder containers
+     * @return the parsed message
+     */
+    public List<String> parse(final List<String> message, final Object... containers) {
+        List<String> parsed = new ArrayList<>();
+        for (String str : message) {
+            parsed.add(parse(str, containers));
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Parse a message
+     *
+     * @param message the message
+     * @param containers the placeholder containers
+     * @return the parsed message
+     */
+    public String[] parse(final String[] message, final Object... containers) {
+        return parse(Arrays.asList(message), containers).toArray(new String[0]);
+    }
+}
@@ -124,7 +124,7 @@ public final class TokenStorage {
      */
     public UUID store(final String token, final String password, final Instant expiration) {
         UUID tokenID = UUID.nameUUIDFromBytes(Base64.getUrlDecoder().decode(token));
-        KarmaMain tokenFile = new KarmaMain(this.source, tokenID.toString().replace("-", ""), "cache", "tokens");
+        KarmaMain tokenFile = new KarmaMain(this.source, tokenID.toString().replace("-", ""), "cache", "tokens").autoSave(source);
 
         PBECryptoAPI api = new PBECryptoAPI(password, Base64.getUrlDecoder().decode(token));
         byte[] salt = api.generateSALT();
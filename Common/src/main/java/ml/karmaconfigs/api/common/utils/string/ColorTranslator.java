@@ -0,0 +1,394 @@
+package ml.karmaconfigs.api.common.utils.string;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import ml.karmaconfigs.api.common.JavaVM;
+import ml.karmaconfigs.api.common.utils.OperativeSys;
+
+/**
+ * Translates the color codes of a text in a single pass. Color
+ * codes ({@literal &} or section followed by a character) and, optionally,
+ * #rrggbb and rgb(r,g,b) colors are written through a {@link Target},
+ * so the same text can be translated to chat, console or plain text
+ */
+public final class ColorTranslator {
+
+    /**
+     * The section color character
+     */
+    private final static char SECTION = '§';
+
+    /**
+     * Non windows console color code replacements, by
+     * color character
+     */
+    private final static String[] NON_WINDOWS_REPLACEMENT = new String[128];
+
+    /**
+     * Windows console color code replacements, by
+     * color character
+     */
+    private final static String[] WINDOWS_REPLACEMENT = new String[128];
+
+    /**
+     * The translation buffer of each thread
+     */
+    private final static ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(StringBuilder::new);
+
+    /**
+     * The max capacity of a buffer to be reused
+     */
+    private final static int MAX_BUFFER = 8192;
+
+    static {
+        ansi('0', "\033[0;38;2;0;0;0m", "\u001B[30m");
+        ansi('1', "\033[0;38;2;0;0;128m", "\u001B[94m");
+        ansi('2', "\033[0;38;2;0;128;0m", "\u001B[92m");
+        ansi('3', "\033[0;38;2;0;128;128m", "\u001B[96m");
+        ansi('4', "\033[0;38;2;128;0;0m", "\u001B[91m");
+        ansi('5', "\033[0;38;2;128;0;128m", "\u001B[95m");
+        ansi('6', "\033[0;38;2;128;128;0m", "\u001B[93m");
+        ansi('7', "\033[0;38;2;192;192;192m", "\u001B[90m");
+        ansi('8', "\033[0;38;2;128;128;128m", "\u001B[97m");
+        ansi('9', "\033[0;38;2;0;95;255m", "\u001B[34m");
+        ansi('a', "\033[0;38;2;0;255;0m", "\u001B[32m");
+        ansi('b', "\033[0;38;2;0;255;255m", "\u001B[36m");
+        ansi('c', "\033[0;38;2;255;0;0m", "\u001B[31m");
+        ansi('d', "\033[0;38;2;255;0;255m", "\u001B[35m");
+        ansi('e', "\033[0;38;2;255;255;0m", "\u001B[33m");
+        ansi('f', "\033[0;38;2;255;255;255m", "\u001B[37m");
+        ansi('r', "\033[0m", "\u001B[0m");
+        ansi('l', "\033[1m", "\u001B[1m");
+        ansi('n', "\033[4m", "\u001B[4m");
+        ansi('o', "\033[3m", "\u001B[3m");
+        ansi('m', "\033[9m", "\u001B[9m");
+    }
+
+    /**
+     * Translates color codes to section color codes, and
+     * colors to the #rrggbb section format
+     */
+    public final static Target LEGACY = new Target() {
+        @Override
+        public boolean code(final StringBuilder out, final char code) {
+            if (code == '&')
+                return false;
+
+            out.append(SECTION).append(code);
+            return true;
+        }
+
+        @Override
+        public void identifier(final StringBuilder out, final char identifier) {
+            out.append(SECTION);
+        }
+
+        @Override
+        public void color(final StringBuilder out, final int red, final int green, final int blue) {
+            out.append(SECTION).append('x');
+            hex(out, red);
+            hex(out, green);
+            hex(out, blue);
+        }
+
+        /**
+         * Write a color component as section hex digits
+         *
+         * @param out the translated text
+         * @param value the color component
+         */
+        private void hex(final StringBuilder out, final int value) {
+            out.append(SECTION).append(Character.forDigit(value >> 4, 16));
+            out.append(SECTION).append(Character.forDigit(value & 0xF, 16));
+        }
+    };
+
+    /**
+     * Translates color codes and colors to the console
+     * colors of the current OS
+     */
+    public final static Target ANSI = new Target() {
+
+        private final String[] replacements = (JavaVM.getSystem() == OperativeSys.WINDOWS ? WINDOWS_REPLACEMENT : NON_WINDOWS_REPLACEMENT);
+
+        @Override
+        public boolean code(final StringBuilder out, final char code) {
+            String replacement = (code < 128 ? replacements[code] : null);
+            if (replacement == null)
+                return false;
+
+            out.append(replacement);
+            return true;
+        }
+
+        @Override
+        public void color(final StringBuilder out, final int red, final int green, final int blue) {
+            out.append("\033[0;38;2;").append(red).append(';').append(green).append(';').append(blue).append('m');
+        }
+
+        @Override
+        public void identifier(final StringBuilder out, final char identifier) {
+            out.append('&');
+        }
+    };
+
+    /**
+     * Removes the color codes and colors
+     */
+    public final static Target STRIPPED = new Target() {
+        @Override
+        public boolean code(final StringBuilder out, final char code) {
+            return true;
+        }
+
+        @Override
+        public void color(final StringBuilder out, final int red, final int green, final int blue) {}
+    };
+
+    /**
+     * Initialize the color translator
+     */
+    private ColorTranslator() {}
+
+    /**
+     * Translate the color codes of a text
+     *
+     * @param text the text to translate
+     * @param target the translation target
+     * @return the translated text
+     */
+    public static String translate(final CharSequence text, final Target target) {
+        return translate(text, target, false, false);
+    }
+
+    /**
+     * Translate the color codes and colors of a text
+     *
+     * @param text the text to translate
+     * @param target the translation target
+     * @param simple translate rgb(r,g,b) colors
+     * @param hex translate #rrggbb colors
+     * @return the translated text
+     */
+    public static String translate(final CharSequence text, final Target target, final boolean simple, final boolean hex) {
+        int length = text.length();
+        int start = 0;
+        while (start < length && !special(text.charAt(start), simple, hex))
+            start++;
+        if (start == length)
+            return text.toString();
+
+        StringBuilder out = buffer.get();
+        out.setLength(0);
+        out.append(text, 0, start);
+
+        int i = start;
+        while (i < length) {
+            char current = text.charAt(i);
+
+            if (current == '&' || current == SECTION) {
+                char next = (i + 1 < length ? text.charAt(i + 1) : Character.MIN_VALUE);
+                if (next != Character.MIN_VALUE && !Character.isSpaceChar(next)) {
+                    if (target.code(out, next)) {
+                        i += 2;
+                        continue;
+                    }
+
+                    target.identifier(out, current);
+                    i++;
+                    continue;
+                }
+            } else if (current == '#' && hex) {
+                int color = hex(text, i + 1);
+                if (color != -1) {
+                    target.color(out, (color >> 16) & 0xFF, (color >> 8) & 0xFF, color & 0xFF);
+                    i += 7;
+                    continue;
+                }
+            } else if ((current == 'r' || current == 'R') && simple) {
+                int end = simple(text, i, out, target);
+                if (end != -1) {
+                    i = end;
+                    continue;
+                }
+            }
+
+            out.append(current);
+            i++;
+        }
+
+        String result = out.toString();
+        if (out.capacity() > MAX_BUFFER) {
+            out.setLength(0);
+            out.trimToSize();
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the console color code replacement of a color
+     * character
+     *
+     * @param code the color character
+     * @param windows get the windows replacement
+     * @return the color code replacement, or null if the
+     * color character has no replacement
+     */
+    static String ansi(final char code, final boolean windows) {
+        if (code >= 128)
+            return null;
+
+        return (windows ? WINDOWS_REPLACEMENT[code] : NON_WINDOWS_REPLACEMENT[code]);
+    }
+
+    /**
+     * Register a console color code replacement
+     *
+     * @param code the color character
+     * @param other the non windows replacement
+     * @param windows the windows replacement
+     */
+    private static void ansi(final char code, final String other, final String windows) {
+        NON_WINDOWS_REPLACEMENT[code] = other;
+        WINDOWS_REPLACEMENT[code] = windows;
+    }
+
+    /**
+     * Get if a character may start a translation
+     *
+     * @param character the character
+     * @param simple translate rgb(r,g,b) colors
+     * @param hex translate #rrggbb colors
+     * @return if the character may start a translation
+     */
+    private static boolean special(final char character, final boolean simple, final boolean hex) {
+        return character == '&' || character == SECTION ||
+                (hex && character == '#') ||
+                (simple && (character == 'r' || character == 'R'));
+    }
+
+    /**
+     * Read a rrggbb color
+     *
+     * @param text the text
+     * @param start the color start
+     * @return the color, or -1 if there's no color
+     */
+    private static int hex(final CharSequence text, final int start) {
+        if (start + 6 > text.length())
+            return -1;
+
+        int color = 0;
+        for (int i = start; i < start + 6; i++) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit == -1)
+                return -1;
+
+            color = (color << 4) | digit;
+        }
+
+        return color;
+    }
+
+    /**
+     * Read and translate a rgb(r,g,b) color
+     *
+     * @param text the text
+     * @param start the color start
+     * @param out the translated text
+     * @param target the translation target
+     * @return the color end, or -1 if there's no color
+     */
+    private static int simple(final CharSequence text, final int start, final StringBuilder out, final Target target) {
+        int length = text.length();
+        if (start + 4 > length ||
+                Character.toLowerCase(text.charAt(start + 1)) != 'g' ||
+                Character.toLowerCase(text.charAt(start + 2)) != 'b' ||
+                text.charAt(start + 3) != '(')
+            return -1;
+
+        int[] rgb = new int[3];
+        int i = start + 4;
+        for (int component = 0; component < 3; component++) {
+            int value = 0;
+            int digits = 0;
+            while (i < length && digits < 4 && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                value = value * 10 + (text.charAt(i) - '0');
+                digits++;
+                i++;
+            }
+
+            char separator = (component == 2 ? ')' : ',');
+            if (digits == 0 || digits > 3 || value > 255 || i >= length || text.charAt(i) != separator)
+                return -1;
+
+            rgb[component] = value;
+            i++;
+        }
+
+        target.color(out, rgb[0], rgb[1], rgb[2]);
+        return i;
+    }
+
+    /**
+     * The output of a color translation
+     */
+    public interface Target {
+
+        /**
+         * Write a color code
+         *
+         * @param out the translated text
+         * @param code the color code character
+         * @return if the color code was written, if false
+         * the color identifier will be written with
+         * {@link #identifier(StringBuilder, char)}
+         */
+        boolean code(final StringBuilder out, final char code);
+
+        /**
+         * Write a color
+         *
+         * @param out the translated text
+         * @param red the color red
+         * @param green the color green
+         * @param blue the color blue
+         */
+        void color(final StringBuilder out, final int red, final int green, final int blue);
+
+        /**
+         * Write a color identifier that is followed by
+         * an unknown color code
+         *
+         * @param out the translated text
+         * @param identifier the color identifier
+         */
+        default void identifier(final StringBuilder out, final char identifier) {
+            out.append(identifier);
+        }
+    }
+}
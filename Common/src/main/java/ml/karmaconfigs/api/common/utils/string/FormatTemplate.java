@@ -0,0 +1,170 @@
+package ml.karmaconfigs.api.common.utils.string;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A text compiled into its literal parts and its {n}
+ * replaces, so it can be formatted in a single pass
+ */
+public final class FormatTemplate {
+
+    /**
+     * The max amount of compiled texts to keep
+     */
+    private final static int MAX_TEMPLATES = 4096;
+
+    /**
+     * The max length of a text to be kept compiled
+     */
+    private final static int MAX_LENGTH = 1024;
+
+    /**
+     * A map that contains text => compiled text
+     */
+    private final static Map<String, FormatTemplate> templates = new ConcurrentHashMap<>();
+
+    private final String[] literals;
+    private final int[] indexes;
+    private final int length;
+
+    /**
+     * Compile a text
+     *
+     * @param text the text
+     */
+    private FormatTemplate(final String text) {
+        List<String> literal = new ArrayList<>();
+        List<Integer> index = new ArrayList<>();
+
+        int last = 0;
+        int position = text.indexOf('{');
+        while (position != -1) {
+            int end = position + 1;
+            while (end < text.length() && end - position <= 9 && Character.isDigit(text.charAt(end)))
+                end++;
+
+            int digits = end - position - 1;
+            boolean valid = digits > 0 && end < text.length() && text.charAt(end) == '}' &&
+                    (digits == 1 || text.charAt(position + 1) != '0');
+
+            if (valid) {
+                literal.add(text.substring(last, position));
+                index.add(Integer.parseInt(text.substring(position + 1, end)));
+
+                last = end + 1;
+                position = text.indexOf('{', last);
+            } else {
+                position = text.indexOf('{', position + 1);
+            }
+        }
+        literal.add(text.substring(last));
+
+        literals = literal.toArray(new String[0]);
+        indexes = new int[index.size()];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = index.get(i);
+
+        int size = 0;
+        for (String part : literals)
+            size += part.length();
+        length = size;
+    }
+
+    /**
+     * Format a text, replacing each {n} with
+     * the n replace
+     *
+     * @param text the text to format
+     * @param replaces the text replaces
+     * @return the formatted text
+     */
+    public static String format(final CharSequence text, final Object... replaces) {
+        String str = String.valueOf(text);
+        if (replaces.length == 0 || str.indexOf('{') == -1)
+            return str;
+
+        String[] values = new String[replaces.length];
+        for (int i = 0; i < replaces.length; i++)
+            values[i] = String.valueOf(replaces[i]);
+
+        return of(str).format(str, values);
+    }
+
+    /**
+     * Get the compiled text
+     *
+     * @param text the text
+     * @return the compiled text
+     */
+    static FormatTemplate of(final String text) {
+        FormatTemplate template = templates.get(text);
+        if (template == null) {
+            template = new FormatTemplate(text);
+
+            if (text.length() <= MAX_LENGTH) {
+                //Texts are usually constants, so the cache is only cleared if something formats too many different texts
+                if (templates.size() >= MAX_TEMPLATES)
+                    templates.clear();
+
+                templates.put(text, template);
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * Format the text
+     *
+     * @param text the original text
+     * @param values the replace values
+     * @return the formatted text
+     */
+    String format(final String text, final String[] values) {
+        if (indexes.length == 0)
+            return text;
+
+        StringBuilder builder = new StringBuilder(length + values.length * 16);
+        for (int i = 0; i < indexes.length; i++) {
+            builder.append(literals[i]);
+
+            int index = indexes[i];
+            if (index < values.length) {
+                builder.append(values[index]);
+            } else {
+                builder.append('{').append(index).append('}');
+            }
+        }
+        builder.append(literals[indexes.length]);
+
+        return builder.toString();
+    }
+}
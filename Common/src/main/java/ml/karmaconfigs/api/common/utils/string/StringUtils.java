@@ -44,7 +44,6 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -72,98 +71,30 @@ public final class StringUtils {
      */
     private final static Map<Pattern, String> WINDOWS_REPLACEMENT = new ConcurrentHashMap<>();
 
+    /**
+     * Translates color codes to the legacy console colors
+     */
+    private final static ColorTranslator.Target CONSOLE_COLOR = new ColorTranslator.Target() {
+        @Override
+        public boolean code(final StringBuilder out, final char code) {
+            out.append(consoleColor(code));
+            return true;
+        }
+
+        @Override
+        public void color(final StringBuilder out, final int red, final int green, final int blue) {}
+    };
+
     static {
         for (Character character : COLOR_LETTERS) {
             Pattern pattern = Pattern.compile(String.valueOf(SINGLE_COLOR_IDENTIFIER) + character);
-            switch (character) {
-                case '0':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;0;0;0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[30m");
-                    break;
-                case '1':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;0;0;128m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[94m");
-                    break;
-                case '2':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;0;128;0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[92m");
-                    break;
-                case '3':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;0;128;128m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[96m");
-                    break;
-                case '4':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;128;0;0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[91m");
-                    break;
-                case '5':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;128;0;128m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[95m");
-                    break;
-                case '6':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;128;128;0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[93m");
-                    break;
-                case '7':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;192;192;192m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[90m");
-                    break;
-                case '8':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;128;128;128m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[97m");
-                    break;
-                case '9':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;0;95;255m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[34m");
-                    break;
-                case 'a':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;0;255;0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[32m");
-                    break;
-                case 'b':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;0;255;255m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[36m");
-                    break;
-                case 'c':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;255;0;0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[31m");
-                    break;
-                case 'd':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;255;0;255m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[35m");
-                    break;
-                case 'e':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;255;255;0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[33m");
-                    break;
-                case 'f':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0;38;2;255;255;255m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[37m");
-                    break;
-                case 'r':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[0m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[0m");
-                    break;
-                case 'l':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[1m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[1m");
-                    break;
-                case 'n':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[4m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[4m");
-                    break;
-                case 'o':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[3m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[3m");
-                    break;
-                case 'm':
-                    NON_WINDOWS_REPLACEMENT.put(pattern, "\033[9m");
-                    WINDOWS_REPLACEMENT.put(pattern, "\u001B[9m");
-                    break;
-                case 'k':
-                default:
-                    break;
-            }
+
+            String replacement = ColorTranslator.ansi(character, false);
+            if (replacement != null)
+                NON_WINDOWS_REPLACEMENT.put(pattern, replacement);
+            replacement = ColorTranslator.ansi(character, true);
+            if (replacement != null)
+                WINDOWS_REPLACEMENT.put(pattern, replacement);
         }
     }
 
@@ -444,20 +375,7 @@ public final class StringUtils {
      * @return the translated text
      */
     public static String toColor(final String text) {
-        String str = text;
-        HashSet<String> color_codes = new HashSet<>();
-        for (int i = 0; i < text.length(); i++) {
-            char curr = text.charAt(i);
-            char next = Character.MIN_VALUE;
-            if (i + 1 != text.length())
-                next = text.charAt(i + 1);
-            if (next != '\000' && !Character.isSpaceChar(next) &&
-                    curr == '&')
-                color_codes.add(String.valueOf(curr) + next);
-        }
-        for (String color_code : color_codes)
-            str = str.replace(color_code, color_code.replace('&', '\u00A7'));
-        return str;
+        return ColorTranslator.translate(text, ColorTranslator.LEGACY);
     }
 
     /**
@@ -471,75 +389,54 @@ public final class StringUtils {
      */
     @Deprecated
     public static String toConsoleColor(final CharSequence text) {
-        String str = String.valueOf(text);
-        HashSet<String> color_codes = new HashSet<>();
-        for (int i = 0; i < text.length(); i++) {
-            char curr = text.charAt(i);
-            char next = Character.MIN_VALUE;
-            if (i + 1 != text.length())
-                next = text.charAt(i + 1);
-            if (next != '\000' && !Character.isSpaceChar(next) && (
-                    curr == '&' || curr == '\u00A7'))
-                color_codes.add(String.valueOf(curr).replace("\u00A7", "&") + next);
-        }
-        for (String color_code : color_codes) {
-            String tmp_color = "\033[0m";
-            switch (color_code.toLowerCase()) {
-                case "&0":
-                    tmp_color = "\033[0;30m";
-                    break;
-                case "&1":
-                    tmp_color = "\033[0;34m";
-                    break;
-                case "&2":
-                    tmp_color = "\033[0;32m";
-                    break;
-                case "&3":
-                    tmp_color = "\033[0;36m";
-                    break;
-                case "&4":
-                    tmp_color = "\033[0;31m";
-                    break;
-                case "&5":
-                    tmp_color = "\033[0;35m";
-                    break;
-                case "&6":
-                    tmp_color = "\033[0;33m";
-                    break;
-                case "&7":
-                    tmp_color = "\033[0;37m";
-                    break;
-                case "&8":
-                    tmp_color = "\033[0;90m";
-                    break;
-                case "&9":
-                    tmp_color = "\033[0;94m";
-                    break;
-                case "&a":
-                    tmp_color = "\033[0;92m";
-                    break;
-                case "&b":
-                    tmp_color = "\033[0;96m";
-                    break;
-                case "&c":
-                    tmp_color = "\033[0;91m";
-                    break;
-                case "&d":
-                    tmp_color = "\033[0;95m";
-                    break;
-                case "&e":
-                    tmp_color = "\033[0;93m";
-                    break;
-                case "&f":
-                    tmp_color = "\033[0;97m";
-                    break;
-                case "&r":
-                    tmp_color = "\033[0m";
-                    break;
-            }
-            str = str.replace(color_code, tmp_color);
+        return ColorTranslator.translate(text, CONSOLE_COLOR);
+    }
+
+    /**
+     * Get the legacy console color of a color
+     * character
+     *
+     * @param code the color character
+     * @return the console color
+     */
+    private static String consoleColor(final char code) {
+        switch (Character.toLowerCase(code)) {
+            case '0':
+                return "\033[0;30m";
+            case '1':
+                return "\033[0;34m";
+            case '2':
+                return "\033[0;32m";
+            case '3':
+                return "\033[0;36m";
+            case '4':
+                return "\033[0;31m";
+            case '5':
+                return "\033[0;35m";
+            case '6':
+                return "\033[0;33m";
+            case '7':
+                return "\033[0;37m";
+            case '8':
+                return "\033[0;90m";
+            case '9':
+                return "\033[0;94m";
+            case 'a':
+                return "\033[0;92m";
+            case 'b':
+                return "\033[0;96m";
+            case 'c':
+                return "\033[0;91m";
+            case 'd':
+                return "\033[0;95m";
+            case 'e':
+                return "\033[0;93m";
+            case 'f':
+                return "\033[0;97m";
+            case 'r':
+            default:
+                return "\033[0m";
         }
-        return str;
     }
 
     /**
@@ -549,27 +446,7 @@ public final class StringUtils {
      * @return the colored text
      */
     public static String toAnyOsColor(final CharSequence text) {
-        String str = text.toString().replace("\u00a7", "&");
-
-        switch (JavaVM.getSystem()) {
-            case WINDOWS:
-                for (Pattern pattern : WINDOWS_REPLACEMENT.keySet()) {
-                    Matcher matcher = pattern.matcher(str);
-                    str = matcher.replaceAll(WINDOWS_REPLACEMENT.get(pattern));
-                }
-                break;
-            case MAC:
-            case LINUX:
-            case OTHER:
-            default:
-                for (Pattern pattern : NON_WINDOWS_REPLACEMENT.keySet()) {
-                    Matcher matcher = pattern.matcher(str);
-                    str = matcher.replaceAll(NON_WINDOWS_REPLACEMENT.get(pattern));
-                }
-                break;
-        }
-
-        return str;
+        return ColorTranslator.translate(text, ColorTranslator.ANSI);
     }
 
     /**
@@ -615,21 +492,9 @@ public final class StringUtils {
      */
     public static List<String> toColor(final List<String> texts) {
         List<String> newTexts = new ArrayList<>();
-        HashSet<String> color_codes = new HashSet<>();
-        for (String text : texts) {
-            for (int x = 0; x < text.length(); x++) {
-                char curr = text.charAt(x);
-                char next = Character.MIN_VALUE;
-                if (x + 1 != text.length())
-                    next = text.charAt(x + 1);
-                if (next != '\000' && !Character.isSpaceChar(next) &&
-                        curr == '&')
-                    color_codes.add(String.valueOf(curr) + next);
-            }
-            for (String color_code : color_codes)
-                text = text.replace(color_code, color_code.replace('&', '\u00A7'));
-            newTexts.add(text);
-        }
+        for (String text : texts)
+            newTexts.add(ColorTranslator.translate(text, ColorTranslator.LEGACY));
+
         return newTexts;
     }
 
@@ -793,20 +658,7 @@ public final class StringUtils {
      * @return the text without colors
      */
     public static String stripColor(final String text) {
-        String str = text;
-        HashSet<String> color_codes = new HashSet<>();
-        for (int i = 0; i < str.length(); i++) {
-            char curr = str.charAt(i);
-            char next = Character.MIN_VALUE;
-            if (i + 1 != str.length())
-                next = str.charAt(i + 1);
-            if (next != '\u0000' && !Character.isSpaceChar(next) && (
-                    curr == '&' || curr == '\u00A7'))
-                color_codes.add(String.valueOf(curr) + next);
-        }
-        for (String color_code : color_codes)
-            str = str.replace(color_code, "");
-        return str;
+        return ColorTranslator.translate(text, ColorTranslator.STRIPPED);
     }
 
     /**
@@ -817,21 +669,9 @@ public final class StringUtils {
      */
     public static List<String> stripColor(final List<String> texts) {
         List<String> newTexts = new ArrayList<>();
-        for (String text : texts) {
-            HashSet<String> color_codes = new HashSet<>();
-            for (int x = 0; x < text.length(); x++) {
-                char curr = text.charAt(x);
-                char next = Character.MIN_VALUE;
-                if (x + 1 != text.length())
-                    next = text.charAt(x + 1);
-                if (next != '\u0000' && !Character.isSpaceChar(next) && (
-                        curr == '&' || curr == '\u00A7'))
-                    color_codes.add(String.valueOf(curr) + next);
-            }
-            for (String color_code : color_codes)
-                text = text.replace(color_code, "");
-            newTexts.add(text);
-        }
+        for (String text : texts)
+            newTexts.add(ColorTranslator.translate(text, ColorTranslator.STRIPPED));
+
         return newTexts;
     }
 
@@ -881,8 +721,11 @@ public final class StringUtils {
      */
     public static String formatString(final CharSequence text, final Object... replaces) {
         String str = String.valueOf(text);
+        if (replaces.length == 0 || str.indexOf('{') == -1)
+            return str;
+
+        String[] values = new String[replaces.length];
         for (int i = 0; i < replaces.length; i++) {
-            String placeholder = "{" + i + "}";
             Object valObj = replaces[i];
             String val = "[unknown]";
             if (valObj != null) {
@@ -893,9 +736,10 @@ public final class StringUtils {
                 }
             }
 
-            str = str.replace(placeholder, val);
+            values[i] = val;
         }
-        return str;
+
+        return FormatTemplate.of(str).format(str, values);
     }
 
     /**
@@ -987,11 +831,7 @@ public final class StringUtils {
                 break;
         }
 
-        for (int i = 0; i < replaces.length; i++) {
-            String placeholder = "{" + i + "}";
-            String value = String.valueOf(replaces[i]);
-            tmpMessage = tmpMessage.replace(placeholder, value);
-        }
+        tmpMessage = FormatTemplate.format(tmpMessage, replaces);
 
         tmpMessage = StringUtils.stripColor(tmpMessage);
         return prefix + tmpMessage;
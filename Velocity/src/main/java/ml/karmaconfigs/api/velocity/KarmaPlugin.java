@@ -34,6 +34,7 @@ import ml.karmaconfigs.api.common.karma.APISource;
 import ml.karmaconfigs.api.common.karma.KarmaAPI;
 import ml.karmaconfigs.api.common.karma.KarmaSource;
 import ml.karmaconfigs.api.common.utils.KarmaLogger;
+import ml.karmaconfigs.api.common.utils.placeholder.CachedPlaceholder;
 import ml.karmaconfigs.api.common.utils.placeholder.GlobalPlaceholderEngine;
 import ml.karmaconfigs.api.common.utils.placeholder.util.Placeholder;
 import ml.karmaconfigs.api.common.utils.placeholder.util.PlaceholderEngine;
@@ -41,8 +42,10 @@ import ml.karmaconfigs.api.common.utils.string.StringUtils;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Karma plugin for BungeeCord, to make easier for plugin developers to implement
@@ -383,6 +386,43 @@ public abstract class KarmaPlugin implements KarmaSource {
         };
     }
 
+    /**
+     * Create a player placeholder whose value is kept
+     * for each player during the specified time, so the
+     * request is only performed when the value expires
+     *
+     * @param <T> the placeholder type
+     * @param key the placeholder key
+     * @param onRequest on placeholder request
+     * @param time the time to keep each player value
+     * @param unit the time unit
+     * @return the placeholder
+     */
+    public static <T> CachedPlaceholder<T> createAnyPlaceholder(final String key, final Function<Player, T> onRequest, final long time, final TimeUnit unit) {
+        Placeholder<T> placeholder = new Placeholder<T>() {
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public T getValue(@Nullable Object container) {
+                if (container instanceof Player) {
+                    return onRequest.apply((Player) container);
+                } else {
+                    return null;
+                }
+            }
+
+            @Override
+            public Class<?> getType() {
+                return Player.class;
+            }
+        };
+
+        return new CachedPlaceholder<>(placeholder, (container) -> (container instanceof Player ? ((Player) container).getUniqueId() : null), time, unit);
+    }
+
     /**
      * Register globally a player placeholder
      *
@@ -28,21 +28,29 @@ package ml.karmaconfigs.api.velocity.makeiteasy;
 import com.velocitypowered.api.proxy.Player;
 import ml.karmaconfigs.api.common.boss.*;
 import ml.karmaconfigs.api.common.karma.KarmaSource;
-import ml.karmaconfigs.api.common.timer.SchedulerUnit;
-import ml.karmaconfigs.api.common.timer.SourceScheduler;
-import ml.karmaconfigs.api.common.timer.scheduler.SimpleScheduler;
 import ml.karmaconfigs.api.common.utils.string.StringUtils;
-import net.kyori.adventure.bossbar.BossBar;
-import net.kyori.adventure.text.Component;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Karma boss bar message
  */
 public final class BossMessage extends BossProvider<Player> {
 
+    /**
+     * The max amount of bars that can be shown
+     * at the same time
+     */
+    private final static int MAX_BARS = 4;
+
+    /**
+     * The boss bars multiplexer, every bar update is
+     * sent from its task
+     */
+    private final static BossMultiplexer<Player> multiplexer = new BossMultiplexer<>(new BossRenderer());
+
     /**
      * Boss bar source
      */
@@ -59,23 +67,19 @@ public final class BossMessage extends BossProvider<Player> {
     private final double live_time;
 
     /**
-     * Boss bars amount
+     * The boss bars waiting to be shown
      */
-    private static int bars = 0;
+    private final static Queue<Pending> b_bars = new ConcurrentLinkedQueue<>();
 
     /**
-     * List of boss bars
+     * The boss bars being shown
      */
-    private static final List<BossMessage> b_bars = new ArrayList<>();
+    private final static Set<BossMessage> active = ConcurrentHashMap.newKeySet();
 
     /**
      * A map containing id => boss bar
      */
-    private static final Map<Integer, BossMessage> boss_bars = new LinkedHashMap<>();
-    /**
-     * A map containing id => bar util
-     */
-    private static final Map<Integer, BossBar> bar_objects = new LinkedHashMap<>();
+    private final static Map<Integer, BossMessage> boss_bars = new ConcurrentHashMap<>();
 
     /**
      * Boss bar shown players
@@ -100,10 +104,20 @@ public final class BossMessage extends BossProvider<Player> {
      */
     private double lived_time = 0.0;
 
+    /**
+     * The seconds the boss bar has been shown
+     */
+    private volatile int elapsed = 0;
+
+    /**
+     * The time of the next boss bar step
+     */
+    private long next_step = 0;
+
     /**
      * If the boss bar is cancelled
      */
-    private boolean cancelled = false;
+    private volatile boolean cancelled = false;
 
     /**
      * Last boss bar ID, used for new boss bar
@@ -117,9 +131,18 @@ public final class BossMessage extends BossProvider<Player> {
     private final int id;
 
     /**
-     * Boss bar timer
+     * The shown boss bar
+     */
+    private volatile BossMultiplexer.Channel<Player> channel = null;
+
+    /**
+     * The players the boss bar is shown to
      */
-    private SimpleScheduler bar_timer = null;
+    private Collection<Player> viewers = Collections.emptyList();
+
+    static {
+        multiplexer.onTick(BossMessage::tick);
+    }
 
     /**
      * Initialize the boss message
@@ -194,8 +217,6 @@ public final class BossMessage extends BossProvider<Player> {
             }
         }
 
-        bars++;
-
         if (cancelled) {
             cancelled = false;
         }
@@ -211,73 +232,97 @@ public final class BossMessage extends BossProvider<Player> {
             }
         }
 
-        BossBar bar = BossBar.bossBar(
-                Component.text().content(StringUtils.toColor(message)),
-                        1.0f,
-                        BossBar.Color.valueOf(color.name()),
-                        BossBar.Overlay.valueOf(type.name().replace("SEGMENTED", "NOTCHED").replace("SOLID", "PROGRESS")));
-        for (Player player : fixed)
-            player.showBossBar(bar);
-
-        bar_objects.put(id, bar);
-        bar_timer = new SourceScheduler(plugin, live_time, SchedulerUnit.SECOND, false).cancelUnloaded(false);
-
-        bar_timer.endAction(() -> {
-            for (Player player : fixed) {
-                player.hideBossBar(bar);
-                shown.remove(player.getUniqueId());
-            }
-            boss_bars.remove(id);
-            bar_objects.remove(id);
-
-            bars--;
-        }).cancelAction(time -> {
-            for (Player player : fixed) {
-                player.hideBossBar(bar);
-                shown.remove(player.getUniqueId());
-            }
-            boss_bars.remove(id);
-            bar_objects.remove(id);
-
-            bars--;
-        }).start();
-
-        SimpleScheduler hp_timer = new SourceScheduler(plugin, live_time - 1.0, SchedulerUnit.SECOND, false).cancelUnloaded(false);
-        hp_timer.changeAction(second -> {
-            if (!cancelled) {
-                try {
-                    bar.color(BossBar.Color.valueOf(color.name()));
-                    bar.overlay(BossBar.Overlay.valueOf(type.name().replace("SEGMENTED", "NOTCHED").replace("SOLID", "PROGRESS")));
-                    double life_value;
-
-                    switch (progress) {
-                        case UP:
-                            life_value = lived_time / live_time;
-                            if (life_value <= 1.0 && life_value >= 0.0) {
-                                bar.progress((float) life_value);
-                                lived_time++;
-                            } else {
-                                cancel();
-                            }
-                            break;
-                        case DOWN:
-                            life_value = second / live_time;
-                            if (life_value <= 1.0 && life_value >= 0.0) {
-                                bar.progress((float) life_value);
-                                lived_time--;
-                            } else {
-                                cancel();
-                            }
-                            break;
-                    }
-                } catch (Throwable ex) {
+        BossMultiplexer.Channel<Player> bar = multiplexer.create(StringUtils.toColor(message), color, type, 1.0f);
+        bar.addViewers(fixed);
+
+        viewers = fixed;
+        elapsed = 0;
+        next_step = System.currentTimeMillis() + 1000;
+        channel = bar;
+
+        active.add(this);
+    }
+
+    /**
+     * Advance the boss bar, once per second
+     *
+     * @param now the current time
+     */
+    private void step(final long now) {
+        if (cancelled) {
+            end();
+            return;
+        }
+        if (now < next_step)
+            return;
+        next_step += 1000;
+
+        BossMultiplexer.Channel<Player> bar = channel;
+        bar.setColor(color);
+        bar.setType(type);
+        double life_value;
+
+        switch (progress) {
+            case UP:
+                life_value = lived_time / live_time;
+                if (life_value <= 1.0 && life_value >= 0.0) {
+                    bar.setProgress((float) life_value);
+                    lived_time++;
+                } else {
                     cancel();
                 }
-            } else {
-                bar_timer.cancel();
-                hp_timer.cancel();
-            }
-        }).start();
+                break;
+            case DOWN:
+                life_value = lived_time / live_time;
+                if (life_value <= 1.0 && life_value >= 0.0) {
+                    bar.setProgress((float) life_value);
+                    lived_time--;
+                } else {
+                    cancel();
+                }
+                break;
+        }
+
+        if (++elapsed >= live_time)
+            end();
+    }
+
+    /**
+     * Hide the boss bar from its players
+     */
+    private void end() {
+        if (!active.remove(this))
+            return;
+
+        channel.destroy();
+        boss_bars.remove(id);
+
+        for (Player client : viewers) {
+            shown.remove(client.getUniqueId());
+        }
+    }
+
+    /**
+     * Advance the shown boss bars and show
+     * the scheduled ones when there's room
+     *
+     * @return if there are bars shown or
+     * waiting to be shown
+     */
+    private static boolean tick() {
+        long now = System.currentTimeMillis();
+        for (BossMessage boss : active)
+            boss.step(now);
+
+        while (active.size() < MAX_BARS) {
+            Pending pending = b_bars.poll();
+            if (pending == null)
+                break;
+
+            pending.boss.displayBar(pending.players);
+        }
+
+        return !active.isEmpty() || !b_bars.isEmpty();
     }
 
     /**
@@ -287,17 +332,9 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public void scheduleBar(final Collection<Player> players) {
-        b_bars.add(this);
         boss_bars.put(id, this);
-
-        SimpleScheduler timer = new SourceScheduler(plugin, 1, SchedulerUnit.SECOND, false).cancelUnloaded(false).multiThreading(true);
-        timer.changeAction(milli -> {
-            if (!b_bars.isEmpty() && getBarsAmount() < 4) {
-                BossMessage boss = b_bars.get(0);
-                boss.displayBar(players);
-                b_bars.remove(boss);
-            }
-        }).start();
+        b_bars.add(new Pending(this, new ArrayList<>(players)));
+        multiplexer.start();
     }
 
     /**
@@ -307,17 +344,9 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public void scheduleBar(final Player player) {
-        b_bars.add(this);
         boss_bars.put(id, this);
-
-        SimpleScheduler timer = new SourceScheduler(plugin, 1, SchedulerUnit.SECOND, false).cancelUnloaded(false).multiThreading(true);
-        timer.changeAction(milli -> {
-            if (!b_bars.isEmpty() && getBarsAmount() < 4) {
-                BossMessage boss = b_bars.get(0);
-                boss.displayBar(Collections.singleton(player));
-                b_bars.remove(boss);
-            }
-        }).start();
+        b_bars.add(new Pending(this, Collections.singleton(player)));
+        multiplexer.start();
     }
 
     /**
@@ -327,7 +356,7 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public int getBarsAmount() {
-        return bars;
+        return active.size();
     }
 
     /**
@@ -349,17 +378,18 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public boolean update(final String _message, final boolean restart) {
-        try {
-            message = _message;
-            BossBar bar = bar_objects.get(id);
-            bar.name(Component.text().content(StringUtils.toColor(message)).build());
-            if (bar_timer != null && restart) {
-                bar_timer.restart();
-            }
-            return true;
-        } catch (Throwable ex) {
+        message = _message;
+
+        BossMultiplexer.Channel<Player> bar = channel;
+        if (bar == null || bar.isDestroyed())
             return false;
+
+        bar.setTitle(StringUtils.toColor(message));
+        if (restart) {
+            elapsed = 0;
         }
+
+        return true;
     }
 
     /**
@@ -381,7 +411,7 @@ public final class BossMessage extends BossProvider<Player> {
      */
     @Override
     public boolean isValid() {
-        return bar_objects.containsKey(id);
+        return active.contains(this);
     }
 
     /**
@@ -424,6 +454,26 @@ public final class BossMessage extends BossProvider<Player> {
         return type;
     }
 
+    /**
+     * A boss bar waiting to be shown
+     */
+    private final static class Pending {
+
+        private final BossMessage boss;
+        private final Collection<Player> players;
+
+        /**
+         * Initialize the scheduled boss bar
+         *
+         * @param b the boss bar
+         * @param p the players to display to
+         */
+        Pending(final BossMessage b, final Collection<Player> p) {
+            boss = b;
+            players = p;
+        }
+    }
+
     /**
      * Boss bar getters
      */
@@ -440,7 +490,7 @@ public final class BossMessage extends BossProvider<Player> {
         static BossProvider<Player> getByID(final int id) throws BossNotFoundException {
             try {
                 if (boss_bars.containsKey(id)) {
-                    final BossMessage boss = boss_bars.getOrDefault(id, null);
+                    BossMessage boss = boss_bars.getOrDefault(id, null);
                     if (boss != null) {
                         return boss;
                     }
@@ -451,5 +501,14 @@ public final class BossMessage extends BossProvider<Player> {
                 throw new BossNotFoundException(id, boss_bars.keySet());
             }
         }
+
+        /**
+         * Get the boss bar packets sent per second
+         *
+         * @return the boss bar packets per second
+         */
+        static double getPacketsPerSecond() {
+            return multiplexer.getPacketsPerSecond();
+        }
     }
 }
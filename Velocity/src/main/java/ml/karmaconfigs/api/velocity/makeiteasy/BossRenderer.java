@@ -0,0 +1,185 @@
+package ml.karmaconfigs.api.velocity.makeiteasy;
+
+/*
+ * This file is part of KarmaAPI, licensed under the MIT License.
+ *
+ *  Copyright (c) karma (KarmaDev) <karmaconfigs@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+import com.velocitypowered.api.proxy.Player;
+import ml.karmaconfigs.api.common.boss.BossColor;
+import ml.karmaconfigs.api.common.boss.BossMultiplexer;
+import ml.karmaconfigs.api.common.boss.BossType;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the multiplexed boss bars with a single adventure
+ * boss bar per bar, which sends its changes to every player
+ * it's shown to
+ */
+final class BossRenderer implements BossMultiplexer.Renderer<Player> {
+
+    /**
+     * A map containing bar id => adventure boss bar
+     */
+    private final Map<UUID, BossBar> bars = new ConcurrentHashMap<>();
+
+    /**
+     * Get the player id
+     *
+     * @param player the player
+     * @return the player id
+     */
+    @Override
+    public UUID id(final Player player) {
+        return player.getUniqueId();
+    }
+
+    /**
+     * Get if the player is still connected
+     *
+     * @param player the player
+     * @return if the player is connected
+     */
+    @Override
+    public boolean online(final Player player) {
+        return player.isActive();
+    }
+
+    /**
+     * Show the boss bar to the player
+     *
+     * @param channel the boss bar
+     * @param player the player
+     * @return the amount of packets sent
+     */
+    @Override
+    public int show(final BossMultiplexer.Channel<Player> channel, final Player player) {
+        player.showBossBar(bar(channel));
+        return 1;
+    }
+
+    /**
+     * Hide the boss bar from the player
+     *
+     * @param channel the boss bar
+     * @param player the player
+     * @return the amount of packets sent
+     */
+    @Override
+    public int hide(final BossMultiplexer.Channel<Player> channel, final Player player) {
+        player.hideBossBar(bar(channel));
+        return 1;
+    }
+
+    /**
+     * Send the boss bar changes to the players. The
+     * adventure boss bar sends each change to every
+     * player it's shown to
+     *
+     * @param channel the boss bar
+     * @param players the boss bar players
+     * @param changes the boss bar changes
+     * @return the amount of packets sent
+     */
+    @Override
+    public int update(final BossMultiplexer.Channel<Player> channel, final Collection<Player> players, final int changes) {
+        BossBar bar = bar(channel);
+        int packets = 0;
+
+        if ((changes & BossMultiplexer.TITLE) != 0) {
+            bar.name(title(channel.getTitle()));
+            packets++;
+        }
+        if ((changes & BossMultiplexer.PROGRESS) != 0) {
+            bar.progress(channel.getProgress());
+            packets++;
+        }
+        if ((changes & BossMultiplexer.STYLE) != 0) {
+            bar.color(color(channel.getColor()));
+            bar.overlay(overlay(channel.getType()));
+            packets += 2;
+        }
+
+        return packets * players.size();
+    }
+
+    /**
+     * Release the adventure boss bar
+     *
+     * @param channel the boss bar
+     */
+    @Override
+    public void release(final BossMultiplexer.Channel<Player> channel) {
+        bars.remove(channel.getId());
+    }
+
+    /**
+     * Get the adventure boss bar of a bar
+     *
+     * @param channel the boss bar
+     * @return the adventure boss bar
+     */
+    private BossBar bar(final BossMultiplexer.Channel<Player> channel) {
+        return bars.computeIfAbsent(channel.getId(), (id) -> BossBar.bossBar(
+                title(channel.getTitle()),
+                channel.getProgress(),
+                color(channel.getColor()),
+                overlay(channel.getType())));
+    }
+
+    /**
+     * Get the adventure boss bar title
+     *
+     * @param title the colored title
+     * @return the adventure title
+     */
+    private static Component title(final String title) {
+        return Component.text().content(title != null ? title : "").build();
+    }
+
+    /**
+     * Get the adventure boss bar color
+     *
+     * @param color the boss bar color
+     * @return the adventure color
+     */
+    private static BossBar.Color color(final BossColor color) {
+        return BossBar.Color.valueOf(color.name());
+    }
+
+    /**
+     * Get the adventure boss bar overlay
+     *
+     * @param type the boss bar style
+     * @return the adventure overlay
+     */
+    private static BossBar.Overlay overlay(final BossType type) {
+        return BossBar.Overlay.valueOf(type.name().replace("SEGMENTED", "NOTCHED").replace("SOLID", "PROGRESS"));
+    }
+}